@@ -13,6 +13,7 @@ awslocal sqs create-queue --queue-name event-stat-queue
 awslocal sqs create-queue --queue-name ticket-purchased-event-queue
 awslocal sqs create-queue --queue-name payment-processing-event-queue
 awslocal sqs create-queue --queue-name payment-completed-event-queue
+awslocal sqs create-queue --queue-name refund-due-queue
 awslocal sqs create-queue --queue-name event-invitation-queue
 
 # Create S3 Bucket
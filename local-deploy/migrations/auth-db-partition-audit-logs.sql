@@ -0,0 +1,96 @@
+-- Rebuilds audit_logs_jsonb as a table partitioned by month of created_at, with the email, status,
+-- ip_address and logged_at columns generated from the JSON and the indexes admin searches use.
+-- The generated columns are only defined here; auth-service maps them read-only. Run this once before
+-- deploying the auth-service version that maps them, otherwise ddl-auto=update adds them to the old
+-- table as plain, empty columns (running this afterwards still replaces that table with the right one):
+--   psql -U auth_user -d authdb -f auth-db-partition-audit-logs.sql
+-- auth-service can keep running: the logs are copied in batches that each commit on their own, and
+-- audit writes only wait for the final step, which copies what was written during the copy and swaps
+-- the tables. Running it again once the table is partitioned does nothing.
+-- The old table is kept as audit_logs_jsonb_unpartitioned; drop it once the counts match:
+--   DROP TABLE audit_logs_jsonb_unpartitioned;
+-- auth-service creates the partitions of the coming months and drops expired ones every night.
+
+DO $$
+DECLARE
+    batch_size CONSTANT BIGINT := 10000;
+    months_ahead CONSTANT INTEGER := 2;
+    copy_started TIMESTAMPTZ := now();
+    copied_up_to BIGINT;
+    max_id BIGINT;
+    oldest TIMESTAMPTZ;
+    month DATE;
+BEGIN
+    IF (SELECT relkind FROM pg_class WHERE oid = to_regclass('audit_logs_jsonb')) = 'p' THEN
+        RAISE NOTICE 'audit_logs_jsonb is already partitioned';
+        RETURN;
+    END IF;
+
+    -- created_at is part of the primary key, as partitioning requires
+    CREATE TABLE IF NOT EXISTS audit_logs_jsonb_partitioned (
+        id bigint NOT NULL,
+        audit_log_data_json jsonb,
+        created_at timestamp(6) with time zone NOT NULL,
+        updated_at timestamp(6) with time zone,
+        email text GENERATED ALWAYS AS (audit_log_data_json ->> 'email') STORED,
+        status text GENERATED ALWAYS AS (audit_log_data_json ->> 'auditStatus') STORED,
+        ip_address text GENERATED ALWAYS AS (audit_log_data_json ->> 'ipAddress') STORED,
+        logged_at timestamp(6) with time zone GENERATED ALWAYS AS
+            (to_timestamp((audit_log_data_json ->> 'timestamp')::double precision)) STORED,
+        PRIMARY KEY (id, created_at)
+    ) PARTITION BY RANGE (created_at);
+
+    SELECT min(created_at) INTO oldest FROM audit_logs_jsonb;
+    month := date_trunc('month', coalesce(oldest, now()) AT TIME ZONE 'UTC')::date;
+    WHILE month <= (date_trunc('month', now() AT TIME ZONE 'UTC') + make_interval(months => months_ahead))::date LOOP
+        EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF audit_logs_jsonb_partitioned FOR VALUES FROM (%L) TO (%L)',
+                       'audit_logs_jsonb_' || to_char(month, '"y"YYYY"m"MM'),
+                       month::timestamp AT TIME ZONE 'UTC',
+                       (month + interval '1 month')::timestamp AT TIME ZONE 'UTC');
+        month := month + interval '1 month';
+    END LOOP;
+    CREATE TABLE IF NOT EXISTS audit_logs_jsonb_default PARTITION OF audit_logs_jsonb_partitioned DEFAULT;
+    COMMIT;
+
+    -- Copy what is there now in id ranges, one transaction each, so writes to the old table carry on
+    SELECT coalesce(max(id), 0) INTO max_id FROM audit_logs_jsonb;
+    SELECT coalesce(max(id), 0) INTO copied_up_to FROM audit_logs_jsonb_partitioned;
+    WHILE copied_up_to < max_id LOOP
+        INSERT INTO audit_logs_jsonb_partitioned (id, audit_log_data_json, created_at, updated_at)
+        SELECT id, audit_log_data_json, created_at, updated_at
+        FROM audit_logs_jsonb
+        WHERE id > copied_up_to AND id <= copied_up_to + batch_size
+        ON CONFLICT DO NOTHING;
+        copied_up_to := copied_up_to + batch_size;
+        COMMIT;
+    END LOOP;
+    RAISE NOTICE 'Copied audit logs up to id %', max_id;
+
+    -- Built once the rows are in; indexes on the partitioned table cover every partition, later ones included.
+    -- The old table's created_at index keeps its name free for the new one.
+    ALTER INDEX IF EXISTS idx_audit_logs_jsonb_created_at_id RENAME TO idx_audit_logs_jsonb_unpartitioned_created_at_id;
+    CREATE INDEX IF NOT EXISTS idx_audit_logs_jsonb_created_at_id ON audit_logs_jsonb_partitioned (created_at, id);
+    CREATE INDEX IF NOT EXISTS idx_audit_logs_jsonb_status_created_at ON audit_logs_jsonb_partitioned (status, created_at);
+    CREATE EXTENSION IF NOT EXISTS pg_trgm;
+    CREATE INDEX IF NOT EXISTS idx_audit_logs_jsonb_email_trgm ON audit_logs_jsonb_partitioned USING gin (lower(email) gin_trgm_ops);
+    COMMIT;
+
+    -- Writes wait from here until the swap commits; reads carry on
+    LOCK TABLE audit_logs_jsonb IN EXCLUSIVE MODE;
+    INSERT INTO audit_logs_jsonb_partitioned (id, audit_log_data_json, created_at, updated_at)
+    SELECT id, audit_log_data_json, created_at, updated_at
+    FROM audit_logs_jsonb
+    WHERE id > max_id
+    ON CONFLICT DO NOTHING;
+    -- Ids come from pooled blocks, so an instance can write an id below max_id after its range was copied
+    INSERT INTO audit_logs_jsonb_partitioned (id, audit_log_data_json, created_at, updated_at)
+    SELECT id, audit_log_data_json, created_at, updated_at
+    FROM audit_logs_jsonb
+    WHERE created_at >= copy_started - interval '10 minutes' AND id <= max_id
+    ON CONFLICT DO NOTHING;
+
+    ALTER TABLE audit_logs_jsonb RENAME TO audit_logs_jsonb_unpartitioned;
+    ALTER TABLE audit_logs_jsonb_partitioned RENAME TO audit_logs_jsonb;
+    COMMIT;
+    RAISE NOTICE 'audit_logs_jsonb is partitioned; the old table is audit_logs_jsonb_unpartitioned';
+END $$;
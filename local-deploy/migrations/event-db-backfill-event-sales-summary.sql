@@ -0,0 +1,29 @@
+-- Fills event_sales_summary for events created before it existed.
+-- Run after event-service with this change has started once (so the table exists):
+--   psql -U event_user -d eventdb -f event-db-backfill-event-sales-summary.sql
+-- Events that already have a row are left alone, so the script can be re-run safely.
+
+INSERT INTO event_sales_summary (event_id, organizer_id, tickets_sold, gross_revenue, attendees, check_ins, updated_at)
+SELECT e.id,
+       e.user_id,
+       COALESCE(t.tickets_sold, 0),
+       COALESCE(t.gross_revenue, 0),
+       COALESCE(r.attendees, 0),
+       COALESCE(t.check_ins, 0),
+       NOW()
+FROM events e
+LEFT JOIN (
+    SELECT t.event_id,
+           COUNT(*) AS tickets_sold,
+           SUM(tt.price) AS gross_revenue,
+           COUNT(*) FILTER (WHERE t.status = 'USED') AS check_ins
+    FROM ticket t
+    JOIN ticket_type tt ON tt.id = t.ticket_type_id
+    GROUP BY t.event_id
+) t ON t.event_id = e.id
+LEFT JOIN (
+    SELECT event_id, COUNT(*) AS attendees
+    FROM event_registration
+    GROUP BY event_id
+) r ON r.event_id = e.id
+ON CONFLICT (event_id) DO NOTHING;
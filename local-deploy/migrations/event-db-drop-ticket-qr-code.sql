@@ -0,0 +1,27 @@
+-- Tickets no longer store their QR code; the notification service renders it from the ticket code.
+-- Run after notification-service and event-service with this change are deployed:
+--   psql -U event_user -d eventdb -f event-db-drop-ticket-qr-code.sql
+
+-- Clear the base64 images in small batches so the ticket table is never locked for long
+DO $$
+DECLARE
+    cleared INTEGER;
+BEGIN
+    LOOP
+        UPDATE ticket
+        SET qr_code_url = NULL
+        WHERE id IN (
+            SELECT id FROM ticket
+            WHERE qr_code_url IS NOT NULL
+            LIMIT 5000
+        );
+        GET DIAGNOSTICS cleared = ROW_COUNT;
+        EXIT WHEN cleared = 0;
+        COMMIT;
+    END LOOP;
+END $$;
+
+-- Return the TOAST pages held by the old images to the table
+VACUUM (ANALYZE) ticket;
+
+ALTER TABLE ticket DROP COLUMN IF EXISTS qr_code_url;
@@ -0,0 +1,20 @@
+-- Adds search_vector to events, a tsvector PostgreSQL generates from the title, location and description,
+-- and the GIN indexes full-text and typo-tolerant explore search use.
+-- Adding the generated column rewrites events and holds an ACCESS EXCLUSIVE lock on it until done, so
+-- reads and writes of events wait meanwhile; run it in a quiet period:
+--   psql -U event_user -d eventdb -f event-db-search-index.sql
+-- The indexes are built concurrently afterwards and don't block writes. event-service looks for the column
+-- and indexes every few minutes and turns search on once they are all there, keeping to LIKE filters until
+-- then. Running it again does nothing; if an index build fails, drop the invalid index and run it again.
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+ALTER TABLE events ADD COLUMN IF NOT EXISTS search_vector tsvector GENERATED ALWAYS AS (
+    setweight(to_tsvector('simple', coalesce(title, '')), 'A')
+    || setweight(to_tsvector('simple', coalesce(location, '')), 'B')
+    || setweight(to_tsvector('simple', coalesce(description, '')), 'C')
+) STORED;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_events_search_vector ON events USING gin (search_vector);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_events_title_trgm ON events USING gin (lower(title) gin_trgm_ops);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_events_location_trgm ON events USING gin (lower(location) gin_trgm_ops);
@@ -0,0 +1,13 @@
+-- Lets transactions take the REFUND_PENDING and REFUNDED statuses payment-service sets when it refunds a
+-- payment whose tickets sold out. Hibernate created the status column with a check constraint listing the
+-- statuses that existed then, and doesn't update it, so run this before deploying that version:
+--   psql "$DATABASE_URL" -f payment-db-transaction-refund-statuses.sql
+-- Running it again does nothing new.
+
+BEGIN;
+
+ALTER TABLE transactions DROP CONSTRAINT IF EXISTS transactions_status_check;
+ALTER TABLE transactions ADD CONSTRAINT transactions_status_check
+    CHECK (status IN ('PENDING', 'SUCCESS', 'FAILED', 'REFUND_PENDING', 'REFUNDED'));
+
+COMMIT;
@@ -0,0 +1,54 @@
+-- Merges transactions that share a Paystack reference and adds the unique index webhooks rely on to
+-- find exactly one transaction per reference. Run once before deploying the payment-service version
+-- that maps uk_transactions_reference, so Hibernate finds the index instead of failing to create it:
+--   psql "$DATABASE_URL" -f payment-db-unique-transaction-reference.sql
+-- Of each set of duplicates the transaction a webhook already settled is kept (the latest one if several
+-- were), its payment request comes from the first duplicate that has one, and the other rows are deleted.
+-- The index is built CONCURRENTLY, so payment-service can keep running. If the build fails, for example
+-- because a duplicate was written meanwhile, drop the invalid index and run the script again:
+--   DROP INDEX CONCURRENTLY uk_transactions_reference;
+-- Running it again once the index exists does nothing.
+
+BEGIN;
+
+CREATE TEMPORARY TABLE transaction_duplicates ON COMMIT DROP AS
+SELECT id,
+       first_value(id) OVER (
+           PARTITION BY reference
+           ORDER BY (status <> 'PENDING') DESC, updated_at DESC, id DESC
+       ) AS kept_id
+FROM transactions
+WHERE reference IN (
+    SELECT reference
+    FROM transactions
+    GROUP BY reference
+    HAVING count(*) > 1
+);
+
+-- Keep one payment request for the kept transaction, taking a duplicate's if it has none of its own
+UPDATE payment_request_object pro
+SET transaction_id = d.kept_id
+FROM transaction_duplicates d
+WHERE pro.transaction_id = d.id
+  AND d.id <> d.kept_id
+  AND NOT EXISTS (SELECT 1 FROM payment_request_object kept WHERE kept.transaction_id = d.kept_id)
+  AND pro.id = (
+      SELECT min(other.id)
+      FROM payment_request_object other
+      JOIN transaction_duplicates od ON od.id = other.transaction_id
+      WHERE od.kept_id = d.kept_id
+  );
+
+DELETE FROM payment_request_object pro
+USING transaction_duplicates d
+WHERE pro.transaction_id = d.id
+  AND d.id <> d.kept_id;
+
+DELETE FROM transactions t
+USING transaction_duplicates d
+WHERE t.id = d.id
+  AND d.id <> d.kept_id;
+
+COMMIT;
+
+CREATE UNIQUE INDEX CONCURRENTLY IF NOT EXISTS uk_transactions_reference ON transactions (reference);
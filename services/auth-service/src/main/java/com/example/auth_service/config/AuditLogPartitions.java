@@ -0,0 +1,127 @@
+package com.example.auth_service.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Looks after the monthly partitions of {@code audit_logs_jsonb} on PostgreSQL. The table is partitioned by
+ * month of {@code created_at}, and indexed on the columns {@link com.example.auth_service.model.AuditLogJSONB}
+ * generates from the JSON, by {@code local-deploy/migrations/auth-db-partition-audit-logs.sql}, which runs
+ * offline before this version is deployed. A time range on {@code created_at} only reads the partitions it
+ * covers.
+ * <p>
+ * Every night the partitions for the next {@code monthsAhead} months are created and those older than
+ * {@code retentionMonths} dropped, which takes no longer for a month of logs than for an empty one. A
+ * default partition catches rows no monthly partition covers. Nothing is done while the table isn't
+ * partitioned, e.g. on other databases or before the migration has run.
+ */
+@Slf4j
+@Component
+public class AuditLogPartitions {
+    static final String TABLE = "audit_logs_jsonb";
+    private static final Pattern PARTITION_NAME = Pattern.compile(TABLE + "_y(\\d{4})m(\\d{2})");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSource dataSource;
+    private final int retentionMonths;
+    private final int monthsAhead;
+
+    public AuditLogPartitions(JdbcTemplate jdbcTemplate,
+                              @Value("${audit.partitions.retention-months:12}") int retentionMonths,
+                              @Value("${audit.partitions.months-ahead:2}") int monthsAhead) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSource = jdbcTemplate.getDataSource();
+        this.retentionMonths = retentionMonths;
+        this.monthsAhead = monthsAhead;
+    }
+
+    /**
+     * Whether {@code audit_logs_jsonb} is a partitioned table, i.e. the migration has run.
+     */
+    public boolean isAvailable() {
+        try {
+            return isPostgres() && isPartitioned();
+        } catch (DataAccessException e) {
+            return false;
+        }
+    }
+
+    @Scheduled(cron = "${audit.partitions.cron:0 30 2 * * *}", zone = "UTC")
+    public void maintainPartitions() {
+        if (!isAvailable()) {
+            log.info("{} is not partitioned, run local-deploy/migrations/auth-db-partition-audit-logs.sql to partition it", TABLE);
+            return;
+        }
+        try {
+            maintainPartitions(YearMonth.now(ZoneOffset.UTC));
+        } catch (DataAccessException e) {
+            log.warn("Could not maintain the audit log partitions: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Creates the partitions from {@code currentMonth} to {@code monthsAhead} months later and drops those
+     * of months before the retention period.
+     */
+    void maintainPartitions(YearMonth currentMonth) {
+        for (int i = 0; i <= monthsAhead; i++) {
+            try {
+                createPartition(currentMonth.plusMonths(i));
+            } catch (DataAccessException e) {
+                // e.g. the default partition already holds rows of that month
+                log.warn("Could not create the audit log partition for {}: {}", currentMonth.plusMonths(i), e.getMessage());
+            }
+        }
+
+        YearMonth oldestKept = currentMonth.minusMonths(retentionMonths);
+        for (String partition : partitions()) {
+            Matcher name = PARTITION_NAME.matcher(partition);
+            if (name.matches()
+                    && YearMonth.of(Integer.parseInt(name.group(1)), Integer.parseInt(name.group(2))).isBefore(oldestKept)) {
+                jdbcTemplate.execute("DROP TABLE IF EXISTS " + partition);
+                log.info("Dropped audit log partition {}", partition);
+            }
+        }
+    }
+
+    private void createPartition(YearMonth month) {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS %s_y%dm%02d PARTITION OF %s FOR VALUES FROM ('%s') TO ('%s')".formatted(
+                TABLE, month.getYear(), month.getMonthValue(), TABLE,
+                month.atDay(1).atStartOfDay(ZoneOffset.UTC).toInstant(),
+                month.plusMonths(1).atDay(1).atStartOfDay(ZoneOffset.UTC).toInstant()));
+    }
+
+    private boolean isPartitioned() {
+        return jdbcTemplate.queryForList("SELECT relkind = 'p' FROM pg_class WHERE oid = to_regclass(?)", Boolean.class, TABLE)
+                .contains(true);
+    }
+
+    private List<String> partitions() {
+        return jdbcTemplate.queryForList("""
+                SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid
+                WHERE i.inhparent = to_regclass(?)
+                """, String.class, TABLE);
+    }
+
+    private boolean isPostgres() {
+        try {
+            return "PostgreSQL".equals(JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName));
+        } catch (MetaDataAccessException e) {
+            return false;
+        }
+    }
+}
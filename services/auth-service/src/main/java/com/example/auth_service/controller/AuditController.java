@@ -4,15 +4,19 @@ import com.example.auth_service.dto.response.EnrichedAuditResponse;
 import com.example.auth_service.dto.response.PagedAuditResponse;
 import com.example.auth_service.enums.AuditStatus;
 import com.example.auth_service.service.AuditService;
+import com.example.common_libraries.dto.CursorPage;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.Instant;
+
 
 @RestController
 @RequiredArgsConstructor
@@ -27,12 +31,25 @@ public class AuditController {
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(required = false) String fullName,
             @RequestParam(required = false) AuditStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
             @RequestParam(defaultValue = "createdAt") String sortBy,
             @RequestParam(defaultValue = "DESC") String direction
     ) {
         return ResponseEntity.ok(auditService.getEnrichedAuditLogs(
-                page, size, fullName, status, sortBy, direction
+                page, size, fullName, status, from, to, sortBy, direction
         ));
     }
-}
 
+    @GetMapping("/scroll")
+    public ResponseEntity<CursorPage<EnrichedAuditResponse>> scrollAuditLogs(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String fullName,
+            @RequestParam(required = false) AuditStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to
+    ) {
+        return ResponseEntity.ok(auditService.scrollEnrichedAuditLogs(cursor, size, fullName, status, from, to));
+    }
+}
@@ -56,6 +56,18 @@ public class UserManagementController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/search/scroll")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<CustomApiResponse<CursorPage<UserManagementResponse>>> scrollUserSearch(
+            @RequestParam(required = false) String keyword,
+            @RequestParam(required = false) UserRole role,
+            @RequestParam(required = false) Boolean status,
+            @RequestParam(required = false) String cursor
+    ){
+        CustomApiResponse<CursorPage<UserManagementResponse>> response = CustomApiResponse.success(userService.scrollUserSearch(keyword,role,status, cursor));
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/admin-list")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<CustomApiResponse<Page<UserListResponse>>> getAdminUsers(
@@ -67,6 +79,17 @@ public class UserManagementController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/admin-list/scroll")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<CustomApiResponse<CursorPage<UserListResponse>>> scrollAdminUsers(
+            @RequestParam(required = false) String keyword,
+            @RequestParam(required = false) Boolean status,
+            @RequestParam(required = false) String cursor
+    ){
+        CustomApiResponse<CursorPage<UserListResponse>> response = CustomApiResponse.success(userService.scrollAdminUsers(keyword,status, cursor));
+        return ResponseEntity.ok(response);
+    }
+
 
     @GetMapping("/{userId}")
     @PreAuthorize("hasAnyRole('ADMIN','ORGANISER','CO_ORGANIZER')")
@@ -120,6 +143,12 @@ public class UserManagementController {
         return ResponseEntity.status(HttpStatus.OK).body(userService.getEventHosts(hostIds));
     }
 
+    @PostMapping("/lookup")
+    @PreAuthorize("hasAnyRole('ADMIN','ORGANISER','CO_ORGANIZER')")
+    public ResponseEntity<List<UserCreationResponse>> lookupUsers(@RequestBody UserLookupRequest request){
+        return ResponseEntity.status(HttpStatus.OK).body(userService.lookupUsers(request));
+    }
+
     @GetMapping("/exists")
     public ResponseEntity<UserCreationResponse> checkUserExists(@RequestParam String email) {
         UserCreationResponse user = userService.getUserByEmail(email);
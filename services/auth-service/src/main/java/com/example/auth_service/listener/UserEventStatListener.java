@@ -1,20 +1,43 @@
 package com.example.auth_service.listener;
 
 import com.example.auth_service.service.UserEventStatService;
+import com.example.common_libraries.utils.SqsBatches;
 import io.awspring.cloud.sqs.annotation.SqsListener;
+import io.awspring.cloud.sqs.listener.acknowledgement.BatchAcknowledgement;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.Message;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
 @Slf4j
 @RequiredArgsConstructor
 @Component
 public class UserEventStatListener {
     private final UserEventStatService userEventStatService;
 
-    @SqsListener("${sqs.event-stat-queue-url}")
-    public void listenEventCreated(Long organizerId) {
-        log.info("Updating event stats for organizer with id: {}", organizerId);
-        userEventStatService.updateUserEventStats(organizerId);
+    // Messages for the same organizer are applied with one update
+    @SqsListener(value = "${sqs.event-stat-queue-url}",
+            maxConcurrentMessages = "${sqs.listener.event-stat.max-concurrent-messages:50}",
+            acknowledgementMode = "MANUAL")
+    public void listenEventCreated(List<Message<Long>> messages, BatchAcknowledgement<Long> acknowledgement) {
+        Map<Long, List<Message<Long>>> messagesByOrganizer = messages.stream()
+                .collect(Collectors.groupingBy(Message::getPayload));
+
+        List<Message<Long>> handled = new ArrayList<>(messages.size());
+        messagesByOrganizer.forEach((organizerId, organizerMessages) -> {
+            try {
+                log.info("Updating event stats for organizer with id: {}", organizerId);
+                userEventStatService.updateUserEventStats(organizerId, organizerMessages.size());
+                handled.addAll(organizerMessages);
+            } catch (RuntimeException e) {
+                log.error("Failed to update event stats for organizer with id: {}", organizerId, e);
+            }
+        });
+        SqsBatches.acknowledge(handled, acknowledgement);
     }
 }
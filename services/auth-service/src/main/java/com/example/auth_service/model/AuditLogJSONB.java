@@ -2,6 +2,7 @@ package com.example.auth_service.model;
 
 
 import com.example.auth_service.dto.request.AuditLogData;
+import com.example.auth_service.enums.AuditStatus;
 import io.hypersistence.utils.hibernate.type.json.JsonBinaryType;
 import jakarta.persistence.*;
 import lombok.*;
@@ -20,6 +21,7 @@ import java.time.Instant;
 @Builder
 @NoArgsConstructor
 @Entity
+// Partitioned and indexed by local-deploy/migrations/auth-db-partition-audit-logs.sql, see AuditLogPartitions
 @Table(name = "audit_logs_jsonb")
 @AllArgsConstructor
 @EntityListeners(AuditingEntityListener.class)
@@ -34,6 +36,21 @@ public class AuditLogJSONB {
     @Column(columnDefinition = "jsonb")
     private AuditLogData auditLogDataJson;
 
+    // Generated by PostgreSQL from the JSON (see the migration), so searches filter on plain indexed columns.
+    // Read-only and not re-read after insert, which keeps the audit writer's inserts batched.
+    @Column(insertable = false, updatable = false)
+    private String email;
+
+    @Enumerated(EnumType.STRING)
+    @Column(insertable = false, updatable = false)
+    private AuditStatus status;
+
+    @Column(name = "ip_address", insertable = false, updatable = false)
+    private String ipAddress;
+
+    @Column(name = "logged_at", insertable = false, updatable = false)
+    private Instant loggedAt;
+
     @CreatedDate
     @Column(name = "created_at", nullable =false, updatable = false)
     private Instant createdAt;
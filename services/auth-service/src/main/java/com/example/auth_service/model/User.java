@@ -17,7 +17,8 @@ import com.example.common_libraries.interfaces.JwtUserDetails;
 
 @Entity
 @Table(name = "users",indexes = {
-        @Index(name = "idx_user_email", columnList = "email")
+        @Index(name = "idx_user_email", columnList = "email"),
+        @Index(name = "idx_user_full_name_id", columnList = "full_name, id")
 })
 @Getter
 @Setter
@@ -3,6 +3,7 @@ package com.example.auth_service.repository;
 import com.example.auth_service.dto.response.UserStatistics;
 import com.example.auth_service.enums.UserRole;
 import com.example.auth_service.model.User;
+import com.example.common_libraries.dto.UserCreationResponse;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -10,12 +11,14 @@ import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 
 public interface UserRepository extends JpaRepository<User, Long>, JpaSpecificationExecutor<User> {
     Optional<User> findByEmail(String email);
+    Optional<User> findByEmailIgnoreCase(String email);
     boolean existsByEmail(String email);
 
     @Query("""
@@ -32,4 +35,13 @@ public interface UserRepository extends JpaRepository<User, Long>, JpaSpecificat
 
     @Query("SELECT u FROM User u WHERE u.role = :role AND u.isActive = true")
     List<User> findByRoleAndIsActiveTrue(@Param("role") UserRole role);
+
+    // Columns only: loading the users would also load each one's stats, profile and payout accounts
+    @Query("""
+        SELECT new com.example.common_libraries.dto.UserCreationResponse(
+            u.id, u.fullName, CAST(u.role AS String), u.email, p.profileImageUrl)
+        FROM User u LEFT JOIN u.profile p
+        WHERE u.id IN :ids OR lower(u.email) IN :emails
+    """)
+    List<UserCreationResponse> lookupUsers(@Param("ids") Collection<Long> ids, @Param("emails") Collection<String> emails);
 }
@@ -0,0 +1,26 @@
+package com.example.auth_service.security;
+
+import com.example.auth_service.enums.UserRole;
+import com.example.auth_service.model.User;
+
+/**
+ * The fields of a {@link User} needed to authenticate a request. Cached instead of the entity, so the
+ * cache neither holds entity graphs nor hands the same mutable object to concurrent requests.
+ */
+record CachedPrincipal(Long id, String fullName, String email, String password, UserRole role, boolean active) {
+
+    static CachedPrincipal of(User user) {
+        return new CachedPrincipal(user.getId(), user.getFullName(), user.getEmail(), user.getPassword(), user.getRole(), user.isActive());
+    }
+
+    User toUser() {
+        return User.builder()
+                .id(id)
+                .fullName(fullName)
+                .email(email)
+                .password(password)
+                .role(role)
+                .isActive(active)
+                .build();
+    }
+}
@@ -1,6 +1,5 @@
 package com.example.auth_service.security;
 
-import com.example.auth_service.model.User;
 import com.example.auth_service.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -13,12 +12,11 @@ import org.springframework.stereotype.Service;
 public class CustomUserDetailsService implements UserDetailsService {
 
     private final UserRepository userRepository;
+    private final PrincipalCache principalCache;
 
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
-
-        return new AuthUser(user);
+        return principalCache.get(email, key -> userRepository.findByEmail(key)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + key)));
     }
 }
@@ -0,0 +1,77 @@
+package com.example.auth_service.security;
+
+import com.example.auth_service.model.User;
+import com.example.common_libraries.cache.TwoLevelCacheManager;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Keeps recently authenticated users by email, so authenticated requests don't read the user table.
+ * Anything that changes a user's email, role, status or password must {@link #invalidate(String)} them.
+ * When Redis is configured the eviction is published through the {@link TwoLevelCacheManager} to every other
+ * instance; the TTL only bounds how long an instance keeps a stale entry if that message is lost.
+ * Hits, misses and evictions are published as the {@code cache.*} metrics of the "principals" cache.
+ */
+@Component
+public class PrincipalCache {
+    private static final String CACHE_NAME = "principals";
+
+    private final Cache<String, CachedPrincipal> cache;
+    private final Consumer<String> publishEviction;
+
+    public PrincipalCache(@Value("${auth.principal-cache.maximum-size:10000}") long maximumSize,
+                          @Value("${auth.principal-cache.ttl-seconds:60}") long ttlSeconds,
+                          MeterRegistry meterRegistry,
+                          ObjectProvider<TwoLevelCacheManager> cacheManager) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        TwoLevelCacheManager manager = cacheManager.getIfAvailable();
+        this.publishEviction = manager == null ? email -> { } : manager.registerLocalCache(CACHE_NAME, this::evictLocal);
+    }
+
+    /**
+     * Returns the cached user, loading it on a miss. Every call gets its own {@link User} copy.
+     */
+    public AuthUser get(String email, Function<String, User> loader) {
+        CachedPrincipal principal = cache.get(email, key -> CachedPrincipal.of(loader.apply(key)));
+        return new AuthUser(principal.toUser());
+    }
+
+    public void invalidate(String email) {
+        cache.invalidate(email);
+        publishEviction.accept(email);
+        // a request on any instance may reload the old row before the change commits, so drop it again afterwards
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.invalidate(email);
+                    publishEviction.accept(email);
+                }
+            });
+        }
+    }
+
+    private void evictLocal(String email) {
+        if (email == null) {
+            cache.invalidateAll();
+        } else {
+            cache.invalidate(email);
+        }
+    }
+}
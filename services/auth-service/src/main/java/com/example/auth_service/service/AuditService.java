@@ -4,8 +4,11 @@ import com.example.auth_service.dto.request.AuditLogRequest;
 import com.example.auth_service.dto.response.EnrichedAuditResponse;
 import com.example.auth_service.dto.response.PagedAuditResponse;
 import com.example.auth_service.enums.AuditStatus;
+import com.example.common_libraries.dto.CursorPage;
 import org.springframework.data.domain.Pageable;
 
+import java.time.Instant;
+
 public interface AuditService {
     void save(AuditLogRequest auditLogRequest);
     PagedAuditResponse<EnrichedAuditResponse> getEnrichedAuditLogs(
@@ -13,8 +16,18 @@ public interface AuditService {
             Integer size,
             String fullName,
             AuditStatus status,
+            Instant from,
+            Instant to,
             String sortBy,
             String direction
             );
+    CursorPage<EnrichedAuditResponse> scrollEnrichedAuditLogs(
+            String cursor,
+            Integer size,
+            String fullName,
+            AuditStatus status,
+            Instant from,
+            Instant to
+    );
 
 }
@@ -1,5 +1,5 @@
 package com.example.auth_service.service;
 
 public interface UserEventStatService {
-    void updateUserEventStats(Long userId);
+    void updateUserEventStats(Long userId, int eventsAttended);
 }
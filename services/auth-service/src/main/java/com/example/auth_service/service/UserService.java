@@ -18,11 +18,14 @@ public interface UserService {
     UserSummaryReport getUserSummaryReport();
     void updateUserStatus(Long userId);
     Page<UserManagementResponse> userSearch(String keyword,UserRole role, Boolean status, int page);
+    CursorPage<UserManagementResponse> scrollUserSearch(String keyword, UserRole role, Boolean status, String cursor);
     Page<UserListResponse> getAdminUsers(String keyword, Boolean status, int page);
+    CursorPage<UserListResponse> scrollAdminUsers(String keyword, Boolean status, String cursor);
     UserResponse getUserById(Long userId);
     UserResponse updateUser(Long userId, UserUpdateRequest request, MultipartFile profilePicture);
     List<TopOrganizerResponse> getTopOrganizers();
     List<UserInfoResponse> getActiveAdmins();
     UserCreationResponse getUserByEmail(String email);
     List<HostsResponse> getEventHosts(List<Long> hostIds);
+    List<UserCreationResponse> lookupUsers(UserLookupRequest request);
 }
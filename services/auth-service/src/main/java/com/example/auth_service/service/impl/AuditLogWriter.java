@@ -0,0 +1,196 @@
+package com.example.auth_service.service.impl;
+
+import com.example.auth_service.dto.request.AuditLogData;
+import com.example.auth_service.model.AuditLogJSONB;
+import com.example.auth_service.repository.AuditLogJSONBRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes login audit logs in the background, so a login never waits on the audit table. {@link #append}
+ * only puts the entry in a bounded in-memory queue; one writer thread takes whatever has queued up, up to
+ * {@code batchSize} entries, and inserts it in a single transaction as one JDBC batch. The busier logins
+ * get, the larger the batches.
+ *
+ * <p>When the queue is full the overflow policy decides what is lost: {@code drop-oldest} (the default)
+ * makes room by discarding the oldest waiting entry, {@code drop-newest} discards the new one. Either way
+ * the login goes ahead and {@code audit.writer.dropped} counts the entry. On shutdown the writer stops
+ * accepting entries and writes what is still queued.
+ */
+@Slf4j
+@Component
+public class AuditLogWriter implements SmartLifecycle {
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(500);
+    private static final Duration SHUTDOWN_TIMEOUT = Duration.ofSeconds(10);
+
+    public enum OverflowPolicy { DROP_OLDEST, DROP_NEWEST }
+
+    private final AuditLogJSONBRepository auditLogJSONBRepository;
+    private final BlockingQueue<AuditLogData> queue;
+    private final OverflowPolicy overflowPolicy;
+    private final int batchSize;
+
+    private final Counter written;
+    private final Counter failed;
+    private final Counter droppedOverflow;
+    private final Counter droppedStopped;
+    private final DistributionSummary batchSizes;
+    private final Timer batchLatency;
+
+    private Thread writer;
+    private volatile boolean running;
+    private volatile boolean accepting = true;
+
+    public AuditLogWriter(AuditLogJSONBRepository auditLogJSONBRepository,
+                          MeterRegistry meterRegistry,
+                          @Value("${audit.writer.queue-capacity:10000}") int queueCapacity,
+                          @Value("${audit.writer.batch-size:200}") int batchSize,
+                          @Value("${audit.writer.overflow:drop-oldest}") String overflow) {
+        this.auditLogJSONBRepository = auditLogJSONBRepository;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.overflowPolicy = OverflowPolicy.valueOf(overflow.trim().toUpperCase().replace('-', '_'));
+
+        Gauge.builder("audit.writer.queue.depth", queue, BlockingQueue::size)
+                .description("Audit logs waiting to be written")
+                .register(meterRegistry);
+        this.written = Counter.builder("audit.writer.written")
+                .description("Audit logs written")
+                .register(meterRegistry);
+        this.failed = Counter.builder("audit.writer.failed")
+                .description("Audit logs lost because their batch could not be written")
+                .register(meterRegistry);
+        this.droppedOverflow = Counter.builder("audit.writer.dropped")
+                .description("Audit logs discarded without being written")
+                .tag("reason", "overflow")
+                .register(meterRegistry);
+        this.droppedStopped = Counter.builder("audit.writer.dropped")
+                .description("Audit logs discarded without being written")
+                .tag("reason", "stopped")
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("audit.writer.batch.size")
+                .description("Audit logs per insert batch")
+                .register(meterRegistry);
+        this.batchLatency = Timer.builder("audit.writer.batch.latency")
+                .description("Time to insert one batch of audit logs")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queues an audit log for writing. Never blocks: if the queue is full, an entry is dropped as the
+     * overflow policy says.
+     */
+    public void append(AuditLogData auditLogData) {
+        if (!accepting) {
+            droppedStopped.increment();
+            return;
+        }
+        if (queue.offer(auditLogData)) {
+            return;
+        }
+        if (overflowPolicy == OverflowPolicy.DROP_NEWEST) {
+            droppedOverflow.increment();
+            return;
+        }
+        while (!queue.offer(auditLogData)) {
+            if (queue.poll() != null) {
+                droppedOverflow.increment();
+            }
+        }
+    }
+
+    public int queueDepth() {
+        return queue.size();
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        writer = new Thread(this::writeUntilStopped, "audit-log-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Stops accepting audit logs and writes the ones already queued.
+     */
+    @Override
+    public void stop() {
+        accepting = false;
+        running = false;
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.join(SHUTDOWN_TIMEOUT.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        writer.interrupt();
+        writer = null;
+        if (!queue.isEmpty()) {
+            log.warn("Audit log writer stopped with {} unwritten audit logs", queue.size());
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Stop after the web server, so logins finishing during shutdown are still written
+    @Override
+    public int getPhase() {
+        return DEFAULT_PHASE - 4096;
+    }
+
+    private void writeUntilStopped() {
+        List<AuditLogData> batch = new ArrayList<>(batchSize);
+        try {
+            while (running || !queue.isEmpty()) {
+                AuditLogData first = queue.poll(POLL_INTERVAL.toMillis(), TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                write(batch);
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void write(List<AuditLogData> batch) {
+        List<AuditLogJSONB> auditLogs = batch.stream()
+                .map(data -> AuditLogJSONB.builder().auditLogDataJson(data).build())
+                .toList();
+        long start = System.nanoTime();
+        try {
+            auditLogJSONBRepository.saveAll(auditLogs);
+            written.increment(batch.size());
+        } catch (RuntimeException e) {
+            // the writer must outlive a bad batch
+            failed.increment(batch.size());
+            log.error("Failed to write {} audit logs: {}", batch.size(), e.getMessage());
+        } finally {
+            batchLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            batchSizes.record(batch.size());
+        }
+    }
+}
@@ -10,15 +10,20 @@ import com.example.auth_service.model.AuditLogJSONB;
 import com.example.auth_service.repository.AuditLogJSONBRepository;
 import com.example.auth_service.service.AuditService;
 import com.example.auth_service.specifications.AuditLogSpecification;
+import com.example.common_libraries.dto.CursorPage;
+import com.example.common_libraries.utils.ScrollCursors;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -28,7 +33,11 @@ public class AuditServiceImpl implements AuditService {
 
     private final AuditLogJSONBRepository auditLogJSONBRepository;
     private final AuditMapper auditMapper;
+    private final AuditLogWriter auditLogWriter;
 
+    /**
+     * Hands the audit log to {@link AuditLogWriter}, which writes it in the background.
+     */
     @Override
     public void save(AuditLogRequest auditLogRequest) {
         AuditLogData auditLogData = new AuditLogData(
@@ -37,11 +46,7 @@ public class AuditServiceImpl implements AuditService {
                 auditLogRequest.timestamp(),
                 auditLogRequest.auditStatus()
         );
-        AuditLogJSONB auditLogJSONB = AuditLogJSONB
-                .builder()
-                .auditLogDataJson(auditLogData)
-                .build();
-        auditLogJSONBRepository.save(auditLogJSONB);
+        auditLogWriter.append(auditLogData);
     }
 
     @Override
@@ -51,6 +56,8 @@ public class AuditServiceImpl implements AuditService {
             Integer size,
             String fullName,
             AuditStatus status,
+            Instant from,
+            Instant to,
             String sortBy,
             String direction
     ) {
@@ -60,6 +67,7 @@ public class AuditServiceImpl implements AuditService {
         Specification<AuditLogJSONB> spec = Specification.unrestricted();
         spec = spec.and(AuditLogSpecification.hasFullName(fullName));
         spec = spec.and(AuditLogSpecification.hasStatus(status));
+        spec = spec.and(AuditLogSpecification.createdBetween(from, to));
 
 
         Page<AuditLogJSONB> page =
@@ -78,4 +86,27 @@ public class AuditServiceImpl implements AuditService {
         );
     }
 
+    @Override
+    @PreAuthorize("hasRole('ADMIN')")
+    public CursorPage<EnrichedAuditResponse> scrollEnrichedAuditLogs(
+            String cursor,
+            Integer size,
+            String fullName,
+            AuditStatus status,
+            Instant from,
+            Instant to
+    ) {
+        // id breaks ties between logs written in the same instant
+        Sort sort = Sort.by(Sort.Direction.DESC, "createdAt", "id");
+        ScrollPosition position = ScrollCursors.decode(cursor, sort);
+        Specification<AuditLogJSONB> spec = Specification.unrestricted();
+        spec = spec.and(AuditLogSpecification.hasFullName(fullName));
+        spec = spec.and(AuditLogSpecification.hasStatus(status));
+        spec = spec.and(AuditLogSpecification.createdBetween(from, to));
+
+        Window<AuditLogJSONB> logs = auditLogJSONBRepository.findBy(spec,
+                query -> query.sortBy(sort).limit(ScrollCursors.pageSize(size)).scroll(position));
+
+        return ScrollCursors.toCursorPage(logs, auditMapper::toEnrichedAuditResponse);
+    }
 }
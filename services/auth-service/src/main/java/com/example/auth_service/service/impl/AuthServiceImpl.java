@@ -15,6 +15,7 @@ import com.example.auth_service.repository.ProfileRepository;
 import com.example.auth_service.repository.UserEventStatsRepository;
 import com.example.auth_service.repository.UserRepository;
 import com.example.auth_service.security.AuthUser;
+import com.example.auth_service.security.PrincipalCache;
 import com.example.auth_service.service.AuthService;
 import com.example.auth_service.service.OtpService;
 import com.example.common_libraries.dto.queue_events.UserRegisteredEvent;
@@ -32,9 +33,9 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import software.amazon.awssdk.services.sqs.SqsClient;
 import org.springframework.beans.factory.annotation.Value;
 import com.example.common_libraries.utils.JWTUtil;
+import com.example.common_libraries.service.SqsBatchPublisher;
 
 import java.time.Duration;
 
@@ -49,10 +50,11 @@ public class AuthServiceImpl implements AuthService {
     private final PasswordEncoder passwordEncoder;
     private final OtpService otpService;
     private final AuthenticationManager authenticationManager;
-    private final SqsClient sqsClient;
+    private final SqsBatchPublisher sqsBatchPublisher;
     private final ObjectMapper objectMapper;
     private final JWTUtil jwtUtil;
     private final AuthUserUtil authUserUtil;
+    private final PrincipalCache principalCache;
 
     @Value("${sqs.user-registration-queue-url}")
     private String userRegistrationQueueUrl;
@@ -136,8 +138,13 @@ public class AuthServiceImpl implements AuthService {
         try{
             UserRegisteredEvent event = new UserRegisteredEvent(savedUser.getId(), savedUser.getFullName(), savedUser.getEmail());
             String messageBody = objectMapper.writeValueAsString(event);
-            sqsClient.sendMessage(builder -> builder.queueUrl(userRegistrationQueueUrl).messageBody(messageBody));
-            log.info("Message sent to SQS queue");
+            sqsBatchPublisher.publish(userRegistrationQueueUrl, messageBody).whenComplete((messageId, e) -> {
+                if (e != null) {
+                    log.error("Error sending message to SQS: {}", e.getMessage());
+                } else {
+                    log.info("Message {} sent to SQS queue", messageId);
+                }
+            });
         }catch (Exception e){
             log.error("Error sending message to SQS: {}", e.getMessage());
         }
@@ -221,6 +228,7 @@ public class AuthServiceImpl implements AuthService {
         User user = getActiveUserByEmail(resetPasswordRequest.email());
         user.setPassword(passwordEncoder.encode(resetPasswordRequest.password()));
         userRepository.save(user);
+        principalCache.invalidate(user.getEmail());
     }
 
     private User getActiveUserByEmail(String email) {
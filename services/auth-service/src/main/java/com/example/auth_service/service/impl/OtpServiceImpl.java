@@ -3,13 +3,13 @@ package com.example.auth_service.service.impl;
 import com.example.auth_service.service.OtpService;
 import com.example.common_libraries.dto.queue_events.ResetPasswordEvent;
 import com.example.common_libraries.dto.queue_events.UserLoginEvent;
+import com.example.common_libraries.service.SqsBatchPublisher;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Service;
-import software.amazon.awssdk.services.sqs.SqsClient;
 
 import java.time.Duration;
 import java.util.Random;
@@ -20,7 +20,7 @@ import java.util.Random;
 public class OtpServiceImpl implements OtpService {
 
     private final RedisTemplate<String, Object> redisTemplate;
-    private final SqsClient sqsClient;
+    private final SqsBatchPublisher sqsBatchPublisher;
     private final ObjectMapper objectMapper;
     private static final long LOGIN_OTP_EXPIRATION_MINUTES = 5;
     private static final long RESET_PASSWORD_OTP_EXPIRATION_MINUTES = 5;
@@ -83,8 +83,14 @@ public class OtpServiceImpl implements OtpService {
     private void sendMessageToQueue(String messageBody, String queueUrl){
         try{
             log.info("Sending message to queue {}: {}", queueUrl, messageBody);
-            sqsClient.sendMessage(builder -> builder.queueUrl(queueUrl).messageBody(messageBody));
-            log.info("Message sent to SQS queue");
+            // The publisher sends it with the next batch; log once SQS has taken it or rejected it
+            sqsBatchPublisher.publish(queueUrl, messageBody).whenComplete((messageId, ex) -> {
+                if (ex != null) {
+                    log.error("Error sending message to queue {}: {}", queueUrl, ex.getMessage());
+                } else {
+                    log.info("Message {} sent to SQS queue {}", messageId, queueUrl);
+                }
+            });
         }catch(Exception ex){
             log.error("Error sending message to queue: {}", ex.getMessage());
         }
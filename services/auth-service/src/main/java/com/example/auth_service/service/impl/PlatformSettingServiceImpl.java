@@ -12,8 +12,10 @@ import com.example.auth_service.repository.PlatformNotificationSettingRepository
 import com.example.auth_service.repository.PlatformSecuritySettingRepository;
 import com.example.auth_service.repository.UserRepository;
 import com.example.auth_service.service.PlatformSettingService;
+import com.example.common_libraries.cache.CacheInvalidationPublisher;
 import com.example.common_libraries.dto.PlatformNotificationSettingDto;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -25,6 +27,7 @@ public class PlatformSettingServiceImpl implements PlatformSettingService {
     private final PlatformSecuritySettingRepository platformSecuritySettingRepository;
     private final PlatformNotificationSettingRepository platformNotificationSettingRepository;
     private final UserRepository userRepository;
+    private final ObjectProvider<CacheInvalidationPublisher> cacheInvalidationPublisher;
 
     @Override
     public PlatformSecuritySettingResponse getPlatformSecuritySettings() {
@@ -75,6 +78,8 @@ public class PlatformSettingServiceImpl implements PlatformSettingService {
             platformNotificationSetting.setPlatformErrors(request.platformErrors());
         }
         platformNotificationSettingRepository.save(platformNotificationSetting);
+        // event-service caches these settings
+        cacheInvalidationPublisher.ifAvailable(publisher -> publisher.publish(PlatformNotificationSettingDto.CACHE_NAME, null));
     }
 
     @Override
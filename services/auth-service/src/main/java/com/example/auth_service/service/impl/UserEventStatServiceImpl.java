@@ -14,14 +14,14 @@ public class UserEventStatServiceImpl implements UserEventStatService {
     private final UserEventStatsRepository userEventStatsRepository;
 
     @Override
-    public void updateUserEventStats(Long userId) {
+    public void updateUserEventStats(Long userId, int eventsAttended) {
         // get event stat by userId
         UserEventStats userEventStats = userEventStatsRepository.findByUserId(userId).orElse(null);
         if(userEventStats == null){
             log.warn("User event stats not found for user with id: {}", userId);
             return;
         }
-        userEventStats.setTotalEventsAttended(userEventStats.getTotalEventsAttended() + 1);
+        userEventStats.setTotalEventsAttended(userEventStats.getTotalEventsAttended() + eventsAttended);
         userEventStatsRepository.save(userEventStats);
     }
 }
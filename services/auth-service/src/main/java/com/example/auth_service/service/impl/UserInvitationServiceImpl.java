@@ -24,6 +24,7 @@ import com.example.common_libraries.enums.InviteStatus;
 import com.example.common_libraries.exception.DuplicateResourceException;
 import com.example.common_libraries.exception.InactiveAccountException;
 import com.example.common_libraries.exception.ResourceNotFoundException;
+import com.example.common_libraries.service.SqsBatchPublisher;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
@@ -34,7 +35,6 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import software.amazon.awssdk.services.sqs.SqsClient;
 
 import java.time.LocalDate;
 import java.util.UUID;
@@ -47,7 +47,7 @@ public class UserInvitationServiceImpl implements UserInvitationService {
     private final UserInviteeRepository userInviteeRepository;
     private final UserInvitationRepository userInvitationRepository;
     private final UserRepository userRepository;
-    private final SqsClient sqsClient;
+    private final SqsBatchPublisher sqsBatchPublisher;
     private final ObjectMapper objectMapper;
     private static final long INVITATION_EXPIRATION_DAYS = 2;
     private final AuthServiceImpl authServiceImpl;
@@ -131,7 +131,13 @@ public class UserInvitationServiceImpl implements UserInvitationService {
         try{
             UserInvitedEvent event = new UserInvitedEvent(invitee.getFullName(), invitee.getEmail(), invitee.getRole().name(), invitee.getInvitationToken(), message);
             String messageBody = objectMapper.writeValueAsString(event);
-            sqsClient.sendMessage(builder -> builder.queueUrl(userInvitationQueue).messageBody(messageBody));
+            sqsBatchPublisher.publish(userInvitationQueue, messageBody).whenComplete((messageId, e) -> {
+                if (e != null) {
+                    log.error("Error user invitation sending message to SQS: {}", e.getMessage());
+                } else {
+                    log.info("User invitation message {} sent to SQS queue", messageId);
+                }
+            });
         }catch (Exception e){
             log.error("Error user invitation sending message to SQS: {}", e.getMessage());
         }
@@ -5,11 +5,15 @@ import com.example.auth_service.dto.request.UserUpdateRequest;
 import com.example.auth_service.dto.response.*;
 import com.example.auth_service.enums.UserRole;
 import com.example.auth_service.repository.UserEventStatsRepository;
+import com.example.auth_service.security.PrincipalCache;
 import com.example.auth_service.utils.AuthUserUtil;
+import com.example.common_libraries.dto.CursorPage;
 import com.example.common_libraries.dto.HostsResponse;
 import com.example.common_libraries.dto.TopOrganizerResponse;
 import com.example.common_libraries.dto.UserCreationResponse;
 import com.example.common_libraries.dto.UserInfoResponse;
+import com.example.common_libraries.dto.UserLookupRequest;
+import com.example.common_libraries.exception.BadRequestException;
 import com.example.common_libraries.exception.DuplicateResourceException;
 import com.example.common_libraries.exception.ResourceNotFoundException;
 import com.example.auth_service.mapper.UserMapper;
@@ -19,13 +23,17 @@ import com.example.auth_service.repository.UserRepository;
 import com.example.auth_service.service.UserService;
 import com.example.auth_service.utils.UserSpecifications;
 import com.example.common_libraries.service.S3Service;
+import com.example.common_libraries.utils.ScrollCursors;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
@@ -44,6 +52,10 @@ public class UserServiceImpl implements UserService {
     private final S3Service s3Service;
     private final UserEventStatsRepository userEventStatsRepository;
     private final AuthUserUtil authUserUtil;
+    private final PrincipalCache principalCache;
+
+    @Value("${users.lookup.max-keys:500}")
+    private int lookupMaxKeys;
 
 
     @Override
@@ -73,6 +85,7 @@ public class UserServiceImpl implements UserService {
         boolean newStatus = !currentStatus;
         user.setActive(newStatus);
         userRepository.save(user);
+        principalCache.invalidate(user.getEmail());
     }
 
 
@@ -83,6 +96,11 @@ public class UserServiceImpl implements UserService {
         return searchResults.map(UserMapper::toUserManagementResponse);
     }
 
+    @Override
+    public CursorPage<UserManagementResponse> scrollUserSearch(String keyword, UserRole role, Boolean status, String cursor) {
+        return ScrollCursors.toCursorPage(scrollUserList(cursor, keyword, role, status), UserMapper::toUserManagementResponse);
+    }
+
     @Override
     public Page<UserListResponse> getAdminUsers(String keyword, Boolean status, int page) {
         UserRole role = UserRole.ADMIN;
@@ -90,11 +108,29 @@ public class UserServiceImpl implements UserService {
         return searchResults.map(UserMapper::toUserListResponse);
     }
 
+    @Override
+    public CursorPage<UserListResponse> scrollAdminUsers(String keyword, Boolean status, String cursor) {
+        return ScrollCursors.toCursorPage(scrollUserList(cursor, keyword, UserRole.ADMIN, status), UserMapper::toUserListResponse);
+    }
+
     private Page<User> filterUserList(int page, String keyword, UserRole role, Boolean status) {
         page = Math.max(page, 0);
         Sort sort = Sort.by("fullName");
         Pageable pageable = PageRequest.of(page, 10,sort);
 
+        return userRepository.findAll(userFilter(keyword, role, status), pageable);
+    }
+
+    private Window<User> scrollUserList(String cursor, String keyword, UserRole role, Boolean status) {
+        // users can share a name, id keeps the order total so the cursor never skips one
+        Sort sort = Sort.by("fullName", "id");
+        ScrollPosition position = ScrollCursors.decode(cursor, sort);
+
+        return userRepository.findBy(userFilter(keyword, role, status),
+                query -> query.sortBy(sort).limit(10).scroll(position));
+    }
+
+    private static Specification<User> userFilter(String keyword, UserRole role, Boolean status) {
         // build specification based on user input
         Specification<User> spec = (root, query, cb) -> cb.conjunction();
 
@@ -107,7 +143,7 @@ public class UserServiceImpl implements UserService {
         if(status != null) {
             spec = spec.and(UserSpecifications.isActive(status));
         }
-        return userRepository.findAll(spec, pageable);
+        return spec;
     }
 
 
@@ -133,6 +169,7 @@ public class UserServiceImpl implements UserService {
         }
 
         User userToUpdate = userRepository.findById(userId).orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
+        principalCache.invalidate(userToUpdate.getEmail());
 
         if(request != null) {
             Optional<User> userWithEmail = userRepository.findByEmail(request.email());
@@ -201,7 +238,7 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public UserCreationResponse getUserByEmail(String email) {
-        return userRepository.findByEmail(email)
+        return userRepository.findByEmailIgnoreCase(email.trim())
                 .map(UserMapper::toUserCreationResponse)
                 .orElse(null);
     }
@@ -220,4 +257,17 @@ public class UserServiceImpl implements UserService {
                             .build()
                 ).toList();
     }
+
+    @Override
+    public List<UserCreationResponse> lookupUsers(UserLookupRequest request) {
+        if (request.size() > lookupMaxKeys) {
+            throw new BadRequestException("At most " + lookupMaxKeys + " users can be looked up at once");
+        }
+        if (request.size() == 0) {
+            return List.of();
+        }
+        // emails changed by an admin are stored as entered, so both sides are compared in lower case
+        return userRepository.lookupUsers(request.ids(),
+                request.emails().stream().map(UserLookupRequest::normalizeEmail).distinct().toList());
+    }
 }
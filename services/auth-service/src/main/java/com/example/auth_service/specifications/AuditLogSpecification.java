@@ -4,6 +4,8 @@ import com.example.auth_service.enums.AuditStatus;
 import com.example.auth_service.model.AuditLogJSONB;
 import org.springframework.data.jpa.domain.Specification;
 
+import java.time.Instant;
+
 public class AuditLogSpecification {
 
     private AuditLogSpecification() {
@@ -16,11 +18,7 @@ public class AuditLogSpecification {
                 return cb.conjunction();
             }
             String likePattern = "%" + fullName.toLowerCase() + "%";
-            return cb.like(
-                    cb.lower(cb.function("jsonb_extract_path_text", String.class,
-                            root.get("auditLogDataJson"), cb.literal("email"))),
-                    likePattern
-            );
+            return cb.like(cb.lower(root.get("email")), likePattern);
         };
     }
 
@@ -29,11 +27,22 @@ public class AuditLogSpecification {
             if (status == null) {
                 return cb.conjunction();
             }
-            return cb.equal(
-                    cb.function("jsonb_extract_path_text", String.class,
-                            root.get("auditLogDataJson"), cb.literal("auditStatus")),
-                    status.name()
-            );
+            return cb.equal(root.get("status"), status);
+        };
+    }
+
+    public static Specification<AuditLogJSONB> createdBetween(Instant from, Instant to) {
+        return (root, query, cb) -> {
+            if (from == null && to == null) {
+                return cb.conjunction();
+            }
+            if (from == null) {
+                return cb.lessThan(root.get("createdAt"), to);
+            }
+            if (to == null) {
+                return cb.greaterThanOrEqualTo(root.get("createdAt"), from);
+            }
+            return cb.and(cb.greaterThanOrEqualTo(root.get("createdAt"), from), cb.lessThan(root.get("createdAt"), to));
         };
     }
 }
\ No newline at end of file
@@ -0,0 +1,86 @@
+package com.example.auth_service.benchmarks;
+
+import com.example.auth_service.dto.request.AuditLogData;
+import com.example.auth_service.dto.request.AuditLogRequest;
+import com.example.auth_service.enums.AuditStatus;
+import com.example.auth_service.mapper.AuditMapper;
+import com.example.auth_service.model.AuditLogJSONB;
+import com.example.auth_service.repository.AuditLogJSONBRepository;
+import com.example.auth_service.service.impl.AuditLogWriter;
+import com.example.auth_service.service.impl.AuditServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * Time the audit log adds to a login, from 20 concurrent logins against a database that takes 20 ms per
+ * insert, whether one row or a batch. {@code previous} is what {@code AuditServiceImpl.save} did before,
+ * one insert within the login; {@code queued} is {@link AuditServiceImpl} handing the entry to
+ * {@link AuditLogWriter}. The sample mode output gives the percentiles. Appends outpace the writer here, so
+ * it drops the oldest queued entries as it would under a credential-stuffing burst.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Threads(20)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuditLogWriterBenchmark {
+    private static final long INSERT_MILLIS = 20;
+
+    private final AuditLogRequest request =
+            new AuditLogRequest("ama.mensah@example.com", "10.0.0.1", Instant.now(), AuditStatus.FAILED);
+
+    private AuditLogJSONBRepository repository;
+    private AuditLogWriter writer;
+    private AuditServiceImpl auditService;
+
+    @Setup
+    public void setup() {
+        repository = mock(AuditLogJSONBRepository.class);
+        when(repository.save(any(AuditLogJSONB.class))).thenAnswer(invocation -> {
+            Thread.sleep(INSERT_MILLIS);
+            return invocation.getArgument(0);
+        });
+        when(repository.saveAll(anyList())).thenAnswer(invocation -> {
+            Thread.sleep(INSERT_MILLIS);
+            return invocation.getArgument(0);
+        });
+        writer = new AuditLogWriter(repository, new SimpleMeterRegistry(), 10_000, 200, "drop-oldest");
+        writer.start();
+        auditService = new AuditServiceImpl(repository, mock(AuditMapper.class), writer);
+    }
+
+    @TearDown
+    public void tearDown() {
+        writer.stop();
+    }
+
+    @Benchmark
+    public AuditLogJSONB previous() {
+        return repository.save(AuditLogJSONB.builder()
+                .auditLogDataJson(new AuditLogData(request.email(), request.ipAddress(), request.timestamp(), request.auditStatus()))
+                .build());
+    }
+
+    @Benchmark
+    public void queued() {
+        auditService.save(request);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(AuditLogWriterBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
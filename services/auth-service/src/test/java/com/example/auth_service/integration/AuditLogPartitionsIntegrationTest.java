@@ -0,0 +1,244 @@
+package com.example.auth_service.integration;
+
+import com.example.auth_service.config.AuditLogPartitions;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Runs the audit log partitioning migration against an existing audit log table in an embedded PostgreSQL,
+ * then the nightly partition maintenance. The tests are skipped where it can't be started.
+ */
+class AuditLogPartitionsIntegrationTest {
+
+    private static final Path MIGRATION = Path.of("../../local-deploy/migrations/auth-db-partition-audit-logs.sql");
+
+    private static EmbeddedPostgres postgres;
+
+    private SingleConnectionDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private AuditLogPartitions auditLogPartitions;
+
+    private final YearMonth currentMonth = YearMonth.now(ZoneOffset.UTC);
+
+    @BeforeAll
+    static void startPostgres() {
+        try {
+            postgres = EmbeddedPostgres.start();
+        } catch (Exception e) {
+            assumeTrue(false, "Embedded PostgreSQL could not start: " + e.getMessage());
+        }
+    }
+
+    @AfterAll
+    static void stopPostgres() throws Exception {
+        if (postgres != null) {
+            postgres.close();
+        }
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+        dataSource = new SingleConnectionDataSource(postgres.getPostgresDatabase().getConnection(), true);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        auditLogPartitions = new AuditLogPartitions(jdbcTemplate, 12, 2);
+
+        jdbcTemplate.execute("DROP TABLE IF EXISTS audit_logs_jsonb, audit_logs_jsonb_unpartitioned CASCADE");
+        // not yet partitioned, with the generated columns as auth-db-partition-audit-logs.sql defines them;
+        // Hibernate only maps them read-only and never creates them
+        jdbcTemplate.execute("""
+                CREATE TABLE audit_logs_jsonb (
+                    id bigint NOT NULL,
+                    audit_log_data_json jsonb,
+                    created_at timestamp(6) with time zone NOT NULL,
+                    email text GENERATED ALWAYS AS (audit_log_data_json ->> 'email') STORED,
+                    ip_address text GENERATED ALWAYS AS (audit_log_data_json ->> 'ipAddress') STORED,
+                    logged_at timestamp(6) with time zone GENERATED ALWAYS AS (to_timestamp((audit_log_data_json ->> 'timestamp')::double precision)) STORED,
+                    status text GENERATED ALWAYS AS (audit_log_data_json ->> 'auditStatus') STORED check (status in ('SUCCESS','FAILED')),
+                    updated_at timestamp(6) with time zone,
+                    primary key (id)
+                )""");
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataSource.destroy();
+    }
+
+    private void insert(long id, String email, String status, YearMonth month) {
+        Instant createdAt = month.atDay(10).atStartOfDay(ZoneOffset.UTC).toInstant();
+        jdbcTemplate.update("INSERT INTO audit_logs_jsonb (id, audit_log_data_json, created_at) VALUES (?, ?::jsonb, ?::timestamptz)",
+                id,
+                """
+                {"email":"%s","ipAddress":"10.0.0.%d","timestamp":%d.25,"auditStatus":"%s"}
+                """.formatted(email, id, createdAt.getEpochSecond(), status),
+                createdAt.toString());
+    }
+
+    private void migrate() throws Exception {
+        jdbcTemplate.execute(Files.readString(MIGRATION));
+    }
+
+    private String partitionOf(long id) {
+        return jdbcTemplate.queryForObject("SELECT tableoid::regclass::text FROM audit_logs_jsonb WHERE id = ?", String.class, id);
+    }
+
+    private static String partitionName(YearMonth month) {
+        return "audit_logs_jsonb_y%dm%02d".formatted(month.getYear(), month.getMonthValue());
+    }
+
+    private List<String> partitions() {
+        return jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid WHERE i.inhparent = 'audit_logs_jsonb'::regclass ORDER BY 1",
+                String.class);
+    }
+
+    private String plan(String query) {
+        return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + query, String.class));
+    }
+
+    @Test
+    @DisplayName("Should move existing audit logs into monthly partitions")
+    void migration_PartitionsExistingTable() throws Exception {
+        insert(1, "Ama.Mensah@example.com", "FAILED", currentMonth.minusMonths(2));
+        insert(2, "kofi@example.com", "SUCCESS", currentMonth);
+
+        migrate();
+
+        assertTrue(auditLogPartitions.isAvailable());
+        assertEquals("p", jdbcTemplate.queryForObject("SELECT relkind::text FROM pg_class WHERE relname = 'audit_logs_jsonb'", String.class));
+        assertEquals(partitionName(currentMonth.minusMonths(2)), partitionOf(1));
+        assertEquals(partitionName(currentMonth), partitionOf(2));
+        assertTrue(partitions().containsAll(List.of(
+                partitionName(currentMonth.plusMonths(1)), partitionName(currentMonth.plusMonths(2)), "audit_logs_jsonb_default")));
+
+        var log = jdbcTemplate.queryForMap("SELECT email, status, ip_address, logged_at FROM audit_logs_jsonb WHERE id = 1");
+        assertEquals("Ama.Mensah@example.com", log.get("email"));
+        assertEquals("FAILED", log.get("status"));
+        assertEquals("10.0.0.1", log.get("ip_address"));
+        assertNotNull(log.get("logged_at"));
+        assertEquals(2, jdbcTemplate.queryForObject("SELECT count(*) FROM audit_logs_jsonb_unpartitioned", Integer.class));
+    }
+
+    @Test
+    @DisplayName("Should generate the search columns for logs of a table created before they were mapped")
+    void migration_FillsGeneratedColumnsOfOldTable() throws Exception {
+        jdbcTemplate.execute("DROP TABLE audit_logs_jsonb");
+        // as Hibernate created it before AuditLogJSONB mapped the generated columns
+        jdbcTemplate.execute("""
+                CREATE TABLE audit_logs_jsonb (
+                    id bigint NOT NULL,
+                    audit_log_data_json jsonb,
+                    created_at timestamp(6) with time zone NOT NULL,
+                    updated_at timestamp(6) with time zone,
+                    primary key (id)
+                )""");
+        jdbcTemplate.execute("CREATE INDEX idx_audit_logs_jsonb_created_at_id ON audit_logs_jsonb (created_at, id)");
+        insert(1, "ama@example.com", "FAILED", currentMonth.minusMonths(1));
+
+        migrate();
+
+        assertTrue(auditLogPartitions.isAvailable());
+        assertEquals(partitionName(currentMonth.minusMonths(1)), partitionOf(1));
+        assertEquals("FAILED", jdbcTemplate.queryForObject("SELECT status FROM audit_logs_jsonb WHERE id = 1", String.class));
+    }
+
+    @Test
+    @DisplayName("Should fill the generated columns of audit logs written after partitioning")
+    void insertAfterMigration_FillsGeneratedColumns() throws Exception {
+        migrate();
+
+        insert(3, "esi@example.com", "SUCCESS", currentMonth);
+
+        assertEquals(partitionName(currentMonth), partitionOf(3));
+        assertEquals("esi@example.com", jdbcTemplate.queryForObject("SELECT email FROM audit_logs_jsonb WHERE id = 3", String.class));
+    }
+
+    @Test
+    @DisplayName("Should leave an already partitioned table as it is")
+    void migration_Twice_KeepsLogs() throws Exception {
+        insert(1, "kofi@example.com", "SUCCESS", currentMonth);
+        migrate();
+
+        migrate();
+        auditLogPartitions.maintainPartitions();
+
+        assertTrue(auditLogPartitions.isAvailable());
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT count(*) FROM audit_logs_jsonb", Integer.class));
+    }
+
+    @Test
+    @DisplayName("Should drop the partitions of months past the retention period")
+    void maintainPartitions_DropsExpiredMonths() throws Exception {
+        insert(1, "old@example.com", "SUCCESS", currentMonth.minusMonths(13));
+        insert(2, "kept@example.com", "SUCCESS", currentMonth.minusMonths(12));
+        migrate();
+
+        auditLogPartitions.maintainPartitions();
+
+        assertFalse(partitions().contains(partitionName(currentMonth.minusMonths(13))));
+        assertTrue(partitions().contains(partitionName(currentMonth.minusMonths(12))));
+        assertEquals(List.of(2L), jdbcTemplate.queryForList("SELECT id FROM audit_logs_jsonb", Long.class));
+    }
+
+    @Test
+    @DisplayName("Should only read the partitions a time range covers")
+    void timeRange_PrunesPartitions() throws Exception {
+        insert(1, "a@example.com", "SUCCESS", currentMonth.minusMonths(2));
+        insert(2, "b@example.com", "SUCCESS", currentMonth);
+        migrate();
+
+        Instant from = currentMonth.atDay(1).atStartOfDay(ZoneOffset.UTC).toInstant();
+        String plan = plan("SELECT * FROM audit_logs_jsonb WHERE created_at >= '" + from + "' ORDER BY created_at DESC, id DESC LIMIT 10");
+
+        assertTrue(plan.contains(partitionName(currentMonth)), plan);
+        assertFalse(plan.contains(partitionName(currentMonth.minusMonths(2))), plan);
+    }
+
+    @Test
+    @DisplayName("Should search emails and statuses through their indexes")
+    void filters_UseIndexes() throws Exception {
+        for (int i = 0; i < 50; i++) {
+            insert(i, "user" + i + "@example.com", i % 2 == 0 ? "SUCCESS" : "FAILED", currentMonth);
+        }
+        migrate();
+        jdbcTemplate.execute("ANALYZE audit_logs_jsonb");
+        // too few rows for the planner to prefer an index on its own
+        jdbcTemplate.execute("SET enable_seqscan = off");
+
+        try {
+            assertTrue(plan("SELECT * FROM audit_logs_jsonb WHERE lower(email) LIKE '%user4%'").contains("lower_idx"));
+            assertTrue(plan("SELECT * FROM audit_logs_jsonb WHERE status = 'FAILED' ORDER BY created_at DESC").contains("status_created_at_idx"));
+        } finally {
+            jdbcTemplate.execute("RESET enable_seqscan");
+        }
+    }
+
+    @Test
+    @DisplayName("Should leave the table alone until the migration has partitioned it")
+    void maintainPartitions_BeforeMigration_DoesNothing() {
+        insert(1, "kofi@example.com", "SUCCESS", currentMonth.minusMonths(13));
+
+        auditLogPartitions.maintainPartitions();
+
+        assertFalse(auditLogPartitions.isAvailable());
+        assertEquals("r", jdbcTemplate.queryForObject("SELECT relkind::text FROM pg_class WHERE relname = 'audit_logs_jsonb'", String.class));
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT count(*) FROM audit_logs_jsonb", Integer.class));
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.auth_service.security;
+
+import com.example.auth_service.enums.UserRole;
+import com.example.auth_service.model.User;
+import com.example.auth_service.repository.ProfileRepository;
+import com.example.auth_service.repository.UserEventStatsRepository;
+import com.example.auth_service.repository.UserRepository;
+import com.example.auth_service.service.impl.UserServiceImpl;
+import com.example.auth_service.utils.AuthUserUtil;
+import com.example.common_libraries.cache.TwoLevelCacheManager;
+import com.example.common_libraries.filter.JWTFilter;
+import com.example.common_libraries.service.S3Service;
+import com.example.common_libraries.utils.JWTUtil;
+import com.example.common_libraries.utils.VerifiedTokenCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PrincipalCacheTest {
+
+    @Mock UserRepository userRepository;
+    @Mock ProfileRepository profileRepository;
+    @Mock S3Service s3Service;
+    @Mock UserEventStatsRepository userEventStatsRepository;
+    @Mock AuthUserUtil authUserUtil;
+
+    private SimpleMeterRegistry meterRegistry;
+    private CustomUserDetailsService userDetailsService;
+    private UserServiceImpl userService;
+    private JWTUtil jwtUtil;
+    private JWTFilter jwtFilter;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        PrincipalCache principalCache = new PrincipalCache(100, 60, meterRegistry, cacheManager(null));
+        userDetailsService = new CustomUserDetailsService(userRepository, principalCache);
+        userService = new UserServiceImpl(userRepository, profileRepository, s3Service, userEventStatsRepository, authUserUtil, principalCache);
+
+        jwtUtil = new JWTUtil();
+        ReflectionTestUtils.setField(jwtUtil, "jwtSecret", "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970");
+        ReflectionTestUtils.setField(jwtUtil, "jwtAccessExpirationMs", 60_000L);
+        ReflectionTestUtils.invokeMethod(jwtUtil, "init");
+        jwtFilter = new JWTFilter(new VerifiedTokenCache(jwtUtil, 100), userDetailsService);
+
+        user = User.builder()
+                .id(5L)
+                .fullName("Test User")
+                .email("test@test.com")
+                .password("hash")
+                .role(UserRole.ORGANISER)
+                .isActive(true)
+                .build();
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private static ObjectProvider<TwoLevelCacheManager> cacheManager(TwoLevelCacheManager cacheManager) {
+        StaticListableBeanFactory beans = new StaticListableBeanFactory();
+        if (cacheManager != null) {
+            beans.addBean("cacheManager", cacheManager);
+        }
+        return beans.getBeanProvider(TwoLevelCacheManager.class);
+    }
+
+    private Authentication authenticate() throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setCookies(new Cookie("accessToken", jwtUtil.generateAccessToken(user)));
+        jwtFilter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    private double gets(String result) {
+        return meterRegistry.get("cache.gets").tag("cache", "principals").tag("result", result).functionCounter().count();
+    }
+
+    @Test
+    void repeatedRequestsReadTheUserOnce() throws Exception {
+        when(userRepository.findByEmail("test@test.com")).thenReturn(Optional.of(user));
+
+        Authentication first = authenticate();
+        Authentication second = authenticate();
+
+        verify(userRepository, times(1)).findByEmail("test@test.com");
+        AuthUser firstUser = (AuthUser) first.getPrincipal();
+        AuthUser secondUser = (AuthUser) second.getPrincipal();
+        assertEquals(5L, secondUser.getUser().getId());
+        assertEquals("ROLE_ORGANISER", second.getAuthorities().iterator().next().getAuthority());
+        assertNotSame(firstUser.getUser(), secondUser.getUser());
+        assertEquals(1, gets("miss"));
+        assertEquals(1, gets("hit"));
+    }
+
+    @Test
+    void deactivatedUserIsRejectedOnTheNextRequest() throws Exception {
+        when(userRepository.findByEmail("test@test.com")).thenReturn(Optional.of(user));
+        when(userRepository.findById(5L)).thenReturn(Optional.of(user));
+        assertNotNull(authenticate());
+
+        userService.updateUserStatus(5L);
+
+        assertNull(authenticate());
+        verify(userRepository, times(2)).findByEmail("test@test.com");
+    }
+
+    @Test
+    void unknownUsersAreNotCached() {
+        when(userRepository.findByEmail("missing@test.com")).thenReturn(Optional.empty());
+
+        assertThrows(UsernameNotFoundException.class, () -> userDetailsService.loadUserByUsername("missing@test.com"));
+        assertThrows(UsernameNotFoundException.class, () -> userDetailsService.loadUserByUsername("missing@test.com"));
+
+        verify(userRepository, times(2)).findByEmail("missing@test.com");
+    }
+
+    @Test
+    void invalidationEvictsTheUserOnOtherInstances() {
+        StringRedisTemplate redis = mock(StringRedisTemplate.class);
+        TwoLevelCacheManager here = new TwoLevelCacheManager(mock(RedisCacheManager.class), redis, new SimpleMeterRegistry(), 100, Duration.ofMinutes(1));
+        TwoLevelCacheManager there = new TwoLevelCacheManager(mock(RedisCacheManager.class), mock(StringRedisTemplate.class), new SimpleMeterRegistry(), 100, Duration.ofMinutes(1));
+        when(redis.convertAndSend(eq(TwoLevelCacheManager.INVALIDATION_CHANNEL), anyString())).thenAnswer(invocation -> {
+            String message = invocation.getArgument(1);
+            there.onMessage(new DefaultMessage(new byte[0], message.getBytes(StandardCharsets.UTF_8)), null);
+            return 1L;
+        });
+        PrincipalCache writer = new PrincipalCache(100, 60, new SimpleMeterRegistry(), cacheManager(here));
+        PrincipalCache reader = new PrincipalCache(100, 60, new SimpleMeterRegistry(), cacheManager(there));
+        AtomicInteger loads = new AtomicInteger();
+        Function<String, User> loader = email -> {
+            loads.incrementAndGet();
+            return user;
+        };
+
+        reader.get("test@test.com", loader);
+        reader.get("test@test.com", loader);
+        writer.invalidate("test@test.com");
+        reader.get("test@test.com", loader);
+
+        assertEquals(2, loads.get());
+    }
+}
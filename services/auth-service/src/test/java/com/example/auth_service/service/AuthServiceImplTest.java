@@ -9,6 +9,7 @@ import com.example.common_libraries.exception.InactiveAccountException;
 import com.example.auth_service.model.User;
 import com.example.auth_service.repository.UserRepository;
 import com.example.auth_service.security.AuthUser;
+import com.example.auth_service.security.PrincipalCache;
 import com.example.auth_service.service.impl.AuthServiceImpl;
 import com.example.common_libraries.exception.InvalidJWTTokenException;
 import jakarta.servlet.http.HttpServletResponse;
@@ -50,6 +51,9 @@ public class AuthServiceImplTest {
     @Mock
     private AuthUserUtil authUserUtil;
 
+    @Mock
+    private PrincipalCache principalCache;
+
 
     @BeforeEach
     void setUp() {
@@ -0,0 +1,202 @@
+package com.example.auth_service.service.impl;
+
+import com.example.auth_service.dto.request.AuditLogData;
+import com.example.auth_service.dto.request.AuditLogRequest;
+import com.example.auth_service.enums.AuditStatus;
+import com.example.auth_service.mapper.AuditMapper;
+import com.example.auth_service.model.AuditLogJSONB;
+import com.example.auth_service.repository.AuditLogJSONBRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class AuditLogWriterTest {
+
+    private AuditLogJSONBRepository repository;
+    private SimpleMeterRegistry meterRegistry;
+    private AuditLogWriter writer;
+
+    // what each saveAll call received, in order
+    private final List<List<String>> batches = Collections.synchronizedList(new ArrayList<>());
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(AuditLogJSONBRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+        when(repository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<AuditLogJSONB> logs = invocation.getArgument(0);
+            batches.add(logs.stream().map(log -> log.getAuditLogDataJson().getEmail()).toList());
+            return logs;
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (writer != null && writer.isRunning()) {
+            writer.stop();
+        }
+    }
+
+    private AuditLogWriter writer(int queueCapacity, int batchSize, String overflow) {
+        writer = new AuditLogWriter(repository, meterRegistry, queueCapacity, batchSize, overflow);
+        return writer;
+    }
+
+    private static AuditLogData login(String email) {
+        return new AuditLogData(email, "10.0.0.1", Instant.now(), AuditStatus.SUCCESS);
+    }
+
+    private List<String> written() {
+        return batches.stream().flatMap(List::stream).toList();
+    }
+
+    private double dropped(String reason) {
+        return meterRegistry.get("audit.writer.dropped").tag("reason", reason).counter().count();
+    }
+
+    // The writer takes the first entry and then waits in saveAll until released
+    private CountDownLatch holdFirstBatch() {
+        CountDownLatch taken = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            List<AuditLogJSONB> logs = invocation.getArgument(0);
+            if (batches.isEmpty()) {
+                taken.countDown();
+                release.await(5, TimeUnit.SECONDS);
+            }
+            batches.add(logs.stream().map(log -> log.getAuditLogDataJson().getEmail()).toList());
+            return logs;
+        }).when(repository).saveAll(anyList());
+        writer.start();
+        writer.append(login("first"));
+        try {
+            assertTrue(taken.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            throw new AssertionError(e);
+        }
+        return release;
+    }
+
+    @Test
+    @DisplayName("Should write whatever queued up while a batch was being written as the next batches")
+    void queuedLogs_WrittenInBatches() {
+        writer(1000, 200, "drop-oldest");
+        CountDownLatch release = holdFirstBatch();
+
+        for (int i = 0; i < 500; i++) {
+            writer.append(login("user" + i));
+        }
+        assertEquals(500, writer.queueDepth());
+        release.countDown();
+        writer.stop();
+
+        assertEquals(List.of(1, 200, 200, 100), batches.stream().map(List::size).toList());
+        assertEquals(501, written().size());
+        assertEquals("user499", written().get(500));
+        assertEquals(501, meterRegistry.get("audit.writer.written").counter().count());
+        assertEquals(4, meterRegistry.get("audit.writer.batch.size").summary().count());
+    }
+
+    @Test
+    @DisplayName("Should drop the oldest waiting logs when the queue is full")
+    void fullQueue_DropsOldest() {
+        writer(3, 200, "drop-oldest");
+        CountDownLatch release = holdFirstBatch();
+
+        for (String email : List.of("a", "b", "c", "d", "e")) {
+            writer.append(login(email));
+        }
+        release.countDown();
+        writer.stop();
+
+        assertEquals(List.of("first", "c", "d", "e"), written());
+        assertEquals(2, dropped("overflow"));
+    }
+
+    @Test
+    @DisplayName("Should drop new logs when the queue is full and the policy says so")
+    void fullQueue_DropsNewest() {
+        writer(3, 200, "drop-newest");
+        CountDownLatch release = holdFirstBatch();
+
+        for (String email : List.of("a", "b", "c", "d", "e")) {
+            writer.append(login(email));
+        }
+        release.countDown();
+        writer.stop();
+
+        assertEquals(List.of("first", "a", "b", "c"), written());
+        assertEquals(2, dropped("overflow"));
+    }
+
+    @Test
+    @DisplayName("Should write queued logs on shutdown and refuse new ones afterwards")
+    void stop_FlushesQueue() {
+        writer(1000, 200, "drop-oldest");
+        CountDownLatch release = holdFirstBatch();
+        for (int i = 0; i < 50; i++) {
+            writer.append(login("user" + i));
+        }
+        release.countDown();
+
+        writer.stop();
+        writer.append(login("late"));
+
+        assertEquals(51, written().size());
+        assertEquals(0, writer.queueDepth());
+        assertEquals(1, dropped("stopped"));
+        assertFalse(writer.isRunning());
+    }
+
+    @Test
+    @DisplayName("Should keep writing after a batch fails")
+    void failedBatch_WriterContinues() throws Exception {
+        writer(1000, 200, "drop-oldest");
+        CountDownLatch written = new CountDownLatch(1);
+        doThrow(new DataAccessResourceFailureException("connection refused"))
+                .doAnswer(invocation -> {
+                    written.countDown();
+                    return invocation.getArgument(0);
+                })
+                .when(repository).saveAll(anyList());
+        writer.start();
+
+        writer.append(login("lost"));
+        // let the failing batch go through before the next entry arrives
+        verify(repository, timeout(5000)).saveAll(anyList());
+        writer.append(login("kept"));
+
+        assertTrue(written.await(5, TimeUnit.SECONDS));
+        assertEquals(1, meterRegistry.get("audit.writer.failed").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should return from saving a login audit while the database is busy writing")
+    void save_DoesNotWaitForDatabase() {
+        writer(1000, 200, "drop-oldest");
+        CountDownLatch release = holdFirstBatch();
+        AuditServiceImpl auditService = new AuditServiceImpl(repository, mock(AuditMapper.class), writer);
+
+        // the writer is still in saveAll; the login only queues its entry
+        auditService.save(new AuditLogRequest("ama.mensah@example.com", "10.0.0.1", Instant.now(), AuditStatus.FAILED));
+
+        assertEquals(1, writer.queueDepth());
+        verify(repository, never()).save(any(AuditLogJSONB.class));
+        release.countDown();
+        writer.stop();
+        assertEquals(List.of("first", "ama.mensah@example.com"), written());
+    }
+}
@@ -9,10 +9,13 @@ import com.example.auth_service.model.User;
 import com.example.auth_service.repository.ProfileRepository;
 import com.example.auth_service.repository.UserEventStatsRepository;
 import com.example.auth_service.repository.UserRepository;
+import com.example.auth_service.security.PrincipalCache;
 import com.example.auth_service.utils.AuthUserUtil;
 import com.example.common_libraries.dto.TopOrganizerResponse;
 import com.example.common_libraries.dto.UserCreationResponse;
 import com.example.common_libraries.dto.UserInfoResponse;
+import com.example.common_libraries.dto.UserLookupRequest;
+import com.example.common_libraries.exception.BadRequestException;
 import com.example.common_libraries.exception.DuplicateResourceException;
 import com.example.common_libraries.exception.ResourceNotFoundException;
 import com.example.common_libraries.service.S3Service;
@@ -24,6 +27,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.*;
 
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.util.*;
@@ -39,6 +43,7 @@ class UserServiceImplTest {
     @Mock S3Service s3Service;
     @Mock UserEventStatsRepository userEventStatsRepository;
     @Mock AuthUserUtil authUserUtil;
+    @Mock PrincipalCache principalCache;
 
     @InjectMocks UserServiceImpl userService;
 
@@ -243,10 +248,10 @@ class UserServiceImplTest {
     // ----------------------------------------------------------
     @Test
     void getUserByEmail_shouldReturnResponse() {
-        when(userRepository.findByEmail("x@test.com"))
+        when(userRepository.findByEmailIgnoreCase("X@test.com"))
                 .thenReturn(Optional.of(regularUser));
 
-        UserCreationResponse res = userService.getUserByEmail("x@test.com");
+        UserCreationResponse res = userService.getUserByEmail(" X@test.com ");
 
         assertNotNull(res);
         assertEquals(5L, res.id());
@@ -254,9 +259,44 @@ class UserServiceImplTest {
 
     @Test
     void getUserByEmail_shouldReturnNullWhenNotFound() {
-        when(userRepository.findByEmail("none@test.com"))
+        when(userRepository.findByEmailIgnoreCase("none@test.com"))
                 .thenReturn(Optional.empty());
 
         assertNull(userService.getUserByEmail("none@test.com"));
     }
+
+    // ----------------------------------------------------------
+    // lookupUsers
+    // ----------------------------------------------------------
+    @Test
+    void lookupUsers_shouldResolveIdsAndEmailsInOneQuery() {
+        ReflectionTestUtils.setField(userService, "lookupMaxKeys", 500);
+        UserCreationResponse organiser = new UserCreationResponse(5L, "Test User", "ORGANISER", "test@test.com", "old.png");
+        UserCreationResponse admin = new UserCreationResponse(1L, "Admin", "ADMIN", "admin@test.com", null);
+        when(userRepository.lookupUsers(List.of(5L), List.of("admin@test.com", "none@test.com")))
+                .thenReturn(List.of(organiser, admin));
+
+        List<UserCreationResponse> result = userService.lookupUsers(
+                new UserLookupRequest(List.of(5L), List.of("Admin@Test.com ", "none@test.com", "admin@test.com")));
+
+        assertEquals(List.of(organiser, admin), result);
+        verify(userRepository, times(1)).lookupUsers(anyCollection(), anyCollection());
+    }
+
+    @Test
+    void lookupUsers_shouldNotQuery_whenNothingRequested() {
+        ReflectionTestUtils.setField(userService, "lookupMaxKeys", 500);
+
+        assertEquals(List.of(), userService.lookupUsers(new UserLookupRequest(null, List.of())));
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void lookupUsers_shouldThrow_whenTooManyRequested() {
+        ReflectionTestUtils.setField(userService, "lookupMaxKeys", 2);
+
+        UserLookupRequest request = new UserLookupRequest(List.of(1L, 2L), List.of("a@test.com"));
+        assertThrows(BadRequestException.class, () -> userService.lookupUsers(request));
+        verifyNoInteractions(userRepository);
+    }
 }
@@ -0,0 +1,145 @@
+package com.example.common_libraries.cache;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import com.fasterxml.jackson.dataformat.smile.SmileParser;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FastDecompressor;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Writes cache values as Smile (binary JSON) instead of JSON with embedded type properties.
+ * The value's type is written once in front of the payload as an id from the {@link CacheTypeRegistry},
+ * so nested objects carry no type information and are read back through the declared field types.
+ * Values of at least {@code compressionThreshold} bytes are LZ4 compressed.
+ *
+ * <p>Layout: one flag byte, the uncompressed length as a varint if the compressed flag is set, then the
+ * (possibly compressed) type id varint followed by the Smile document.
+ */
+public class BinaryRedisSerializer implements RedisSerializer<Object> {
+    private static final byte PLAIN = 0;
+    private static final byte COMPRESSED = 1;
+
+    private final ObjectMapper mapper;
+    private final CacheTypeRegistry typeRegistry;
+    private final int compressionThreshold;
+    private final LZ4Compressor compressor = LZ4Factory.fastestInstance().fastCompressor();
+    private final LZ4FastDecompressor decompressor = LZ4Factory.fastestInstance().fastDecompressor();
+
+    public BinaryRedisSerializer(CacheTypeRegistry typeRegistry, int compressionThreshold) {
+        SmileFactory smileFactory = SmileFactory.builder()
+                // the type id already identifies the format, so skip the 4 byte Smile header
+                .disable(SmileGenerator.Feature.WRITE_HEADER)
+                .disable(SmileParser.Feature.REQUIRE_HEADER)
+                .build();
+        this.mapper = new ObjectMapper(smileFactory)
+                .registerModule(new JavaTimeModule())
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        this.typeRegistry = typeRegistry;
+        this.compressionThreshold = compressionThreshold;
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value == null) {
+            return new byte[0];
+        }
+        Integer typeId = typeRegistry.idOf(value.getClass());
+        if (typeId == null) {
+            throw new SerializationException("Register " + value.getClass().getName() + " in the CacheTypeRegistry to cache it in binary form");
+        }
+
+        byte[] plain;
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+            out.write(PLAIN);
+            writeVarInt(out, typeId);
+            mapper.writeValue(out, value);
+            plain = out.toByteArray();
+        } catch (IOException e) {
+            throw new SerializationException("Could not write " + value.getClass().getName(), e);
+        }
+
+        int length = plain.length - 1;
+        if (length < compressionThreshold) {
+            return plain;
+        }
+        byte[] compressed = new byte[1 + 5 + compressor.maxCompressedLength(length)];
+        compressed[0] = COMPRESSED;
+        int offset = putVarInt(compressed, 1, length);
+        int compressedLength = compressor.compress(plain, 1, length, compressed, offset);
+        // incompressible values are kept as they are
+        if (offset + compressedLength >= plain.length) {
+            return plain;
+        }
+        return Arrays.copyOf(compressed, offset + compressedLength);
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes, 1, bytes.length - 1);
+            if (bytes[0] == COMPRESSED) {
+                int length = readVarInt(buffer);
+                buffer = ByteBuffer.wrap(decompressor.decompress(bytes, buffer.position(), length));
+            } else if (bytes[0] != PLAIN) {
+                throw new SerializationException("Unknown cache value format " + bytes[0]);
+            }
+
+            int typeId = readVarInt(buffer);
+            Class<?> type = typeRegistry.typeOf(typeId);
+            if (type == null) {
+                throw new SerializationException("Unknown cache type id " + typeId);
+            }
+            return mapper.readValue(buffer.array(), buffer.position(), buffer.remaining(), type);
+        } catch (IOException | RuntimeException e) {
+            if (e instanceof SerializationException serializationException) {
+                throw serializationException;
+            }
+            throw new SerializationException("Could not read cached value", e);
+        }
+    }
+
+    private static void writeVarInt(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    // Returns the position after the written varint
+    private static int putVarInt(byte[] target, int position, int value) {
+        while ((value & ~0x7F) != 0) {
+            target[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        target[position++] = (byte) value;
+        return position;
+    }
+
+    private static int readVarInt(ByteBuffer buffer) {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            byte b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new SerializationException("Malformed varint in cached value");
+    }
+}
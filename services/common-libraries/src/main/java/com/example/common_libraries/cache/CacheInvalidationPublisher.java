@@ -0,0 +1,12 @@
+package com.example.common_libraries.cache;
+
+@FunctionalInterface
+public interface CacheInvalidationPublisher {
+    /**
+     * Tells the other instances to drop a local cache entry.
+     *
+     * @param cacheName The name of the cache that changed.
+     * @param key The key that changed, or {@code null} if the whole cache was cleared.
+     */
+    void publish(String cacheName, String key);
+}
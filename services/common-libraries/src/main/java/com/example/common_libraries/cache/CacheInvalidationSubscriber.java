@@ -0,0 +1,84 @@
+package com.example.common_libraries.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Subscribes a listener to the cache invalidation channel. The listener container gives up if Redis can't be
+ * reached when the service starts, so the subscription is retried in the background instead of
+ * failing the startup; until it succeeds, local entries are only bounded by their TTL.
+ */
+@Slf4j
+public class CacheInvalidationSubscriber implements SmartLifecycle, DisposableBean {
+    private final RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+    private final Duration retryInterval;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "cache-invalidation-subscriber");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile boolean running;
+    private boolean failureLogged;
+
+    public CacheInvalidationSubscriber(RedisConnectionFactory connectionFactory, MessageListener listener, Duration retryInterval) {
+        this.retryInterval = retryInterval;
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(listener, new ChannelTopic(TwoLevelCacheManager.INVALIDATION_CHANNEL));
+        container.afterPropertiesSet();
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        scheduler.execute(this::subscribe);
+    }
+
+    private void subscribe() {
+        if (!running) {
+            return;
+        }
+        try {
+            container.start();
+            if (container.isListening()) {
+                log.info("Subscribed to {}", TwoLevelCacheManager.INVALIDATION_CHANNEL);
+                failureLogged = false;
+                return;
+            }
+        } catch (RuntimeException e) {
+            if (!failureLogged) {
+                log.warn("Could not subscribe to cache invalidations, retrying every {}s: {}", retryInterval.toSeconds(), e.getMessage());
+                failureLogged = true;
+            }
+        }
+        container.stop();
+        scheduler.schedule(this::subscribe, retryInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        scheduler.shutdownNow();
+        container.stop();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        container.destroy();
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.common_libraries.cache;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Assigns the short ids that {@link BinaryRedisSerializer} writes in place of class names.
+ * Ids are stored in Redis with the values, so a registered id must never be reused for another type.
+ * Ids below {@link #FIRST_APPLICATION_ID} are reserved for common JDK types.
+ */
+public class CacheTypeRegistry {
+    public static final int FIRST_APPLICATION_ID = 32;
+
+    private final Map<Class<?>, Integer> ids = new HashMap<>();
+    private final Map<Integer, Class<?>> types = new HashMap<>();
+
+    public CacheTypeRegistry() {
+        add(1, String.class);
+        add(2, Long.class);
+        add(3, Integer.class);
+        add(4, Boolean.class);
+        add(5, Double.class);
+        add(6, BigDecimal.class);
+        add(7, Instant.class);
+        add(8, LocalDate.class);
+        add(9, LocalDateTime.class);
+    }
+
+    public CacheTypeRegistry register(int id, Class<?> type) {
+        if (id < FIRST_APPLICATION_ID) {
+            throw new IllegalArgumentException("Cache type ids below " + FIRST_APPLICATION_ID + " are reserved: " + type.getName());
+        }
+        add(id, type);
+        return this;
+    }
+
+    private void add(int id, Class<?> type) {
+        Class<?> existing = types.putIfAbsent(id, type);
+        if (existing != null) {
+            throw new IllegalArgumentException("Cache type id " + id + " is already used by " + existing.getName());
+        }
+        if (ids.putIfAbsent(type, id) != null) {
+            throw new IllegalArgumentException(type.getName() + " is already registered");
+        }
+    }
+
+    Integer idOf(Class<?> type) {
+        return ids.get(type);
+    }
+
+    Class<?> typeOf(int id) {
+        return types.get(id);
+    }
+}
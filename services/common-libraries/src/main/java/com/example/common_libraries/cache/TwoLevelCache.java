@@ -0,0 +1,191 @@
+package com.example.common_libraries.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.support.DefaultConversionService;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A cache that keeps recently read entries in a bounded in-process cache in front of Redis.
+ * Reads are served locally when possible, so hot keys are neither fetched from Redis nor deserialized
+ * again. Concurrent misses for the same key share a single load. Evictions and explicit writes are published
+ * so the local entries of the other instances are dropped too; filling the cache after a miss is not, as the
+ * other instances' entries are still correct. Use {@code @Cacheable(sync = true)}, which fills through
+ * {@link #get(Object, Callable)}: without it Spring fills the cache with {@link #put}, which publishes.
+ */
+public class TwoLevelCache implements org.springframework.cache.Cache {
+    private static final ConversionService KEY_CONVERSION = DefaultConversionService.getSharedInstance();
+
+    private final String name;
+    private final Cache<String, Object> local;
+    private final org.springframework.cache.Cache remote;
+    private final CacheInvalidationPublisher invalidationPublisher;
+
+    private final Map<String, CompletableFuture<Object>> loading = new ConcurrentHashMap<>();
+
+    private final Counter localHits;
+    private final Counter remoteHits;
+    private final Counter misses;
+    private final Timer remoteLatency;
+    private final Timer loadLatency;
+
+    public TwoLevelCache(String name,
+                         Cache<String, Object> local,
+                         org.springframework.cache.Cache remote,
+                         CacheInvalidationPublisher invalidationPublisher,
+                         MeterRegistry meterRegistry) {
+        this.name = name;
+        this.local = local;
+        this.remote = remote;
+        this.invalidationPublisher = invalidationPublisher;
+
+        this.localHits = Counter.builder("cache.gets").tag("cache", name).tag("result", "local_hit").register(meterRegistry);
+        this.remoteHits = Counter.builder("cache.gets").tag("cache", name).tag("result", "redis_hit").register(meterRegistry);
+        this.misses = Counter.builder("cache.gets").tag("cache", name).tag("result", "miss").register(meterRegistry);
+        this.remoteLatency = Timer.builder("cache.redis.latency").tag("cache", name).register(meterRegistry);
+        this.loadLatency = Timer.builder("cache.load.latency").tag("cache", name).register(meterRegistry);
+        Gauge.builder("cache.local.size", local, Cache::estimatedSize).tag("cache", name).register(meterRegistry);
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return local;
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        String localKey = localKey(key);
+        Object value = local.getIfPresent(localKey);
+        if (value != null) {
+            localHits.increment();
+            return new SimpleValueWrapper(value);
+        }
+
+        ValueWrapper wrapper = remoteLatency.record(() -> remote.get(key));
+        if (wrapper != null && wrapper.get() != null) {
+            remoteHits.increment();
+            local.put(localKey, wrapper.get());
+            return wrapper;
+        }
+        misses.increment();
+        return null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        if (wrapper == null) {
+            return null;
+        }
+        Object value = wrapper.get();
+        if (type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    /**
+     * Returns the cached value or loads it. Only one caller per key runs the loader at a time;
+     * the others wait for its result instead of all hitting the database on the same miss.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper wrapper = get(key);
+        if (wrapper != null) {
+            return (T) wrapper.get();
+        }
+
+        String localKey = localKey(key);
+        CompletableFuture<Object> load = new CompletableFuture<>();
+        CompletableFuture<Object> inFlight = loading.putIfAbsent(localKey, load);
+        if (inFlight != null) {
+            try {
+                return (T) inFlight.join();
+            } catch (CompletionException e) {
+                throw new ValueRetrievalException(key, valueLoader, e.getCause());
+            }
+        }
+
+        try {
+            T value = loadLatency.recordCallable(valueLoader);
+            if (value != null) {
+                populate(key, value);
+            }
+            load.complete(value);
+            return value;
+        } catch (Exception e) {
+            load.completeExceptionally(e);
+            throw new ValueRetrievalException(key, valueLoader, e);
+        } finally {
+            loading.remove(localKey, load);
+        }
+    }
+
+    /**
+     * Writes a changed value through to both levels and drops the other instances' local copies.
+     */
+    @Override
+    public void put(Object key, Object value) {
+        invalidationPublisher.publish(name, populate(key, value));
+    }
+
+    private String populate(Object key, Object value) {
+        remote.put(key, value);
+        String localKey = localKey(key);
+        local.put(localKey, value);
+        return localKey;
+    }
+
+    @Override
+    public void evict(Object key) {
+        remote.evict(key);
+        String localKey = localKey(key);
+        local.invalidate(localKey);
+        invalidationPublisher.publish(name, localKey);
+    }
+
+    @Override
+    public void clear() {
+        remote.clear();
+        local.invalidateAll();
+        invalidationPublisher.publish(name, null);
+    }
+
+    /**
+     * Drops local entries after another instance changed the cache.
+     *
+     * @param localKey The key to drop, or {@code null} to drop all entries.
+     */
+    void evictLocal(String localKey) {
+        if (localKey == null) {
+            local.invalidateAll();
+        } else {
+            local.invalidate(localKey);
+        }
+    }
+
+    // Keys are compared as strings so that array arguments (e.g. sort fields) match by content, as they do in Redis
+    static String localKey(Object key) {
+        if (KEY_CONVERSION.canConvert(key.getClass(), String.class)) {
+            return KEY_CONVERSION.convert(key, String.class);
+        }
+        return key.toString();
+    }
+}
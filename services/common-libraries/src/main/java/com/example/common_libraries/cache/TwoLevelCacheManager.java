@@ -0,0 +1,117 @@
+package com.example.common_libraries.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Creates a {@link TwoLevelCache} per cache name on top of the Redis caches, and applies the
+ * invalidations other instances publish on {@link #INVALIDATION_CHANNEL}.
+ * Writes and evictions made inside a transaction are applied once it commits, so a reader
+ * can't cache data that is about to be rolled back or replaced.
+ */
+@Slf4j
+public class TwoLevelCacheManager implements CacheManager, MessageListener, CacheInvalidationPublisher {
+    public static final String INVALIDATION_CHANNEL = "cache:invalidation";
+    private static final String SEPARATOR = "|";
+
+    private final String instanceId = UUID.randomUUID().toString();
+    private final RedisCacheManager remoteCacheManager;
+    private final StringRedisTemplate redisTemplate;
+    private final MeterRegistry meterRegistry;
+    private final long localMaximumSize;
+    private final Duration localTtl;
+
+    private final Map<String, TwoLevelCache> caches = new ConcurrentHashMap<>();
+    private final Map<String, Cache> transactionAwareCaches = new ConcurrentHashMap<>();
+    private final Map<String, Consumer<String>> localCaches = new ConcurrentHashMap<>();
+
+    public TwoLevelCacheManager(RedisCacheManager remoteCacheManager,
+                                StringRedisTemplate redisTemplate,
+                                MeterRegistry meterRegistry,
+                                long localMaximumSize,
+                                Duration localTtl) {
+        this.remoteCacheManager = remoteCacheManager;
+        this.redisTemplate = redisTemplate;
+        this.meterRegistry = meterRegistry;
+        this.localMaximumSize = localMaximumSize;
+        this.localTtl = localTtl;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        return transactionAwareCaches.computeIfAbsent(name,
+                cacheName -> new TransactionAwareCacheDecorator(caches.computeIfAbsent(cacheName, this::createCache)));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return caches.keySet();
+    }
+
+    /**
+     * Registers a cache that lives only in this instance's memory, so the evictions other instances
+     * publish for {@code name} reach {@code evictLocal} (with a {@code null} key to clear it).
+     *
+     * @return publishes the eviction of a key to the other instances
+     */
+    public Consumer<String> registerLocalCache(String name, Consumer<String> evictLocal) {
+        localCaches.put(name, evictLocal);
+        return key -> publish(name, key);
+    }
+
+    private TwoLevelCache createCache(String name) {
+        return new TwoLevelCache(
+                name,
+                Caffeine.newBuilder()
+                        .maximumSize(localMaximumSize)
+                        // bounds how long an instance can serve an entry if an invalidation message is lost
+                        .expireAfterWrite(localTtl)
+                        .build(),
+                remoteCacheManager.getCache(name),
+                this,
+                meterRegistry);
+    }
+
+    @Override
+    public void publish(String cacheName, String key) {
+        String message = instanceId + SEPARATOR + cacheName + (key == null ? "" : SEPARATOR + key);
+        try {
+            redisTemplate.convertAndSend(INVALIDATION_CHANNEL, message);
+        } catch (RuntimeException e) {
+            log.warn("Failed to publish invalidation of cache {}: {}", cacheName, e.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\\|", 3);
+        if (parts.length < 2 || parts[0].equals(instanceId)) {
+            return;
+        }
+        String key = parts.length == 3 ? parts[2] : null;
+        TwoLevelCache cache = caches.get(parts[1]);
+        if (cache != null) {
+            cache.evictLocal(key);
+        }
+        Consumer<String> localCache = localCaches.get(parts[1]);
+        if (localCache != null) {
+            localCache.accept(key);
+        }
+    }
+}
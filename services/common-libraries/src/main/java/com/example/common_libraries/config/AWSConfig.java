@@ -6,7 +6,7 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
 import software.amazon.awssdk.regions.Region;
-import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
 import software.amazon.awssdk.services.sqs.SqsClient;
 
 import java.net.URI;
@@ -23,14 +23,24 @@ public class AWSConfig {
     @Value("${spring.cloud.aws.sqs.endpoint}")
     private String sqsEndpoint;
 
+    @Value("${aws.s3.multipart.threshold-bytes:8388608}")
+    private long multipartThresholdBytes;
+
+    @Value("${aws.s3.multipart.part-size-bytes:5242880}")
+    private long multipartPartSizeBytes;
+
 
     @Bean
-    public S3Client s3Client() {
+    public S3AsyncClient s3AsyncClient() {
         Region awsRegion = Region.of(region);
-        return S3Client.builder()
+        return S3AsyncClient.builder()
                 .region(awsRegion)
                 .credentialsProvider(DefaultCredentialsProvider.create())
                 .endpointOverride(URI.create(endpoint))
+                .multipartEnabled(true)
+                .multipartConfiguration(multipart -> multipart
+                        .thresholdInBytes(multipartThresholdBytes)
+                        .minimumPartSizeInBytes(multipartPartSizeBytes))
                 .build();
     }
 
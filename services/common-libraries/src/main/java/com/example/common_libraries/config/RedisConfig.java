@@ -1,5 +1,9 @@
 package com.example.common_libraries.config;
 
+import com.example.common_libraries.cache.BinaryRedisSerializer;
+import com.example.common_libraries.cache.CacheInvalidationSubscriber;
+import com.example.common_libraries.cache.CacheTypeRegistry;
+import com.example.common_libraries.cache.TwoLevelCacheManager;
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -8,19 +12,24 @@ import com.fasterxml.jackson.databind.jsontype.BasicPolymorphicTypeValidator;
 import com.fasterxml.jackson.databind.jsontype.PolymorphicTypeValidator;
 import com.fasterxml.jackson.databind.jsontype.impl.LaissezFaireSubTypeValidator;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
-import org.springframework.cache.CacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.cache.BatchStrategies;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.cache.RedisCacheWriter;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.data.redis.repository.configuration.EnableRedisRepositories;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 import java.time.Duration;
@@ -34,7 +43,23 @@ public class RedisConfig {
     @Value("${redis.cache.ttl.minutes:60}")
     private int ttl;
 
-    private ObjectMapper createSecureObjectMapper() {
+    // caches whose values are stored with the BinaryRedisSerializer instead of JSON
+    @Value("${redis.cache.binary-caches:}")
+    private String[] binaryCaches;
+
+    @Value("${redis.cache.compression-threshold-bytes:1024}")
+    private int compressionThreshold;
+
+    @Value("${redis.template.binary:false}")
+    private boolean binaryTemplate;
+
+    @Value("${cache.local.maximum-size:1000}")
+    private long localCacheMaximumSize;
+
+    @Value("${cache.local.ttl-seconds:30}")
+    private long localCacheTtlSeconds;
+
+    public static ObjectMapper createSecureObjectMapper() {
         ObjectMapper mapper = new ObjectMapper();
         mapper.registerModule(new JavaTimeModule());
         mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
@@ -55,12 +80,19 @@ public class RedisConfig {
     }
 
     @Bean
-    public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory connectionFactory) {
+    public BinaryRedisSerializer binaryRedisSerializer(ObjectProvider<CacheTypeRegistry> cacheTypeRegistry) {
+        return new BinaryRedisSerializer(cacheTypeRegistry.getIfAvailable(CacheTypeRegistry::new), compressionThreshold);
+    }
+
+    @Bean
+    public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory connectionFactory,
+                                                       BinaryRedisSerializer binaryRedisSerializer) {
         RedisTemplate<String, Object> template = new RedisTemplate<>();
         template.setConnectionFactory(connectionFactory);
 
-        GenericJackson2JsonRedisSerializer serializer =
-                new GenericJackson2JsonRedisSerializer(createSecureObjectMapper());
+        RedisSerializer<Object> serializer = binaryTemplate
+                ? binaryRedisSerializer
+                : new GenericJackson2JsonRedisSerializer(createSecureObjectMapper());
 
         template.setKeySerializer(StringRedisSerializer.UTF_8);
         template.setValueSerializer(serializer);
@@ -73,7 +105,9 @@ public class RedisConfig {
     }
 
     @Bean
-    public CacheManager cacheManager(RedisConnectionFactory connectionFactory) {
+    public TwoLevelCacheManager cacheManager(RedisConnectionFactory connectionFactory,
+                                             BinaryRedisSerializer binaryRedisSerializer,
+                                             MeterRegistry meterRegistry) {
         GenericJackson2JsonRedisSerializer serializer =
                 new GenericJackson2JsonRedisSerializer(createSecureObjectMapper());
 
@@ -83,9 +117,33 @@ public class RedisConfig {
                 .entryTtl(Duration.ofMinutes(ttl))
                 .disableCachingNullValues();
 
-        return RedisCacheManager.builder(connectionFactory)
-                .cacheDefaults(config)
-                .build();
+        // Binary entries get their own key prefix, so entries written as JSON before the switch are never read
+        RedisCacheConfiguration binaryConfig = config
+                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(binaryRedisSerializer))
+                .prefixCacheNameWith("bin:");
+
+        // Caches are cleared whenever their data changes, so use SCAN instead of blocking Redis with KEYS
+        RedisCacheManager.RedisCacheManagerBuilder builder = RedisCacheManager
+                .builder(RedisCacheWriter.nonLockingRedisCacheWriter(connectionFactory, BatchStrategies.scan(1000)))
+                .cacheDefaults(config);
+        for (String cacheName : binaryCaches) {
+            builder.withCacheConfiguration(cacheName.trim(), binaryConfig);
+        }
+        RedisCacheManager redisCacheManager = builder.build();
+        redisCacheManager.afterPropertiesSet();
+
+        return new TwoLevelCacheManager(
+                redisCacheManager,
+                new StringRedisTemplate(connectionFactory),
+                meterRegistry,
+                localCacheMaximumSize,
+                Duration.ofSeconds(localCacheTtlSeconds));
+    }
+
+    @Bean
+    public CacheInvalidationSubscriber cacheInvalidationSubscriber(RedisConnectionFactory connectionFactory,
+                                                                   TwoLevelCacheManager cacheManager) {
+        return new CacheInvalidationSubscriber(connectionFactory, cacheManager, Duration.ofSeconds(5));
     }
 
 }
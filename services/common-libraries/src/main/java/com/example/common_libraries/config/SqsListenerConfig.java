@@ -0,0 +1,58 @@
+package com.example.common_libraries.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.awspring.cloud.sqs.config.SqsMessageListenerContainerFactory;
+import io.awspring.cloud.sqs.listener.acknowledgement.handler.AcknowledgementMode;
+import io.awspring.cloud.sqs.support.converter.SqsMessagingMessageConverter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import software.amazon.awssdk.services.sqs.SqsAsyncClient;
+
+import java.time.Duration;
+
+/**
+ * Container settings shared by every {@code @SqsListener}. Each poll receives up to 10 messages, which
+ * listeners taking a {@code List} get as one batch. Listeners can override the in-flight limit per queue
+ * with the {@code maxConcurrentMessages} attribute; a batch is handled on one thread, so the limit should
+ * allow several batches at once. Acknowledgements are collected and deleted with
+ * {@code DeleteMessageBatch} once {@code acknowledgement-threshold} messages are done or
+ * {@code acknowledgement-interval-ms} has passed.
+ */
+@Configuration
+public class SqsListenerConfig {
+    @Value("${sqs.listener.max-concurrent-messages:50}")
+    private int maxConcurrentMessages;
+
+    @Value("${sqs.listener.max-messages-per-poll:10}")
+    private int maxMessagesPerPoll;
+
+    @Value("${sqs.listener.poll-timeout-seconds:10}")
+    private long pollTimeoutSeconds;
+
+    @Value("${sqs.listener.acknowledgement-interval-ms:500}")
+    private long acknowledgementIntervalMs;
+
+    @Value("${sqs.listener.acknowledgement-threshold:10}")
+    private int acknowledgementThreshold;
+
+    @Bean
+    public SqsMessageListenerContainerFactory<Object> defaultSqsListenerContainerFactory(SqsAsyncClient sqsAsyncClient,
+                                                                                       ObjectProvider<ObjectMapper> objectMapper) {
+        SqsMessagingMessageConverter messageConverter = new SqsMessagingMessageConverter();
+        objectMapper.ifAvailable(messageConverter::setObjectMapper);
+
+        return SqsMessageListenerContainerFactory.builder()
+                .sqsAsyncClient(sqsAsyncClient)
+                .configure(options -> options
+                        .maxConcurrentMessages(maxConcurrentMessages)
+                        .maxMessagesPerPoll(maxMessagesPerPoll)
+                        .pollTimeout(Duration.ofSeconds(pollTimeoutSeconds))
+                        .acknowledgementMode(AcknowledgementMode.ON_SUCCESS)
+                        .acknowledgementInterval(Duration.ofMillis(acknowledgementIntervalMs))
+                        .acknowledgementThreshold(acknowledgementThreshold)
+                        .messageConverter(messageConverter))
+                .build();
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.common_libraries.dto;
+
+import java.util.List;
+
+/**
+ * One page of a cursor paginated list. Pass {@code nextCursor} back to get the page after it; it is null on
+ * the last page. Unlike a {@code Page} there is no total, which would take a count query on every call.
+ */
+public record CursorPage<T>(
+        List<T> content,
+        int size,
+        String nextCursor
+) {
+}
@@ -0,0 +1,13 @@
+package com.example.common_libraries.dto;
+
+import java.time.Instant;
+
+/**
+ * The claims of a verified token, read once so callers don't verify the signature again for every claim.
+ */
+public record JwtClaims(String subject, Long userId, String role, String fullName, Instant expiresAt) {
+
+    public AppUser toAppUser() {
+        return new AppUser(userId, role, subject, fullName);
+    }
+}
@@ -5,4 +5,6 @@ public record PlatformNotificationSettingDto(
         Boolean paymentFailures,
         Boolean platformErrors
 ) {
+    // the services that cache these settings drop them when an eviction of this cache is published
+    public static final String CACHE_NAME = "platform-notification-settings";
 }
\ No newline at end of file
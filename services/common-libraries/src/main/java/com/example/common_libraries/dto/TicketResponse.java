@@ -1,13 +1,19 @@
 package com.example.common_libraries.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Builder;
 
+/**
+ * A ticket sent to the attendee. {@code qrCodeUrl} is deprecated: the notification service renders
+ * QR codes from {@code ticketCode}, and it is only set on messages queued before tickets stopped
+ * carrying their image.
+ */
 @Builder
 public record TicketResponse(
         Long id,
         String ticketType,
         String ticketCode,
-        String qrCodeUrl,
+        @Deprecated @JsonInclude(JsonInclude.Include.NON_NULL) String qrCodeUrl,
         String status
 ) {
 }
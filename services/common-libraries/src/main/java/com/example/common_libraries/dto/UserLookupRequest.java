@@ -0,0 +1,26 @@
+package com.example.common_libraries.dto;
+
+import java.util.List;
+
+/**
+ * Users to resolve in one call to user-service, by id, by email or both. Either list may be empty.
+ * Emails match whatever their case and surrounding spaces; compare them in {@link #normalizeEmail(String)} form.
+ */
+public record UserLookupRequest(
+        List<Long> ids,
+        List<String> emails
+) {
+    public UserLookupRequest {
+        ids = ids == null ? List.of() : ids;
+        emails = emails == null ? List.of() : emails;
+    }
+
+    public int size() {
+        return ids.size() + emails.size();
+    }
+
+    // the form emails are registered in
+    public static String normalizeEmail(String email) {
+        return email.toLowerCase().trim();
+    }
+}
@@ -15,5 +15,9 @@ public record ProcessPaymentEvent(
 
         String email,
 
-        EventRegistrationResponse eventRegistrationResponse
+        EventRegistrationResponse eventRegistrationResponse,
+
+        Long reservationId,
+
+        String transactionReference
 ) { }
@@ -0,0 +1,21 @@
+package com.example.common_libraries.dto.queue_events;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Builder;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Sent by event-service when a payment completed but its tickets sold out in the meantime, so that
+ * payment-service refunds the Paystack transaction.
+ */
+@Builder
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record RefundDueEvent(
+        String transactionReference,
+        String email,
+        BigDecimal amount,
+        Instant timestamp
+) {
+}
@@ -1,8 +1,8 @@
 package com.example.common_libraries.filter;
 
 import com.example.common_libraries.dto.AppUser;
-import com.example.common_libraries.utils.JWTUtil;
-import io.jsonwebtoken.Claims;
+import com.example.common_libraries.dto.JwtClaims;
+import com.example.common_libraries.utils.VerifiedTokenCache;
 import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -30,7 +30,7 @@ import java.util.Arrays;
 @ConditionalOnProperty(prefix = "application.security.jwt", name = "secret-key")
 public class JWTFilter extends OncePerRequestFilter {
 
-    private final JWTUtil jwtUtil;
+    private final VerifiedTokenCache verifiedTokenCache;
     @Nullable
     private final UserDetailsService userDetailsService;
 
@@ -42,27 +42,22 @@ public class JWTFilter extends OncePerRequestFilter {
 
         try {
             if (token != null) {
-                String username = jwtUtil.extractUsername(token);
+                // Verified once per request; expired or tampered tokens throw a JwtException
+                JwtClaims claims = verifiedTokenCache.verify(token);
+                String username = claims.subject();
 
                 if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
 
                     if (userDetailsService != null) {
                         UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-                        if (jwtUtil.validateToken(token, userDetails)) {
+                        if (username.equals(userDetails.getUsername()) && userDetails.isEnabled()) {
                             UsernamePasswordAuthenticationToken auth =
                                     new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
                             auth.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                             SecurityContextHolder.getContext().setAuthentication(auth);
                         }
                     } else {
-                        jwtUtil.validateToken(token);
-                        Claims claims = jwtUtil.parseToken(token);
-                        Long userId = jwtUtil.extractUserId(token);
-                        String role = jwtUtil.extractRole(token);
-                        String userEmail = claims.getSubject();
-                        String fullName = claims.get("fullName", String.class);
-
-                        AppUser user = new AppUser(userId, role, userEmail, fullName);
+                        AppUser user = claims.toAppUser();
                         UsernamePasswordAuthenticationToken auth =
                                 new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
                         auth.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
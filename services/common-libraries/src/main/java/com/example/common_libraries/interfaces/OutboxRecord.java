@@ -0,0 +1,17 @@
+package com.example.common_libraries.interfaces;
+
+import java.time.Instant;
+
+/**
+ * A message waiting in a service's outbox table to be sent to SQS.
+ */
+public interface OutboxRecord {
+    Long getId();
+    String getQueueUrl();
+    String getAggregateKey();
+    String getPayload();
+    Integer getAttempts();
+    void setAttempts(Integer attempts);
+    Instant getNextAttemptAt();
+    void setNextAttemptAt(Instant nextAttemptAt);
+}
@@ -0,0 +1,232 @@
+package com.example.common_libraries.service;
+
+import com.example.common_libraries.interfaces.OutboxRecord;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The outbox relay shared by the services that write their queue messages to an outbox table.
+ * A service stores the messages with its own entity and supplies how they are claimed, deleted
+ * and given up on; sending, ordering and retries are done here.
+ * <p>
+ * Messages are claimed in a short transaction that leases them by moving their next attempt past
+ * the send timeout, so no row lock is held while SQS is called and other relays skip them until
+ * the lease runs out. The outcome is written in a second transaction once the sends completed.
+ *
+ * @param <M> The service's outbox entity.
+ */
+@Slf4j
+public abstract class AbstractOutboxService<M extends OutboxRecord> {
+    private static final Duration MAX_BACKOFF = Duration.ofMinutes(5);
+
+    private final SqsBatchPublisher sqsBatchPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${outbox.relay.batch-size:200}")
+    private int batchSize;
+
+    @Value("${outbox.relay.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${outbox.relay.send-timeout-ms:10000}")
+    private long sendTimeoutMs;
+
+    // Must exceed the send timeout, or another relay could claim a message that is still being sent
+    @Value("${outbox.relay.lease-ms:60000}")
+    private long leaseMs;
+
+    protected AbstractOutboxService(SqsBatchPublisher sqsBatchPublisher, TransactionTemplate transactionTemplate) {
+        this.sqsBatchPublisher = sqsBatchPublisher;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /**
+     * Locks up to {@code limit} pending messages that are due for the current transaction, in id order.
+     * A message with an aggregate key may only be claimed together with every older pending message
+     * of its aggregate, so that two relays never send messages of the same aggregate at once.
+     */
+    protected abstract List<M> claimPending(Instant now, int limit);
+
+    protected abstract void deleteSent(List<Long> ids);
+
+    /**
+     * Leaves the message in the outbox for inspection without it being claimed again.
+     */
+    protected abstract void markFailed(M message);
+
+    /**
+     * Writes the attempts, next attempt and status of messages loaded in an earlier transaction.
+     */
+    protected abstract void saveAll(List<M> messages);
+
+    /**
+     * Sends the oldest pending messages to SQS in batches. Messages of an aggregate are chained,
+     * so one is only sent after the previous one was accepted, and an aggregate whose oldest
+     * message is waiting for a retry is not sent at all. Only one batch is claimed per run,
+     * so a backlog drains at the rate SQS accepts messages without growing memory.
+     * <p>
+     * A send still running after the send timeout keeps its lease and is settled when it completes,
+     * so a message SQS accepts late is deleted rather than sent again.
+     *
+     * @return The number of messages sent.
+     */
+    @Scheduled(fixedDelayString = "${outbox.relay.interval-ms:200}", initialDelayString = "${outbox.relay.interval-ms:200}")
+    public int relay() {
+        Instant now = Instant.now();
+        List<M> messages = transactionTemplate.execute(status -> lease(now));
+        if(messages == null || messages.isEmpty()){
+            return 0;
+        }
+
+        Map<String, CompletableFuture<Boolean>> aggregateChains = new HashMap<>();
+        Map<M, CompletableFuture<Boolean>> outcomes = new LinkedHashMap<>();
+
+        for(M message : messages){
+            String aggregateKey = message.getAggregateKey();
+            CompletableFuture<Boolean> previous = aggregateKey == null
+                    ? CompletableFuture.completedFuture(true)
+                    : aggregateChains.getOrDefault(aggregateKey, CompletableFuture.completedFuture(true));
+            // null means skipped because an earlier message of the aggregate was not sent
+            CompletableFuture<Boolean> outcome = previous.thenCompose(previousSent -> Boolean.TRUE.equals(previousSent)
+                    ? send(message)
+                    : CompletableFuture.completedFuture(null));
+
+            outcomes.put(message, outcome);
+            if(aggregateKey != null){
+                aggregateChains.put(aggregateKey, outcome);
+            }
+        }
+
+        try{
+            CompletableFuture.allOf(outcomes.values().toArray(CompletableFuture[]::new)).get(sendTimeoutMs, TimeUnit.MILLISECONDS);
+        }catch (Exception e){
+            log.warn("Outbox relay timed out waiting for SQS, pending sends will be settled when they complete: {}", e.getMessage());
+        }
+
+        Map<M, Boolean> settled = new LinkedHashMap<>();
+        for(Map.Entry<M, CompletableFuture<Boolean>> entry : outcomes.entrySet()){
+            M message = entry.getKey();
+            CompletableFuture<Boolean> outcome = entry.getValue();
+            if(outcome.isDone()){
+                settled.put(message, outcome.getNow(false));
+            }else{
+                outcome.whenComplete((sent, error) -> settleLate(message, error == null ? sent : Boolean.FALSE));
+            }
+        }
+
+        return settle(settled, now);
+    }
+
+    /**
+     * Claims the due messages and leases the ones that will be sent in this run.
+     */
+    private List<M> lease(Instant now) {
+        Instant leaseExpiry = now.plusMillis(leaseMs);
+        Set<String> blockedAggregates = new HashSet<>();
+        List<M> leased = new ArrayList<>();
+
+        for(M message : claimPending(now, batchSize)){
+            String aggregateKey = message.getAggregateKey();
+            if(aggregateKey != null && blockedAggregates.contains(aggregateKey)){
+                continue;
+            }
+            if(message.getNextAttemptAt().isAfter(now)){
+                // keep later messages of this aggregate behind the one waiting for a retry
+                if(aggregateKey != null){
+                    blockedAggregates.add(aggregateKey);
+                }
+                continue;
+            }
+            message.setNextAttemptAt(leaseExpiry);
+            leased.add(message);
+        }
+
+        if(!leased.isEmpty()){
+            saveAll(leased);
+        }
+        return leased;
+    }
+
+    /**
+     * Deletes the sent messages, schedules retries for the failed ones and releases the lease of
+     * the ones skipped behind a failure, in one transaction.
+     *
+     * @param outcomes {@code true} for sent, {@code false} for failed and {@code null} for skipped.
+     * @return The number of messages sent.
+     */
+    private int settle(Map<M, Boolean> outcomes, Instant now) {
+        List<Long> sentIds = new ArrayList<>();
+        List<M> unsent = new ArrayList<>();
+        for(Map.Entry<M, Boolean> entry : outcomes.entrySet()){
+            M message = entry.getKey();
+            if(Boolean.TRUE.equals(entry.getValue())){
+                sentIds.add(message.getId());
+                continue;
+            }
+            if(Boolean.FALSE.equals(entry.getValue())){
+                scheduleRetry(message, now);
+            }else{
+                message.setNextAttemptAt(now);
+            }
+            unsent.add(message);
+        }
+
+        if(sentIds.isEmpty() && unsent.isEmpty()){
+            return 0;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            if(!sentIds.isEmpty()){
+                deleteSent(sentIds);
+            }
+            if(!unsent.isEmpty()){
+                saveAll(unsent);
+            }
+        });
+        return sentIds.size();
+    }
+
+    private void settleLate(M message, Boolean sent) {
+        Map<M, Boolean> outcome = new HashMap<>();
+        outcome.put(message, sent);
+        try{
+            settle(outcome, Instant.now());
+        }catch (Exception e){
+            // the lease runs out and the message is claimed again
+            log.error("Could not settle outbox message {} after a late SQS response: {}", message.getId(), e.getMessage());
+        }
+    }
+
+    private CompletableFuture<Boolean> send(M message) {
+        return sqsBatchPublisher.publish(message.getQueueUrl(), message.getPayload())
+                .handle((messageId, error) -> error == null);
+    }
+
+    private void scheduleRetry(M message, Instant now) {
+        int attempts = message.getAttempts() + 1;
+        message.setAttempts(attempts);
+
+        if(attempts >= maxAttempts){
+            markFailed(message);
+            log.error("Giving up on outbox message {} to {} after {} attempts", message.getId(), message.getQueueUrl(), attempts);
+            return;
+        }
+
+        // exponential backoff starting at one second
+        Duration backoff = Duration.ofSeconds(1L << Math.min(attempts - 1, 16));
+        message.setNextAttemptAt(now.plus(backoff.compareTo(MAX_BACKOFF) > 0 ? MAX_BACKOFF : backoff));
+    }
+}
@@ -1,27 +1,47 @@
 package com.example.common_libraries.service;
 
 import com.example.common_libraries.exception.FileUploadException;
-import lombok.RequiredArgsConstructor;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
-import software.amazon.awssdk.core.sync.RequestBody;
-import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
 import software.amazon.awssdk.services.s3.model.ObjectCannedACL;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectResponse;
 import software.amazon.awssdk.services.s3.model.S3Exception;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
 
+/**
+ * Uploads images with the async S3 client, streaming each one from its multipart input stream rather than
+ * reading it into memory first. The client switches to a multipart upload above
+ * {@code aws.s3.multipart.threshold-bytes}. At most {@code aws.s3.upload.max-in-flight} uploads run at once
+ * across all callers, each holding one stream reader thread.
+ */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class S3ServiceImpl implements S3Service {
 
-    private final S3Client s3Client;
+    private final S3AsyncClient s3AsyncClient;
+
+    // Feed the request bodies from the input streams, one thread per upload in flight. Not virtual threads:
+    // the SDK blocks while holding a monitor, which would pin their carriers
+    private final ExecutorService streamReaders;
+    private final Semaphore uploadSlots;
 
     @Value("${aws.s3.bucket}")
     private String bucketName;
@@ -29,57 +49,181 @@ public class S3ServiceImpl implements S3Service {
     @Value("${aws.s3.region}")
     private String region;
 
+    @Value("${aws.s3.upload.concurrency:4}")
+    private int uploadConcurrency;
+
+    private record Upload(String key, CompletableFuture<PutObjectResponse> put, CompletableFuture<String> url) {}
+
+    public S3ServiceImpl(S3AsyncClient s3AsyncClient,
+                         @Value("${aws.s3.upload.max-in-flight:16}") int maxInFlight) {
+        this.s3AsyncClient = s3AsyncClient;
+        this.uploadSlots = new Semaphore(maxInFlight);
+        this.streamReaders = Executors.newFixedThreadPool(maxInFlight, runnable -> {
+            Thread thread = new Thread(runnable, "s3-upload-stream");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
 
     @Override
     public String uploadImage(MultipartFile file) {
-        String key = String.format("images/%d-%s", System.currentTimeMillis(), file.getOriginalFilename());
+        return await(upload(file).url());
+    }
+
+
+    /**
+     * Uploads the images at the same time, at most {@code aws.s3.upload.concurrency} of them at once. As soon
+     * as one fails the others are cancelled and the ones already stored are deleted again.
+     *
+     * @param files The images to upload.
+     * @return The URLs of the images, in the order they were given.
+     * @throws FileUploadException if any of them couldn't be uploaded.
+     */
+    @Override
+    public List<String> uploadImages(List<MultipartFile> files) {
+        Semaphore callSlots = new Semaphore(uploadConcurrency);
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        List<Upload> uploads = new ArrayList<>(files.size());
         try {
-            s3Client.putObject(
+            for (MultipartFile file : files) {
+                callSlots.acquire();
+                if (done.isDone()) {
+                    break;
+                }
+                Upload upload = upload(file);
+                upload.url().whenComplete((url, e) -> {
+                    callSlots.release();
+                    if (e != null) {
+                        done.completeExceptionally(e);
+                    }
+                });
+                uploads.add(upload);
+            }
+            CompletableFuture.allOf(uploads.stream().map(Upload::url).toArray(CompletableFuture[]::new))
+                    .thenRun(() -> done.complete(null));
+            await(done);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            abort(uploads);
+            throw new FileUploadException("Something went wrong while uploading file");
+        } catch (FileUploadException e) {
+            abort(uploads);
+            throw e;
+        }
+        return uploads.stream().map(upload -> upload.url().join()).toList();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        streamReaders.shutdown();
+    }
+
+    private Upload upload(MultipartFile file) {
+        String key = String.format("images/%s-%s", UUID.randomUUID(), file.getOriginalFilename());
+        InputStream content;
+        try {
+            content = file.getInputStream();
+        } catch (IOException e) {
+            log.error("IOException Error while uploading image: {}", e.getMessage());
+            return failed(key, new FileUploadException("Error while uploading image, please try again"));
+        }
+        try {
+            uploadSlots.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            closeQuietly(content);
+            return failed(key, new FileUploadException("Something went wrong while uploading file"));
+        }
+
+        CompletableFuture<PutObjectResponse> put;
+        try {
+            put = s3AsyncClient.putObject(
                     PutObjectRequest.builder()
                             .bucket(bucketName)
                             .key(key)
                             .contentType(file.getContentType())
 //                            .acl(ObjectCannedACL.PUBLIC_READ)
                             .build(),
-                    RequestBody.fromBytes(file.getBytes())
+                    // the length goes on the body only; the multipart client would copy one on the request to every part
+                    AsyncRequestBody.fromInputStream(content, file.getSize(), streamReaders)
             );
-
+        } catch (RuntimeException e) {
+            put = CompletableFuture.failedFuture(e);
+        }
+        CompletableFuture<String> url = put.handle((response, e) -> {
+            uploadSlots.release();
+            closeQuietly(content);
+            if (e instanceof CancellationException cancelled) {
+                throw cancelled;
+            }
+            if (e != null) {
+                throw toFileUploadException(e instanceof CompletionException && e.getCause() != null ? e.getCause() : e);
+            }
             return String.format(
                     "https://%s.s3.%s.amazonaws.com/%s",
                     bucketName,
                     region,
                     key
             );
-        } catch (IOException e) {
-            log.error("IOException Error while uploading image: {}", e.getMessage());
-            throw new FileUploadException("Error while uploading image, please try again");
-        } catch (S3Exception e) {
+        });
+        return new Upload(key, put, url);
+    }
+
+    private static Upload failed(String key, FileUploadException e) {
+        return new Upload(key, CompletableFuture.failedFuture(e), CompletableFuture.failedFuture(e));
+    }
+
+    // Cancels the uploads still running and deletes every object that was, or still gets, stored
+    private void abort(List<Upload> uploads) {
+        for (Upload upload : uploads) {
+            upload.put().cancel(true);
+            upload.url().whenComplete((url, e) -> {
+                if (e == null) {
+                    delete(upload.key());
+                }
+            });
+        }
+    }
+
+    private void delete(String key) {
+        s3AsyncClient.deleteObject(DeleteObjectRequest.builder().bucket(bucketName).key(key).build())
+                .whenComplete((response, e) -> {
+                    if (e != null) {
+                        log.warn("Could not delete orphaned upload {}: {}", key, e.getMessage());
+                    }
+                });
+    }
+
+    private static FileUploadException toFileUploadException(Throwable e) {
+        if (e instanceof FileUploadException fileUploadException) {
+            return fileUploadException;
+        }
+        if (e instanceof S3Exception) {
             log.error("S3Exception Error while uploading image: {}", e.getMessage());
-            throw new FileUploadException("File Upload Failed, please try again later");
-        } catch (Exception e) {
-            log.error("Error while uploading image: {}", e.getMessage());
-            throw new FileUploadException("Something went wrong while uploading file");
+            return new FileUploadException("File Upload Failed, please try again later");
+        }
+        if (e instanceof IOException || e.getCause() instanceof IOException) {
+            log.error("IOException Error while uploading image: {}", e.getMessage());
+            return new FileUploadException("Error while uploading image, please try again");
         }
+        log.error("Error while uploading image: {}", e.getMessage());
+        return new FileUploadException("Something went wrong while uploading file");
     }
 
+    private static <T> T await(CompletableFuture<T> upload) {
+        try {
+            return upload.join();
+        } catch (CompletionException e) {
+            throw toFileUploadException(e.getCause() != null ? e.getCause() : e);
+        }
+    }
 
-    @Override
-    public List<String> uploadImages(List<MultipartFile> files) {
-        List<String> imageList = new ArrayList<>();
-        for (MultipartFile file : files) {
-            try {
-                String url = uploadImage(file);
-                imageList.add(url);
-            } catch (S3Exception e) {
-                log.error("S3Exception Error while uploading images: {}", e.getMessage());
-                throw new FileUploadException("File Upload Failed, please try again later");
-
-            } catch (Exception e) {
-                log.error("Error while uploading images: {}", e.getMessage());
-                throw new FileUploadException("Something went wrong while uploading file");
-            }
+    private static void closeQuietly(InputStream content) {
+        try {
+            content.close();
+        } catch (IOException e) {
+            log.debug("Could not close upload stream: {}", e.getMessage());
         }
-        return imageList;
     }
 }
-
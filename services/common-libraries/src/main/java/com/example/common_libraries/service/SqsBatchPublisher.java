@@ -0,0 +1,8 @@
+package com.example.common_libraries.service;
+
+import java.util.concurrent.CompletableFuture;
+
+public interface SqsBatchPublisher {
+    CompletableFuture<String> publish(String queueUrl, String messageBody);
+    void flush();
+}
@@ -0,0 +1,177 @@
+package com.example.common_libraries.service;
+
+import com.example.common_libraries.exception.ServiceCommunicationException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import software.amazon.awssdk.services.sqs.SqsAsyncClient;
+import software.amazon.awssdk.services.sqs.model.BatchResultErrorEntry;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchRequestEntry;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchResponse;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchResultEntry;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Buffers messages per queue and sends them with {@code SendMessageBatch} on the async SQS client.
+ * A batch is sent as soon as it holds 10 messages (or would exceed the 256 KiB request limit),
+ * otherwise after {@code sqs.publisher.linger-ms}, so callers never wait on SQS.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SqsBatchPublisherImpl implements SqsBatchPublisher {
+    // Limits of a single SendMessageBatch call
+    static final int MAX_BATCH_SIZE = 10;
+    static final int MAX_BATCH_BYTES = 262_144;
+
+    private final SqsAsyncClient sqsAsyncClient;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, QueueBuffer> buffers = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService lingerScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "sqs-batch-linger");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Value("${sqs.publisher.linger-ms:20}")
+    private long lingerMs;
+
+
+    /**
+     * Queues a message for the next batch of the given queue.
+     *
+     * @param queueUrl The URL of the queue to send the message to.
+     * @param messageBody The message body.
+     * @return Completes with the SQS message id once the batch was sent, or exceptionally if SQS rejected it.
+     */
+    @Override
+    public CompletableFuture<String> publish(String queueUrl, String messageBody) {
+        PendingMessage message = new PendingMessage(messageBody, messageBody.getBytes(StandardCharsets.UTF_8).length, new CompletableFuture<>());
+        buffers.computeIfAbsent(queueUrl, QueueBuffer::new).add(message);
+        return message.result();
+    }
+
+    /**
+     * Sends every buffered message without waiting for the linger timer.
+     */
+    @Override
+    public void flush() {
+        buffers.values().forEach(QueueBuffer::flush);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+        lingerScheduler.shutdown();
+    }
+
+    private void send(String queueUrl, List<PendingMessage> batch) {
+        List<SendMessageBatchRequestEntry> entries = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            entries.add(SendMessageBatchRequestEntry.builder()
+                    .id(Integer.toString(i))
+                    .messageBody(batch.get(i).body())
+                    .build());
+        }
+
+        String queueName = queueName(queueUrl);
+        meterRegistry.summary("sqs.publisher.batch.size", "queue", queueName).record(batch.size());
+        Timer.Sample flushTimer = Timer.start(meterRegistry);
+
+        CompletableFuture<SendMessageBatchResponse> sent;
+        try {
+            sent = sqsAsyncClient.sendMessageBatch(builder -> builder.queueUrl(queueUrl).entries(entries));
+        } catch (RuntimeException e) {
+            // thrown before a request was made, e.g. an invalid request; fail the batch like a failed send
+            sent = CompletableFuture.failedFuture(e);
+        }
+
+        sent.whenComplete((response, error) -> {
+            flushTimer.stop(meterRegistry.timer("sqs.publisher.flush.latency", "queue", queueName));
+            if (error != null) {
+                log.error("Error sending batch of {} messages to SQS queue {}: {}", batch.size(), queueName, error.getMessage());
+                meterRegistry.counter("sqs.publisher.failures", "queue", queueName).increment(batch.size());
+                batch.forEach(message -> message.result().completeExceptionally(error));
+                return;
+            }
+            complete(queueName, batch, response);
+        });
+    }
+
+    private void complete(String queueName, List<PendingMessage> batch, SendMessageBatchResponse response) {
+        for (SendMessageBatchResultEntry entry : response.successful()) {
+            batch.get(Integer.parseInt(entry.id())).result().complete(entry.messageId());
+        }
+        for (BatchResultErrorEntry entry : response.failed()) {
+            log.error("Error sending message to SQS queue {}: {} {}", queueName, entry.code(), entry.message());
+            batch.get(Integer.parseInt(entry.id())).result()
+                    .completeExceptionally(new ServiceCommunicationException("SQS rejected message: " + entry.code()));
+        }
+        if (!response.failed().isEmpty()) {
+            meterRegistry.counter("sqs.publisher.failures", "queue", queueName).increment(response.failed().size());
+        }
+    }
+
+    private static String queueName(String queueUrl) {
+        return queueUrl.substring(queueUrl.lastIndexOf('/') + 1);
+    }
+
+    private record PendingMessage(String body, int bytes, CompletableFuture<String> result) {}
+
+    private final class QueueBuffer {
+        private final String queueUrl;
+        private List<PendingMessage> pending = new ArrayList<>(MAX_BATCH_SIZE);
+        private int pendingBytes;
+        private ScheduledFuture<?> lingerTask;
+
+        private QueueBuffer(String queueUrl) {
+            this.queueUrl = queueUrl;
+        }
+
+        synchronized void add(PendingMessage message) {
+            if (!pending.isEmpty() && pendingBytes + message.bytes() > MAX_BATCH_BYTES) {
+                drain();
+            }
+            pending.add(message);
+            pendingBytes += message.bytes();
+
+            if (pending.size() >= MAX_BATCH_SIZE) {
+                drain();
+            } else if (lingerTask == null) {
+                lingerTask = lingerScheduler.schedule(this::flush, lingerMs, TimeUnit.MILLISECONDS);
+            }
+        }
+
+        synchronized void flush() {
+            if (!pending.isEmpty()) {
+                drain();
+            }
+        }
+
+        private void drain() {
+            if (lingerTask != null) {
+                lingerTask.cancel(false);
+                lingerTask = null;
+            }
+            List<PendingMessage> batch = pending;
+            pending = new ArrayList<>(MAX_BATCH_SIZE);
+            pendingBytes = 0;
+            send(queueUrl, batch);
+        }
+    }
+}
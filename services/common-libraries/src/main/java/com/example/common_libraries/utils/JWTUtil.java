@@ -1,11 +1,12 @@
 package com.example.common_libraries.utils;
 
+import com.example.common_libraries.dto.JwtClaims;
 import com.example.common_libraries.exception.InvalidJWTTokenException;
 import com.example.common_libraries.interfaces.JwtUserDetails;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
-import io.jsonwebtoken.security.SignatureException;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
@@ -32,9 +33,18 @@ public class JWTUtil {
     @Value("${application.security.jwt.refresh-token.expiration}")
     private long jwtRefreshExpirationMs;
 
+    private SecretKey key;
+    private JwtParser parser;
+
+    // Decoding the secret and building the parser are done once; the parser is thread-safe
+    @PostConstruct
+    void init() {
+        key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+        parser = Jwts.parser().verifyWith(key).build();
+    }
+
     private SecretKey getKey(){
-        byte[] keyBytes = Decoders.BASE64.decode(jwtSecret);
-        return Keys.hmacShaKeyFor(keyBytes);
+        return key;
     }
 
     private String generateToken(String email, long expiration, Map<String, Object> claims){
@@ -86,12 +96,31 @@ public class JWTUtil {
         return generateToken(user.getEmail(), jwtRefreshExpirationMs, claims);
     }
 
+    /**
+     * @throws JwtException if the token is malformed, expired, not signed with our key or never expires
+     */
     public Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        Claims claims = parser.parseSignedClaims(token).getPayload();
+        // The parser only checks exp when it is there; every token we issue has one
+        if (claims.getExpiration() == null) {
+            throw new MalformedJwtException("JWT has no expiration");
+        }
+        return claims;
+    }
+
+    /**
+     * Verifies the token and reads the claims used to authenticate a request, parsing it only once.
+     *
+     * @throws JwtException if the token is malformed, expired, not signed with our key or never expires
+     */
+    public JwtClaims verify(String token) {
+        Claims claims = extractAllClaims(token);
+        return new JwtClaims(
+                claims.getSubject(),
+                claims.get("userId", Long.class),
+                roleOf(claims),
+                claims.get("fullName", String.class),
+                claims.getExpiration().toInstant());
     }
 
     public String extractUsername(String token){
@@ -99,16 +128,13 @@ public class JWTUtil {
     }
 
     public boolean validateToken(String token, UserDetails userDetails){
-        String username = extractUsername(token);
-        return username.equals(userDetails.getUsername()) && !extractAllClaims(token).getExpiration().before(new Date() ) && userDetails.isEnabled();
+        Claims claims = extractAllClaims(token);
+        return claims.getSubject().equals(userDetails.getUsername()) && !claims.getExpiration().before(new Date()) && userDetails.isEnabled();
     }
 
     public void validateToken(String token){
         try {
-            log.info("Validating JWT token: {}", token);
-            var parser = Jwts.parser().verifyWith(getKey()).build();
-            parser.parseSignedClaims(token);
-            log.info("Valid token");
+            extractAllClaims(token);
         } catch (ExpiredJwtException e) {
             log.error("JWT token expired: {}", e.getMessage());
             throw new InvalidJWTTokenException("Expired JWT token");
@@ -122,8 +148,7 @@ public class JWTUtil {
     }
 
     public Claims parseToken(String token) {
-        var jws = Jwts.parser().verifyWith(getKey()).build().parseSignedClaims(token);
-        return jws.getPayload();
+        return extractAllClaims(token);
     }
 
     public Long extractUserId(String token){
@@ -131,13 +156,15 @@ public class JWTUtil {
     }
 
     public String extractRole(String token) {
-        return extractClaim(token, claims -> {
-            Object roleObj = claims.get("role");
-            if (roleObj instanceof ArrayList<?> roles) {
-                return roles.isEmpty() ? null : roles.getFirst().toString();
-            }
-            return roleObj != null ? roleObj.toString() : null;
-        });
+        return extractClaim(token, JWTUtil::roleOf);
+    }
+
+    private static String roleOf(Claims claims) {
+        Object roleObj = claims.get("role");
+        if (roleObj instanceof ArrayList<?> roles) {
+            return roles.isEmpty() ? null : roles.getFirst().toString();
+        }
+        return roleObj != null ? roleObj.toString() : null;
     }
 
 
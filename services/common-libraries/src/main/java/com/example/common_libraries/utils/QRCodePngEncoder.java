@@ -0,0 +1,150 @@
+package com.example.common_libraries.utils;
+
+import com.google.zxing.WriterException;
+import com.google.zxing.qrcode.decoder.ErrorCorrectionLevel;
+import com.google.zxing.qrcode.encoder.ByteMatrix;
+import com.google.zxing.qrcode.encoder.Encoder;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Renders QR codes straight into a 1-bit grayscale PNG without going through {@code java.awt} imaging.
+ * The raster, deflate and output buffers are kept between calls, so an instance is meant to be
+ * reused by a single thread and is not thread-safe.
+ */
+public class QRCodePngEncoder {
+    private static final String DATA_URI_PREFIX = "data:image/png;base64,";
+    private static final byte[] PNG_SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+    private static final byte[] IHDR = {'I', 'H', 'D', 'R'};
+    private static final byte[] IDAT = {'I', 'D', 'A', 'T'};
+    private static final byte[] IEND = {'I', 'E', 'N', 'D'};
+    // Same quiet zone and error correction level as zxing's QRCodeWriter defaults
+    private static final int QUIET_ZONE = 4;
+    private static final ErrorCorrectionLevel ERROR_CORRECTION = ErrorCorrectionLevel.L;
+
+    private final Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+    private final CRC32 crc = new CRC32();
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream(1024);
+    private final byte[] header = new byte[13];
+    private byte[] raster = new byte[2048];
+    private byte[] compressed = new byte[1024];
+
+    /**
+     * Encodes the given contents as a QR code PNG.
+     *
+     * @param contents The text to encode.
+     * @param width The minimum width of the image in pixels.
+     * @param height The minimum height of the image in pixels.
+     * @return The PNG file bytes.
+     * @throws WriterException if the contents cannot be encoded as a QR code.
+     */
+    public byte[] encode(String contents, int width, int height) throws WriterException {
+        ByteMatrix matrix = Encoder.encode(contents, ERROR_CORRECTION, null).getMatrix();
+
+        int inputWidth = matrix.getWidth();
+        int inputHeight = matrix.getHeight();
+        int outputWidth = Math.max(width, inputWidth + QUIET_ZONE * 2);
+        int outputHeight = Math.max(height, inputHeight + QUIET_ZONE * 2);
+        int multiple = Math.min(outputWidth / (inputWidth + QUIET_ZONE * 2), outputHeight / (inputHeight + QUIET_ZONE * 2));
+        int leftPadding = (outputWidth - inputWidth * multiple) / 2;
+        int topPadding = (outputHeight - inputHeight * multiple) / 2;
+
+        // Each scanline is a filter type byte followed by the packed pixels, 1 = white
+        int stride = 1 + ((outputWidth + 7) >>> 3);
+        int rasterSize = stride * outputHeight;
+        if (raster.length < rasterSize) {
+            raster = new byte[rasterSize];
+        }
+
+        byte[][] modules = matrix.getArray();
+        for (int y = 0; y < outputHeight; y++) {
+            int offset = y * stride;
+            raster[offset] = 0;
+            Arrays.fill(raster, offset + 1, offset + stride, (byte) 0xFF);
+
+            int moduleY = y - topPadding;
+            if (moduleY < 0 || moduleY >= inputHeight * multiple) {
+                continue;
+            }
+            byte[] moduleRow = modules[moduleY / multiple];
+            for (int moduleX = 0; moduleX < inputWidth; moduleX++) {
+                if (moduleRow[moduleX] != 1) {
+                    continue;
+                }
+                int startX = leftPadding + moduleX * multiple;
+                for (int x = startX; x < startX + multiple; x++) {
+                    raster[offset + 1 + (x >>> 3)] &= (byte) ~(0x80 >>> (x & 7));
+                }
+            }
+        }
+
+        out.reset();
+        out.writeBytes(PNG_SIGNATURE);
+        writeHeader(outputWidth, outputHeight);
+        writeChunk(IDAT, compressed, deflate(rasterSize));
+        writeChunk(IEND, header, 0);
+        return out.toByteArray();
+    }
+
+    /**
+     * Wraps PNG bytes in a data URI that can be embedded directly in HTML.
+     */
+    public static String toDataUri(byte[] png) {
+        return DATA_URI_PREFIX + Base64.getEncoder().encodeToString(png);
+    }
+
+    private int deflate(int length) {
+        deflater.reset();
+        deflater.setInput(raster, 0, length);
+        deflater.finish();
+
+        int compressedLength = 0;
+        while (!deflater.finished()) {
+            if (compressedLength == compressed.length) {
+                compressed = Arrays.copyOf(compressed, compressed.length * 2);
+            }
+            compressedLength += deflater.deflate(compressed, compressedLength, compressed.length - compressedLength);
+        }
+        return compressedLength;
+    }
+
+    private void writeHeader(int width, int height) {
+        putInt(header, 0, width);
+        putInt(header, 4, height);
+        header[8] = 1;  // bit depth
+        header[9] = 0;  // grayscale
+        header[10] = 0; // deflate
+        header[11] = 0; // adaptive filtering
+        header[12] = 0; // no interlace
+        writeChunk(IHDR, header, header.length);
+    }
+
+    private void writeChunk(byte[] type, byte[] data, int length) {
+        writeInt(length);
+        out.writeBytes(type);
+        out.write(data, 0, length);
+
+        crc.reset();
+        crc.update(type);
+        crc.update(data, 0, length);
+        writeInt((int) crc.getValue());
+    }
+
+    private void writeInt(int value) {
+        out.write(value >>> 24);
+        out.write(value >>> 16);
+        out.write(value >>> 8);
+        out.write(value);
+    }
+
+    private static void putInt(byte[] buffer, int offset, int value) {
+        buffer[offset] = (byte) (value >>> 24);
+        buffer[offset + 1] = (byte) (value >>> 16);
+        buffer[offset + 2] = (byte) (value >>> 8);
+        buffer[offset + 3] = (byte) value;
+    }
+}
@@ -0,0 +1,170 @@
+package com.example.common_libraries.utils;
+
+import com.example.common_libraries.dto.CursorPage;
+import com.example.common_libraries.exception.BadRequestException;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Turns the keyset positions of a Spring Data {@link Window} into opaque cursors for clients and back.
+ * A cursor holds the sort key values and id of the last row of a page, so the next page is read from an
+ * index starting right after it, however deep it is, and no count query is needed.
+ */
+public final class ScrollCursors {
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private static final int VERSION = 1;
+    private static final String ID = "id";
+
+    private ScrollCursors() {
+    }
+
+    /**
+     * Reads a cursor produced by {@link #toCursorPage}, or starts from the top when there is none. Only
+     * cursors over exactly the properties of {@code sort} and the id are accepted, so a crafted cursor can't
+     * make the query compare against any other column or leave out one it orders by.
+     *
+     * @throws BadRequestException when the cursor is malformed or doesn't fit {@code sort}
+     */
+    public static KeysetScrollPosition decode(String cursor, Sort sort) {
+        if (cursor == null || cursor.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+        Set<String> allowed = sort.stream().map(Sort.Order::getProperty).collect(Collectors.toSet());
+        allowed.add(ID);
+
+        Map<String, Object> keys = new LinkedHashMap<>();
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(Base64.getUrlDecoder().decode(cursor)))) {
+            if (in.readUnsignedByte() != VERSION) {
+                throw new BadRequestException("Invalid cursor");
+            }
+            int count = in.readUnsignedByte();
+            for (int i = 0; i < count; i++) {
+                String property = in.readUTF();
+                if (!allowed.contains(property)) {
+                    throw new BadRequestException("Invalid cursor");
+                }
+                keys.put(property, readValue(in));
+            }
+            if (in.available() > 0 || !keys.keySet().equals(allowed)) {
+                throw new BadRequestException("Invalid cursor");
+            }
+        } catch (IOException | IllegalArgumentException | DateTimeException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+        return ScrollPosition.forward(keys);
+    }
+
+    /**
+     * Checks the page size a client asked for and caps it at {@link #MAX_PAGE_SIZE}.
+     *
+     * @throws BadRequestException when {@code size} is not positive
+     */
+    public static int pageSize(int size) {
+        if (size <= 0) {
+            throw new BadRequestException("Page size must be positive");
+        }
+        return Math.min(size, MAX_PAGE_SIZE);
+    }
+
+    /**
+     * Maps the rows of {@code window} and adds the cursor for the page after it, if there is one.
+     */
+    public static <T, R> CursorPage<R> toCursorPage(Window<T> window, Function<? super T, ? extends R> mapper) {
+        String nextCursor = null;
+        if (window.hasNext() && !window.isEmpty()) {
+            nextCursor = encode((KeysetScrollPosition) window.positionAt(window.size() - 1));
+        }
+        List<R> content = window.getContent().stream().<R>map(mapper).toList();
+        return new CursorPage<>(content, content.size(), nextCursor);
+    }
+
+    static String encode(KeysetScrollPosition position) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(VERSION);
+            out.writeByte(position.getKeys().size());
+            for (Map.Entry<String, Object> key : position.getKeys().entrySet()) {
+                out.writeUTF(key.getKey());
+                writeValue(out, key.getValue());
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+    }
+
+    // Values keep their type, so they compare against their column without conversion
+    private static void writeValue(DataOutputStream out, Object value) throws IOException {
+        switch (value) {
+            case Long l -> {
+                out.writeByte('J');
+                out.writeLong(l);
+            }
+            case Integer i -> {
+                out.writeByte('I');
+                out.writeInt(i);
+            }
+            case String s -> {
+                out.writeByte('S');
+                out.writeUTF(s);
+            }
+            case Instant instant -> {
+                out.writeByte('T');
+                out.writeLong(instant.getEpochSecond());
+                out.writeInt(instant.getNano());
+            }
+            case LocalDateTime dateTime -> {
+                out.writeByte('D');
+                out.writeUTF(dateTime.toString());
+            }
+            case LocalDate date -> {
+                out.writeByte('d');
+                out.writeLong(date.toEpochDay());
+            }
+            case BigDecimal decimal -> {
+                out.writeByte('M');
+                out.writeUTF(decimal.toString());
+            }
+            case Boolean b -> {
+                out.writeByte('Z');
+                out.writeBoolean(b);
+            }
+            default -> throw new IllegalArgumentException("Can't put a " + value.getClass().getSimpleName() + " in a cursor");
+        }
+    }
+
+    private static Object readValue(DataInputStream in) throws IOException {
+        return switch (in.readUnsignedByte()) {
+            case 'J' -> in.readLong();
+            case 'I' -> in.readInt();
+            case 'S' -> in.readUTF();
+            case 'T' -> Instant.ofEpochSecond(in.readLong(), in.readInt());
+            case 'D' -> LocalDateTime.parse(in.readUTF());
+            case 'd' -> LocalDate.ofEpochDay(in.readLong());
+            case 'M' -> new BigDecimal(in.readUTF());
+            case 'Z' -> in.readBoolean();
+            default -> throw new IllegalArgumentException("Unknown cursor value");
+        };
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.common_libraries.utils;
+
+import io.awspring.cloud.sqs.listener.acknowledgement.BatchAcknowledgement;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.Message;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Helpers for batch {@code @SqsListener} methods using {@code acknowledgementMode = "MANUAL"}.
+ * Only the messages that were handled are acknowledged, so a failing message is redelivered on its own
+ * after its visibility timeout instead of taking the rest of its batch with it.
+ */
+@Slf4j
+public final class SqsBatches {
+
+    private SqsBatches() {
+    }
+
+    /**
+     * Handles each message on its own and acknowledges the ones that didn't throw.
+     *
+     * @return the number of messages left for redelivery
+     */
+    public static <T> int handleEach(List<Message<T>> messages, BatchAcknowledgement<T> acknowledgement, Consumer<T> handler) {
+        List<Message<T>> handled = new ArrayList<>(messages.size());
+        for (Message<T> message : messages) {
+            try {
+                handler.accept(message.getPayload());
+                handled.add(message);
+            } catch (RuntimeException e) {
+                log.error("Failed to handle SQS message {}, leaving it for redelivery: {}", message.getHeaders().getId(), e.getMessage());
+            }
+        }
+        acknowledge(handled, acknowledgement);
+        return messages.size() - handled.size();
+    }
+
+    /**
+     * Handles each message on its own with a handler that finishes its work in the background, e.g. by
+     * queueing an email, and acknowledges the messages whose work completed once all of them have settled.
+     * Return the result from the listener method so the container waits for it.
+     *
+     * @return completes once the handled messages have been acknowledged
+     */
+    public static <T> CompletableFuture<Void> handleEachAsync(List<Message<T>> messages, BatchAcknowledgement<T> acknowledgement,
+                                                              Function<T, ? extends CompletionStage<?>> handler) {
+        List<Message<T>> handled = Collections.synchronizedList(new ArrayList<>(messages.size()));
+        CompletableFuture<?>[] results = new CompletableFuture<?>[messages.size()];
+        for (int i = 0; i < messages.size(); i++) {
+            Message<T> message = messages.get(i);
+            CompletableFuture<?> result;
+            try {
+                result = handler.apply(message.getPayload()).toCompletableFuture();
+            } catch (RuntimeException e) {
+                result = CompletableFuture.failedFuture(e);
+            }
+            results[i] = result.handle((ignored, e) -> {
+                if (e == null) {
+                    handled.add(message);
+                } else {
+                    Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                    log.error("Failed to handle SQS message {}, leaving it for redelivery: {}", message.getHeaders().getId(), cause.getMessage());
+                }
+                return null;
+            });
+        }
+        return CompletableFuture.allOf(results).thenRun(() -> acknowledge(handled, acknowledgement));
+    }
+
+    public static <T> void acknowledge(Collection<Message<T>> messages, BatchAcknowledgement<T> acknowledgement) {
+        if (!messages.isEmpty()) {
+            acknowledgement.acknowledgeAsync(messages);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.common_libraries.utils;
+
+import com.example.common_libraries.dto.JwtClaims;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+
+/**
+ * Remembers recently verified tokens until they expire, so a client sending the same token on every
+ * request is only verified once. Entries are keyed by a SHA-256 hash of the whole token, so the raw
+ * tokens aren't kept in memory and a token with a changed payload or signature never matches.
+ * A maximum size of 0 disables the cache.
+ */
+@Component
+@ConditionalOnProperty(prefix = "application.security.jwt", name = "secret-key")
+public class VerifiedTokenCache {
+    private final JWTUtil jwtUtil;
+    private final Cache<String, JwtClaims> cache;
+
+    public VerifiedTokenCache(JWTUtil jwtUtil,
+                              @Value("${application.security.jwt.verified-cache.maximum-size:10000}") long maximumSize) {
+        this.jwtUtil = jwtUtil;
+        this.cache = maximumSize <= 0 ? null : Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(Expiry.creating((String hash, JwtClaims claims) -> Duration.between(Instant.now(), claims.expiresAt())))
+                .build();
+    }
+
+    /**
+     * Returns the claims of the token, verifying it only if it hasn't been verified before.
+     *
+     * @throws io.jsonwebtoken.JwtException if the token is malformed, expired or not signed with our key
+     */
+    public JwtClaims verify(String token) {
+        if (cache == null) {
+            return jwtUtil.verify(token);
+        }
+        return cache.get(hash(token), hash -> jwtUtil.verify(token));
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
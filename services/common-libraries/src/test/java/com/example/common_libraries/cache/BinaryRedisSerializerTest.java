@@ -0,0 +1,84 @@
+package com.example.common_libraries.cache;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BinaryRedisSerializerTest {
+
+    record Listing(Long id, String title, Instant startTime, BigDecimal price) {}
+
+    record ListingPage(Integer pageNumber, List<Listing> listings) {}
+
+    private final BinaryRedisSerializer serializer = new BinaryRedisSerializer(
+            new CacheTypeRegistry()
+                    .register(32, ListingPage.class)
+                    .register(33, Listing.class),
+            1024);
+
+    private ListingPage page(int size) {
+        List<Listing> listings = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            listings.add(new Listing((long) i, "Event " + i, Instant.parse("2026-01-01T10:00:00Z").plusSeconds(i), new BigDecimal("25.50")));
+        }
+        return new ListingPage(0, listings);
+    }
+
+    @Test
+    void nestedRecordsAreReadBackAsTheirTypes() {
+        ListingPage page = page(3);
+
+        byte[] bytes = serializer.serialize(page);
+
+        assertEquals(page, serializer.deserialize(bytes));
+        assertFalse(new String(bytes).contains(Listing.class.getName()));
+    }
+
+    @Test
+    void smallValuesAreStoredUncompressed() {
+        byte[] otp = serializer.serialize("482913");
+
+        assertEquals(0, otp[0]);
+        assertTrue(otp.length < "\"482913\"".length() + 3);
+        assertEquals("482913", serializer.deserialize(otp));
+    }
+
+    @Test
+    void largeValuesAreCompressed() {
+        ListingPage page = page(50);
+
+        byte[] bytes = serializer.serialize(page);
+
+        assertEquals(1, bytes[0]);
+        assertEquals(page, serializer.deserialize(bytes));
+    }
+
+    @Test
+    void unregisteredTypesAreRejected() {
+        assertThrows(SerializationException.class, () -> serializer.serialize(new StringBuilder("value")));
+        assertThrows(SerializationException.class, () -> serializer.deserialize(new byte[]{0, 99}));
+        assertThrows(SerializationException.class, () -> serializer.deserialize("{\"json\":true}".getBytes()));
+    }
+
+    @Test
+    void reservedAndDuplicateIdsCannotBeRegistered() {
+        CacheTypeRegistry registry = new CacheTypeRegistry();
+
+        assertThrows(IllegalArgumentException.class, () -> registry.register(1, ListingPage.class));
+        registry.register(40, ListingPage.class);
+        assertThrows(IllegalArgumentException.class, () -> registry.register(40, Listing.class));
+        assertThrows(IllegalArgumentException.class, () -> registry.register(41, ListingPage.class));
+    }
+
+    @Test
+    void nullIsStoredAsEmptyValue() {
+        assertEquals(0, serializer.serialize(null).length);
+        assertNull(serializer.deserialize(new byte[0]));
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.common_libraries.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class TwoLevelCacheTest {
+
+    private ConcurrentMapCache remote;
+    private SimpleMeterRegistry meterRegistry;
+    private final List<String> published = new ArrayList<>();
+    private TwoLevelCache cache;
+
+    @BeforeEach
+    void setup() {
+        remote = new ConcurrentMapCache("events", false);
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new TwoLevelCache(
+                "events",
+                Caffeine.newBuilder().maximumSize(100).build(),
+                remote,
+                (cacheName, key) -> published.add(cacheName + ":" + key),
+                meterRegistry);
+    }
+
+    private double gets(String result) {
+        return meterRegistry.counter("cache.gets", "cache", "events", "result", result).count();
+    }
+
+    @Test
+    void repeatedReadsAreServedLocally() {
+        remote.put("page-0", "feed");
+
+        assertEquals("feed", cache.get("page-0", String.class));
+        remote.evict("page-0");
+        assertEquals("feed", cache.get("page-0", String.class));
+        assertNull(cache.get("page-1"));
+
+        assertEquals(1, gets("redis_hit"));
+        assertEquals(1, gets("local_hit"));
+        assertEquals(1, gets("miss"));
+        assertEquals(2, meterRegistry.timer("cache.redis.latency", "cache", "events").count());
+    }
+
+    @Test
+    void concurrentMissesLoadOnce() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(32);
+        List<Future<String>> results = new ArrayList<>();
+
+        for (int i = 0; i < 32; i++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                return cache.get("page-0", () -> {
+                    loads.incrementAndGet();
+                    Thread.sleep(200);
+                    return "feed";
+                });
+            }));
+        }
+        start.countDown();
+        for (Future<String> result : results) {
+            assertEquals("feed", result.get(5, TimeUnit.SECONDS));
+        }
+        executor.shutdown();
+
+        assertEquals(1, loads.get());
+        assertEquals("feed", remote.get("page-0").get());
+        assertEquals(1, meterRegistry.timer("cache.load.latency", "cache", "events").count());
+    }
+
+    @Test
+    void failedLoadIsReportedToEveryWaiter() {
+        assertThrows(Cache.ValueRetrievalException.class, () -> cache.get("page-0", () -> {
+            throw new IllegalStateException("database unavailable");
+        }));
+        assertNull(remote.get("page-0"));
+        assertEquals("feed", cache.get("page-0", () -> "feed"));
+    }
+
+    @Test
+    void fillingAfterAMissIsNotPublished() {
+        assertEquals("feed", cache.get("page-0", () -> "feed"));
+
+        assertEquals("feed", remote.get("page-0").get());
+        assertTrue(published.isEmpty());
+    }
+
+    @Test
+    void keysWithArraysMatchByContent() {
+        cache.put(Arrays.asList(0, 10, new String[]{"startTime"}), "feed");
+        remote.clear();
+
+        assertEquals("feed", cache.get(Arrays.asList(0, 10, new String[]{"startTime"}), String.class));
+    }
+
+    @Test
+    void changesArePublishedAndRemoteInvalidationsOnlyDropLocalEntries() {
+        cache.put("page-0", "feed");
+        cache.evict("page-0");
+        cache.clear();
+        assertEquals(List.of("events:page-0", "events:page-0", "events:null"), published);
+
+        cache.put("page-0", "feed");
+        cache.evictLocal("page-0");
+        assertEquals("feed", cache.get("page-0", String.class));
+        assertEquals(1, gets("redis_hit"));
+    }
+
+    @Test
+    void managerAppliesInvalidationsFromOtherInstancesOnly() {
+        RedisCacheManager redisCacheManager = mock(RedisCacheManager.class);
+        when(redisCacheManager.getCache("events")).thenReturn(remote);
+        StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+        TwoLevelCacheManager manager = new TwoLevelCacheManager(redisCacheManager, redisTemplate, meterRegistry, 100, Duration.ofMinutes(1));
+
+        Cache events = manager.getCache("events");
+        events.put("page-0", "feed");
+
+        ArgumentCaptor<String> message = ArgumentCaptor.forClass(String.class);
+        verify(redisTemplate).convertAndSend(eq(TwoLevelCacheManager.INVALIDATION_CHANNEL), message.capture());
+        remote.clear();
+
+        // our own message must not drop the entry we just wrote
+        manager.onMessage(new DefaultMessage(new byte[0], message.getValue().getBytes(StandardCharsets.UTF_8)), null);
+        assertEquals("feed", events.get("page-0", String.class));
+
+        manager.onMessage(new DefaultMessage(new byte[0], "other-instance|events".getBytes(StandardCharsets.UTF_8)), null);
+        assertNull(events.get("page-0"));
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.common_libraries.filter;
+
+import com.example.common_libraries.dto.AppUser;
+import com.example.common_libraries.utils.JWTUtil;
+import com.example.common_libraries.utils.VerifiedTokenCache;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.SecretKey;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JWTFilterTest {
+
+    private static final String SECRET = "c2VjcmV0c2VjcmV0c2VjcmV0c2VjcmV0c2VjcmV0c2VjcmV0c2VjcmV0";
+
+    private final JWTUtil jwtUtil = jwtUtil();
+    private final JWTFilter filter = new JWTFilter(new VerifiedTokenCache(jwtUtil, 100), null);
+
+    private static JWTUtil jwtUtil() {
+        JWTUtil jwtUtil = new JWTUtil();
+        ReflectionTestUtils.setField(jwtUtil, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "jwtAccessExpirationMs", 60_000L);
+        ReflectionTestUtils.invokeMethod(jwtUtil, "init");
+        return jwtUtil;
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private MockHttpServletResponse filter(String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setCookies(new Cookie("accessToken", token));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    @Test
+    void validTokenAuthenticatesTheUserFromItsClaims() throws Exception {
+        MockHttpServletResponse response = filter(jwtUtil.generateAccessToken("ama@example.com", "ORGANISER", 7L, "Ama Mensah"));
+
+        assertEquals(200, response.getStatus());
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertEquals(new AppUser(7L, "ORGANISER", "ama@example.com", "Ama Mensah"), authentication.getPrincipal());
+        assertEquals("ROLE_ORGANISER", authentication.getAuthorities().iterator().next().getAuthority());
+    }
+
+    @Test
+    void invalidTokenIsRejected() throws Exception {
+        MockHttpServletResponse response = filter("not-a-token");
+
+        assertEquals(401, response.getStatus());
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    void tokenWithoutExpirationIsRejected() throws Exception {
+        SecretKey key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+        String token = Jwts.builder()
+                .subject("ama@example.com")
+                .claim("userId", 7L)
+                .claim("role", "ORGANISER")
+                .signWith(key)
+                .compact();
+
+        MockHttpServletResponse response = filter(token);
+
+        assertEquals(401, response.getStatus());
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+}
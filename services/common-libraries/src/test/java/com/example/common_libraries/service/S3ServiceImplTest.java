@@ -0,0 +1,143 @@
+package com.example.common_libraries.service;
+
+import com.example.common_libraries.exception.FileUploadException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.multipart.MultipartFile;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectResponse;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectResponse;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class S3ServiceImplTest {
+
+    private S3AsyncClient s3AsyncClient;
+    private S3ServiceImpl s3Service;
+    private final ScheduledExecutorService s3 = Executors.newScheduledThreadPool(4);
+    private final List<PutObjectRequest> requests = Collections.synchronizedList(new ArrayList<>());
+    private final List<AsyncRequestBody> bodies = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger mostInFlight = new AtomicInteger();
+
+    @BeforeEach
+    void setup() {
+        s3AsyncClient = mock(S3AsyncClient.class);
+        s3Service = new S3ServiceImpl(s3AsyncClient, 16);
+        ReflectionTestUtils.setField(s3Service, "bucketName", "event-images");
+        ReflectionTestUtils.setField(s3Service, "region", "eu-west-1");
+        ReflectionTestUtils.setField(s3Service, "uploadConcurrency", 3);
+
+        when(s3AsyncClient.putObject(any(PutObjectRequest.class), any(AsyncRequestBody.class))).thenAnswer(invocation -> {
+            PutObjectRequest request = invocation.getArgument(0);
+            requests.add(request);
+            bodies.add(invocation.getArgument(1));
+            mostInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            // later images finish first, so the results come back out of order
+            long delay = 50L - 5L * requests.size();
+            CompletableFuture<PutObjectResponse> response = new CompletableFuture<>();
+            s3.schedule(() -> {
+                inFlight.decrementAndGet();
+                response.complete(PutObjectResponse.builder().eTag("etag").build());
+            }, Math.max(delay, 1), TimeUnit.MILLISECONDS);
+            return response;
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        s3.shutdownNow();
+        s3Service.shutdown();
+    }
+
+    private static MultipartFile image(int i) {
+        return spy(new MockMultipartFile("images", "image-" + i + ".png", "image/png", new byte[1024 * (i + 1)]));
+    }
+
+    @Test
+    void uploadImages_ReturnsUrlsInInputOrder() {
+        List<MultipartFile> files = IntStream.range(0, 8).mapToObj(S3ServiceImplTest::image).toList();
+
+        List<String> urls = s3Service.uploadImages(files);
+
+        assertEquals(8, urls.size());
+        for (int i = 0; i < urls.size(); i++) {
+            assertTrue(urls.get(i).startsWith("https://event-images.s3.eu-west-1.amazonaws.com/images/"), urls.get(i));
+            assertTrue(urls.get(i).endsWith("-image-" + i + ".png"), urls.get(i));
+        }
+    }
+
+    @Test
+    void uploadImages_UploadsAtMostTheConcurrencyLimitAtOnce() {
+        s3Service.uploadImages(IntStream.range(0, 10).mapToObj(S3ServiceImplTest::image).toList());
+
+        assertEquals(10, requests.size());
+        assertEquals(3, mostInFlight.get());
+    }
+
+    @Test
+    void uploadImage_StreamsWithKnownLength() throws Exception {
+        MultipartFile file = image(3);
+
+        s3Service.uploadImage(file);
+
+        assertEquals("image/png", requests.getFirst().contentType());
+        assertEquals(Optional.of(4096L), bodies.getFirst().contentLength());
+        verify(file, never()).getBytes();
+    }
+
+    @Test
+    void uploadImages_S3Failure_ThrowsFileUploadException() {
+        when(s3AsyncClient.putObject(any(PutObjectRequest.class), any(AsyncRequestBody.class)))
+                .thenReturn(CompletableFuture.failedFuture(S3Exception.builder().message("Access Denied").statusCode(403).build()));
+
+        FileUploadException e = assertThrows(FileUploadException.class,
+                () -> s3Service.uploadImages(List.of(image(0), image(1))));
+        assertEquals("File Upload Failed, please try again later", e.getMessage());
+    }
+
+    @Test
+    void uploadImages_Failure_CancelsTheRestAndDeletesTheStoredOnes() {
+        CompletableFuture<PutObjectResponse> pending = new CompletableFuture<>();
+        List<CompletableFuture<PutObjectResponse>> responses = List.of(
+                CompletableFuture.completedFuture(PutObjectResponse.builder().eTag("etag").build()),
+                pending,
+                CompletableFuture.failedFuture(S3Exception.builder().message("Access Denied").statusCode(403).build()));
+        AtomicInteger calls = new AtomicInteger();
+        when(s3AsyncClient.putObject(any(PutObjectRequest.class), any(AsyncRequestBody.class))).thenAnswer(invocation -> {
+            requests.add(invocation.getArgument(0));
+            return responses.get(calls.getAndIncrement());
+        });
+        requests.clear();
+        when(s3AsyncClient.deleteObject(any(DeleteObjectRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(DeleteObjectResponse.builder().build()));
+
+        assertThrows(FileUploadException.class, () -> s3Service.uploadImages(List.of(image(0), image(1), image(2))));
+
+        assertTrue(pending.isCancelled());
+        ArgumentCaptor<DeleteObjectRequest> deleted = ArgumentCaptor.forClass(DeleteObjectRequest.class);
+        verify(s3AsyncClient).deleteObject(deleted.capture());
+        assertEquals(requests.getFirst().key(), deleted.getValue().key());
+    }
+}
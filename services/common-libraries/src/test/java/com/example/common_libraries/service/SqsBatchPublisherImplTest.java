@@ -0,0 +1,152 @@
+package com.example.common_libraries.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+import software.amazon.awssdk.services.sqs.SqsAsyncClient;
+import software.amazon.awssdk.services.sqs.model.BatchResultErrorEntry;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchRequest;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchResponse;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchResultEntry;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class SqsBatchPublisherImplTest {
+
+    private static final String QUEUE_URL = "http://localhost:4566/000000000000/event-invitation-queue";
+
+    private SqsAsyncClient sqsAsyncClient;
+    private SimpleMeterRegistry meterRegistry;
+    private SqsBatchPublisherImpl publisher;
+    private final List<SendMessageBatchRequest> requests = new ArrayList<>();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setup() {
+        sqsAsyncClient = mock(SqsAsyncClient.class);
+        meterRegistry = new SimpleMeterRegistry();
+        publisher = new SqsBatchPublisherImpl(sqsAsyncClient, meterRegistry);
+        ReflectionTestUtils.setField(publisher, "lingerMs", 20L);
+
+        when(sqsAsyncClient.sendMessageBatch(any(Consumer.class))).thenAnswer(invocation -> {
+            SendMessageBatchRequest.Builder builder = SendMessageBatchRequest.builder();
+            ((Consumer<SendMessageBatchRequest.Builder>) invocation.getArgument(0)).accept(builder);
+            SendMessageBatchRequest request = builder.build();
+            synchronized (requests) {
+                requests.add(request);
+            }
+            return CompletableFuture.completedFuture(SendMessageBatchResponse.builder()
+                    .successful(request.entries().stream()
+                            .map(entry -> SendMessageBatchResultEntry.builder().id(entry.id()).messageId("msg-" + entry.messageBody()).build())
+                            .toList())
+                    .build());
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        publisher.shutdown();
+    }
+
+    @Test
+    void bulkInvitesAreSentInBatchesOfTen() throws Exception {
+        List<CompletableFuture<String>> results = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            results.add(publisher.publish(QUEUE_URL, "invite-" + i));
+        }
+
+        CompletableFuture.allOf(results.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+
+        assertEquals(50, requests.size());
+        assertTrue(requests.stream().allMatch(request -> request.entries().size() == 10));
+        assertEquals("msg-invite-42", results.get(42).get());
+        assertEquals(50, meterRegistry.summary("sqs.publisher.batch.size", "queue", "event-invitation-queue").count());
+        assertEquals(500, meterRegistry.summary("sqs.publisher.batch.size", "queue", "event-invitation-queue").totalAmount());
+        assertEquals(50, meterRegistry.timer("sqs.publisher.flush.latency", "queue", "event-invitation-queue").count());
+    }
+
+    @Test
+    void partialBatchIsSentAfterLinger() throws Exception {
+        CompletableFuture<String> first = publisher.publish(QUEUE_URL, "first");
+        CompletableFuture<String> second = publisher.publish(QUEUE_URL, "second");
+
+        assertEquals("msg-first", first.get(5, TimeUnit.SECONDS));
+        assertEquals("msg-second", second.get(5, TimeUnit.SECONDS));
+        assertEquals(1, requests.size());
+        assertEquals(2, requests.getFirst().entries().size());
+    }
+
+    @Test
+    void batchStaysUnderRequestSizeLimit() throws Exception {
+        String largeBody = "x".repeat(100_000);
+
+        CompletableFuture<String> first = publisher.publish(QUEUE_URL, largeBody);
+        CompletableFuture<String> second = publisher.publish(QUEUE_URL, largeBody);
+        CompletableFuture<String> third = publisher.publish(QUEUE_URL, largeBody);
+        CompletableFuture.allOf(first, second, third).get(5, TimeUnit.SECONDS);
+
+        assertEquals(2, requests.size());
+        assertEquals(2, requests.get(0).entries().size());
+        assertEquals(1, requests.get(1).entries().size());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void rejectedMessagesFailAndAreCounted() {
+        when(sqsAsyncClient.sendMessageBatch(any(Consumer.class))).thenReturn(CompletableFuture.completedFuture(
+                SendMessageBatchResponse.builder()
+                        .successful(SendMessageBatchResultEntry.builder().id("0").messageId("msg-0").build())
+                        .failed(BatchResultErrorEntry.builder().id("1").code("InternalError").senderFault(false).build())
+                        .build()));
+
+        CompletableFuture<String> accepted = publisher.publish(QUEUE_URL, "accepted");
+        CompletableFuture<String> rejected = publisher.publish(QUEUE_URL, "rejected");
+        publisher.flush();
+
+        assertEquals("msg-0", accepted.join());
+        assertThrows(ExecutionException.class, rejected::get);
+        assertEquals(1, meterRegistry.counter("sqs.publisher.failures", "queue", "event-invitation-queue").count());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void failedRequestFailsWholeBatch() {
+        when(sqsAsyncClient.sendMessageBatch(any(Consumer.class)))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("queue unavailable")));
+
+        CompletableFuture<String> first = publisher.publish(QUEUE_URL, "first");
+        CompletableFuture<String> second = publisher.publish(QUEUE_URL, "second");
+        publisher.flush();
+
+        assertTrue(first.isCompletedExceptionally());
+        assertTrue(second.isCompletedExceptionally());
+        assertEquals(2, meterRegistry.counter("sqs.publisher.failures", "queue", "event-invitation-queue").count());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void clientThrowingFailsWholeBatch() {
+        when(sqsAsyncClient.sendMessageBatch(any(Consumer.class)))
+                .thenThrow(new IllegalArgumentException("invalid request"));
+
+        CompletableFuture<String> first = publisher.publish(QUEUE_URL, "first");
+        CompletableFuture<String> second = publisher.publish(QUEUE_URL, "second");
+        publisher.flush();
+
+        assertTrue(first.isCompletedExceptionally());
+        assertTrue(second.isCompletedExceptionally());
+        assertEquals(2, meterRegistry.counter("sqs.publisher.failures", "queue", "event-invitation-queue").count());
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.common_libraries.utils;
+
+import com.google.zxing.BinaryBitmap;
+import com.google.zxing.client.j2se.BufferedImageLuminanceSource;
+import com.google.zxing.common.HybridBinarizer;
+import com.google.zxing.qrcode.QRCodeReader;
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QRCodePngEncoderTest {
+
+    private final QRCodePngEncoder encoder = new QRCodePngEncoder();
+
+    private String decode(byte[] png) throws Exception {
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(png));
+        BinaryBitmap bitmap = new BinaryBitmap(new HybridBinarizer(new BufferedImageLuminanceSource(image)));
+        return new QRCodeReader().decode(bitmap).getText();
+    }
+
+    @Test
+    void encodesReadablePngOfRequestedSize() throws Exception {
+        String ticketUrl = "https://alb.example.com/api/v1/tickets/verify/0f8fad5b-d9cb-469f-a165-70867728950e";
+
+        byte[] png = encoder.encode(ticketUrl, 100, 100);
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(png));
+
+        assertEquals(100, image.getWidth());
+        assertEquals(100, image.getHeight());
+        assertEquals(ticketUrl, decode(png));
+    }
+
+    @Test
+    void reusedEncoderProducesIndependentImages() throws Exception {
+        byte[] first = encoder.encode("first-ticket", 100, 100);
+        byte[] second = encoder.encode("second-ticket-with-a-much-longer-code-than-the-first-one", 300, 300);
+        byte[] third = encoder.encode("first-ticket", 100, 100);
+
+        assertEquals("first-ticket", decode(first));
+        assertEquals("second-ticket-with-a-much-longer-code-than-the-first-one", decode(second));
+        assertArrayEquals(first, third);
+    }
+
+    @Test
+    void dataUriWrapsEncodedPng() throws Exception {
+        String ticketUrl = "https://alb.example.com/api/v1/tickets/verify/0f8fad5b-d9cb-469f-a165-70867728950e";
+
+        byte[] png = encoder.encode(ticketUrl, 100, 100);
+        String dataUri = QRCodePngEncoder.toDataUri(png);
+
+        assertTrue(dataUri.startsWith("data:image/png;base64,"));
+        assertArrayEquals(png, Base64.getDecoder().decode(dataUri.substring("data:image/png;base64,".length())));
+    }
+}
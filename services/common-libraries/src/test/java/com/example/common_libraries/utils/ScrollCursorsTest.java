@@ -0,0 +1,130 @@
+package com.example.common_libraries.utils;
+
+import com.example.common_libraries.dto.CursorPage;
+import com.example.common_libraries.exception.BadRequestException;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScrollCursorsTest {
+
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "createdAt", "id");
+
+    private static Window<Long> window(boolean hasNext, Map<String, Object> lastKeys) {
+        return Window.from(List.of(1L, 2L), index -> ScrollPosition.forward(lastKeys), hasNext);
+    }
+
+    @Test
+    void cursorLeadsBackToTheLastRowOfThePage() {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        keys.put("createdAt", Instant.parse("2025-03-01T10:15:30.123456789Z"));
+        keys.put("id", 42L);
+
+        CursorPage<String> page = ScrollCursors.toCursorPage(window(true, keys), id -> "row " + id);
+        KeysetScrollPosition position = ScrollCursors.decode(page.nextCursor(), NEWEST_FIRST);
+
+        assertEquals(List.of("row 1", "row 2"), page.content());
+        assertEquals(2, page.size());
+        assertEquals(keys, position.getKeys());
+        assertTrue(position.scrollsForward());
+    }
+
+    @Test
+    void keepsValueTypes() {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        keys.put("fullName", "Ama Mensah");
+        keys.put("joined", LocalDateTime.of(2025, 1, 2, 3, 4, 5));
+        keys.put("amount", new BigDecimal("150.25"));
+        keys.put("id", 7L);
+        Sort sort = Sort.by("fullName", "joined", "amount");
+
+        String cursor = ScrollCursors.toCursorPage(window(true, keys), id -> id).nextCursor();
+
+        assertEquals(keys, ScrollCursors.decode(cursor, sort).getKeys());
+    }
+
+    @Test
+    void lastPageHasNoCursor() {
+        CursorPage<Long> page = ScrollCursors.toCursorPage(window(false, Map.of("id", 2L)), id -> id);
+
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    void missingCursorStartsFromTheTop() {
+        assertTrue(ScrollCursors.decode(null, NEWEST_FIRST).isInitial());
+        assertTrue(ScrollCursors.decode(" ", NEWEST_FIRST).isInitial());
+    }
+
+    @Test
+    void rejectsCursorOverOtherProperties() {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        keys.put("password", "$2a$10$abc");
+        keys.put("id", 1L);
+        String cursor = ScrollCursors.toCursorPage(window(true, keys), id -> id).nextCursor();
+
+        assertThrows(BadRequestException.class, () -> ScrollCursors.decode(cursor, NEWEST_FIRST));
+    }
+
+    @Test
+    void rejectsMalformedCursors() {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        keys.put("createdAt", Instant.parse("2025-03-01T10:15:30Z"));
+        keys.put("id", 1L);
+        String valid = ScrollCursors.toCursorPage(window(true, keys), id -> id).nextCursor();
+
+        assertThrows(BadRequestException.class, () -> ScrollCursors.decode("not a cursor!", NEWEST_FIRST));
+        assertThrows(BadRequestException.class, () -> ScrollCursors.decode("AQ", NEWEST_FIRST));
+        assertThrows(BadRequestException.class, () -> ScrollCursors.decode(valid.substring(0, valid.length() - 2), NEWEST_FIRST));
+        assertThrows(BadRequestException.class, () -> ScrollCursors.decode(valid + "AA", NEWEST_FIRST));
+    }
+
+    @Test
+    void rejectsCursorMissingASortProperty() {
+        String cursor = ScrollCursors.toCursorPage(window(true, Map.of("id", 1L)), id -> id).nextCursor();
+
+        assertThrows(BadRequestException.class, () -> ScrollCursors.decode(cursor, NEWEST_FIRST));
+    }
+
+    @Test
+    void rejectsCursorWithAnOutOfRangeDate() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(1);
+            out.writeByte(2);
+            out.writeUTF("createdAt");
+            out.writeByte('T');
+            out.writeLong(Long.MAX_VALUE);
+            out.writeInt(0);
+            out.writeUTF("id");
+            out.writeByte('J');
+            out.writeLong(1L);
+        }
+        String cursor = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+
+        assertThrows(BadRequestException.class, () -> ScrollCursors.decode(cursor, NEWEST_FIRST));
+    }
+
+    @Test
+    void pageSizeIsCappedAndMustBePositive() {
+        assertEquals(20, ScrollCursors.pageSize(20));
+        assertEquals(ScrollCursors.MAX_PAGE_SIZE, ScrollCursors.pageSize(1_000_000));
+        assertThrows(BadRequestException.class, () -> ScrollCursors.pageSize(0));
+        assertThrows(BadRequestException.class, () -> ScrollCursors.pageSize(-1));
+    }
+}
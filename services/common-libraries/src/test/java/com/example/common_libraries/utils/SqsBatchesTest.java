@@ -0,0 +1,86 @@
+package com.example.common_libraries.utils;
+
+import io.awspring.cloud.sqs.listener.acknowledgement.BatchAcknowledgement;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class SqsBatchesTest {
+
+    @SuppressWarnings("unchecked")
+    private final BatchAcknowledgement<String> acknowledgement = mock(BatchAcknowledgement.class);
+
+    private List<Message<String>> messages(String... payloads) {
+        List<Message<String>> messages = new ArrayList<>();
+        for (String payload : payloads) {
+            messages.add(MessageBuilder.withPayload(payload).build());
+        }
+        return messages;
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void onlyHandledMessagesAreAcknowledged() {
+        List<Message<String>> messages = messages("a", "fail", "c");
+        List<String> handled = new ArrayList<>();
+
+        int failed = SqsBatches.handleEach(messages, acknowledgement, payload -> {
+            if (payload.equals("fail")) {
+                throw new IllegalStateException("boom");
+            }
+            handled.add(payload);
+        });
+
+        assertEquals(1, failed);
+        assertEquals(List.of("a", "c"), handled);
+        ArgumentCaptor<Collection<Message<String>>> acknowledged = ArgumentCaptor.forClass(Collection.class);
+        verify(acknowledgement).acknowledgeAsync(acknowledged.capture());
+        assertEquals(List.of(messages.get(0), messages.get(2)), List.copyOf(acknowledged.getValue()));
+    }
+
+    @Test
+    void nothingIsAcknowledgedWhenEveryMessageFails() {
+        int failed = SqsBatches.handleEach(messages("a", "b"), acknowledgement, payload -> {
+            throw new IllegalStateException("boom");
+        });
+
+        assertEquals(2, failed);
+        verify(acknowledgement, never()).acknowledgeAsync(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void asyncMessagesAreAcknowledgedOnlyOnceTheirWorkCompletes() {
+        List<Message<String>> messages = messages("a", "fail", "throw");
+        CompletableFuture<Void> sendA = new CompletableFuture<>();
+        CompletableFuture<Void> sendFail = new CompletableFuture<>();
+
+        CompletableFuture<Void> result = SqsBatches.handleEachAsync(messages, acknowledgement, payload -> switch (payload) {
+            case "a" -> sendA;
+            case "fail" -> sendFail;
+            default -> throw new IllegalStateException("boom");
+        });
+
+        assertFalse(result.isDone());
+        verify(acknowledgement, never()).acknowledgeAsync(any());
+
+        sendA.complete(null);
+        sendFail.completeExceptionally(new IllegalStateException("smtp down"));
+        result.join();
+
+        ArgumentCaptor<Collection<Message<String>>> acknowledged = ArgumentCaptor.forClass(Collection.class);
+        verify(acknowledgement).acknowledgeAsync(acknowledged.capture());
+        assertEquals(List.of(messages.get(0)), List.copyOf(acknowledged.getValue()));
+    }
+}
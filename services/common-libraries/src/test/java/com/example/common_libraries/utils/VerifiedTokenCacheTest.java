@@ -0,0 +1,77 @@
+package com.example.common_libraries.utils;
+
+import com.example.common_libraries.dto.JwtClaims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class VerifiedTokenCacheTest {
+
+    private static final String SECRET = "c2VjcmV0c2VjcmV0c2VjcmV0c2VjcmV0c2VjcmV0c2VjcmV0c2VjcmV0";
+
+    private JWTUtil jwtUtil;
+
+    static JWTUtil jwtUtil(long accessExpirationMs) {
+        JWTUtil jwtUtil = new JWTUtil();
+        ReflectionTestUtils.setField(jwtUtil, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "jwtAccessExpirationMs", accessExpirationMs);
+        jwtUtil.init();
+        return jwtUtil;
+    }
+
+    @BeforeEach
+    void setup() {
+        jwtUtil = spy(jwtUtil(60_000));
+    }
+
+    @Test
+    void tokenIsVerifiedOnceWhileCached() {
+        String token = jwtUtil.generateAccessToken("ama@example.com", "ORGANISER", 7L, "Ama Mensah");
+        VerifiedTokenCache cache = new VerifiedTokenCache(jwtUtil, 100);
+
+        JwtClaims first = cache.verify(token);
+        JwtClaims second = cache.verify(token);
+
+        assertEquals(new JwtClaims("ama@example.com", 7L, "ORGANISER", "Ama Mensah", first.expiresAt()), first);
+        assertSame(first, second);
+        verify(jwtUtil, times(1)).verify(token);
+    }
+
+    @Test
+    void tamperedTokenIsNotServedFromCache() {
+        String token = jwtUtil.generateAccessToken("ama@example.com", "ORGANISER", 7L, "Ama Mensah");
+        VerifiedTokenCache cache = new VerifiedTokenCache(jwtUtil, 100);
+        cache.verify(token);
+
+        String[] parts = token.split("\\.");
+        String payload = new String(Base64.getUrlDecoder().decode(parts[1])).replace("ORGANISER", "ADMIN");
+        String tampered = parts[0] + "." + Base64.getUrlEncoder().withoutPadding().encodeToString(payload.getBytes()) + "." + parts[2];
+
+        assertThrows(JwtException.class, () -> cache.verify(tampered));
+    }
+
+    @Test
+    void expiredTokenIsRejected() {
+        String token = jwtUtil(-1_000).generateAccessToken("ama@example.com", "ORGANISER", 7L, "Ama Mensah");
+
+        assertThrows(ExpiredJwtException.class, () -> new VerifiedTokenCache(jwtUtil, 100).verify(token));
+    }
+
+    @Test
+    void zeroSizeDisablesCaching() {
+        String token = jwtUtil.generateAccessToken("ama@example.com", "ORGANISER", 7L, "Ama Mensah");
+        VerifiedTokenCache cache = new VerifiedTokenCache(jwtUtil, 0);
+
+        cache.verify(token);
+        cache.verify(token);
+
+        verify(jwtUtil, times(2)).verify(token);
+    }
+}
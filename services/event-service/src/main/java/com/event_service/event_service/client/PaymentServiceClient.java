@@ -11,6 +11,8 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
 
+import java.time.Duration;
+
 @Slf4j
 @Service
 public class PaymentServiceClient {
@@ -19,8 +21,13 @@ public class PaymentServiceClient {
     @Value("${payment.service.url}")
     private String paymentServiceUrl;
 
-    public PaymentServiceClient(WebClient.Builder builder,@Value("${payment.service.url}") String paymentServiceUrl) {
+    // Payment service bounds its own Paystack calls; this caps the wait for the request thread here as well
+    private final Duration initializeTimeout;
+
+    public PaymentServiceClient(WebClient.Builder builder,@Value("${payment.service.url}") String paymentServiceUrl,
+                                @Value("${payment.service.initialize-timeout-ms:10000}") long initializeTimeoutMs) {
         this.webClient = builder.baseUrl(paymentServiceUrl).build();
+        this.initializeTimeout = Duration.ofMillis(initializeTimeoutMs);
     }
 
     public PaystackResponse initializeTransaction(ProcessPaymentEvent paymentRequest){
@@ -31,7 +38,7 @@ public class PaymentServiceClient {
                     .bodyValue(paymentRequest)
                     .retrieve()
                     .bodyToMono(PaystackResponse.class)
-                    .block();
+                    .block(initializeTimeout);
         } catch (WebClientResponseException.Unauthorized ex) {
             log.error("Unauthorized error when calling Payment Service");
             throw new UnauthorizedException("Unauthorized: " + ex.getResponseBodyAsString());
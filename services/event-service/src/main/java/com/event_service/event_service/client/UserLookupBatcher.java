@@ -0,0 +1,120 @@
+package com.event_service.event_service.client;
+
+import com.example.common_libraries.dto.UserCreationResponse;
+import com.example.common_libraries.dto.UserLookupRequest;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Collects the user lookups made within {@code window} of each other and resolves them with one bulk
+ * request, in the manner of a DataLoader. Lookups are grouped by access token, since a batch is sent with
+ * its callers' token; a batch that reaches {@code maxBatchSize} ids and emails goes out straight away.
+ * The same id or email asked for twice in a batch is sent once. Lookups of users that don't exist complete
+ * empty; if the request fails, every lookup in the batch fails with it.
+ */
+class UserLookupBatcher {
+
+    private final Duration window;
+    private final int maxBatchSize;
+    private final BiFunction<UserLookupRequest, String, Mono<List<UserCreationResponse>>> lookup;
+
+    // batches still collecting lookups, by access token; guarded by this
+    private final Map<String, Batch> open = new HashMap<>();
+
+    UserLookupBatcher(Duration window, int maxBatchSize,
+                      BiFunction<UserLookupRequest, String, Mono<List<UserCreationResponse>>> lookup) {
+        this.window = window;
+        this.maxBatchSize = maxBatchSize;
+        this.lookup = lookup;
+    }
+
+    Mono<UserCreationResponse> byId(Long id, String accessToken) {
+        return load(accessToken, batch -> batch.ids.computeIfAbsent(id, key -> Sinks.one()));
+    }
+
+    Mono<UserCreationResponse> byEmail(String email, String accessToken) {
+        return load(accessToken, batch -> batch.emails.computeIfAbsent(UserLookupRequest.normalizeEmail(email), key -> Sinks.one()));
+    }
+
+    private Mono<UserCreationResponse> load(String accessToken, Function<Batch, Sinks.One<UserCreationResponse>> add) {
+        return Mono.defer(() -> {
+            Sinks.One<UserCreationResponse> result;
+            Batch full = null;
+            synchronized (this) {
+                Batch batch = open.computeIfAbsent(accessToken, this::openBatch);
+                result = add.apply(batch);
+                if (batch.size() >= maxBatchSize) {
+                    open.remove(accessToken);
+                    full = batch;
+                }
+            }
+            if (full != null) {
+                dispatch(full);
+            }
+            return result.asMono();
+        });
+    }
+
+    private Batch openBatch(String accessToken) {
+        Batch batch = new Batch(accessToken);
+        Mono.delay(window).subscribe(tick -> {
+            synchronized (this) {
+                open.remove(accessToken, batch);
+            }
+            dispatch(batch);
+        });
+        return batch;
+    }
+
+    private void dispatch(Batch batch) {
+        if (!batch.sent.compareAndSet(false, true)) {
+            return;
+        }
+        // no lookups join a batch once it is out of the open map
+        UserLookupRequest request = new UserLookupRequest(new ArrayList<>(batch.ids.keySet()), new ArrayList<>(batch.emails.keySet()));
+        lookup.apply(request, batch.accessToken)
+                .defaultIfEmpty(List.of())
+                .subscribe(users -> {
+                    for (UserCreationResponse user : users) {
+                        Sinks.One<UserCreationResponse> byId = batch.ids.remove(user.id());
+                        if (byId != null) {
+                            byId.tryEmitValue(user);
+                        }
+                        Sinks.One<UserCreationResponse> byEmail = batch.emails.remove(UserLookupRequest.normalizeEmail(user.email()));
+                        if (byEmail != null) {
+                            byEmail.tryEmitValue(user);
+                        }
+                    }
+                    batch.ids.values().forEach(Sinks.One::tryEmitEmpty);
+                    batch.emails.values().forEach(Sinks.One::tryEmitEmpty);
+                }, e -> {
+                    batch.ids.values().forEach(sink -> sink.tryEmitError(e));
+                    batch.emails.values().forEach(sink -> sink.tryEmitError(e));
+                });
+    }
+
+    private static final class Batch {
+        private final String accessToken;
+        private final Map<Long, Sinks.One<UserCreationResponse>> ids = new LinkedHashMap<>();
+        private final Map<String, Sinks.One<UserCreationResponse>> emails = new LinkedHashMap<>();
+        private final AtomicBoolean sent = new AtomicBoolean();
+
+        private Batch(String accessToken) {
+            this.accessToken = accessToken;
+        }
+
+        private int size() {
+            return ids.size() + emails.size();
+        }
+    }
+}
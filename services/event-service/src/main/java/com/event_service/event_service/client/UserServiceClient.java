@@ -1,221 +1,378 @@
 package com.event_service.event_service.client;
 
 import com.event_service.event_service.dto.InviteeRegistrationRequest;
+import com.example.common_libraries.cache.TwoLevelCacheManager;
 import com.example.common_libraries.dto.*;
 import com.example.common_libraries.exception.DuplicateResourceException;
 import com.example.common_libraries.exception.ForbiddenException;
 import com.example.common_libraries.exception.ServiceCommunicationException;
 import com.example.common_libraries.exception.UnauthorizedException;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
-
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Calls user-service. The {@code fetch} methods are non-blocking; the {@code get} methods wait for them,
+ * for callers that are not reactive.
+ * <p>
+ * Platform notification settings, active admins, top organizers and host profiles change rarely and are
+ * the same whoever asks, so they are kept for {@code user.service.cache.ttl-seconds}. While one of them is
+ * being fetched, further callers wait for that request instead of sending their own; failures are not
+ * kept. The endpoints of this service that use them check the caller's role first, so a value fetched
+ * with one caller's token may be served to another. When Redis is configured, the notification settings
+ * are dropped as soon as user-service publishes a change to them; call the {@code invalidate} methods when
+ * any other change must show before the TTL runs out. Creating users and checking whether one exists feed
+ * writes, so they always go to user-service.
+ * <p>
+ * Lookups of single users by id or email made close together, or by a page resolving many at once, are
+ * batched into one call to the bulk lookup endpoint; see {@link UserLookupBatcher}. Host profiles are
+ * loaded through it as well, so the hosts of several events shown together cost one request.
+ * <p>
+ * Every request to user-service is timed as {@code user.service.client.latency}, tagged with the endpoint
+ * and the result, and gives up after {@code user.service.timeout-ms}.
+ */
 @Slf4j
 @Service
 public class UserServiceClient {
 
-    private final WebClient webClient;
     private static final String EXCEPTION_MESSAGE = "Unexpected error calling User Service:";
+    // single entry caches hold their value under this key
+    private static final String ALL = "all";
 
-    public UserServiceClient(WebClient.Builder builder, @Value("${user.service.url}") String eventsServiceUrl) {
+    private final WebClient webClient;
+    private final MeterRegistry meterRegistry;
+    private final Duration timeout;
+
+    private final AsyncCache<String, PlatformNotificationSettingDto> notificationSettings;
+    private final AsyncCache<String, List<UserInfoResponse>> activeAdmins;
+    private final AsyncCache<String, List<TopOrganizerResponse>> topOrganizers;
+    private final AsyncCache<Long, HostsResponse> hosts;
+    private final UserLookupBatcher userLookups;
+    private final DistributionSummary lookupBatchSizes;
+
+    public UserServiceClient(WebClient.Builder builder,
+                             MeterRegistry meterRegistry,
+                             @Value("${user.service.url}") String eventsServiceUrl,
+                             @Value("${user.service.timeout-ms:10000}") long timeoutMs,
+                             @Value("${user.service.cache.ttl-seconds:60}") long cacheTtlSeconds,
+                             @Value("${user.service.cache.hosts-maximum-size:10000}") long hostsMaximumSize,
+                             @Value("${user.service.batch.window-ms:5}") long batchWindowMs,
+                             @Value("${user.service.batch.max-size:100}") int batchMaxSize,
+                             ObjectProvider<TwoLevelCacheManager> cacheManager) {
         this.webClient = builder.baseUrl(eventsServiceUrl).build();
+        this.meterRegistry = meterRegistry;
+        this.timeout = Duration.ofMillis(timeoutMs);
+
+        Duration ttl = Duration.ofSeconds(cacheTtlSeconds);
+        this.notificationSettings = cache("user-service.notification-settings", ttl, 1);
+        this.activeAdmins = cache("user-service.active-admins", ttl, 1);
+        this.topOrganizers = cache("user-service.top-organizers", ttl, 1);
+        this.hosts = cache("user-service.hosts", ttl, hostsMaximumSize);
+        this.userLookups = new UserLookupBatcher(Duration.ofMillis(batchWindowMs), batchMaxSize, this::lookupUsers);
+        this.lookupBatchSizes = DistributionSummary.builder("user.service.client.batch.size")
+                .description("Ids and emails resolved per bulk user lookup")
+                .register(meterRegistry);
+        cacheManager.ifAvailable(manager -> manager.registerLocalCache(
+                PlatformNotificationSettingDto.CACHE_NAME, key -> invalidateNotificationSetting()));
     }
 
+    private <K, V> AsyncCache<K, V> cache(String name, Duration ttl, long maximumSize) {
+        AsyncCache<K, V> cache = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maximumSize)
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, name);
+        return cache;
+    }
 
     public List<TopOrganizerResponse> getTopOrganizers(String accessToken) {
-        try {
-            log.info("Calling Organizer Service to get top organizers with token: {}", accessToken);
-            List<TopOrganizerResponse> list = webClient.get()
-                    .uri("/api/v1/users/top-organizers")
-                    .cookie("accessToken", accessToken)
-                    .retrieve()
-                    .bodyToMono(new ParameterizedTypeReference<List<TopOrganizerResponse>>() {})
-                    .block();
-            log.info("Top Organizers response succeeded");
-            return list;
-
-        } catch (WebClientResponseException.Unauthorized ex) {
-            log.error("Unauthorized error when calling Organizer Service");
-            throw new UnauthorizedException("Unauthorized: " + ex.getResponseBodyAsString());
-
-        } catch (WebClientResponseException.Forbidden ex) {
-            log.error("Forbidden error when calling Organizer Service");
-            throw new ForbiddenException("Forbidden: " + ex.getResponseBodyAsString());
-
-        } catch (WebClientResponseException ex) {
-            log.error("Service communication error (status {}):", ex.getStatusCode());
-            throw new ServiceCommunicationException(
-                    "Service communication error (status " + ex.getStatusCode() + "): " + ex.getResponseBodyAsString()
-            );
+        return fetchTopOrganizers(accessToken).block();
+    }
 
-        } catch (Exception ex) {
-            log.error("Unexpected error calling User Service: {}", ex.getMessage());
-            throw new ServiceCommunicationException(EXCEPTION_MESSAGE);
-        }
+    public Mono<List<TopOrganizerResponse>> fetchTopOrganizers(String accessToken) {
+        return cached(topOrganizers, () -> request("top-organizers", webClient.get()
+                        .uri("/api/v1/users/top-organizers")
+                        .cookie("accessToken", accessToken)
+                        .retrieve()
+                        .bodyToMono(new ParameterizedTypeReference<List<TopOrganizerResponse>>() {}))
+                .doOnSuccess(list -> log.info("Top Organizers response succeeded"))
+                .onErrorMap(e -> toCommonException(e, "Organizer Service")));
     }
 
     public UserCreationResponse createUser(InviteeRegistrationRequest request) {
         log.info("Calling User Service to create user for email: {}", request.email());
-        try {
-            UserCreationResponse response =
-                    webClient
-                            .post()
-                            .uri("/api/v1/auth/register-invitee")
-                            .bodyValue(request)
+        return request("register-invitee", webClient
+                        .post()
+                        .uri("/api/v1/auth/register-invitee")
+                        .bodyValue(request)
+                        .retrieve()
+                        .bodyToMono(UserCreationResponse.class))
+                .doOnSuccess(response -> log.info("Created user response: {}", response))
+                .onErrorMap(e -> {
+                    if (e instanceof WebClientResponseException ex) {
+                        log.error("Error calling Auth Service: Status {}, Body: {}",
+                                ex.getStatusCode(), ex.getResponseBodyAsString());
+                        if (ex.getStatusCode() == HttpStatus.CONFLICT) {
+                            return new DuplicateResourceException("User already exists with email: " + request.email());
+                        }
+                        return new ServiceCommunicationException
+                                ("Failed to create user in Auth Service: " + ex.getResponseBodyAsString());
+                    }
+                    log.error("Unexpected error calling Auth Service: {}", e.getMessage());
+                    return new ServiceCommunicationException
+                            ("Failed to communicate with Auth Service:");
+                })
+                .block();
+    }
+
+    public UserCreationResponse checkUserExists(String email) {
+        log.info("Checking if user exists with email: {}", email);
+        UserCreationResponse user = request("users-exists", webClient.get()
+                        .uri(uriBuilder -> uriBuilder
+                                .path("/api/v1/users/exists")
+                                .queryParam("email", email)
+                                .build())
+                        .retrieve()
+                        .bodyToMono(UserCreationResponse.class))
+                .onErrorResume(WebClientResponseException.NotFound.class, ex -> {
+                    log.info("User not found with email: {}", email);
+                    return Mono.empty();
+                })
+                .onErrorMap(e -> {
+                    if (e instanceof WebClientResponseException ex) {
+                        log.error("Service communication error (status {}):", ex.getStatusCode());
+                        return new ServiceCommunicationException(
+                                "Service communication error (status " + ex.getStatusCode() + "): " + ex.getResponseBodyAsString()
+                        );
+                    }
+                    log.error(EXCEPTION_MESSAGE + ": {}", e.getMessage());
+                    return new ServiceCommunicationException("Unexpected error calling User Service");
+                })
+                .block();
+
+        log.info("User exists check result for {}: {}", email, user != null);
+        return user;
+    }
+
+    public PlatformNotificationSettingDto getNotificationSetting(String accessToken) {
+        return fetchNotificationSetting(accessToken).block();
+    }
+
+    public Mono<PlatformNotificationSettingDto> fetchNotificationSetting(String accessToken) {
+        return cached(notificationSettings, () -> {
+            log.info("Calling Auth Service to get platform notification settings.");
+            return request("platform-notification-settings", webClient.get()
+                            .uri("/api/v1/auth/platform-settings/notifications")
+                            .cookie("accessToken", accessToken)
                             .retrieve()
-                            .bodyToMono(UserCreationResponse.class)
-                            .block();
-            log.info("Created user response: {}", response);
-
-            return response;
-        } catch (WebClientResponseException e) {
-            log.error("Error calling Auth Service: Status {}, Body: {}",
-                    e.getStatusCode(), e.getResponseBodyAsString());
-            if (e.getStatusCode() == HttpStatus.CONFLICT) {
-                throw new DuplicateResourceException("User already exists with email: " + request.email());
-            }
+                            .bodyToMono(new ParameterizedTypeReference<CustomApiResponse<PlatformNotificationSettingDto>>() {}))
+                    .mapNotNull(CustomApiResponse::data)
+                    .switchIfEmpty(Mono.error(() -> {
+                        log.error("Auth Service returned an invalid CustomApiResponse for notification settings.");
+                        return new ServiceCommunicationException("Auth Service returned an invalid response for notification settings.");
+                    }))
+                    .doOnSuccess(settings -> log.info("Platform notification settings retrieved successfully."))
+                    .onErrorMap(e -> !(e instanceof ServiceCommunicationException), e -> {
+                        if (e instanceof WebClientResponseException ex) {
+                            log.error("Service communication error calling Auth Service (status {}):", ex.getStatusCode());
+                            return new ServiceCommunicationException(
+                                    "Service communication error (status " + ex.getStatusCode() + ") retrieving notification settings: " + ex.getResponseBodyAsString()
+                            );
+                        }
+                        log.error("Unexpected error calling Auth Service for notification settings: {}", e.getMessage());
+                        return new ServiceCommunicationException("Unexpected error calling Auth Service");
+                    });
+        });
+    }
 
-            throw new ServiceCommunicationException
-                    ("Failed to create user in Auth Service: " + e.getResponseBodyAsString());
-        } catch (Exception e) {
-            log.error("Unexpected error calling Auth Service: {}", e.getMessage());
-            throw new ServiceCommunicationException
-                    ("Failed to communicate with Auth Service:");
-        }
+    public List<UserInfoResponse> getActiveAdmins(String accessToken) {
+        return fetchActiveAdmins(accessToken).block();
+    }
 
+    public Mono<List<UserInfoResponse>> fetchActiveAdmins(String accessToken) {
+        return cached(activeAdmins, () -> request("active-admins", webClient.get()
+                        .uri("/api/v1/users/active-admins")
+                        .cookie("accessToken", accessToken)
+                        .retrieve()
+                        .bodyToMono(new ParameterizedTypeReference<List<UserInfoResponse>>() {}))
+                .onErrorMap(e -> toCommonException(e, "User Service")));
     }
 
-    public UserCreationResponse checkUserExists(String email) {
-        try {
-            log.info("Checking if user exists with email: {}", email);
-
-            UserCreationResponse user = webClient.get()
-                    .uri(uriBuilder -> uriBuilder
-                            .path("/api/v1/users/exists")
-                            .queryParam("email", email)
-                            .build())
-                    .retrieve()
-                    .bodyToMono(UserCreationResponse.class)
-                    .block();
-
-            log.info("User exists check result for {}: {}", email, user != null);
-            return user;
-
-        } catch (WebClientResponseException.NotFound ex) {
-            log.info("User not found with email: {}", email);
-            return null;
-
-        } catch (WebClientResponseException ex) {
-            log.error("Service communication error (status {}):", ex.getStatusCode());
-            throw new ServiceCommunicationException(
-                    "Service communication error (status " + ex.getStatusCode() + "): " + ex.getResponseBodyAsString()
-            );
+    public List<HostsResponse> getEventHosts(List<Long> hostIds, String accessToken) {
+        return fetchEventHosts(hostIds, accessToken).block();
+    }
 
-        } catch (Exception ex) {
-            log.error(EXCEPTION_MESSAGE+ ": {}", ex.getMessage());
-            throw new ServiceCommunicationException("Unexpected error calling User Service");
+    /**
+     * Returns the hosts with the given ids, in that order. Only the ids not cached are looked up; ids
+     * user-service doesn't know are left out.
+     */
+    public Mono<List<HostsResponse>> fetchEventHosts(List<Long> hostIds, String accessToken) {
+        if (hostIds.isEmpty()) {
+            return Mono.just(List.of());
         }
+        return Mono.fromFuture(() -> {
+                    dropFailed(hosts, hostIds);
+                    return hosts.getAll(hostIds, (missing, executor) -> Flux.fromIterable(missing)
+                            .flatMap(id -> fetchUserById(id, accessToken))
+                            .collectMap(UserCreationResponse::id, UserServiceClient::toHost)
+                            .toFuture());
+                }, true)
+                .map(found -> hostIds.stream().distinct().map(found::get).filter(Objects::nonNull).toList());
     }
 
-    public PlatformNotificationSettingDto getNotificationSetting(String accessToken) {
-        log.info("Calling Auth Service to get platform notification settings.");
-        try {
-            ParameterizedTypeReference<CustomApiResponse<PlatformNotificationSettingDto>> responseType =
-                    new ParameterizedTypeReference<CustomApiResponse<PlatformNotificationSettingDto>>() {};
-
-            CustomApiResponse<PlatformNotificationSettingDto> apiResponse = webClient.get()
-                    .uri("/api/v1/auth/platform-settings/notifications")
-                    .cookie("accessToken", accessToken)
-                    .retrieve()
-                    .bodyToMono(responseType)
-                    .block();
-
-            if (apiResponse != null && apiResponse.data() != null) {
-                log.info("Platform notification settings retrieved successfully.");
-                return apiResponse.data();
-            } else {
-                log.error("Auth Service returned an invalid CustomApiResponse for notification settings.");
-                throw new ServiceCommunicationException("Auth Service returned an invalid response for notification settings.");
-            }
+    /**
+     * Looks up a user by id, together with the other lookups made within the batch window. Completes
+     * empty if there is no such user.
+     */
+    public Mono<UserCreationResponse> fetchUserById(Long id, String accessToken) {
+        return userLookups.byId(id, accessToken);
+    }
 
-        } catch (WebClientResponseException ex) {
-            log.error("Service communication error calling Auth Service (status {}):", ex.getStatusCode());
-            throw new ServiceCommunicationException(
-                    "Service communication error (status " + ex.getStatusCode() + ") retrieving notification settings: " + ex.getResponseBodyAsString()
-            );
+    /**
+     * Looks up a user by email, together with the other lookups made within the batch window. Completes
+     * empty if there is no such user.
+     */
+    public Mono<UserCreationResponse> fetchUserByEmail(String email, String accessToken) {
+        return userLookups.byEmail(email, accessToken);
+    }
 
-        } catch (Exception ex) {
-            log.error("Unexpected error calling Auth Service for notification settings: {}", ex.getMessage());
-            throw new ServiceCommunicationException("Unexpected error calling Auth Service");
-        }
+    /**
+     * Returns the users with the given emails that exist, by {@link UserLookupRequest#normalizeEmail normalized}
+     * email, resolved in as few bulk requests as the batch size allows.
+     */
+    public Map<String, UserCreationResponse> findUsersByEmail(Collection<String> emails, String accessToken) {
+        return Flux.fromIterable(new LinkedHashSet<>(emails))
+                .flatMap(email -> fetchUserByEmail(email, accessToken))
+                .collectMap(user -> UserLookupRequest.normalizeEmail(user.email()))
+                .block();
     }
 
-    public List<UserInfoResponse> getActiveAdmins(String accessToken) {
-        try {
+    private Mono<List<UserCreationResponse>> lookupUsers(UserLookupRequest request, String accessToken) {
+        lookupBatchSizes.record(request.size());
+        return request("users-lookup", webClient.post()
+                        .uri("/api/v1/users/lookup")
+                        .cookie("accessToken", accessToken)
+                        .bodyValue(request)
+                        .retrieve()
+                        .bodyToMono(new ParameterizedTypeReference<List<UserCreationResponse>>() {}))
+                .onErrorMap(e -> toCommonException(e, "User Service for user lookup"));
+    }
 
-            return webClient.get()
-                    .uri("/api/v1/users/active-admins")
-                    .cookie("accessToken", accessToken)
-                    .retrieve()
-                    .bodyToMono(new ParameterizedTypeReference<List<UserInfoResponse>>() {})
-                    .block();
+    private static HostsResponse toHost(UserCreationResponse user) {
+        return HostsResponse.builder()
+                .id(user.id())
+                .fullName(user.fullName())
+                .email(user.email())
+                .role(user.role())
+                .build();
+    }
 
-        } catch (WebClientResponseException.Unauthorized ex) {
+    public void invalidateNotificationSetting() {
+        notificationSettings.synchronous().invalidateAll();
+    }
 
-            throw new UnauthorizedException("Unauthorized: " + ex.getResponseBodyAsString());
+    public void invalidateActiveAdmins() {
+        activeAdmins.synchronous().invalidateAll();
+    }
 
-        } catch (WebClientResponseException.Forbidden ex) {
+    public void invalidateTopOrganizers() {
+        topOrganizers.synchronous().invalidateAll();
+    }
 
-            throw new ForbiddenException("Forbidden: " + ex.getResponseBodyAsString());
+    public void invalidateHosts(Collection<Long> hostIds) {
+        hosts.synchronous().invalidateAll(hostIds);
+    }
 
-        } catch (WebClientResponseException ex) {
-            throw new ServiceCommunicationException(
-                    "Service communication error (status " + ex.getStatusCode() + "): " + ex.getResponseBodyAsString()
-            );
+    public void invalidateAll() {
+        invalidateNotificationSetting();
+        invalidateActiveAdmins();
+        invalidateTopOrganizers();
+        hosts.synchronous().invalidateAll();
+    }
 
-        } catch (Exception ex) {
-            log.error(EXCEPTION_MESSAGE+ ": {}", ex.getMessage());
-            throw new ServiceCommunicationException("Unexpected error calling User Service");
-        }
+    // Cancelling one caller must not cancel the request others are waiting for
+    private static <V> Mono<V> cached(AsyncCache<String, V> cache, Supplier<Mono<V>> load) {
+        return Mono.fromFuture(() -> {
+            dropFailed(cache, List.of(ALL));
+            return cache.get(ALL, (key, executor) -> load.get().toFuture());
+        }, true);
     }
 
-    public List<HostsResponse> getEventHosts(List<Long> hostIds, String accessToken){
-        try{
-            log.info("Calling User Service to get event hosts");
+    // A failed request leaves the cache after its waiting callers are told, which may be after the next caller came
+    private static <K, V> void dropFailed(AsyncCache<K, V> cache, Collection<K> keys) {
+        for (K key : keys) {
+            CompletableFuture<V> value = cache.asMap().get(key);
+            if (value != null && value.isCompletedExceptionally()) {
+                cache.asMap().remove(key, value);
+            }
+        }
+    }
 
-            return webClient.get()
+    private <T> Mono<T> request(String endpoint, Mono<T> response) {
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            return response
+                    .timeout(timeout)
+                    .doOnSuccess(value -> sample.stop(latency(endpoint, "success")))
+                    .doOnError(e -> sample.stop(latency(endpoint, result(e))));
+        });
+    }
 
-                    .uri(uriBuilder -> uriBuilder
-                                    .path("/api/v1/users/hosts")
-                                    .queryParam("hostIds", hostIds)
-                                    .build())
-                    .cookie("accessToken", accessToken)
-                    .retrieve()
-                    .bodyToMono(new ParameterizedTypeReference<List<HostsResponse>>() {})
-                    .block();
-        } catch (WebClientResponseException.Unauthorized ex) {
-            log.error("Unauthorized error when calling User Service for event hosts");
-            throw new UnauthorizedException("Unauthorized: " + ex.getResponseBodyAsString());
+    private Timer latency(String endpoint, String result) {
+        return Timer.builder("user.service.client.latency")
+                .description("Time for user-service to answer a request")
+                .tag("endpoint", endpoint)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
 
-        } catch (WebClientResponseException.Forbidden ex) {
-            log.error("Forbidden error when calling User Service for event hosts");
-            throw new ForbiddenException("Forbidden: " + ex.getResponseBodyAsString());
+    private static String result(Throwable e) {
+        if (e instanceof WebClientResponseException ex) {
+            return ex.getStatusCode().is4xxClientError() ? "client_error" : "server_error";
+        }
+        return e instanceof TimeoutException ? "timeout" : "unreachable";
+    }
 
-        } catch (WebClientResponseException ex) {
-            log.error("Service communication error when calling User Service for event hosts (status {}):", ex.getStatusCode());
-            throw new ServiceCommunicationException(
+    private static RuntimeException toCommonException(Throwable e, String service) {
+        if (e instanceof WebClientResponseException.Unauthorized ex) {
+            log.error("Unauthorized error when calling {}", service);
+            return new UnauthorizedException("Unauthorized: " + ex.getResponseBodyAsString());
+        }
+        if (e instanceof WebClientResponseException.Forbidden ex) {
+            log.error("Forbidden error when calling {}", service);
+            return new ForbiddenException("Forbidden: " + ex.getResponseBodyAsString());
+        }
+        if (e instanceof WebClientResponseException ex) {
+            log.error("Service communication error when calling {} (status {}):", service, ex.getStatusCode());
+            return new ServiceCommunicationException(
                     "Service communication error (status " + ex.getStatusCode() + "): " + ex.getResponseBodyAsString()
             );
-
-        } catch (Exception ex) {
-            log.error(EXCEPTION_MESSAGE+ " : {}", ex.getMessage());
-            throw new ServiceCommunicationException("Unexpected error calling User Service");
         }
+        log.error(EXCEPTION_MESSAGE + " {}", e.getMessage());
+        return new ServiceCommunicationException("Unexpected error calling User Service");
     }
 }
@@ -0,0 +1,17 @@
+package com.event_service.event_service.config;
+
+import com.event_service.event_service.dto.PagedExploreEventResponse;
+import com.example.common_libraries.cache.CacheTypeRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class CacheConfig {
+
+    // Ids are stored with the cached values; never renumber or reuse them
+    @Bean
+    public CacheTypeRegistry cacheTypeRegistry() {
+        return new CacheTypeRegistry()
+                .register(32, PagedExploreEventResponse.class);
+    }
+}
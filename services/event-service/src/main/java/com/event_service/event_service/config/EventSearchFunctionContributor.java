@@ -0,0 +1,88 @@
+package com.event_service.event_service.config;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.query.ReturnableType;
+import org.hibernate.query.sqm.function.AbstractSqmSelfRenderingFunctionDescriptor;
+import org.hibernate.query.sqm.function.SqmFunctionRegistry;
+import org.hibernate.query.sqm.produce.function.FunctionParameterType;
+import org.hibernate.query.sqm.produce.function.StandardArgumentsValidators;
+import org.hibernate.query.sqm.produce.function.StandardFunctionArgumentTypeResolvers;
+import org.hibernate.query.sqm.produce.function.StandardFunctionReturnTypeResolvers;
+import org.hibernate.sql.ast.SqlAstTranslator;
+import org.hibernate.sql.ast.spi.SqlAppender;
+import org.hibernate.sql.ast.tree.SqlAstNode;
+import org.hibernate.sql.ast.tree.expression.ColumnReference;
+import org.hibernate.sql.ast.tree.expression.Expression;
+import org.hibernate.type.BasicType;
+import org.hibernate.type.BasicTypeRegistry;
+import org.hibernate.type.StandardBasicTypes;
+import org.hibernate.type.spi.TypeConfiguration;
+
+import java.util.List;
+
+/**
+ * Makes the PostgreSQL full-text and trigram operators behind {@link EventSearchIndex} callable from
+ * criteria queries. Registered through {@code META-INF/services}, and only on PostgreSQL.
+ * <p>
+ * {@code search_vector} isn't mapped on {@link com.event_service.event_service.models.Event}, so the
+ * full-text functions take any column of the event and read {@code search_vector} of the same row:
+ * {@code event_search_matches(e.id, :query)}.
+ */
+public class EventSearchFunctionContributor implements FunctionContributor {
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        if (!(functionContributions.getDialect() instanceof PostgreSQLDialect)) {
+            return;
+        }
+        SqmFunctionRegistry registry = functionContributions.getFunctionRegistry();
+        TypeConfiguration typeConfiguration = functionContributions.getTypeConfiguration();
+        BasicTypeRegistry types = typeConfiguration.getBasicTypeRegistry();
+
+        registry.register("event_search_matches", new SearchVectorFunction("event_search_matches",
+                "(%s @@ to_tsquery('simple', %s))", types.resolve(StandardBasicTypes.BOOLEAN), typeConfiguration));
+        registry.register("event_search_rank", new SearchVectorFunction("event_search_rank",
+                "ts_rank(%s, to_tsquery('simple', %s))", types.resolve(StandardBasicTypes.DOUBLE), typeConfiguration));
+        registry.registerPattern("trigram_similar", "(?1 % ?2)",
+                types.resolve(StandardBasicTypes.BOOLEAN));
+        registry.registerPattern("trigram_similarity", "similarity(?1, ?2)",
+                types.resolve(StandardBasicTypes.DOUBLE));
+    }
+
+    /**
+     * Renders {@code pattern} with the {@code search_vector} column of the table the first argument's
+     * column belongs to, and the second argument as the query text.
+     */
+    static class SearchVectorFunction extends AbstractSqmSelfRenderingFunctionDescriptor {
+        private final String pattern;
+
+        SearchVectorFunction(String name, String pattern, BasicType<?> returnType, TypeConfiguration typeConfiguration) {
+            super(name,
+                    StandardArgumentsValidators.exactly(2),
+                    StandardFunctionReturnTypeResolvers.invariant(returnType),
+                    StandardFunctionArgumentTypeResolvers.invariant(typeConfiguration,
+                            FunctionParameterType.ANY, FunctionParameterType.STRING));
+            this.pattern = pattern;
+        }
+
+        @Override
+        public void render(SqlAppender sqlAppender,
+                           List<? extends SqlAstNode> sqlAstArguments,
+                           ReturnableType<?> returnType,
+                           SqlAstTranslator<?> walker) {
+            ColumnReference column = ((Expression) sqlAstArguments.get(0)).getColumnReference();
+            if (column == null) {
+                throw new IllegalArgumentException(getName() + " needs a column of the event as its first argument");
+            }
+            String searchVector = column.getQualifier() == null ? "search_vector" : column.getQualifier() + ".search_vector";
+            String[] parts = pattern.split("%s", -1);
+            sqlAppender.appendSql(parts[0]);
+            sqlAppender.appendSql(searchVector);
+            sqlAppender.appendSql(parts[1]);
+            sqlAstArguments.get(1).accept(walker);
+            sqlAppender.appendSql(parts[2]);
+        }
+    }
+}
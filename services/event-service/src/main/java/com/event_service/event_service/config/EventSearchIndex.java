@@ -0,0 +1,98 @@
+package com.event_service.event_service.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+import java.util.List;
+
+/**
+ * Tells whether full-text and fuzzy search over events can be used. On PostgreSQL
+ * {@code local-deploy/migrations/event-db-search-index.sql} adds {@code search_vector}, a generated
+ * {@code tsvector} of the title, location and description that PostgreSQL keeps current on every insert and
+ * update, and GIN indexes it. Trigram indexes on the lower-cased title and location serve typo-tolerant
+ * matching as well as the {@code LIKE '%x%'} filters. Adding the column rewrites the table, so the migration
+ * runs offline rather than at startup.
+ * <p>
+ * The column and indexes are looked up every few minutes, so search is turned on once the migration has run
+ * without a restart. Until then, or on other databases, {@link #isAvailable()} is false and the explore feed
+ * keeps to the plain {@code LIKE} filters.
+ */
+@Slf4j
+@Component
+public class EventSearchIndex {
+    static final List<String> INDEXES = List.of("idx_events_search_vector", "idx_events_title_trgm", "idx_events_location_trgm");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSource dataSource;
+    private final String table;
+
+    private volatile boolean available;
+    private boolean checked;
+
+    public EventSearchIndex(JdbcTemplate jdbcTemplate,
+                            @Value("${spring.jpa.properties.hibernate.default_schema:}") String schema) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSource = jdbcTemplate.getDataSource();
+        this.table = schema.isBlank() ? "events" : schema + ".events";
+    }
+
+    /**
+     * Whether {@code events} has the generated {@code search_vector} and its indexes have been built, i.e.
+     * the migration has run.
+     */
+    public boolean isAvailable() {
+        return available;
+    }
+
+    @Scheduled(fixedDelayString = "${events.search.check-interval-ms:300000}")
+    public void refresh() {
+        boolean wasAvailable = available;
+        try {
+            available = isPostgres() && hasSearchVector() && hasIndexes();
+        } catch (DataAccessException e) {
+            log.warn("Could not look up the event search index: {}", e.getMessage());
+            available = false;
+        }
+        if (available && !wasAvailable) {
+            log.info("Event search index is in place, explore search ranks full-text matches");
+        } else if (!available && wasAvailable) {
+            log.warn("Event search index is gone, explore search keeps to LIKE filters");
+        } else if (!available && !checked) {
+            log.info("No event search index, run local-deploy/migrations/event-db-search-index.sql to add it; explore search keeps to LIKE filters");
+        }
+        checked = true;
+    }
+
+    private boolean hasSearchVector() {
+        return jdbcTemplate.queryForList("""
+                SELECT format_type(a.atttypid, a.atttypmod)
+                FROM pg_attribute a
+                WHERE a.attrelid = to_regclass(?) AND a.attname = 'search_vector' AND NOT a.attisdropped
+                """, String.class, table).equals(List.of("tsvector"));
+    }
+
+    // A concurrent build that failed leaves an invalid index behind
+    private boolean hasIndexes() {
+        List<String> valid = jdbcTemplate.queryForList("""
+                SELECT c.relname FROM pg_index i JOIN pg_class c ON c.oid = i.indexrelid
+                WHERE i.indrelid = to_regclass(?) AND i.indisvalid
+                """, String.class, table);
+        return valid.containsAll(INDEXES);
+    }
+
+    private boolean isPostgres() {
+        try {
+            return "PostgreSQL".equals(JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName));
+        } catch (MetaDataAccessException e) {
+            return false;
+        }
+    }
+}
@@ -59,6 +59,7 @@ public class SecurityConfig {
                         .requestMatchers("/actuator/**").permitAll()
                         .requestMatchers("/api/v1/events/{eventId}/register").permitAll()
                         .requestMatchers("/api/v1/events/{eventId}").permitAll()
+                        .requestMatchers("/api/v1/events/explore/scroll").permitAll()
                         .requestMatchers("/api/v1/tickets/verify/**", "/api/v1/tickets/verifyVirtualTicket/**").permitAll()
                         .requestMatchers(
                                 "/api/v1/event-invitations/accept-invitation/**"
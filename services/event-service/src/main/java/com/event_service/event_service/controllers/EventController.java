@@ -3,6 +3,7 @@ package com.event_service.event_service.controllers;
 import com.event_service.event_service.dto.*;
 import com.event_service.event_service.models.enums.EventStatus;
 import com.event_service.event_service.services.*;
+import com.example.common_libraries.dto.CursorPage;
 import com.example.common_libraries.dto.CustomApiResponse;
 import com.example.common_libraries.dto.EventRegistrationResponse;
 import com.fasterxml.jackson.core.JsonProcessingException;
@@ -111,6 +112,17 @@ public class EventController {
         return ResponseEntity.status(HttpStatus.OK).body(CustomApiResponse.success(eventRegistrationService.getEventRegistrations(eventId,page, keyword,ticketType)));
     }
 
+    @GetMapping("/{eventId}/registrations/scroll")
+    @PreAuthorize("hasAnyRole('ADMIN','ORGANISER','CO_ORGANIZER')")
+    public ResponseEntity<CustomApiResponse<CursorPage<EventRegistrationsListResponse>>> scrollEventRegistrations(
+            @PathVariable("eventId") Long eventId,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "keyword", defaultValue = "", required = false) String keyword,
+            @RequestParam(value = "ticketType", defaultValue = "", required = false) String ticketType
+    ){
+        return ResponseEntity.status(HttpStatus.OK).body(CustomApiResponse.success(eventRegistrationService.scrollEventRegistrations(eventId, cursor, keyword, ticketType)));
+    }
+
     @GetMapping("/explore")
     public ResponseEntity<PagedExploreEventResponse> getExploreEvents(
             @RequestParam(value = "sortBy", defaultValue = "location", required = false) String[] sortBy,
@@ -128,6 +140,21 @@ public class EventController {
     }
 
 
+    @GetMapping("/explore/scroll")
+    public ResponseEntity<CursorPage<ExploreEventResponse>> scrollExploreEvents(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "pageSize", defaultValue = "5", required = false) int pageSize,
+            @RequestParam(value = "location", required = false) String location,
+            @RequestParam(value = "hasTitle", required = false) String hasTitle,
+            @RequestParam(value = "date", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(value = "priceFilter", required = false) String priceFilter,
+            @RequestParam(value = "past", required = false) Boolean past
+    ) {
+        return ResponseEntity.ok(
+                eventService.scrollEvents(cursor, pageSize, hasTitle, location, date, priceFilter, past)
+        );
+    }
+
     @GetMapping("/event-management")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<CustomApiResponse<EventDashboardResponse>> getEventManagementDashboard(
@@ -147,6 +174,16 @@ public class EventController {
         return ResponseEntity.status(HttpStatus.OK).body(CustomApiResponse.success(eventOverviewService.getManagementEvents(keyword,page,status)));
     }
 
+    @GetMapping("/event-management/scroll")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<CustomApiResponse<CursorPage<EventManagementResponse>>> scrollEvents(
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "status", required = false) EventStatus status,
+            @RequestParam(name = "keyword", required = false) String keyword
+    ){
+        return ResponseEntity.status(HttpStatus.OK).body(CustomApiResponse.success(eventOverviewService.scrollManagementEvents(keyword,cursor,status)));
+    }
+
     @GetMapping("/my-events/overview")
     @PreAuthorize("hasAnyRole('ORGANISER','CO_ORGANIZER')")
     public ResponseEntity<CustomApiResponse<MyEventsOverviewResponse>> getMyEventsOverview() {
@@ -1,15 +1,22 @@
 package com.event_service.event_service.controllers;
 
+import com.event_service.event_service.dto.EventStatsResponse;
 import com.event_service.event_service.dto.GraphResponse;
+import com.event_service.event_service.models.enums.StatsGranularity;
 import com.event_service.event_service.services.EventGraphService;
 import com.example.common_libraries.dto.CustomApiResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.LocalDate;
+import java.util.List;
+
 @RequestMapping("api/v1/event-graph")
 @RestController
 @RequiredArgsConstructor
@@ -27,4 +34,13 @@ public class EventGraphController {
     public ResponseEntity<CustomApiResponse<GraphResponse>> getRegistrationGraphData(){
         return ResponseEntity.ok(CustomApiResponse.success(eventGraphService.getRegistrationGraphData()));
     }
+
+    @GetMapping("/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<CustomApiResponse<List<EventStatsResponse>>> getStats(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "MONTH") StatsGranularity granularity){
+        return ResponseEntity.ok(CustomApiResponse.success(eventGraphService.getStats(from, to, granularity)));
+    }
 }
@@ -0,0 +1,15 @@
+package com.event_service.event_service.dto;
+
+import lombok.Builder;
+
+import java.time.LocalDate;
+
+@Builder
+public record EventStatsResponse(
+        LocalDate periodStart,
+        Long eventsCreated,
+        Long registrations,
+        Long ticketsSold,
+        Double revenue
+) {
+}
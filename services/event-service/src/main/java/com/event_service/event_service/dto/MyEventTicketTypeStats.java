@@ -7,6 +7,7 @@ public record MyEventTicketTypeStats(
         Long id,
         String name,
         Long remainingTickets,
-        Long soldTickets
+        Long soldTickets,
+        Long heldTickets
 ) {
 }
@@ -0,0 +1,8 @@
+package com.event_service.event_service.dto.projection;
+
+import java.time.LocalDate;
+
+public interface DailyCountProjection {
+    LocalDate getCreatedOn();
+    Long getTotal();
+}
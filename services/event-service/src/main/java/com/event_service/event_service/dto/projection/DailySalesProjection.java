@@ -0,0 +1,5 @@
+package com.event_service.event_service.dto.projection;
+
+public interface DailySalesProjection extends DailyCountProjection {
+    Double getRevenue();
+}
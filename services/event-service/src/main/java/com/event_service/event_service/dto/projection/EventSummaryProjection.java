@@ -0,0 +1,27 @@
+package com.event_service.event_service.dto.projection;
+
+public interface EventSummaryProjection {
+    Long getEventId();
+    Long getAttendeeCount();
+    Boolean getIsPaid();
+
+    // For an event the summary query returned no row for
+    static EventSummaryProjection empty(Long eventId) {
+        return new EventSummaryProjection() {
+            @Override
+            public Long getEventId() {
+                return eventId;
+            }
+
+            @Override
+            public Long getAttendeeCount() {
+                return 0L;
+            }
+
+            @Override
+            public Boolean getIsPaid() {
+                return false;
+            }
+        };
+    }
+}
@@ -0,0 +1,6 @@
+package com.event_service.event_service.dto.projection;
+
+public interface HeldTicketsProjection {
+    Long getTicketTypeId();
+    Long getHeldTickets();
+}
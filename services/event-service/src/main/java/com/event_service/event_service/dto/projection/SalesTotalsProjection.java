@@ -0,0 +1,8 @@
+package com.event_service.event_service.dto.projection;
+
+public interface SalesTotalsProjection {
+    Long getTicketsSold();
+    Double getGrossRevenue();
+    Long getAttendees();
+    Long getCheckIns();
+}
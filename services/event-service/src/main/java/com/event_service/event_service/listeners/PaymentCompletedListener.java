@@ -0,0 +1,29 @@
+package com.event_service.event_service.listeners;
+
+import com.event_service.event_service.services.EventRegistrationService;
+import com.example.common_libraries.dto.queue_events.ProcessPaymentEvent;
+import com.example.common_libraries.utils.SqsBatches;
+import io.awspring.cloud.sqs.annotation.SqsListener;
+import io.awspring.cloud.sqs.listener.acknowledgement.BatchAcknowledgement;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.Message;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PaymentCompletedListener {
+    private final EventRegistrationService eventRegistrationService;
+
+    // Each payment is completed in its own transaction, so a sold out ticket type doesn't roll back the batch
+    @SqsListener(value = "${sqs.payment-completed-event-queue-url}",
+            maxConcurrentMessages = "${sqs.listener.payment-completed.max-concurrent-messages:30}",
+            acknowledgementMode = "MANUAL")
+    public void paymentCompletedListener(List<Message<ProcessPaymentEvent>> messages, BatchAcknowledgement<ProcessPaymentEvent> acknowledgement){
+        log.info("Received {} payment completed events", messages.size());
+        SqsBatches.handleEach(messages, acknowledgement, eventRegistrationService::completePayment);
+    }
+}
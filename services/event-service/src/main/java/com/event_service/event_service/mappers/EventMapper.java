@@ -19,8 +19,7 @@ public interface EventMapper {
 
     @Mapping(target = "startTime", expression = "java(determineDisplayTime(event))")
     @Mapping(target = "ticketPrice", expression = "java(extractTicketPrice(event))")
-    @Mapping(target = "attendeeCount", expression = "java(extractInvitationCount(event))")
-    ExploreEventResponse toExploreEventResponse(Event event);
+    ExploreEventResponse toExploreEventResponse(Event event, Long attendeeCount);
 
     @Mapping(source = "eventImages", target = "images")
     @Mapping(target = "startTime", expression = "java(determineDisplayTime(event))")
@@ -33,12 +32,6 @@ public interface EventMapper {
 
     List<EventImageResponse> toEventImageResponseList(Set<EventImages> images);
 
-    default Long extractInvitationCount(Event event) {
-        if (event.getInvitations() == null) return 0L;
-        return (long) event.getEventRegistrations().size();
-    }
-
-
     default java.math.BigDecimal extractTicketPrice(Event event) {
         return (event.getEventOptions() != null)
                 ? event.getEventOptions().getTicketPrice()
@@ -29,7 +29,6 @@ public class TicketPurchasedEventMapper {
                 .id(ticket.getId())
                 .ticketType(ticket.getTicketType().getType())
                 .ticketCode(ticket.getTicketCode())
-                .qrCodeUrl(ticket.getQrCodeUrl())
                 .status(ticket.getStatus().name())
                 .build();
     }
@@ -21,7 +21,9 @@ import java.util.Set;
 
 
 @Entity
-@Table(name = "events")
+@Table(name = "events", indexes = {
+        @Index(name = "idx_events_created_at", columnList = "created_at")
+})
 @Getter
 @Setter
 @Builder
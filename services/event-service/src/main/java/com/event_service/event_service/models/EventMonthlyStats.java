@@ -0,0 +1,39 @@
+package com.event_service.event_service.models;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * Platform-wide counts of one month, the sum of its {@link EventDailyStats}. {@code month} is the
+ * first day of the month. Rows are only written by {@code EventStatsRollupService}.
+ */
+@Entity
+@Table(name = "event_monthly_stats")
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventMonthlyStats {
+    @Id
+    @Column(name = "stats_month")
+    private LocalDate month;
+
+    @Column(name = "events_created", nullable = false)
+    private Long eventsCreated;
+
+    @Column(nullable = false)
+    private Long registrations;
+
+    @Column(name = "tickets_sold", nullable = false)
+    private Long ticketsSold;
+
+    @Column(nullable = false)
+    private Double revenue;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+}
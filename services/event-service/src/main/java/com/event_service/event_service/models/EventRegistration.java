@@ -10,7 +10,10 @@ import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 import java.time.Instant;
 
 @Entity
-@Table(name = "event_registration")
+@Table(name = "event_registration", indexes = {
+        @Index(name = "idx_event_registration_event_id_id", columnList = "event_id, id"),
+        @Index(name = "idx_event_registration_created_at", columnList = "created_at")
+})
 @Getter
 @Setter
 @Builder
@@ -0,0 +1,44 @@
+package com.event_service.event_service.models;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * Running sales and attendance totals of an event, kept in step with its tickets so dashboards
+ * read one row per event instead of aggregating the ticket table. The counters are only changed
+ * through the increment queries of {@code EventSalesSummaryRepository}.
+ */
+@Entity
+@Table(name = "event_sales_summary", indexes = {
+        @Index(name = "idx_event_sales_summary_organizer_id", columnList = "organizer_id")
+})
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventSalesSummary {
+    @Id
+    @Column(name = "event_id")
+    private Long eventId;
+
+    @Column(name = "organizer_id", nullable = false)
+    private Long organizerId;
+
+    @Column(name = "tickets_sold", nullable = false)
+    private Long ticketsSold;
+
+    @Column(name = "gross_revenue", nullable = false)
+    private Double grossRevenue;
+
+    @Column(nullable = false)
+    private Long attendees;
+
+    @Column(name = "check_ins", nullable = false)
+    private Long checkIns;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+}
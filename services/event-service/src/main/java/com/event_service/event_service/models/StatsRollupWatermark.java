@@ -0,0 +1,26 @@
+package com.event_service.event_service.models;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * How far a rollup has read its source tables: rows created before {@code rolledUpTo} are counted.
+ * The row is locked while the rollup runs, so only one instance rolls up at a time.
+ */
+@Entity
+@Table(name = "stats_rollup_watermark")
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StatsRollupWatermark {
+    @Id
+    private String name;
+
+    // null until the first run, which counts everything
+    @Column(name = "rolled_up_to")
+    private Instant rolledUpTo;
+}
@@ -10,7 +10,9 @@ import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "ticket")
+@Table(name = "ticket", indexes = {
+        @Index(name = "idx_ticket_created_at", columnList = "created_at")
+})
 @Getter
 @Setter
 @Builder
@@ -35,9 +37,6 @@ public class Ticket {
 
     private String ticketCode;
 
-    @Column(columnDefinition = "TEXT")
-    private String qrCodeUrl;
-
     @Enumerated(EnumType.STRING)
     private TicketStatusEnum status = TicketStatusEnum.ACTIVE;
 
@@ -0,0 +1,54 @@
+package com.event_service.event_service.models;
+
+import com.event_service.event_service.models.enums.TicketReservationStatusEnum;
+import jakarta.persistence.*;
+import lombok.*;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.Instant;
+
+/**
+ * Tickets held against a ticket type while an attendee completes a Paystack checkout.
+ * The held quantity is already counted in {@link TicketType#getSoldCount()} and is
+ * given back if the hold expires before the payment completes.
+ */
+@Entity
+@Table(name = "ticket_reservation", indexes = {
+        @Index(name = "idx_ticket_reservation_status_expires_at", columnList = "status, expires_at")
+})
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@EntityListeners(AuditingEntityListener.class)
+public class TicketReservation {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "ticket_type_id", nullable = false)
+    private Long ticketTypeId;
+
+    @Column(nullable = false)
+    private Long quantity;
+
+    private String email;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private TicketReservationStatusEnum status;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    @CreatedDate
+    @Column(name = "created_at", nullable =false, updatable = false)
+    private Instant createdAt;
+
+    @LastModifiedDate
+    @Column(name = "updated_at")
+    private Instant updatedAt;
+}
@@ -0,0 +1,6 @@
+package com.event_service.event_service.models.enums;
+
+public enum OutboxMessageStatusEnum {
+    PENDING,
+    FAILED
+}
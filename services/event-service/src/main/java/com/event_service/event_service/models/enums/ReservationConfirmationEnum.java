@@ -0,0 +1,7 @@
+package com.event_service.event_service.models.enums;
+
+public enum ReservationConfirmationEnum {
+    CONFIRMED,
+    ALREADY_CONFIRMED,
+    SOLD_OUT
+}
@@ -0,0 +1,29 @@
+package com.event_service.event_service.models.enums;
+
+import java.time.temporal.ChronoUnit;
+
+/**
+ * The period statistics are grouped by, with the most periods one request may ask for: a year of days,
+ * five years of weeks or ten years of months.
+ */
+public enum StatsGranularity {
+    DAY(ChronoUnit.DAYS, 366),
+    WEEK(ChronoUnit.WEEKS, 261),
+    MONTH(ChronoUnit.MONTHS, 120);
+
+    private final ChronoUnit unit;
+    private final int maxPeriods;
+
+    StatsGranularity(ChronoUnit unit, int maxPeriods) {
+        this.unit = unit;
+        this.maxPeriods = maxPeriods;
+    }
+
+    public ChronoUnit unit() {
+        return unit;
+    }
+
+    public int maxPeriods() {
+        return maxPeriods;
+    }
+}
@@ -0,0 +1,16 @@
+package com.event_service.event_service.repositories;
+
+import com.event_service.event_service.models.EventDailyStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface EventDailyStatsRepository extends JpaRepository<EventDailyStats, LocalDate> {
+
+    List<EventDailyStats> findAllByDayGreaterThanEqualOrderByDay(LocalDate from);
+
+    List<EventDailyStats> findAllByDayBetweenOrderByDay(LocalDate from, LocalDate to);
+}
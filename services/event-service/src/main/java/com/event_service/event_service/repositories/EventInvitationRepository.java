@@ -62,4 +62,7 @@ public interface EventInvitationRepository extends JpaRepository<EventInvitation
     );
 
     List<EventInvitation> findAllByEvent(Event event);
+
+    @Query("SELECT COUNT(i) FROM EventInvitee i WHERE i.invitation.event.id = :eventId")
+    long countInviteesByEventId(@Param("eventId") Long eventId);
 }
\ No newline at end of file
@@ -0,0 +1,34 @@
+package com.event_service.event_service.repositories;
+
+import com.event_service.event_service.dto.projection.EventMonthlyStatsProjection;
+import com.event_service.event_service.dto.projection.RegistrationMonthlyStatsProjection;
+import com.event_service.event_service.models.EventMonthlyStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface EventMonthlyStatsRepository extends JpaRepository<EventMonthlyStats, LocalDate> {
+
+    List<EventMonthlyStats> findAllByMonthBetweenOrderByMonth(LocalDate from, LocalDate to);
+
+    @Query("""
+        SELECT YEAR(m.month) AS year, MONTH(m.month) AS month, m.eventsCreated AS totalEventsCreated
+        FROM EventMonthlyStats m
+        WHERE m.month >= :from AND m.month < :to AND m.eventsCreated > 0
+        ORDER BY m.month
+    """)
+    List<EventMonthlyStatsProjection> getMonthlyEventStats(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("""
+        SELECT YEAR(m.month) AS year, MONTH(m.month) AS month, m.registrations AS totalRegistrations
+        FROM EventMonthlyStats m
+        WHERE m.month >= :from AND m.month < :to AND m.registrations > 0
+        ORDER BY m.month
+    """)
+    List<RegistrationMonthlyStatsProjection> getMonthlyRegistrationStats(@Param("from") LocalDate from, @Param("to") LocalDate to);
+}
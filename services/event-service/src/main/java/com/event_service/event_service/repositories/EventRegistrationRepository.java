@@ -1,6 +1,6 @@
 package com.event_service.event_service.repositories;
 
-import com.event_service.event_service.dto.projection.RegistrationMonthlyStatsProjection;
+import com.event_service.event_service.dto.projection.DailyCountProjection;
 import com.event_service.event_service.models.Event;
 import com.event_service.event_service.models.EventRegistration;
 import com.event_service.event_service.specifications.EventRegistrationSpecification;
@@ -13,6 +13,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
 import java.util.List;
 
 @Repository
@@ -25,20 +26,14 @@ public interface EventRegistrationRepository extends JpaRepository<EventRegistra
 
     Long countByEventUserId(Long id);
 
-    @Query(value = """
-        SELECT
-            EXTRACT(YEAR FROM r.created_at) AS year,
-            EXTRACT(MONTH FROM r.created_at) AS month,
-            COUNT(*) AS totalRegistrations
-        FROM event_schema.event_registration r
-        WHERE EXTRACT(YEAR FROM r.created_at) IN (:currentYear, :previousYear)
-        GROUP BY year, month
-        ORDER BY year, month
-    """, nativeQuery = true)
-    List<RegistrationMonthlyStatsProjection> getMonthlyRegistrationStats(
-            @Param("currentYear") Integer currentYear,
-            @Param("previousYear") Integer previousYear
-    );
+    // Days in the database session's time zone
+    @Query("""
+        SELECT CAST(er.createdAt AS LocalDate) AS createdOn, COUNT(er.id) AS total
+        FROM EventRegistration er
+        WHERE er.createdAt >= :since
+        GROUP BY CAST(er.createdAt AS LocalDate)
+    """)
+    List<DailyCountProjection> countCreatedPerDay(@Param("since") Instant since);
 
     long countByEventId(Long id);
 }
@@ -1,12 +1,15 @@
 package com.event_service.event_service.repositories;
 
+import com.event_service.event_service.dto.projection.DailyCountProjection;
 import com.event_service.event_service.dto.projection.EventManagementProjection;
-import com.event_service.event_service.dto.projection.EventMonthlyStatsProjection;
 import com.event_service.event_service.dto.projection.EventStatProjection;
+import com.event_service.event_service.dto.projection.EventSummaryProjection;
 import com.event_service.event_service.models.Event;
 import com.event_service.event_service.models.enums.InviteeRole;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
@@ -14,14 +17,53 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Repository
 public interface EventRepository extends JpaRepository<Event, Long>, JpaSpecificationExecutor<Event> {
 
     Page<Event> findAll(Pageable pageable);
 
+    // Explore listings read the type and options of every event on the page
+    @Override
+    @EntityGraph(attributePaths = {"eventType", "eventOptions"})
+    Page<Event> findAll(Specification<Event> spec, Pageable pageable);
+
+    /**
+     * Attendee count and paid flag of each event, computed in one statement so list pages
+     * don't load the registrations and ticket types of every event.
+     */
+    @Query("""
+        SELECT e.id AS eventId,
+               (SELECT COUNT(er.id) FROM EventRegistration er WHERE er.event = e) AS attendeeCount,
+               CASE
+                   WHEN EXISTS (SELECT t.id FROM TicketType t WHERE t.event = e AND t.isPaid = true) THEN true
+                   ELSE false
+               END AS isPaid
+        FROM Event e
+        WHERE e.id IN :eventIds
+    """)
+    List<EventSummaryProjection> findEventSummaries(@Param("eventIds") Collection<Long> eventIds);
+
+    /**
+     * The summaries of the given events by id, with an empty summary for any event the query doesn't
+     * return, e.g. one deleted since the page was read, so callers can look up every id they asked for.
+     */
+    default Map<Long, EventSummaryProjection> findEventSummariesById(Collection<Long> eventIds) {
+        if (eventIds.isEmpty()) {
+            return Map.of();
+        }
+        Map<Long, EventSummaryProjection> summaries = findEventSummaries(eventIds).stream()
+                .collect(Collectors.toMap(EventSummaryProjection::getEventId, Function.identity()));
+        eventIds.forEach(eventId -> summaries.putIfAbsent(eventId, EventSummaryProjection.empty(eventId)));
+        return summaries;
+    }
+
     @Query("""
     SELECT
         COUNT(e) AS totalEvents,
@@ -68,20 +110,14 @@ public interface EventRepository extends JpaRepository<Event, Long>, JpaSpecific
     boolean existsByIdAndUserId(Long id, Long userId);
 
 
-    @Query(value = """
-        SELECT
-            EXTRACT(YEAR FROM e.created_at) AS year,
-            EXTRACT(MONTH FROM e.created_at) AS month,
-            COUNT(*) AS totalEventsCreated
-        FROM event_schema.events e
-        WHERE EXTRACT(YEAR FROM e.created_at) IN (:currentYear, :previousYear)
-        GROUP BY year, month
-        ORDER BY year, month
-    """, nativeQuery = true)
-    List<EventMonthlyStatsProjection> getMonthlyEventStats(
-            @Param("currentYear") Integer currentYear,
-            @Param("previousYear") Integer previousYear
-    );
+    // Days in the database session's time zone
+    @Query("""
+        SELECT CAST(e.createdAt AS LocalDate) AS createdOn, COUNT(e.id) AS total
+        FROM Event e
+        WHERE e.createdAt >= :since
+        GROUP BY CAST(e.createdAt AS LocalDate)
+    """)
+    List<DailyCountProjection> countCreatedPerDay(@Param("since") Instant since);
 
 
     List<Event> getEventsByUserId(Long id);
@@ -0,0 +1,81 @@
+package com.event_service.event_service.repositories;
+
+import com.event_service.event_service.dto.projection.SalesTotalsProjection;
+import com.event_service.event_service.models.EventSalesSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+
+@Repository
+public interface EventSalesSummaryRepository extends JpaRepository<EventSalesSummary, Long> {
+
+    @Modifying
+    @Query("""
+        UPDATE EventSalesSummary s
+        SET s.ticketsSold = s.ticketsSold + :tickets,
+            s.grossRevenue = s.grossRevenue + :revenue,
+            s.attendees = s.attendees + :attendees,
+            s.updatedAt = :now
+        WHERE s.eventId = :eventId
+    """)
+    int incrementSales(@Param("eventId") Long eventId,
+                       @Param("tickets") long tickets,
+                       @Param("revenue") double revenue,
+                       @Param("attendees") long attendees,
+                       @Param("now") Instant now);
+
+    /**
+     * Adds the summary row of an event unless another transaction already did.
+     *
+     * @return 1 if the row was added, 0 if it was already there.
+     */
+    @Modifying
+    @Query(value = """
+        INSERT INTO {h-schema}event_sales_summary
+            (event_id, organizer_id, tickets_sold, gross_revenue, attendees, check_ins, updated_at)
+        VALUES (:eventId, :organizerId, :ticketsSold, :grossRevenue, :attendees, :checkIns, :now)
+        ON CONFLICT DO NOTHING
+    """, nativeQuery = true)
+    int insertIfAbsent(@Param("eventId") Long eventId,
+                       @Param("organizerId") Long organizerId,
+                       @Param("ticketsSold") long ticketsSold,
+                       @Param("grossRevenue") double grossRevenue,
+                       @Param("attendees") long attendees,
+                       @Param("checkIns") long checkIns,
+                       @Param("now") Instant now);
+
+    @Modifying
+    @Query("""
+        UPDATE EventSalesSummary s
+        SET s.checkIns = s.checkIns + 1,
+            s.updatedAt = :now
+        WHERE s.eventId = :eventId
+    """)
+    int incrementCheckIns(@Param("eventId") Long eventId, @Param("now") Instant now);
+
+    @Query("""
+        SELECT COALESCE(SUM(s.ticketsSold), 0) AS ticketsSold,
+               COALESCE(SUM(s.grossRevenue), 0.0) AS grossRevenue,
+               COALESCE(SUM(s.attendees), 0) AS attendees,
+               COALESCE(SUM(s.checkIns), 0) AS checkIns
+        FROM EventSalesSummary s
+        WHERE s.organizerId = :organizerId
+    """)
+    SalesTotalsProjection getTotalsForOrganizer(@Param("organizerId") Long organizerId);
+
+    @Query("""
+        SELECT COALESCE(SUM(s.ticketsSold), 0) AS ticketsSold,
+               COALESCE(SUM(s.grossRevenue), 0.0) AS grossRevenue,
+               COALESCE(SUM(s.attendees), 0) AS attendees,
+               COALESCE(SUM(s.checkIns), 0) AS checkIns
+        FROM EventSalesSummary s
+        WHERE s.eventId IN (
+            SELECT eo.event.id FROM EventOrganizer eo WHERE eo.userId = :userId
+        )
+    """)
+    SalesTotalsProjection getTotalsForCoOrganizer(@Param("userId") Long userId);
+}
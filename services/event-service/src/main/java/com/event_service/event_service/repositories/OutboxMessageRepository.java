@@ -0,0 +1,83 @@
+package com.event_service.event_service.repositories;
+
+import com.event_service.event_service.models.OutboxMessage;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+@Repository
+public interface OutboxMessageRepository extends JpaRepository<OutboxMessage, Long> {
+
+    /**
+     * Claims the oldest due messages for the current transaction: the oldest pending message of each aggregate
+     * and messages without one. Rows already claimed by another relay are skipped instead of waited on.
+     */
+    @Query(value = """
+        SELECT *
+        FROM {h-schema}outbox_message m
+        WHERE m.status = 'PENDING'
+          AND m.next_attempt_at <= :now
+          AND (m.aggregate_key IS NULL OR NOT EXISTS (
+              SELECT 1
+              FROM {h-schema}outbox_message older
+              WHERE older.aggregate_key = m.aggregate_key
+                AND older.status = 'PENDING'
+                AND older.id < m.id
+          ))
+        ORDER BY m.id
+        LIMIT :limit
+        FOR UPDATE SKIP LOCKED
+    """, nativeQuery = true)
+    List<OutboxMessage> claimDueHeads(@Param("now") Instant now, @Param("limit") int limit);
+
+    /**
+     * Locks the pending messages of the given aggregates. Only the relay holding the oldest one of an
+     * aggregate reads them, so there is nothing to skip.
+     */
+    @Query(value = """
+        SELECT *
+        FROM {h-schema}outbox_message
+        WHERE status = 'PENDING'
+          AND aggregate_key IN (:aggregateKeys)
+        ORDER BY id
+        LIMIT :limit
+        FOR UPDATE
+    """, nativeQuery = true)
+    List<OutboxMessage> claimAggregates(@Param("aggregateKeys") Collection<String> aggregateKeys, @Param("limit") int limit);
+
+    /**
+     * Claims up to about {@code limit} due messages in id order. Holding the oldest message of an aggregate
+     * claims the whole aggregate, so relays running at the same time never split one and its messages go
+     * out in the order they were written; an aggregate waiting for a retry stays behind its oldest message.
+     */
+    default List<OutboxMessage> claimPending(Instant now, int limit) {
+        List<OutboxMessage> heads = claimDueHeads(now, limit);
+        Set<String> aggregateKeys = new HashSet<>();
+        Map<Long, OutboxMessage> claimed = new TreeMap<>();
+        for (OutboxMessage head : heads) {
+            claimed.put(head.getId(), head);
+            if (head.getAggregateKey() != null) {
+                aggregateKeys.add(head.getAggregateKey());
+            }
+        }
+        if (!aggregateKeys.isEmpty()) {
+            claimAggregates(aggregateKeys, limit).forEach(message -> claimed.putIfAbsent(message.getId(), message));
+        }
+        return new ArrayList<>(claimed.values());
+    }
+
+    @Modifying
+    @Query("DELETE FROM OutboxMessage m WHERE m.id IN :ids")
+    int deleteAllByIdIn(@Param("ids") List<Long> ids);
+}
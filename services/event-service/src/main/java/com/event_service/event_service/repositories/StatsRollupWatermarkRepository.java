@@ -0,0 +1,24 @@
+package com.event_service.event_service.repositories;
+
+import com.event_service.event_service.models.StatsRollupWatermark;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface StatsRollupWatermarkRepository extends JpaRepository<StatsRollupWatermark, String> {
+
+    /**
+     * Locks the watermark for the current transaction. Empty if another instance holds it.
+     */
+    @Query(value = """
+        SELECT *
+        FROM {h-schema}stats_rollup_watermark
+        WHERE name = :name
+        FOR UPDATE SKIP LOCKED
+    """, nativeQuery = true)
+    Optional<StatsRollupWatermark> claim(@Param("name") String name);
+}
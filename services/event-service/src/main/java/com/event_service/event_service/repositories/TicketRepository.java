@@ -1,12 +1,17 @@
 package com.event_service.event_service.repositories;
 
-import com.event_service.event_service.models.Event;
+import com.event_service.event_service.dto.projection.DailySalesProjection;
+import com.event_service.event_service.dto.projection.SalesTotalsProjection;
 import com.event_service.event_service.models.Ticket;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 @Repository
 public interface TicketRepository extends JpaRepository<Ticket, Long> {
 
@@ -14,30 +19,44 @@ public interface TicketRepository extends JpaRepository<Ticket, Long> {
 
     Ticket findByTicketCode(String ticketCode);
 
+    /**
+     * Checks a ticket in by marking it used only if it is still active, so two scans of the same
+     * ticket at once can't both let the attendee in.
+     *
+     * @return the number of rows updated (0 or 1)
+     */
+    @Modifying
     @Query("""
-        SELECT COALESCE(SUM(tt.price), 0)
-        FROM Ticket t
-        JOIN t.ticketType tt
-        JOIN tt.event e
-        WHERE e.userId = :userId
+        UPDATE Ticket t
+        SET t.status = com.event_service.event_service.models.enums.TicketStatusEnum.USED,
+            t.checkedInAt = :now,
+            t.updatedAt = :now
+        WHERE t.ticketCode = :ticketCode
+        AND t.status = com.event_service.event_service.models.enums.TicketStatusEnum.ACTIVE
     """)
-    Double findTotalTicketSalesForUser(@Param("userId") Long userId);
+    int checkIn(@Param("ticketCode") String ticketCode, @Param("now") LocalDateTime now);
 
+    /**
+     * Sales totals of an event computed from its tickets and registrations. Only used to rebuild
+     * a missing {@code event_sales_summary} row; dashboards read the summary instead.
+     */
     @Query("""
-        SELECT COALESCE(SUM(tt.price), 0)
+        SELECT COUNT(t.id) AS ticketsSold,
+               COALESCE(SUM(tt.price), 0.0) AS grossRevenue,
+               (SELECT COUNT(er.id) FROM EventRegistration er WHERE er.event.id = :eventId) AS attendees,
+               COALESCE(SUM(CASE WHEN t.status = com.event_service.event_service.models.enums.TicketStatusEnum.USED THEN 1 ELSE 0 END), 0) AS checkIns
         FROM Ticket t
         JOIN t.ticketType tt
-        WHERE tt.event = :event
+        WHERE t.event.id = :eventId
     """)
-    Double findTotalTicketSalesForEvent(@Param("event") Event event);
+    SalesTotalsProjection computeSalesForEvent(@Param("eventId") Long eventId);
 
     @Query("""
-        SELECT COALESCE(SUM(tt.price), 0.0)
+        SELECT CAST(t.createdAt AS LocalDate) AS createdOn, COUNT(t.id) AS total, COALESCE(SUM(tt.price), 0.0) AS revenue
         FROM Ticket t
         JOIN t.ticketType tt
-        JOIN tt.event e
-        JOIN e.organizers eo
-        WHERE eo.userId = :userId
+        WHERE t.createdAt >= :since
+        GROUP BY CAST(t.createdAt AS LocalDate)
     """)
-    Double findTotalTicketSalesForCoOrganizer(@Param("userId") Long userId);
+    List<DailySalesProjection> sumSoldPerDay(@Param("since") LocalDateTime since);
 }
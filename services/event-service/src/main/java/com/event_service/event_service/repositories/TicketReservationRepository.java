@@ -0,0 +1,60 @@
+package com.event_service.event_service.repositories;
+
+import com.event_service.event_service.dto.projection.HeldTicketsProjection;
+import com.event_service.event_service.models.TicketReservation;
+import com.event_service.event_service.models.enums.TicketReservationStatusEnum;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Repository
+public interface TicketReservationRepository extends JpaRepository<TicketReservation, Long> {
+
+    List<TicketReservation> findAllByStatusAndExpiresAtBefore(TicketReservationStatusEnum status, Instant instant, Pageable pageable);
+
+    /**
+     * Moves a reservation from one status to another only if it is still in the expected status,
+     * so a hold is either confirmed by a payment or released by the expiry job, never both.
+     *
+     * @return the number of rows updated (0 or 1)
+     */
+    @Modifying
+    @Query("""
+        UPDATE TicketReservation r
+        SET r.status = :target, r.updatedAt = CURRENT_TIMESTAMP
+        WHERE r.id = :id AND r.status = :expected
+    """)
+    int transition(@Param("id") Long id,
+                   @Param("expected") TicketReservationStatusEnum expected,
+                   @Param("target") TicketReservationStatusEnum target);
+
+    @Query("""
+        SELECT r.ticketTypeId AS ticketTypeId, SUM(r.quantity) AS heldTickets
+        FROM TicketReservation r
+        WHERE r.status = com.event_service.event_service.models.enums.TicketReservationStatusEnum.HELD
+        AND r.ticketTypeId IN :ticketTypeIds
+        GROUP BY r.ticketTypeId
+    """)
+    List<HeldTicketsProjection> findHeldTickets(@Param("ticketTypeIds") Collection<Long> ticketTypeIds);
+
+    /**
+     * The tickets currently held for unfinished checkouts, by ticket type. Ticket types without a hold
+     * are left out.
+     */
+    default Map<Long, Long> findHeldTicketsByTicketTypeId(Collection<Long> ticketTypeIds) {
+        if (ticketTypeIds.isEmpty()) {
+            return Map.of();
+        }
+        return findHeldTickets(ticketTypeIds).stream()
+                .collect(Collectors.toMap(HeldTicketsProjection::getTicketTypeId, HeldTicketsProjection::getHeldTickets));
+    }
+}
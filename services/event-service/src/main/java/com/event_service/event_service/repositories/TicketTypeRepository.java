@@ -3,6 +3,9 @@ package com.event_service.event_service.repositories;
 import com.event_service.event_service.models.Event;
 import com.event_service.event_service.models.TicketType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -13,4 +16,36 @@ public interface TicketTypeRepository extends JpaRepository<TicketType, Long> {
     List<TicketType> findAllByEvent(Event event);
 
     Optional<TicketType> findByIdAndEvent(Long id, Event event);
+
+    /**
+     * Atomically takes {@code quantity} tickets from the remaining stock of a ticket type.
+     * The stock check and the increment happen in one statement, so concurrent buyers can
+     * never push {@code soldCount} past {@code quantity}. The ticket type is deactivated
+     * once it sells out.
+     *
+     * @return 1 if the tickets were reserved, 0 if there was not enough stock left
+     */
+    @Modifying
+    @Query("""
+        UPDATE TicketType t
+        SET t.soldCount = t.soldCount + :quantity,
+            t.isActive = CASE WHEN t.soldCount + :quantity >= t.quantity THEN false ELSE t.isActive END
+        WHERE t.id = :id AND t.quantity - t.soldCount >= :quantity
+    """)
+    int reserveTickets(@Param("id") Long id, @Param("quantity") Long quantity);
+
+    /**
+     * Gives {@code quantity} tickets back to the remaining stock of a ticket type and
+     * reactivates it if it had been deactivated because it sold out.
+     *
+     * @return 1 if the tickets were released, 0 otherwise
+     */
+    @Modifying
+    @Query("""
+        UPDATE TicketType t
+        SET t.soldCount = t.soldCount - :quantity,
+            t.isActive = CASE WHEN t.soldCount >= t.quantity THEN true ELSE t.isActive END
+        WHERE t.id = :id AND t.soldCount >= :quantity
+    """)
+    int releaseTickets(@Param("id") Long id, @Param("quantity") Long quantity);
 }
@@ -2,6 +2,8 @@ package com.event_service.event_service.repositories;
 
 import com.event_service.event_service.models.WithdrawalRequest;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -9,4 +11,7 @@ import java.util.List;
 @Repository
 public interface WithdrawalRequestRepository extends JpaRepository<WithdrawalRequest, Long> {
     List<WithdrawalRequest> findByUserId(Long userId);
+
+    @Query("SELECT COALESCE(SUM(w.amount), 0.0) FROM WithdrawalRequest w WHERE w.userId = :userId")
+    Double sumAmountByUserId(@Param("userId") Long userId);
 }
@@ -3,25 +3,22 @@ package com.event_service.event_service.services;
 import com.event_service.event_service.client.PaymentServiceClient;
 import com.event_service.event_service.dto.EventEarningResponse;
 import com.event_service.event_service.dto.EventEarningWithdrawalRequest;
-import com.event_service.event_service.models.Event;
-import com.event_service.event_service.models.TicketType;
 import com.event_service.event_service.models.WithdrawalRequest;
-import com.event_service.event_service.repositories.EventRepository;
+import com.event_service.event_service.repositories.EventSalesSummaryRepository;
 import com.event_service.event_service.repositories.WithdrawalRequestRepository;
 import com.event_service.event_service.utils.SecurityUtils;
 import com.example.common_libraries.dto.AppUser;
 import com.example.common_libraries.dto.WithdrawalRequestDto;
 import com.example.common_libraries.dto.queue_events.WithdrawalNotificationEvent;
 import com.example.common_libraries.enums.WithdrawalMethod;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import software.amazon.awssdk.services.sqs.SqsClient;
 
 import java.time.LocalDateTime;
-import java.util.List;
 
 @Slf4j
 @RequiredArgsConstructor
@@ -29,9 +26,9 @@ import java.util.List;
 public class EventEarningServiceImpl implements EventEarningService{
 
     private final SecurityUtils securityUtils;
-    private final EventRepository eventRepository;
+    private final EventSalesSummaryRepository eventSalesSummaryRepository;
     private final WithdrawalRequestRepository withdrawalRequestRepository;
-    private final SqsClient sqsClient;
+    private final OutboxService outboxService;
     private final ObjectMapper objectMapper;
 
     @Value("${sqs.withdrawal-notification-queue}")
@@ -40,21 +37,8 @@ public class EventEarningServiceImpl implements EventEarningService{
     @Override
     public EventEarningResponse getEventEarnings() {
         AppUser currentUser = securityUtils.getCurrentUser();
-        List<Event> events = eventRepository.getEventsByUserId(currentUser.id());
-        double totalEarnings = 0;
-        double totalWithdrawn = 0;
-
-        for(Event event : events){
-            List<TicketType> ticketTypes = event.getTicketTypes();
-            for(TicketType ticketType : ticketTypes){
-                if(ticketType.getSoldCount() > 0){
-                    double earnings = ticketType.getSoldCount() * ticketType.getPrice();
-                    totalEarnings += earnings;
-                }
-            }
-        }
-
-        totalWithdrawn = getTotalWithdrawalsByUserId(currentUser.id());
+        double totalEarnings = eventSalesSummaryRepository.getTotalsForOrganizer(currentUser.id()).getGrossRevenue();
+        double totalWithdrawn = getTotalWithdrawalsByUserId(currentUser.id());
 
         double outstandingEarnings = totalEarnings - totalWithdrawn;
 
@@ -95,11 +79,7 @@ public class EventEarningServiceImpl implements EventEarningService{
     }
 
     protected Double getTotalWithdrawalsByUserId(Long userId) {
-        List<WithdrawalRequest> withdrawalRequests = withdrawalRequestRepository.findByUserId(userId);
-        return withdrawalRequests.stream()
-                .mapToDouble(WithdrawalRequest::getAmount)
-                .sum();
-
+        return withdrawalRequestRepository.sumAmountByUserId(userId);
     }
 
     private void publishWithdrawalMessageToQueue(WithdrawalRequest withdrawalRequest, AppUser currentUser) {
@@ -120,9 +100,9 @@ public class EventEarningServiceImpl implements EventEarningService{
                     maskAccountNumberFixed(withdrawalRequest.getAccountNumber())
             );
             String messageBody = objectMapper.writeValueAsString(event);
-            sqsClient.sendMessage(builder -> builder.queueUrl(withdrawalNotificationQueue).messageBody(messageBody));
-        }catch(Exception e){
-            log.error("Error publishing information to withdrawal queue");
+            outboxService.enqueue(withdrawalNotificationQueue, "user:" + currentUser.id(), messageBody);
+        }catch(JsonProcessingException e){
+            log.error("Error serializing withdrawal notification: {}", e.getMessage());
         }
     }
 
@@ -1,8 +1,14 @@
 package com.event_service.event_service.services;
 
+import com.event_service.event_service.dto.EventStatsResponse;
 import com.event_service.event_service.dto.GraphResponse;
+import com.event_service.event_service.models.enums.StatsGranularity;
+
+import java.time.LocalDate;
+import java.util.List;
 
 public interface EventGraphService {
     GraphResponse getEventGraphData();
     GraphResponse getRegistrationGraphData();
+    List<EventStatsResponse> getStats(LocalDate from, LocalDate to, StatsGranularity granularity);
 }
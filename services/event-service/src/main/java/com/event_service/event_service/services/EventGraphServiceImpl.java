@@ -4,29 +4,39 @@ import com.event_service.event_service.dto.EventGraphMetaDataResponse;
 import com.event_service.event_service.dto.projection.EventMonthlyStatsProjection;
 import com.event_service.event_service.dto.GraphResponse;
 import com.event_service.event_service.dto.projection.RegistrationMonthlyStatsProjection;
-import com.event_service.event_service.repositories.EventRegistrationRepository;
-import com.event_service.event_service.repositories.EventRepository;
+import com.event_service.event_service.dto.EventStatsResponse;
+import com.event_service.event_service.models.EventDailyStats;
+import com.event_service.event_service.models.EventMonthlyStats;
+import com.event_service.event_service.models.enums.StatsGranularity;
+import com.event_service.event_service.repositories.EventDailyStatsRepository;
+import com.event_service.event_service.repositories.EventMonthlyStatsRepository;
+import com.example.common_libraries.exception.BadRequestException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
+import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAdjusters;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
 public class EventGraphServiceImpl implements EventGraphService{
-    private final EventRepository eventRepository;
-    private final EventRegistrationRepository eventRegistrationRepository;
+    private final EventMonthlyStatsRepository eventMonthlyStatsRepository;
+    private final EventDailyStatsRepository eventDailyStatsRepository;
 
     @Override
     public GraphResponse getEventGraphData() {
         int currentYear = LocalDate.now().getYear();
         int previousYear = currentYear - 1;
-        List<EventMonthlyStatsProjection> monthlyGraphData = eventRepository.getMonthlyEventStats(currentYear,previousYear);
+        List<EventMonthlyStatsProjection> monthlyGraphData = eventMonthlyStatsRepository.getMonthlyEventStats(
+                LocalDate.of(previousYear, 1, 1), LocalDate.of(currentYear + 1, 1, 1));
 
         Long maxValue = monthlyGraphData
                 .stream()
@@ -68,7 +78,8 @@ public class EventGraphServiceImpl implements EventGraphService{
     public GraphResponse getRegistrationGraphData() {
         int currentYear = LocalDate.now().getYear();
         int previousYear = currentYear - 1;
-        List<RegistrationMonthlyStatsProjection> monthlyGraphData = eventRegistrationRepository.getMonthlyRegistrationStats(currentYear,previousYear);
+        List<RegistrationMonthlyStatsProjection> monthlyGraphData = eventMonthlyStatsRepository.getMonthlyRegistrationStats(
+                LocalDate.of(previousYear, 1, 1), LocalDate.of(currentYear + 1, 1, 1));
 
         Long maxValue = monthlyGraphData
                 .stream()
@@ -106,4 +117,66 @@ public class EventGraphServiceImpl implements EventGraphService{
                 .metadata(metadata)
                 .build();
     }
+
+    /**
+     * Counts per day, week (starting Monday) or month between two dates, read from the rollups. Periods
+     * are whole, so the first and last may reach beyond the range; periods without activity are zero.
+     * A range covering more than {@link StatsGranularity#maxPeriods()} periods is rejected.
+     */
+    @Override
+    public List<EventStatsResponse> getStats(LocalDate from, LocalDate to, StatsGranularity granularity) {
+        if(to.isBefore(from)){
+            throw new BadRequestException("The end date must not be before the start date");
+        }
+
+        LocalDate first = periodStart(from, granularity);
+        LocalDate last = periodStart(to, granularity);
+        if(granularity.unit().between(first, last) + 1 > granularity.maxPeriods()){
+            throw new BadRequestException("A range grouped by " + granularity.name().toLowerCase()
+                    + " may cover at most " + granularity.maxPeriods() + " periods");
+        }
+        Map<LocalDate, EventStatsResponse> periods = new LinkedHashMap<>();
+        for(LocalDate period = first; !period.isAfter(last); period = nextPeriod(period, granularity)){
+            periods.put(period, new EventStatsResponse(period, 0L, 0L, 0L, 0.0));
+        }
+
+        if(granularity == StatsGranularity.MONTH){
+            for(EventMonthlyStats month : eventMonthlyStatsRepository.findAllByMonthBetweenOrderByMonth(first, last)){
+                periods.merge(month.getMonth(), new EventStatsResponse(month.getMonth(), month.getEventsCreated(),
+                        month.getRegistrations(), month.getTicketsSold(), month.getRevenue()), EventGraphServiceImpl::add);
+            }
+        }else{
+            LocalDate lastDay = nextPeriod(last, granularity).minusDays(1);
+            for(EventDailyStats day : eventDailyStatsRepository.findAllByDayBetweenOrderByDay(first, lastDay)){
+                LocalDate period = periodStart(day.getDay(), granularity);
+                periods.merge(period, new EventStatsResponse(period, day.getEventsCreated(),
+                        day.getRegistrations(), day.getTicketsSold(), day.getRevenue()), EventGraphServiceImpl::add);
+            }
+        }
+        return List.copyOf(periods.values());
+    }
+
+    private static LocalDate periodStart(LocalDate date, StatsGranularity granularity) {
+        return switch (granularity) {
+            case DAY -> date;
+            case WEEK -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> date.withDayOfMonth(1);
+        };
+    }
+
+    private static LocalDate nextPeriod(LocalDate periodStart, StatsGranularity granularity) {
+        return switch (granularity) {
+            case DAY -> periodStart.plusDays(1);
+            case WEEK -> periodStart.plusWeeks(1);
+            case MONTH -> periodStart.plusMonths(1);
+        };
+    }
+
+    private static EventStatsResponse add(EventStatsResponse a, EventStatsResponse b) {
+        return new EventStatsResponse(a.periodStart(),
+                a.eventsCreated() + b.eventsCreated(),
+                a.registrations() + b.registrations(),
+                a.ticketsSold() + b.ticketsSold(),
+                a.revenue() + b.revenue());
+    }
 }
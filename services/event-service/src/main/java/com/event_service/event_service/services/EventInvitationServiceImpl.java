@@ -15,11 +15,14 @@ import com.event_service.event_service.specifications.EventInviteeSpecification;
 import com.event_service.event_service.utils.AuthCookiesUtil;
 import com.event_service.event_service.utils.SecurityUtils;
 import com.example.common_libraries.dto.UserCreationResponse;
+import com.example.common_libraries.dto.UserLookupRequest;
 import com.example.common_libraries.dto.AppUser;
 import com.example.common_libraries.dto.queue_events.EventInvitationEvent;
 import com.example.common_libraries.exception.*;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -32,14 +35,16 @@ import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.authorization.AuthorizationDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import software.amazon.awssdk.services.sqs.SqsClient;
-import software.amazon.awssdk.services.sqs.model.SendMessageRequest;
+import org.springframework.web.util.WebUtils;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 @Slf4j
 @RequiredArgsConstructor
@@ -48,7 +53,7 @@ public class EventInvitationServiceImpl implements EventInvitationService {
 
     private final SecurityUtils securityUtils;
     private final ObjectMapper objectMapper;
-    private final SqsClient sqsClient;
+    private final OutboxService outboxService;
     private final EventRepository eventRepository;
     private final EventInvitationRepository eventInvitationRepository;
     private final EventInviteeRepository eventInviteeRepository;
@@ -56,6 +61,7 @@ public class EventInvitationServiceImpl implements EventInvitationService {
     private final EventInvitationMapper eventInvitationMapper;
     private final UserServiceClient userServiceClient;
     private final AuthCookiesUtil authCookiesUtil;
+    private final HttpServletRequest httpServletRequest;
 
 
     private static final long INVITATION_EXPIRATION_DAYS = 2;
@@ -75,13 +81,19 @@ public class EventInvitationServiceImpl implements EventInvitationService {
 
         EventInvitation invitation = createInvitation(request, event, currentUser);
         EventInvitation savedInvitation = eventInvitationRepository.save(invitation);
+        Set<String> existingUsers = invitation.getStatus() == InvitationStatus.SEND
+                ? findExistingUsers(request.invitees().stream()
+                        .filter(invitee -> isHostRole(invitee.role()))
+                        .map(InviteeRequest::inviteeEmail)
+                        .toList())
+                : Set.of();
 
         for(InviteeRequest invitee: request.invitees()){
             validateInvitationDoesNotExist(request.event(), invitee.inviteeEmail());
             EventInvitee eventInvitee = createEventInvitee(invitee, savedInvitation, invitation.getStatus());
             EventInvitee savedEventInvitee = eventInviteeRepository.save(eventInvitee);
             if(invitation.getStatus() == InvitationStatus.SEND) {
-                publishInvitationEmail(savedEventInvitee);
+                publishInvitationEmail(savedEventInvitee, existingUsers);
             }
         }
     }
@@ -123,6 +135,9 @@ public class EventInvitationServiceImpl implements EventInvitationService {
 
     private void updateInvitees(EventInvitation invitation, List<InviteeRequest> inviteeDtos){
         List<EventInvitee> existingInvitees = invitation.getInvitees();
+        Set<String> existingUsers = invitation.getStatus() == InvitationStatus.SEND
+                ? findExistingUsers(inviteeDtos.stream().map(InviteeRequest::inviteeEmail).toList())
+                : Set.of();
 
         for (InviteeRequest inviteeDto : inviteeDtos) {
             EventInvitee matchingInvitee = existingInvitees.stream()
@@ -140,13 +155,13 @@ public class EventInvitationServiceImpl implements EventInvitationService {
                 if(invitation.getStatus() == InvitationStatus.SEND) {
                     matchingInvitee.setInvitationToken(generateInvitationToken());
                     matchingInvitee.setExpiresAt(calculateExpirationTime());
-                    publishInvitationEmail(matchingInvitee);
+                    publishInvitationEmail(matchingInvitee, existingUsers);
                 }
             } else {
                 EventInvitee newInvitee = createEventInvitee(inviteeDto, invitation, invitation.getStatus());
                 eventInviteeRepository.save(newInvitee);
                 if(invitation.getStatus() == InvitationStatus.SEND) {
-                    publishInvitationEmail(newInvitee);
+                    publishInvitationEmail(newInvitee, existingUsers);
                 }
             }
         }
@@ -252,7 +267,9 @@ public class EventInvitationServiceImpl implements EventInvitationService {
         invitation.setStatus(InviteStatus.PENDING);
         eventInviteeRepository.save(invitation);
 
-        publishInvitationEmail(invitation);
+        publishInvitationEmail(invitation, isHostRole(invitation.getRole())
+                ? findExistingUsers(List.of(invitation.getInviteeEmail()))
+                : Set.of());
     }
 
     @Override
@@ -364,19 +381,20 @@ public class EventInvitationServiceImpl implements EventInvitationService {
                 .build();
     }
 
-    private void publishInvitationEmail(EventInvitee invitation) {
+    private void publishInvitationEmail(EventInvitee invitation, Set<String> existingUsers) {
         try {
             String token = null;
-            if(invitation.getRole() == InviteeRole.ORGANISER || invitation.getRole() == InviteeRole.CO_ORGANIZER){
+            if(isHostRole(invitation.getRole())){
                 token = invitation.getInvitationToken();
             }else{
                 token = invitation.getInvitation().getEvent().getId().toString();
             }
-            String inviteLink = buildInvitationLink(token, invitation.getRole(), invitation.getInviteeEmail());
+            String inviteLink = buildInvitationLink(token, invitation.getRole(),
+                    existingUsers.contains(UserLookupRequest.normalizeEmail(invitation.getInviteeEmail())));
             EventInvitationEvent event = createInvitationEvent(invitation, inviteLink);
             String messageBody = serializeEvent(event);
 
-            sendToSqs(messageBody);
+            sendToSqs(invitation, messageBody);
 
             log.info("Invitation email event published successfully for token: {}",
                     invitation.getInvitationToken());
@@ -391,10 +409,9 @@ public class EventInvitationServiceImpl implements EventInvitationService {
         }
     }
 
-    private String buildInvitationLink(String token, InviteeRole role, String email) {
-        if(role == InviteeRole.ORGANISER || role == InviteeRole.CO_ORGANIZER) {
-            UserCreationResponse user = userServiceClient.checkUserExists(email);
-            if(user != null){
+    private String buildInvitationLink(String token, InviteeRole role, boolean existingUser) {
+        if(isHostRole(role)) {
+            if(existingUser){
                 return String.format("%s/auth/event-invitations/existing-user/accept?token=%s", frontendBaseUrl, token);
             }
             return String.format("%s/auth/event-invitations/accept?token=%s", frontendBaseUrl, token);
@@ -404,6 +421,28 @@ public class EventInvitationServiceImpl implements EventInvitationService {
     }
 
 
+    private static boolean isHostRole(InviteeRole role) {
+        return role == InviteeRole.ORGANISER || role == InviteeRole.CO_ORGANIZER;
+    }
+
+    // Organisers and co-organizers who already have an account get a different link; one lookup covers them all
+    // the emails of those that have an account, normalized
+    private Set<String> findExistingUsers(Collection<String> emails) {
+        if (emails.isEmpty()) {
+            return Set.of();
+        }
+        Cookie accessToken = WebUtils.getCookie(httpServletRequest, "accessToken");
+        if (accessToken == null) {
+            // The bulk lookup is only open to hosts; the single existence check needs no sign-in
+            return emails.stream()
+                    .map(UserLookupRequest::normalizeEmail)
+                    .distinct()
+                    .filter(email -> userServiceClient.checkUserExists(email) != null)
+                    .collect(Collectors.toSet());
+        }
+        return userServiceClient.findUsersByEmail(emails, accessToken.getValue()).keySet();
+    }
+
     private EventInvitationEvent createInvitationEvent(EventInvitee invitation, String inviteLink) {
         return new EventInvitationEvent(
                 invitation.getInvitation().getInvitationTitle(),
@@ -419,15 +458,11 @@ public class EventInvitationServiceImpl implements EventInvitationService {
         return objectMapper.writeValueAsString(event);
     }
 
-    private void sendToSqs(String messageBody) {
+    private void sendToSqs(EventInvitee invitation, String messageBody) {
         log.debug("Sending message to SQS queue: {}", invitationQueueUrl);
 
-        SendMessageRequest sendMessageRequest = SendMessageRequest.builder()
-                .queueUrl(invitationQueueUrl)
-                .messageBody(messageBody)
-                .build();
-
-        sqsClient.sendMessage(sendMessageRequest);
+        // Written to the outbox with the invitation and sent in batches by the relay
+        outboxService.enqueue(invitationQueueUrl, "invitation:" + invitation.getInvitation().getId(), messageBody);
     }
 
     private String generateInvitationToken() {
@@ -3,10 +3,12 @@ package com.event_service.event_service.services;
 import com.event_service.event_service.dto.EventDashboardResponse;
 import com.event_service.event_service.dto.EventManagementResponse;
 import com.event_service.event_service.models.enums.EventStatus;
+import com.example.common_libraries.dto.CursorPage;
 import org.springframework.data.domain.Page;
 
 
 public interface EventOverviewService {
     EventDashboardResponse getEventOverview(String accessToken);
     Page<EventManagementResponse> getManagementEvents(String keyword, int page, EventStatus status);
+    CursorPage<EventManagementResponse> scrollManagementEvents(String keyword, String cursor, EventStatus status);
 }
@@ -5,24 +5,31 @@ import com.event_service.event_service.dto.EventDashboardResponse;
 import com.event_service.event_service.dto.EventManagementResponse;
 import com.event_service.event_service.dto.EventStatisticsResponse;
 import com.event_service.event_service.dto.UpcomingEventResponse;
-import com.event_service.event_service.dto.projection.EventManagementProjection;
 import com.event_service.event_service.dto.projection.EventStatProjection;
+import com.event_service.event_service.dto.projection.EventSummaryProjection;
 import com.event_service.event_service.models.Event;
 import com.event_service.event_service.models.enums.EventStatus;
 import com.event_service.event_service.repositories.EventRepository;
+import com.event_service.event_service.utils.ConcurrentParts;
 import com.event_service.event_service.utils.EventManagementSpecifications;
+import com.example.common_libraries.dto.CursorPage;
 import com.example.common_libraries.dto.TopOrganizerResponse;
+import com.example.common_libraries.utils.ScrollCursors;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Slf4j
 @Service
@@ -30,56 +37,69 @@ import java.util.List;
 public class EventOverviewServiceImpl implements EventOverviewService{
     private final EventRepository eventRepository;
     private final UserServiceClient userServiceClient;
+    private final ConcurrentParts concurrentParts;
 
+    /**
+     * Builds the admin dashboard. Its parts don't depend on each other and are loaded at the same time;
+     * the top organizers come from user-service and are left out if it is slow or down.
+     */
     @Override
     public EventDashboardResponse getEventOverview(String accessToken) {
+        // get top organizers via rest call to user-service
+        CompletableFuture<List<TopOrganizerResponse>> topOrganizers = concurrentParts.optional("top organizers",
+                userServiceClient.fetchTopOrganizers(accessToken), List.of());
+
         // get event stats
-        EventStatProjection eventStatProjection = eventRepository.getEventStats(Instant.now());
-        EventStatisticsResponse statisticsResponse = EventStatisticsResponse
-                .builder()
-                .totalEvents(eventStatProjection.getTotalEvents())
-                .activeEvents(eventStatProjection.getActiveEvents())
-                .canceledEvents(0L)
-                .completedEvents(eventStatProjection.getCompletedEvents())
-                .draftEvents(eventStatProjection.getDraftEvents())
-                .build();
+        CompletableFuture<EventStatisticsResponse> statistics = concurrentParts.start(() -> {
+            EventStatProjection eventStatProjection = eventRepository.getEventStats(Instant.now());
+            return EventStatisticsResponse
+                    .builder()
+                    .totalEvents(eventStatProjection.getTotalEvents())
+                    .activeEvents(eventStatProjection.getActiveEvents())
+                    .canceledEvents(0L)
+                    .completedEvents(eventStatProjection.getCompletedEvents())
+                    .draftEvents(eventStatProjection.getDraftEvents())
+                    .build();
+        });
 
         // get upcoming events
-        List<Event> events = eventRepository.findUpcomingEvents(
-                Instant.now(),
-                PageRequest.of(0, 3));
-
-        List<UpcomingEventResponse> upcomingEventResponses = events.stream()
-                .map(event -> UpcomingEventResponse.builder()
-                        .eventTitle(event.getTitle())
-                        .startTime(event.getStartTime())
-                        .attendeeCount(event.getEventRegistrations().size())
-                        .build()).toList();
-        // get event management
-        Page<EventManagementProjection> eventManagementProjections = eventRepository.getEventManagement(PageRequest.of(0, 10));
-
-        Page<EventManagementResponse> eventManagementResponses = eventManagementProjections
-                .map(emgt -> EventManagementResponse
-                        .builder()
-                        .id(emgt.getId())
-                        .title(emgt.getTitle())
-                        .organizer(emgt.getOrganizer())
-                        .startTime(emgt.getStartTime())
-                        .endTime(emgt.getEndTime())
-                        .attendeeCount(emgt.getAttendeeCount())
-                        .status(emgt.getStatus())
-                        .build()
-                );
+        CompletableFuture<List<UpcomingEventResponse>> upcomingEvents = concurrentParts.start(() -> {
+            List<Event> events = eventRepository.findUpcomingEvents(
+                    Instant.now(),
+                    PageRequest.of(0, 3));
 
-        // get top organizers via rest call to user-service
-        List<TopOrganizerResponse> topOrganizerResponses = userServiceClient.getTopOrganizers(accessToken);
+            Map<Long, EventSummaryProjection> upcomingSummaries = eventRepository.findEventSummariesById(
+                    events.stream().map(Event::getId).toList());
+
+            return events.stream()
+                    .map(event -> UpcomingEventResponse.builder()
+                            .eventTitle(event.getTitle())
+                            .startTime(event.getStartTime())
+                            .attendeeCount(upcomingSummaries.get(event.getId()).getAttendeeCount().intValue())
+                            .build()).toList();
+        });
+
+        // get event management
+        CompletableFuture<Page<EventManagementResponse>> eventManagement = concurrentParts.start(() ->
+                eventRepository.getEventManagement(PageRequest.of(0, 10))
+                        .map(emgt -> EventManagementResponse
+                                .builder()
+                                .id(emgt.getId())
+                                .title(emgt.getTitle())
+                                .organizer(emgt.getOrganizer())
+                                .startTime(emgt.getStartTime())
+                                .endTime(emgt.getEndTime())
+                                .attendeeCount(emgt.getAttendeeCount())
+                                .status(emgt.getStatus())
+                                .build()
+                        ));
 
         return EventDashboardResponse
                 .builder()
-                .eventStats(statisticsResponse)
-                .topOrganizers(topOrganizerResponses)
-                .upcomingEvents(upcomingEventResponses)
-                .eventManagement(eventManagementResponses)
+                .eventStats(concurrentParts.join("event stats", statistics))
+                .topOrganizers(concurrentParts.join("top organizers", topOrganizers))
+                .upcomingEvents(concurrentParts.join("upcoming events", upcomingEvents))
+                .eventManagement(concurrentParts.join("event management", eventManagement))
                 .build();
     }
 
@@ -89,6 +109,28 @@ public class EventOverviewServiceImpl implements EventOverviewService{
         Sort sort = Sort.by(Sort.Direction.DESC, "startTime");
         Pageable pageable = PageRequest.of(page, 10, sort);
 
+        Page<Event> searchResults = eventRepository.findAll(managementFilter(keyword, status), pageable);
+        Map<Long, EventSummaryProjection> summaries = eventRepository.findEventSummariesById(
+                searchResults.map(Event::getId).getContent());
+
+        return searchResults.map(event -> toEventManagementResponse(event, summaries));
+    }
+
+    @Override
+    public CursorPage<EventManagementResponse> scrollManagementEvents(String keyword, String cursor, EventStatus status) {
+        // startTime is unset for single day events, and a keyset can't step past nulls; ids follow creation
+        Sort sort = Sort.by(Sort.Direction.DESC, "id");
+        ScrollPosition position = ScrollCursors.decode(cursor, sort);
+
+        Window<Event> events = eventRepository.findBy(managementFilter(keyword, status),
+                query -> query.sortBy(sort).limit(10).scroll(position));
+        Map<Long, EventSummaryProjection> summaries = eventRepository.findEventSummariesById(
+                events.map(Event::getId).getContent());
+
+        return ScrollCursors.toCursorPage(events, event -> toEventManagementResponse(event, summaries));
+    }
+
+    private static Specification<Event> managementFilter(String keyword, EventStatus status) {
         Specification<Event> spec = (root, query, cb) -> cb.conjunction();
 
         if(keyword != null && !keyword.trim().isEmpty()) {
@@ -97,19 +139,19 @@ public class EventOverviewServiceImpl implements EventOverviewService{
         if(status != null) {
             spec = spec.and(EventManagementSpecifications.hasStatus(status));
         }
-        Page<Event> searchResults = eventRepository.findAll(spec, pageable);
-
-        return searchResults.map(
-                event -> EventManagementResponse
-                        .builder()
-                        .id(event.getId())
-                        .title(event.getTitle())
-                        .organizer(event.getCreatedBy())
-                        .startTime(event.getStartTime())
-                        .endTime(event.getEndTime())
-                        .attendeeCount((long) event.getEventRegistrations().size())
-                        .status(event.getStatus())
-                        .build()
-        );
+        return spec;
+    }
+
+    private static EventManagementResponse toEventManagementResponse(Event event, Map<Long, EventSummaryProjection> summaries) {
+        return EventManagementResponse
+                .builder()
+                .id(event.getId())
+                .title(event.getTitle())
+                .organizer(event.getCreatedBy())
+                .startTime(event.getStartTime())
+                .endTime(event.getEndTime())
+                .attendeeCount(summaries.get(event.getId()).getAttendeeCount())
+                .status(event.getStatus())
+                .build();
     }
 }
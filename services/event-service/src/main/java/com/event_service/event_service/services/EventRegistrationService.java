@@ -2,12 +2,16 @@ package com.event_service.event_service.services;
 
 import com.event_service.event_service.dto.EventRegistrationPageResponse;
 import com.event_service.event_service.dto.EventRegistrationRequest;
+import com.example.common_libraries.dto.CursorPage;
 import com.example.common_libraries.dto.EventRegistrationResponse;
 import com.event_service.event_service.dto.EventRegistrationsListResponse;
+import com.example.common_libraries.dto.queue_events.ProcessPaymentEvent;
 import org.springframework.data.domain.Page;
 
 public interface EventRegistrationService {
     EventRegistrationResponse registerEvent(Long eventId, EventRegistrationRequest registrationRequest);
     Page<EventRegistrationsListResponse> getEventRegistrations(Long eventId, int page, String keyword, String ticketType);
+    CursorPage<EventRegistrationsListResponse> scrollEventRegistrations(Long eventId, String cursor, String keyword, String ticketType);
     EventRegistrationPageResponse getEventRegistrationPageOverview(Long eventId);
+    void completePayment(ProcessPaymentEvent message);
 }
@@ -11,31 +11,35 @@ import com.example.common_libraries.dto.*;
 import com.example.common_libraries.exception.BadRequestException;
 import com.example.common_libraries.exception.InputOutputException;
 import com.example.common_libraries.exception.ResourceNotFoundException;
+import com.example.common_libraries.utils.ScrollCursors;
 import com.event_service.event_service.mappers.EventDetailMapper;
 import com.event_service.event_service.mappers.EventMapper;
 import com.event_service.event_service.mappers.TicketPurchasedEventMapper;
 import com.event_service.event_service.models.enums.EventMeetingTypeEnum;
 import com.event_service.event_service.models.enums.EventRegistrationStatusEnum;
+import com.event_service.event_service.models.enums.ReservationConfirmationEnum;
 import com.event_service.event_service.models.enums.TicketStatusEnum;
-import com.event_service.event_service.utils.QRCodeGenerator;
+import com.example.common_libraries.dto.queue_events.PaymentStatusEvent;
 import com.example.common_libraries.dto.queue_events.ProcessPaymentEvent;
+import com.example.common_libraries.dto.queue_events.RefundDueEvent;
 import com.example.common_libraries.dto.queue_events.TicketPurchasedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.google.zxing.WriterException;
-import io.awspring.cloud.sqs.annotation.SqsListener;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import software.amazon.awssdk.services.sqs.SqsClient;
 
-import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -44,11 +48,14 @@ import java.util.UUID;
 @Service
 @RequiredArgsConstructor
 public class EventRegistrationServiceImpl implements EventRegistrationService{
+    private static final String REFUND_DUE_STATUS = "REFUND_DUE";
+
     private final TicketTypeRepository ticketTypeRepository;
     private final TicketRepository ticketRepository;
     private final EventRepository eventRepository;
     private final EventRegistrationRepository eventRegistrationRepository;
-    private final SqsClient sqsClient;
+    private final OutboxService outboxService;
+    private final EventSalesSummaryService eventSalesSummaryService;
     private final ObjectMapper objectMapper;
     private final EventMapper eventMapper;
     private final SecurityUtils securityUtils;
@@ -56,6 +63,7 @@ public class EventRegistrationServiceImpl implements EventRegistrationService{
     private final EventDetailMapper eventDetailMapper;
     private final TicketPurchasedEventMapper ticketPurchasedEventMapper;
     private final EventOrganizerRepository eventOrganizerRepository;
+    private final TicketInventoryService ticketInventoryService;
 
     @Value("${sqs.ticket-purchased-event-queue-url}")
     private String ticketPurchasedEventQueueUrl;
@@ -63,8 +71,11 @@ public class EventRegistrationServiceImpl implements EventRegistrationService{
     @Value("${sqs.payment-processing-event-queue-url}")
     private String processPaymentQueueUrl;
 
-    @Value("${application.alb.url}")
-    private String albUrl;
+    @Value("${sqs.payment-status-queue-url}")
+    private String paymentStatusQueueUrl;
+
+    @Value("${sqs.refund-due-queue-url}")
+    private String refundDueQueueUrl;
 
 
     @Transactional
@@ -78,10 +89,6 @@ public class EventRegistrationServiceImpl implements EventRegistrationService{
         if(event.getStatus() == EventStatus.COMPLETED){
             throw new BadRequestException("Registration is closed for this event");
         }
-        if(ticketType.getQuantity() - ticketType.getSoldCount() < quantity){
-            throw new ResourceNotFoundException("Ticket Type is out of stock");
-        }
-
         if(event.getEventMeetingType().getName() == EventMeetingTypeEnum.VIRTUAL && quantity > 1){
             throw new BadRequestException("Cannot buy more than one ticket for virtual events");
         }
@@ -99,12 +106,12 @@ public class EventRegistrationServiceImpl implements EventRegistrationService{
         // if a ticket type is free, save registration and then send tickets via email
         if(Boolean.FALSE.equals(ticketType.getIsPaid())){
             quantity = 1L; // One ticket for free ticket types
+            ticketInventoryService.reserve(ticketType.getId(), quantity);
             //generate ticket and send to attendee email
             List<Ticket> tickets = generateTicket(ticketType,event,quantity);
             TicketEventDetailResponse eventDetailResponse = eventDetailMapper.toTicketEventDetails(event);
-            List<TicketResponse> ticketResponses = tickets.stream().map(ticketPurchasedEventMapper::toTicketResponse).toList();
 
-            // Publish to queue for sending tickets to attendees
+            List<TicketResponse> ticketResponses = tickets.stream().map(ticketPurchasedEventMapper::toTicketResponse).toList();
             TicketPurchasedEvent ticketPurchasedEvent = ticketPurchasedEventMapper
                     .toTicketPurchasedEvent(
                             registrationRequest.fullName(),
@@ -126,7 +133,12 @@ public class EventRegistrationServiceImpl implements EventRegistrationService{
                     .build();
 
             eventRegistrationRepository.save(registration);
+            eventSalesSummaryService.recordSale(event, tickets.size(), tickets.size() * ticketType.getPrice());
         }else{
+            // hold tickets until the payment completes or the hold expires; the hold commits on its own
+            // so the ticket type isn't locked during the call to payment-service below
+            Long reservationId = ticketInventoryService.hold(ticketType.getId(), quantity, registrationRequest.email());
+
             // build process payment event
             ProcessPaymentEvent processPaymentEvent = ProcessPaymentEvent
                     .builder()
@@ -144,10 +156,18 @@ public class EventRegistrationServiceImpl implements EventRegistrationService{
                             .startDate(event.getStartTime())
                             .build()
                     )
+                    .reservationId(reservationId)
                     .build();
 
             // receive payStack authorization URL
-            PaystackResponse initializePayment = paymentServiceClient.initializeTransaction(processPaymentEvent);
+            PaystackResponse initializePayment;
+            try{
+                initializePayment = paymentServiceClient.initializeTransaction(processPaymentEvent);
+            }catch (RuntimeException e){
+                // no checkout to complete, so don't keep the tickets until the hold expires
+                ticketInventoryService.release(reservationId);
+                throw e;
+            }
 
             // return authorization url gotten from payment service
             return EventRegistrationResponse
@@ -177,39 +197,59 @@ public class EventRegistrationServiceImpl implements EventRegistrationService{
 
     @Override
     public Page<EventRegistrationsListResponse> getEventRegistrations(Long eventId, int page, String keyword, String ticketType) {
+        Event event = findManagedEvent(eventId);
+
+        page = Math.max(page, 0);
+        Sort sort = Sort.by(Sort.Direction.DESC, "id");
+        Pageable pageable = PageRequest.of(page, 10, sort);
+
+        return eventRegistrationRepository.findAll(registrationsOf(event, keyword, ticketType), pageable)
+                .map(this::toRegistrationsListResponse);
+    }
+
+    @Override
+    public CursorPage<EventRegistrationsListResponse> scrollEventRegistrations(Long eventId, String cursor, String keyword, String ticketType) {
+        Event event = findManagedEvent(eventId);
+
+        Sort sort = Sort.by(Sort.Direction.DESC, "id");
+        ScrollPosition position = ScrollCursors.decode(cursor, sort);
+        Window<EventRegistration> registrations = eventRegistrationRepository.findBy(
+                registrationsOf(event, keyword, ticketType),
+                query -> query.sortBy(sort).limit(10).scroll(position));
+
+        return ScrollCursors.toCursorPage(registrations, this::toRegistrationsListResponse);
+    }
+
+    private Event findManagedEvent(Long eventId) {
         AppUser currentUser = securityUtils.getCurrentUser();
 
-        Event event;
         if(currentUser.role().equals("ORGANISER")){
-            event = eventRepository.findByIdAndUserId(eventId, currentUser.id()).orElseThrow(()-> new ResourceNotFoundException("Event not found"));
+            return eventRepository.findByIdAndUserId(eventId, currentUser.id()).orElseThrow(()-> new ResourceNotFoundException("Event not found"));
         }else if(currentUser.role().equals("CO_ORGANIZER")){
             // find CO_ORGANIZER invite to get Event
-            event = eventRepository.findByEventIdAndCoOrganizerUserId(eventId,currentUser.id()).orElseThrow(()-> new ResourceNotFoundException("Event not found"));
+            return eventRepository.findByEventIdAndCoOrganizerUserId(eventId,currentUser.id()).orElseThrow(()-> new ResourceNotFoundException("Event not found"));
         }else{
-            event = eventRepository.findById(eventId).orElseThrow(()-> new ResourceNotFoundException("Event not found"));
+            return eventRepository.findById(eventId).orElseThrow(()-> new ResourceNotFoundException("Event not found"));
         }
+    }
 
-        page = Math.max(page, 0);
-        Sort sort = Sort.by(Sort.Direction.DESC, "id");
-        Pageable pageable = PageRequest.of(page, 10, sort);
-        Specification<EventRegistration> spec;
-
-        spec = Specification.allOf(
+    private static Specification<EventRegistration> registrationsOf(Event event, String keyword, String ticketType) {
+        return Specification.allOf(
                 EventRegistrationSpecification.hasEvent(event.getId()),
                 EventRegistrationSpecification.hasKeyword(keyword.trim()),
                 EventRegistrationSpecification.hasTicketType(ticketType)
         );
+    }
 
-
-        return eventRegistrationRepository.findAll(spec, pageable)
-                .map(registration -> EventRegistrationsListResponse
-                        .builder()
-                        .id(registration.getId())
-                        .name(registration.getFullName())
-                        .email(registration.getEmail())
-                        .numberOfTickets(registration.getTicketQuantity())
-                        .ticketType(registration.getTicketType().getType())
-                        .build());
+    private EventRegistrationsListResponse toRegistrationsListResponse(EventRegistration registration) {
+        return EventRegistrationsListResponse
+                .builder()
+                .id(registration.getId())
+                .name(registration.getFullName())
+                .email(registration.getEmail())
+                .numberOfTickets(registration.getTicketQuantity())
+                .ticketType(registration.getTicketType().getType())
+                .build();
     }
 
     @Override
@@ -258,10 +298,10 @@ public class EventRegistrationServiceImpl implements EventRegistrationService{
     }
 
 
-    // SQS Listener to handle payment success messages from payment service
+    // Handles payment success messages from payment service, see PaymentCompletedListener
+    @Override
     @Transactional // This ensures there is an active hibernate session for lazy initialization fields
-    @SqsListener("${sqs.payment-completed-event-queue-url}")
-    public void paymentCompletedListener(ProcessPaymentEvent message){
+    public void completePayment(ProcessPaymentEvent message){
         // Generate tickets and send to attendee via email
         Event event = eventRepository.findById(message.eventRegistrationResponse().id()).orElse(null);
         if(event == null){
@@ -273,6 +313,26 @@ public class EventRegistrationServiceImpl implements EventRegistrationService{
             log.error("Ticket Type not found for payment completed event: {}", message.ticketTypeId());
             return;
         }
+
+        Long quantity;
+        if(event.getEventMeetingType().getName() == EventMeetingTypeEnum.VIRTUAL ){
+            quantity = 1L; // One ticket for virtual events
+        }else{
+            quantity = message.numberOfTickets();
+        }
+
+        // Convert the checkout hold into sold tickets
+        ReservationConfirmationEnum confirmation = ticketInventoryService.confirm(message.reservationId(), ticketType.getId(), quantity);
+        if(confirmation == ReservationConfirmationEnum.ALREADY_CONFIRMED){
+            log.info("Payment for hold {} has already been processed, ignoring redelivery", message.reservationId());
+            return;
+        }
+        if(confirmation == ReservationConfirmationEnum.SOLD_OUT){
+            log.error("Ticket Type {} sold out before payment for {} completed, refund due", ticketType.getId(), message.email());
+            publishRefundDueEventToQueue(message);
+            return;
+        }
+
         EventRegistration registration = EventRegistration
                 .builder()
                 .event(event)
@@ -286,15 +346,11 @@ public class EventRegistrationServiceImpl implements EventRegistrationService{
         eventRegistrationRepository.save(registration);
 
         TicketEventDetailResponse eventDetailResponse = eventDetailMapper.toTicketEventDetails(event);
-        Long quantity;
 
-        if(event.getEventMeetingType().getName() == EventMeetingTypeEnum.VIRTUAL ){
-            quantity = 1L; // One ticket for virtual events
-        }else{
-            quantity = registration.getTicketQuantity();
-        }
+        List<Ticket> tickets = generateTicket(ticketType,event,quantity);
+        eventSalesSummaryService.recordSale(event, tickets.size(), tickets.size() * ticketType.getPrice());
 
-        List<TicketResponse> tickets = generateTicket(ticketType,event,quantity)
+        List<TicketResponse> ticketResponses = tickets
                 .stream()
                 .map(ticketPurchasedEventMapper::toTicketResponse).toList();
 
@@ -303,73 +359,89 @@ public class EventRegistrationServiceImpl implements EventRegistrationService{
                 .toTicketPurchasedEvent(
                         registration.getFullName(),
                         registration.getEmail(),
-                        tickets,
+                        ticketResponses,
                         eventDetailResponse
                 );
-
         publishTicketsPurchaseEventToQueue(ticketPurchasedEvent);
     }
 
 
     /**
-     * Generates tickets for an event.
+     * Generates tickets for an event. Stock must already have been taken through
+     * {@link TicketInventoryService}, so the ticket type itself is not modified here.
      *
      * @param ticketType The type of ticket to generate.
      * @param event The event for which tickets are being generated.
      * @param quantity The number of tickets to generate.
      * @return A list of generated tickets.
-     * @throws ResourceNotFoundException if QR code generation or ticket saving fails.
      */
     private List<Ticket> generateTicket(TicketType ticketType,Event event,Long quantity){
         List<Ticket> ticketsToBeGenerated = new java.util.ArrayList<>(List.of());
 
-        try {
-            for (int i = 0; i < quantity; i++) {
-                String ticketCode = UUID.randomUUID().toString();
-
-                String ticketUrl = albUrl + "/api/v1/tickets/verify/" + ticketCode;
-
-                String base64QRCode = QRCodeGenerator.generateQRCodeBase64(ticketUrl, 100, 100);
-                ticketsToBeGenerated.add(Ticket.builder()
-                        .event(event)
-                        .ticketType(ticketType)
-                        .quantity(1)
-                        .ticketCode(ticketCode)
-                        .qrCodeUrl(base64QRCode)
-                        .status(TicketStatusEnum.ACTIVE)
-                        .build());
-
-            }
-            // Update ticket type details
-            ticketType.setSoldCount(ticketType.getSoldCount()+quantity);
-            if(ticketType.getQuantity().longValue() == ticketType.getSoldCount().longValue()){
-                ticketType.setIsActive(false);
-            }
-            ticketTypeRepository.save(ticketType);
-
-            // save tickets
-            return ticketRepository.saveAll(ticketsToBeGenerated);
-        } catch (WriterException e) {
-            throw new InputOutputException("QR Code Generation Failed");
-        } catch (IOException e){
-            throw new InputOutputException("Ticket Generation Failed");
+        for (int i = 0; i < quantity; i++) {
+            ticketsToBeGenerated.add(Ticket.builder()
+                    .event(event)
+                    .ticketType(ticketType)
+                    .quantity(1)
+                    .ticketCode(UUID.randomUUID().toString())
+                    .status(TicketStatusEnum.ACTIVE)
+                    .build());
         }
+
+        // save tickets
+        return ticketRepository.saveAll(ticketsToBeGenerated);
     }
 
 
     /**
-     * Publishes a ticket purchase event to the SQS queue.
+     * Writes a ticket purchase event to the outbox, to be sent to the attendee once the registration commits.
      *
      * @param ticketPurchasedEvent The ticket purchase event to publish.
      */
     private void publishTicketsPurchaseEventToQueue(TicketPurchasedEvent ticketPurchasedEvent){
         try{
-            log.info("Sending ticket purchase event to SQS {}", ticketPurchasedEventQueueUrl);
             String messageBody = objectMapper.writeValueAsString(ticketPurchasedEvent);
-            log.info("Ticket purchase event message body: {}", messageBody);
-            sqsClient.sendMessage(builder -> builder.queueUrl(ticketPurchasedEventQueueUrl).messageBody(messageBody));
-        }catch (Exception e){
-            log.error("Error sending ticket purchase event to SQS: {}", e.getMessage());
+            outboxService.enqueue(ticketPurchasedEventQueueUrl, "attendee:" + ticketPurchasedEvent.attendeeEmail(), messageBody);
+        }catch (JsonProcessingException e){
+            log.error("Error serializing ticket purchase event: {}", e.getMessage());
+            throw new InputOutputException("Failed to send tickets, please try again");
+        }
+    }
+
+
+    /**
+     * Writes a refund due event to the outbox for payment-service to refund the Paystack transaction, and a
+     * payment status event telling the attendee that their payment went through but the tickets sold out
+     * before it completed. Both commit together with the confirmed hold, so a redelivery doesn't repeat them.
+     *
+     * @param message The payment completed event that couldn't get its tickets.
+     */
+    private void publishRefundDueEventToQueue(ProcessPaymentEvent message){
+        RefundDueEvent refundDueEvent = RefundDueEvent
+                .builder()
+                .transactionReference(message.transactionReference())
+                .email(message.email())
+                .amount(BigDecimal.valueOf(message.amount()))
+                .timestamp(Instant.now())
+                .build();
+        PaymentStatusEvent statusEvent = PaymentStatusEvent
+                .builder()
+                .transactionId(message.transactionReference())
+                .email(message.email())
+                .fullName(message.fullName())
+                .paymentMethod("N/A")
+                .status(REFUND_DUE_STATUS)
+                .amount(BigDecimal.valueOf(message.amount()))
+                .timestamp(Instant.now())
+                .build();
+        try{
+            outboxService.enqueue(refundDueQueueUrl, "transaction:" + message.transactionReference(),
+                    objectMapper.writeValueAsString(refundDueEvent));
+            String messageBody = objectMapper.writeValueAsString(statusEvent);
+            outboxService.enqueue(paymentStatusQueueUrl, "attendee:" + message.email(), messageBody);
+        }catch (JsonProcessingException e){
+            log.error("Error serializing payment status event: {}", e.getMessage());
+            throw new InputOutputException("Failed to report refund, please try again");
         }
     }
 
@@ -379,9 +451,9 @@ public class EventRegistrationServiceImpl implements EventRegistrationService{
             log.info("Sending process payment event");
             String messageBody = objectMapper.writeValueAsString(processPaymentEvent);
             log.info("Process payment event message body: {}", messageBody);
-            sqsClient.sendMessage(builder -> builder.queueUrl(processPaymentQueueUrl).messageBody(messageBody));
-        }catch (Exception e){
-            log.error("Error sending process payment event: {}", e.getMessage());
+            outboxService.enqueue(processPaymentQueueUrl, "attendee:" + processPaymentEvent.email(), messageBody);
+        }catch (JsonProcessingException e){
+            log.error("Error serializing process payment event: {}", e.getMessage());
         }
     }
 }
@@ -0,0 +1,9 @@
+package com.event_service.event_service.services;
+
+import com.event_service.event_service.models.Event;
+
+public interface EventSalesSummaryService {
+    void createSummary(Event event);
+    void recordSale(Event event, long tickets, double revenue);
+    void recordCheckIn(Event event);
+}
@@ -0,0 +1,73 @@
+package com.event_service.event_service.services;
+
+import com.event_service.event_service.dto.projection.SalesTotalsProjection;
+import com.event_service.event_service.models.Event;
+import com.event_service.event_service.models.EventSalesSummary;
+import com.event_service.event_service.repositories.EventSalesSummaryRepository;
+import com.event_service.event_service.repositories.TicketRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class EventSalesSummaryServiceImpl implements EventSalesSummaryService {
+    private final EventSalesSummaryRepository eventSalesSummaryRepository;
+    private final TicketRepository ticketRepository;
+
+    @Override
+    @Transactional
+    public void createSummary(Event event) {
+        eventSalesSummaryRepository.save(EventSalesSummary.builder()
+                .eventId(event.getId())
+                .organizerId(event.getUserId())
+                .ticketsSold(0L)
+                .grossRevenue(0.0)
+                .attendees(0L)
+                .checkIns(0L)
+                .updatedAt(Instant.now())
+                .build());
+    }
+
+    /**
+     * Adds a confirmed registration and the tickets generated for it to the event's totals.
+     * Must be called after the tickets and registration are saved, in the same transaction.
+     */
+    @Override
+    @Transactional
+    public void recordSale(Event event, long tickets, double revenue) {
+        if (eventSalesSummaryRepository.incrementSales(event.getId(), tickets, revenue, 1, Instant.now()) == 0
+                && !rebuildSummary(event)) {
+            eventSalesSummaryRepository.incrementSales(event.getId(), tickets, revenue, 1, Instant.now());
+        }
+    }
+
+    @Override
+    @Transactional
+    public void recordCheckIn(Event event) {
+        if (eventSalesSummaryRepository.incrementCheckIns(event.getId(), Instant.now()) == 0
+                && !rebuildSummary(event)) {
+            eventSalesSummaryRepository.incrementCheckIns(event.getId(), Instant.now());
+        }
+    }
+
+    // Events created before the summary existed and not yet backfilled get their row on the first change.
+    // The totals include this transaction's change. When a concurrent first change added the row first,
+    // the insert waits for it and does nothing, and returns false so the caller applies its change to that row.
+    private boolean rebuildSummary(Event event) {
+        log.warn("No sales summary for event {}, rebuilding it from its tickets", event.getId());
+        SalesTotalsProjection totals = ticketRepository.computeSalesForEvent(event.getId());
+        return eventSalesSummaryRepository.insertIfAbsent(
+                event.getId(),
+                event.getUserId(),
+                totals.getTicketsSold(),
+                totals.getGrossRevenue(),
+                totals.getAttendees(),
+                totals.getCheckIns(),
+                Instant.now()) == 1;
+    }
+}
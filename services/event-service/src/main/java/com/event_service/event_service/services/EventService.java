@@ -3,7 +3,9 @@ package com.event_service.event_service.services;
 import com.event_service.event_service.dto.EventRequest;
 import com.event_service.event_service.dto.EventResponse;
 import com.event_service.event_service.dto.EventUpdateResponse;
+import com.event_service.event_service.dto.ExploreEventResponse;
 import com.event_service.event_service.dto.PagedExploreEventResponse;
+import com.example.common_libraries.dto.CursorPage;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.time.LocalDate;
@@ -23,5 +25,19 @@ public interface EventService {
             Boolean past
     );
 
+    /**
+     * Explore feed in cursor mode: newest events first, continuing after {@code cursor}, without a count of
+     * all matches. {@code hasTitle} filters rather than ranks here.
+     */
+    CursorPage<ExploreEventResponse> scrollEvents(
+            String cursor,
+            int size,
+            String hasTitle,
+            String location,
+            LocalDate date,
+            String priceFilter,
+            Boolean past
+    );
+
     EventUpdateResponse updateEvent(Long id, EventRequest eventRequest, MultipartFile image, List<MultipartFile> eventImages, List<Long> imagesToUpdate);
 }
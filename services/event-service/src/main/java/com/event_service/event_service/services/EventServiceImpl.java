@@ -1,5 +1,6 @@
 package com.event_service.event_service.services;
 
+import com.event_service.event_service.config.EventSearchIndex;
 import com.event_service.event_service.dto.*;
 import com.event_service.event_service.exceptions.NotFoundException;
 import com.event_service.event_service.repositories.EventImagesRepository;
@@ -10,10 +11,12 @@ import com.event_service.event_service.dto.EventRequest;
 import com.event_service.event_service.dto.EventResponse;
 import com.event_service.event_service.dto.ExploreEventResponse;
 import com.event_service.event_service.dto.PagedExploreEventResponse;
+import com.event_service.event_service.dto.projection.EventSummaryProjection;
 import com.event_service.event_service.repositories.TicketRepository;
 import com.event_service.event_service.repositories.TicketTypeRepository;
 import com.event_service.event_service.validations.FileValidator;
 import com.example.common_libraries.dto.AppUser;
+import com.example.common_libraries.dto.CursorPage;
 import com.example.common_libraries.dto.PlatformNotificationSettingDto;
 import com.example.common_libraries.dto.UserInfoResponse;
 import com.example.common_libraries.dto.queue_events.EventCreationNotificationMessage;
@@ -26,16 +29,21 @@ import com.event_service.event_service.repositories.EventRepository;
 import com.event_service.event_service.strategies.*;
 import com.event_service.event_service.validations.EventValidator;
 import com.example.common_libraries.service.S3Service;
+import com.example.common_libraries.utils.ScrollCursors;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.domain.Specification;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -45,12 +53,14 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.util.CollectionUtils;
 import org.springframework.web.multipart.MultipartFile;
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
 import com.event_service.event_service.specifications.EventSpecification;
-import software.amazon.awssdk.services.sqs.SqsClient;
 
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 @Slf4j
 @Service
@@ -67,7 +77,8 @@ public class EventServiceImpl implements EventService {
     private final EventValidator eventValidator;
     private final EventMapper eventMapper;
     private final EventRepository eventRepository;
-    private final SqsClient sqsClient;
+    private final OutboxService outboxService;
+    private final EventSalesSummaryService eventSalesSummaryService;
     private final ObjectMapper objectMapper;
     private final S3Service s3Service;
     private final EventImagesRepository eventImagesRepository;
@@ -75,6 +86,7 @@ public class EventServiceImpl implements EventService {
     private final InPersonAndDayEventUpdateStrategy inPersonAndDayEventUpdateStrategy;
     private final VirtualAndDayEventUpdateStrategy virtualAndDayEventUpdateStrategy;
     private final VirtualAndMultiDayEventUpdateStrategy virtualAndMultiDayEventUpdateStrategy;
+    private final EventSearchIndex eventSearchIndex;
     private final InPersonAndMultiDayUpdateEventStrategy inPersonAndMultiDayEventUpdateStrategy;
     private final FileValidator fileValidator;
     private final TicketTypeRepository ticketTypeRepository;
@@ -89,6 +101,7 @@ public class EventServiceImpl implements EventService {
 
     @Override
     @Transactional
+    @CacheEvict(value = "events", allEntries = true)
     @PreAuthorize("hasRole('ORGANISER')")
     public EventResponse createEvent(EventRequest eventRequest, MultipartFile image, List<MultipartFile> eventImages, List<MultipartFile> sectionImages) {
         eventValidator.validateRequiredGroup(eventRequest);
@@ -137,6 +150,7 @@ public class EventServiceImpl implements EventService {
             event = eventStrategyContext.executeStrategy(eventRequest, image, eventImages,eventType, eventMeetingType,sectionImages);
         }
 
+        eventSalesSummaryService.createSummary(event);
         publishEventToEventStatQueue(authenticatedUser.id());
         publishEventCreationNotificationToQueue(event);
 
@@ -147,7 +161,8 @@ public class EventServiceImpl implements EventService {
     @Override
     @Cacheable(
             value = "events",
-            key = "{#pageNumber, #pageSize, #hasTitle, #sortBy, #location, #date, #priceFilter, #past}"
+            key = "{#pageNumber, #pageSize, #hasTitle, #sortBy, #location, #date, #priceFilter, #past}",
+            sync = true
     )
     public PagedExploreEventResponse listEvents(
             int pageNumber,
@@ -159,14 +174,13 @@ public class EventServiceImpl implements EventService {
             String priceFilter,
             Boolean past
     ) {
-        Pageable pageable = PageRequest.of(
-                pageNumber,
-                pageSize,
-                Sort.by(Sort.Direction.DESC, sortBy)
-        );
+        // A search is ordered by how well events match it
+        boolean search = hasTitle != null && !hasTitle.isBlank() && eventSearchIndex.isAvailable();
+        Pageable pageable = search
+                ? PageRequest.of(pageNumber, pageSize)
+                : PageRequest.of(pageNumber, pageSize, Sort.by(Sort.Direction.DESC, sortBy));
 
         Specification<Event> spec = Specification.unrestricted();
-            spec = spec.and(EventSpecification.hasTitle(hasTitle));
             spec = spec.and(EventSpecification.byLocation(location));
             spec = spec.and(EventSpecification.isOn(date));
             spec = spec.and(EventSpecification.byPriceFilter(priceFilter));
@@ -176,10 +190,21 @@ public class EventServiceImpl implements EventService {
                     ? spec.and(EventSpecification.isPast())
                     : spec.and(EventSpecification.isUpcoming());
         }
-        Page<Event> eventPage = eventRepository.findAll(spec, pageable);
+        Page<Event> eventPage;
+        if (search) {
+            eventPage = eventRepository.findAll(spec.and(EventSpecification.matchesSearch(hasTitle)), pageable);
+            // Nothing contains the words, so look for titles spelled close to them
+            if (eventPage.getTotalElements() == 0) {
+                eventPage = eventRepository.findAll(spec.and(EventSpecification.resemblesTitle(hasTitle)), pageable);
+            }
+        } else {
+            eventPage = eventRepository.findAll(spec.and(EventSpecification.hasTitle(hasTitle)), pageable);
+        }
+        Map<Long, EventSummaryProjection> summaries = eventRepository.findEventSummariesById(
+                eventPage.map(Event::getId).getContent());
         List<ExploreEventResponse> eventsToExplore = eventPage
                 .stream()
-                .map(eventMapper::toExploreEventResponse)
+                .map(event -> eventMapper.toExploreEventResponse(event, summaries.get(event.getId()).getAttendeeCount()))
                 .toList();
 
         return new PagedExploreEventResponse(
@@ -190,8 +215,39 @@ public class EventServiceImpl implements EventService {
         );
     }
 
+    @Override
+    public CursorPage<ExploreEventResponse> scrollEvents(
+            String cursor,
+            int size,
+            String hasTitle,
+            String location,
+            LocalDate date,
+            String priceFilter,
+            Boolean past
+    ) {
+        // startTime is unset for single day events, and a keyset can't step past nulls; ids follow creation
+        Sort sort = Sort.by(Sort.Direction.DESC, "id");
+        ScrollPosition position = ScrollCursors.decode(cursor, sort);
+
+        Specification<Event> spec = Specification.allOf(
+                EventSpecification.hasTitle(hasTitle),
+                EventSpecification.byLocation(location),
+                EventSpecification.isOn(date),
+                EventSpecification.byPriceFilter(priceFilter));
+        if (past != null) {
+            spec = spec.and(past ? EventSpecification.isPast() : EventSpecification.isUpcoming());
+        }
+
+        Window<Event> events = eventRepository.findBy(spec, query -> query.sortBy(sort).limit(ScrollCursors.pageSize(size)).scroll(position));
+        Map<Long, EventSummaryProjection> summaries = eventRepository.findEventSummariesById(
+                events.map(Event::getId).getContent());
+        return ScrollCursors.toCursorPage(events,
+                event -> eventMapper.toExploreEventResponse(event, summaries.get(event.getId()).getAttendeeCount()));
+    }
+
     @Override
     @Transactional
+    @CacheEvict(value = "events", allEntries = true)
     @PreAuthorize("hasRole('ORGANISER') and @eventOwnerShipService.checkOwnerShip(#id, authentication.principal.id)")
     public EventUpdateResponse updateEvent(Long id,
                                            EventRequest eventRequest,
@@ -241,10 +297,14 @@ public class EventServiceImpl implements EventService {
 
     private void publishEventCreationNotificationToQueue(Event event){
         String accessToken = getCookieValue("accessToken");
-        PlatformNotificationSettingDto platformNotification = userServiceClient.getNotificationSetting(accessToken);
-
-        if(platformNotification.eventCreation()){
-            List<UserInfoResponse> adminUsers = userServiceClient.getActiveAdmins(accessToken);
+        // this runs inside the event's transaction, so whichever of the two isn't cached is fetched alongside the other
+        Tuple2<PlatformNotificationSettingDto, List<UserInfoResponse>> settingsAndAdmins = Mono.zip(
+                        userServiceClient.fetchNotificationSetting(accessToken),
+                        userServiceClient.fetchActiveAdmins(accessToken).defaultIfEmpty(List.of()))
+                .block();
+
+        if(settingsAndAdmins.getT1().eventCreation()){
+            List<UserInfoResponse> adminUsers = settingsAndAdmins.getT2();
             for(UserInfoResponse admin : adminUsers){
                 try{
                     String messageBody = objectMapper.writeValueAsString(
@@ -254,13 +314,10 @@ public class EventServiceImpl implements EventService {
                                     event.getTitle()
                             )
                     );
-                    sqsClient.sendMessage(builder -> builder
-                            .queueUrl(eventCreationQueueUrl)
-                            .messageBody(messageBody)
-                    );
-                    log.info("Event creation notification sent to SQS queue for admin id: {}", admin.id());
-                }catch (Exception e){
-                    log.error("Error sending event creation notification to SQS queue for admin id: {}: {}", admin.id(), e.getMessage());
+                    outboxService.enqueue(eventCreationQueueUrl, "event:" + event.getId(), messageBody);
+                    log.info("Event creation notification queued for admin id: {}", admin.id());
+                }catch (JsonProcessingException e){
+                    log.error("Error serializing event creation notification for admin id: {}: {}", admin.id(), e.getMessage());
                 }
             }
         }
@@ -270,10 +327,10 @@ public class EventServiceImpl implements EventService {
         // Implementation for publishing event to eventStat queue
         try{
             String messageBody = objectMapper.writeValueAsString(organizerId);
-            sqsClient.sendMessage(builder -> builder.queueUrl(eventStatQueueUrl).messageBody(messageBody));
-            log.info("Message sent to event stat SQS queue");
-        }catch (Exception e){
-            log.error("Error sending message to event stat SQS queue: {}", e.getMessage());
+            outboxService.enqueue(eventStatQueueUrl, "organizer:" + organizerId, messageBody);
+            log.info("Message queued for the event stat SQS queue");
+        }catch (JsonProcessingException e){
+            log.error("Error serializing event stat message: {}", e.getMessage());
         }
     }
 
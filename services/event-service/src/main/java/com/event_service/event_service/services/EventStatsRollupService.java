@@ -0,0 +1,5 @@
+package com.event_service.event_service.services;
+
+public interface EventStatsRollupService {
+    int rollUp();
+}
@@ -0,0 +1,137 @@
+package com.event_service.event_service.services;
+
+import com.event_service.event_service.dto.projection.DailyCountProjection;
+import com.event_service.event_service.dto.projection.DailySalesProjection;
+import com.event_service.event_service.models.EventDailyStats;
+import com.event_service.event_service.models.EventMonthlyStats;
+import com.event_service.event_service.models.StatsRollupWatermark;
+import com.event_service.event_service.repositories.EventDailyStatsRepository;
+import com.event_service.event_service.repositories.EventMonthlyStatsRepository;
+import com.event_service.event_service.repositories.EventRegistrationRepository;
+import com.event_service.event_service.repositories.EventRepository;
+import com.event_service.event_service.repositories.StatsRollupWatermarkRepository;
+import com.event_service.event_service.repositories.TicketRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class EventStatsRollupServiceImpl implements EventStatsRollupService {
+    static final String WATERMARK = "event-stats";
+
+    private final EventRepository eventRepository;
+    private final EventRegistrationRepository eventRegistrationRepository;
+    private final TicketRepository ticketRepository;
+    private final EventDailyStatsRepository eventDailyStatsRepository;
+    private final EventMonthlyStatsRepository eventMonthlyStatsRepository;
+    private final StatsRollupWatermarkRepository statsRollupWatermarkRepository;
+
+    // How late a row may commit after its created_at and still be counted
+    @Value("${event.stats.rollup.lag-seconds:600}")
+    private long lagSeconds;
+
+    /**
+     * Brings {@code event_daily_stats} and {@code event_monthly_stats} up to date. The days from the
+     * watermark, less the lag, to today are counted again from the rows created since the start of the
+     * first of them, which the {@code created_at} indexes find without scanning older rows, and the
+     * months those days fall in are summed again from their days. The first run counts everything.
+     * Skipped while another instance is rolling up.
+     *
+     * @return The number of days counted again.
+     */
+    @Override
+    @Transactional
+    @Scheduled(fixedDelayString = "${event.stats.rollup.interval-ms:60000}", initialDelayString = "${event.stats.rollup.interval-ms:60000}")
+    public int rollUp() {
+        StatsRollupWatermark watermark = claimWatermark();
+        if(watermark == null){
+            return 0;
+        }
+
+        Instant now = Instant.now();
+        // Days as the database groups them, see EventRepository.countCreatedPerDay
+        ZoneId zone = ZoneId.systemDefault();
+        LocalDate firstDay = watermark.getRolledUpTo() == null
+                ? LocalDate.EPOCH
+                : LocalDate.ofInstant(watermark.getRolledUpTo().minusSeconds(lagSeconds), zone);
+        Instant since = firstDay.atStartOfDay(zone).toInstant();
+
+        Map<LocalDate, EventDailyStats> days = new TreeMap<>();
+        for(EventDailyStats day : eventDailyStatsRepository.findAllByDayGreaterThanEqualOrderByDay(firstDay)){
+            resetDay(day, now);
+            days.put(day.getDay(), day);
+        }
+        Function<LocalDate, EventDailyStats> dayOf = date -> days.computeIfAbsent(date, d -> resetDay(EventDailyStats.builder().day(d).build(), now));
+
+        for(DailyCountProjection events : eventRepository.countCreatedPerDay(since)){
+            dayOf.apply(events.getCreatedOn()).setEventsCreated(events.getTotal());
+        }
+        for(DailyCountProjection registrations : eventRegistrationRepository.countCreatedPerDay(since)){
+            dayOf.apply(registrations.getCreatedOn()).setRegistrations(registrations.getTotal());
+        }
+        for(DailySalesProjection sales : ticketRepository.sumSoldPerDay(firstDay.atStartOfDay())){
+            EventDailyStats day = dayOf.apply(sales.getCreatedOn());
+            day.setTicketsSold(sales.getTotal());
+            day.setRevenue(sales.getRevenue());
+        }
+        eventDailyStatsRepository.saveAll(days.values());
+
+        rollUpMonths(firstDay.withDayOfMonth(1), now);
+
+        watermark.setRolledUpTo(now);
+        statsRollupWatermarkRepository.save(watermark);
+        return days.size();
+    }
+
+    private StatsRollupWatermark claimWatermark() {
+        if(!statsRollupWatermarkRepository.existsById(WATERMARK)){
+            // the insert holds the row until the first run commits
+            return statsRollupWatermarkRepository.saveAndFlush(StatsRollupWatermark.builder().name(WATERMARK).build());
+        }
+        StatsRollupWatermark watermark = statsRollupWatermarkRepository.claim(WATERMARK).orElse(null);
+        if(watermark == null){
+            log.debug("Event stats are being rolled up by another instance");
+        }
+        return watermark;
+    }
+
+    private void rollUpMonths(LocalDate firstMonth, Instant now) {
+        Map<LocalDate, EventMonthlyStats> months = new TreeMap<>();
+        for(EventDailyStats day : eventDailyStatsRepository.findAllByDayGreaterThanEqualOrderByDay(firstMonth)){
+            EventMonthlyStats month = months.computeIfAbsent(day.getDay().withDayOfMonth(1), m -> EventMonthlyStats.builder()
+                    .month(m)
+                    .eventsCreated(0L)
+                    .registrations(0L)
+                    .ticketsSold(0L)
+                    .revenue(0.0)
+                    .updatedAt(now)
+                    .build());
+            month.setEventsCreated(month.getEventsCreated() + day.getEventsCreated());
+            month.setRegistrations(month.getRegistrations() + day.getRegistrations());
+            month.setTicketsSold(month.getTicketsSold() + day.getTicketsSold());
+            month.setRevenue(month.getRevenue() + day.getRevenue());
+        }
+        eventMonthlyStatsRepository.saveAll(months.values());
+    }
+
+    private static EventDailyStats resetDay(EventDailyStats day, Instant now) {
+        day.setEventsCreated(0L);
+        day.setRegistrations(0L);
+        day.setTicketsSold(0L);
+        day.setRevenue(0.0);
+        day.setUpdatedAt(now);
+        return day;
+    }
+}
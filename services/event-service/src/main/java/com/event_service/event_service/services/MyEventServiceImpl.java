@@ -2,11 +2,15 @@ package com.event_service.event_service.services;
 
 import com.event_service.event_service.client.UserServiceClient;
 import com.event_service.event_service.dto.*;
+import com.event_service.event_service.dto.projection.EventSummaryProjection;
+import com.event_service.event_service.dto.projection.SalesTotalsProjection;
 import com.event_service.event_service.models.Event;
 import com.event_service.event_service.models.EventOrganizer;
+import com.event_service.event_service.models.EventSalesSummary;
 import com.event_service.event_service.models.TicketType;
 import com.event_service.event_service.models.enums.InviteeRole;
 import com.event_service.event_service.repositories.*;
+import com.event_service.event_service.utils.ConcurrentParts;
 import com.event_service.event_service.utils.SecurityUtils;
 import com.example.common_libraries.dto.AppUser;
 import com.example.common_libraries.dto.HostsResponse;
@@ -19,9 +23,12 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 
 @Service
@@ -29,11 +36,12 @@ import java.util.Optional;
 public class MyEventServiceImpl implements MyEventService {
     private final SecurityUtils securityUtils;
     private final EventRepository eventRepository;
-    private final EventRegistrationRepository eventRegistrationRepository;
-    private final TicketRepository ticketRepository;
+    private final EventSalesSummaryRepository eventSalesSummaryRepository;
     private final EventInvitationRepository eventInvitationRepository;
     private final UserServiceClient userServiceClient;
     private final EventOrganizerRepository eventOrganizerRepository;
+    private final TicketReservationRepository ticketReservationRepository;
+    private final ConcurrentParts concurrentParts;
 
     @Override
     public Page<MyEventsListResponse> getMyEvents(int page) {
@@ -48,6 +56,9 @@ public class MyEventServiceImpl implements MyEventService {
             myEvents = eventRepository.findAllByUserId(currentUser.id(), pageable);
         }
 
+        Map<Long, EventSummaryProjection> summaries = eventRepository.findEventSummariesById(
+                myEvents.map(Event::getId).getContent());
+
         return myEvents.map(
                 event -> MyEventsListResponse
                         .builder()
@@ -56,8 +67,8 @@ public class MyEventServiceImpl implements MyEventService {
                         .startTime(event.getStartTime())
                         .location(event.getLocation())
                         .flyerUrl(event.getFlyerUrl())
-                        .attendeesCount((long) event.getEventRegistrations().size())
-                        .isPaid(event.getTicketTypes().stream().anyMatch(TicketType::getIsPaid))
+                        .attendeesCount(summaries.get(event.getId()).getAttendeeCount())
+                        .isPaid(summaries.get(event.getId()).getIsPaid())
                         .build()
         );
     }
@@ -75,13 +86,14 @@ public class MyEventServiceImpl implements MyEventService {
             List<EventOrganizer> coOrganizedEvents = eventOrganizerRepository.findAllByUserId(currentUser.id());
 
             totalEvents = (long) coOrganizedEvents.size();
-            totalAttendees = coOrganizedEvents.stream()
-                    .mapToLong(org-> (long) org.getEvent().getEventRegistrations().size()).sum();
-            totalTicketSales = ticketRepository.findTotalTicketSalesForCoOrganizer(currentUser.id());
+            SalesTotalsProjection totals = eventSalesSummaryRepository.getTotalsForCoOrganizer(currentUser.id());
+            totalAttendees = totals.getAttendees();
+            totalTicketSales = totals.getGrossRevenue();
         }else{
             totalEvents = eventRepository.countByUserId(currentUser.id());
-            totalAttendees = eventRegistrationRepository.countByEventUserId(currentUser.id());
-            totalTicketSales = ticketRepository.findTotalTicketSalesForUser(currentUser.id());
+            SalesTotalsProjection totals = eventSalesSummaryRepository.getTotalsForOrganizer(currentUser.id());
+            totalAttendees = totals.getAttendees();
+            totalTicketSales = totals.getGrossRevenue();
         }
 
         return MyEventsOverviewResponse
@@ -116,14 +128,19 @@ public class MyEventServiceImpl implements MyEventService {
                     .orElseThrow(()-> new ResourceNotFoundException("Event not found"));
         }
 
-        Long totalAttendees = (long) event.getEventRegistrations().size();
-        Double totalTicketSales = ticketRepository.findTotalTicketSalesForEvent(event);
-
-        MyEventsOverviewResponse eventStat = MyEventsOverviewResponse
-                .builder()
-                .totalAttendees(totalAttendees)
-                .totalTicketSales(totalTicketSales)
-                .build();
+        // The parts below are independent and loaded at the same time; the hosts come from user-service
+        // and are left out if it is slow or down
+        Long id = event.getId();
+        // only the host ids query takes a slot; the call to user-service doesn't block a thread
+        CompletableFuture<List<Long>> hostIds = concurrentParts.start(() -> eventOrganizerRepository.findUserIdsByEventId(id));
+        CompletableFuture<List<HostsResponse>> eventHosts = concurrentParts.optional("event hosts",
+                Mono.fromFuture(hostIds).flatMap(ids -> userServiceClient.fetchEventHosts(ids, accessToken)),
+                List.of());
+        CompletableFuture<Optional<EventSalesSummary>> sales = concurrentParts.start(() -> eventSalesSummaryRepository.findById(id));
+        CompletableFuture<Long> invitedGuests = concurrentParts.start(() -> eventInvitationRepository.countInviteesByEventId(id));
+        List<TicketType> types = Optional.ofNullable(event.getTicketTypes()).orElse(List.of());
+        List<Long> typeIds = types.stream().map(TicketType::getId).toList();
+        CompletableFuture<Map<Long, Long>> heldTickets = concurrentParts.start(() -> ticketReservationRepository.findHeldTicketsByTicketTypeId(typeIds));
 
         MyEventSummaryResponse eventSummary = MyEventSummaryResponse
                 .builder()
@@ -134,33 +151,37 @@ public class MyEventServiceImpl implements MyEventService {
                 .eventStatus(event.getStatus().name())
                 .build();
 
-        List<MyEventTicketTypeStats> ticketTypes = Optional.ofNullable(event.getTicketTypes()).orElse(List.of())
+        // soldCount also covers tickets held for checkouts that haven't been paid yet
+        Map<Long, Long> held = concurrentParts.join("held tickets", heldTickets);
+        List<MyEventTicketTypeStats> ticketTypes = types
                 .stream()
                 .map(type -> MyEventTicketTypeStats
                         .builder()
                         .id(type.getId())
                         .name(type.getType())
                         .remainingTickets(type.getQuantity() - type.getSoldCount())
-                        .soldTickets(type.getSoldCount())
+                        .soldTickets(type.getSoldCount() - held.getOrDefault(type.getId(), 0L))
+                        .heldTickets(held.getOrDefault(type.getId(), 0L))
                         .build()
                 ).toList();
 
-        Long totalInvitedGuests = eventInvitationRepository.findAllByEvent(event)
-                .stream()
-                .mapToLong(invitation -> invitation.getInvitees().size())
-                .sum();
+        Optional<EventSalesSummary> salesSummary = concurrentParts.join("ticket sales", sales);
+        Long totalAttendees = salesSummary.map(EventSalesSummary::getAttendees).orElse(0L);
+        Double totalTicketSales = salesSummary.map(EventSalesSummary::getGrossRevenue).orElse(0.0);
 
-        // Inter-service call to user-service to fetch hosts details
-        List<Long> hostIds = eventOrganizerRepository.findUserIdsByEventId(eventId);
-        List<HostsResponse> eventHosts = userServiceClient.getEventHosts(hostIds, accessToken);
+        MyEventsOverviewResponse eventStat = MyEventsOverviewResponse
+                .builder()
+                .totalAttendees(totalAttendees)
+                .totalTicketSales(totalTicketSales)
+                .build();
 
         return MyEventDetailResponse
                 .builder()
                 .eventStats(eventStat)
                 .eventSummary(eventSummary)
                 .ticketTypes(ticketTypes)
-                .totalInvitedGuests(totalInvitedGuests)
-                .eventHosts(eventHosts)
+                .totalInvitedGuests(concurrentParts.join("invited guests", invitedGuests))
+                .eventHosts(concurrentParts.join("event hosts", eventHosts))
                 .build();
     }
 }
@@ -0,0 +1,6 @@
+package com.event_service.event_service.services;
+
+public interface OutboxService {
+    void enqueue(String queueUrl, String aggregateKey, String messageBody);
+    int relay();
+}
@@ -0,0 +1,67 @@
+package com.event_service.event_service.services;
+
+import com.event_service.event_service.models.OutboxMessage;
+import com.event_service.event_service.models.enums.OutboxMessageStatusEnum;
+import com.event_service.event_service.repositories.OutboxMessageRepository;
+import com.example.common_libraries.service.AbstractOutboxService;
+import com.example.common_libraries.service.SqsBatchPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+
+@Service
+public class OutboxServiceImpl extends AbstractOutboxService<OutboxMessage> implements OutboxService {
+    private final OutboxMessageRepository outboxMessageRepository;
+
+    public OutboxServiceImpl(OutboxMessageRepository outboxMessageRepository, SqsBatchPublisher sqsBatchPublisher,
+                             TransactionTemplate transactionTemplate) {
+        super(sqsBatchPublisher, transactionTemplate);
+        this.outboxMessageRepository = outboxMessageRepository;
+    }
+
+
+    /**
+     * Stores a message for the relay in the caller's transaction, so it is only sent if the
+     * change it announces commits and is not lost if SQS is unavailable.
+     *
+     * @param queueUrl The URL of the queue to send the message to.
+     * @param aggregateKey Messages with the same key are sent in order, may be null.
+     * @param messageBody The serialized message.
+     */
+    @Override
+    @Transactional
+    public void enqueue(String queueUrl, String aggregateKey, String messageBody) {
+        outboxMessageRepository.save(OutboxMessage
+                .builder()
+                .queueUrl(queueUrl)
+                .aggregateKey(aggregateKey)
+                .payload(messageBody)
+                .status(OutboxMessageStatusEnum.PENDING)
+                .attempts(0)
+                .nextAttemptAt(Instant.now())
+                .build());
+    }
+
+    @Override
+    protected List<OutboxMessage> claimPending(Instant now, int limit) {
+        return outboxMessageRepository.claimPending(now, limit);
+    }
+
+    @Override
+    protected void deleteSent(List<Long> ids) {
+        outboxMessageRepository.deleteAllByIdIn(ids);
+    }
+
+    @Override
+    protected void saveAll(List<OutboxMessage> messages) {
+        outboxMessageRepository.saveAll(messages);
+    }
+
+    @Override
+    protected void markFailed(OutboxMessage message) {
+        message.setStatus(OutboxMessageStatusEnum.FAILED);
+    }
+}
@@ -0,0 +1,11 @@
+package com.event_service.event_service.services;
+
+import com.event_service.event_service.models.enums.ReservationConfirmationEnum;
+
+public interface TicketInventoryService {
+    void reserve(Long ticketTypeId, Long quantity);
+    Long hold(Long ticketTypeId, Long quantity, String email);
+    void release(Long reservationId);
+    ReservationConfirmationEnum confirm(Long reservationId, Long ticketTypeId, Long quantity);
+    int releaseExpiredHolds();
+}
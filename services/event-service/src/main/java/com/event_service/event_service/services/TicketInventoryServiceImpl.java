@@ -0,0 +1,177 @@
+package com.event_service.event_service.services;
+
+import com.event_service.event_service.models.TicketReservation;
+import com.event_service.event_service.models.enums.ReservationConfirmationEnum;
+import com.event_service.event_service.models.enums.TicketReservationStatusEnum;
+import com.event_service.event_service.repositories.TicketReservationRepository;
+import com.event_service.event_service.repositories.TicketTypeRepository;
+import com.example.common_libraries.exception.ResourceNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TicketInventoryServiceImpl implements TicketInventoryService {
+    private static final int EXPIRED_HOLDS_BATCH_SIZE = 100;
+
+    private final TicketTypeRepository ticketTypeRepository;
+    private final TicketReservationRepository ticketReservationRepository;
+
+    @Value("${ticket.reservation.ttl-minutes:15}")
+    private long reservationTtlMinutes;
+
+
+    /**
+     * Takes tickets from the remaining stock of a ticket type with a single conditional update,
+     * so the stock check and the decrement cannot interleave with another buyer.
+     *
+     * @param ticketTypeId The ticket type to take tickets from.
+     * @param quantity The number of tickets to take.
+     * @throws ResourceNotFoundException if there are not enough tickets left.
+     */
+    @Override
+    @Transactional
+    public void reserve(Long ticketTypeId, Long quantity) {
+        if(ticketTypeRepository.reserveTickets(ticketTypeId, quantity) == 0){
+            throw new ResourceNotFoundException("Ticket Type is out of stock");
+        }
+    }
+
+    /**
+     * Reserves tickets for a paid checkout and records a hold that expires after the configured TTL.
+     * Expired holds are given back to the stock by {@link #releaseExpiredHolds()}.
+     * <p>
+     * The hold commits in its own transaction, so the ticket type row is not locked by the conditional
+     * update while the caller goes on to initialize the payment with another service.
+     *
+     * @param ticketTypeId The ticket type to take tickets from.
+     * @param quantity The number of tickets to hold.
+     * @param email The attendee the tickets are held for.
+     * @return The id of the hold, to be passed along with the payment.
+     * @throws ResourceNotFoundException if there are not enough tickets left.
+     */
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public Long hold(Long ticketTypeId, Long quantity, String email) {
+        reserve(ticketTypeId, quantity);
+
+        TicketReservation reservation = TicketReservation
+                .builder()
+                .ticketTypeId(ticketTypeId)
+                .quantity(quantity)
+                .email(email)
+                .status(TicketReservationStatusEnum.HELD)
+                .expiresAt(Instant.now().plus(Duration.ofMinutes(reservationTtlMinutes)))
+                .build();
+
+        return ticketReservationRepository.save(reservation).getId();
+    }
+
+    /**
+     * Gives the tickets of a hold back to the stock straight away, e.g. when its payment could not be
+     * initialized. Runs in its own transaction so it is kept if the caller's rolls back.
+     *
+     * @param reservationId The hold to release.
+     */
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void release(Long reservationId) {
+        ticketReservationRepository.findById(reservationId).ifPresent(reservation -> {
+            if(ticketReservationRepository.transition(
+                    reservationId,
+                    TicketReservationStatusEnum.HELD,
+                    TicketReservationStatusEnum.RELEASED) == 1){
+                ticketTypeRepository.releaseTickets(reservation.getTicketTypeId(), reservation.getQuantity());
+            }
+        });
+    }
+
+    /**
+     * Converts a hold into sold tickets once its payment has completed. A hold that was already
+     * confirmed means the payment message was redelivered, so nothing is taken again. If the hold
+     * has been released in the meantime (or the payment was started without one), the tickets are
+     * reserved again from whatever stock is left.
+     * <p>
+     * A released hold is marked confirmed before the stock is taken and stays so if it has run out,
+     * so a redelivery of a payment that couldn't get its tickets isn't handled twice either.
+     *
+     * @param reservationId The hold created when the payment was initialized, may be null.
+     * @param ticketTypeId The ticket type the payment was made for.
+     * @param quantity The number of tickets paid for.
+     * @return Whether the tickets were confirmed now, had already been, or sold out before the payment completed.
+     */
+    @Override
+    @Transactional
+    public ReservationConfirmationEnum confirm(Long reservationId, Long ticketTypeId, Long quantity) {
+        TicketReservation reservation = reservationId == null
+                ? null
+                : ticketReservationRepository.findById(reservationId).orElse(null);
+
+        if(reservation != null){
+            if(ticketReservationRepository.transition(
+                    reservationId,
+                    TicketReservationStatusEnum.HELD,
+                    TicketReservationStatusEnum.CONFIRMED) == 1){
+                return ReservationConfirmationEnum.CONFIRMED;
+            }
+            if(ticketReservationRepository.transition(
+                    reservationId,
+                    TicketReservationStatusEnum.RELEASED,
+                    TicketReservationStatusEnum.CONFIRMED) == 0){
+                return ReservationConfirmationEnum.ALREADY_CONFIRMED;
+            }
+            log.warn("Hold {} for ticket type {} was released, reserving from remaining stock", reservationId, ticketTypeId);
+        }else{
+            log.warn("No hold {} for ticket type {}, reserving from remaining stock", reservationId, ticketTypeId);
+        }
+
+        return ticketTypeRepository.reserveTickets(ticketTypeId, quantity) == 1
+                ? ReservationConfirmationEnum.CONFIRMED
+                : ReservationConfirmationEnum.SOLD_OUT;
+    }
+
+    /**
+     * Gives the tickets of expired holds back to their ticket types.
+     *
+     * @return The number of holds released.
+     */
+    @Override
+    @Transactional
+    @Scheduled(fixedDelayString = "${ticket.reservation.sweep-interval-ms:60000}")
+    public int releaseExpiredHolds() {
+        List<TicketReservation> expired = ticketReservationRepository.findAllByStatusAndExpiresAtBefore(
+                TicketReservationStatusEnum.HELD,
+                Instant.now(),
+                PageRequest.of(0, EXPIRED_HOLDS_BATCH_SIZE)
+        );
+
+        int released = 0;
+        for(TicketReservation reservation : expired){
+            int updated = ticketReservationRepository.transition(
+                    reservation.getId(),
+                    TicketReservationStatusEnum.HELD,
+                    TicketReservationStatusEnum.RELEASED
+            );
+            if(updated == 1){
+                ticketTypeRepository.releaseTickets(reservation.getTicketTypeId(), reservation.getQuantity());
+                released++;
+            }
+        }
+
+        if(released > 0){
+            log.info("Released {} expired ticket holds", released);
+        }
+        return released;
+    }
+}
@@ -19,6 +19,7 @@ import java.util.Optional;
 @RequiredArgsConstructor
 public class TicketServiceImpl implements TicketService{
     private final TicketRepository ticketRepository;
+    private final EventSalesSummaryService eventSalesSummaryService;
 
 
     /**
@@ -26,9 +27,10 @@ public class TicketServiceImpl implements TicketService{
      *
      * @param ticketCode The unique code of the ticket to verify.
      * @return A response containing ticket verification details.
-     * @throws ResourceNotFoundException if the ticket is not found or is not active.
+     * @throws ResourceNotFoundException if the ticket is not found, is not active or was just checked in by another scan.
      */
     @Override
+    @Transactional
     public TicketVerificationResponse verifyTicket(String ticketCode) {
         Ticket ticket = Optional.ofNullable(ticketRepository.findByTicketCode(ticketCode)).orElseThrow(()-> new ResourceNotFoundException("Ticket not found"));
 
@@ -37,10 +39,13 @@ public class TicketServiceImpl implements TicketService{
             throw new ResourceNotFoundException("Ticket is not active, ticket status:" + ticket.getStatus());
         }
 
-        // update status to used
-        ticket.setStatus(TicketStatusEnum.USED);
-        ticket.setCheckedInAt(LocalDateTime.now());
-        ticketRepository.save(ticket);
+        // update status to used, unless a concurrent scan got there first
+        if(ticketRepository.checkIn(ticketCode, LocalDateTime.now()) == 0){
+            throw new ResourceNotFoundException("Ticket has already been checked in");
+        }
+        if (event != null) {
+            eventSalesSummaryService.recordCheckIn(event);
+        }
 
         return TicketVerificationResponse
                 .builder()
@@ -52,6 +57,7 @@ public class TicketServiceImpl implements TicketService{
     }
 
     @Override
+    @Transactional(noRollbackFor = BadRequestException.class) // keeps the ticket expired when the event has ended
     public String validateAndGetMeetingUrl(String ticketCode) {
         if (ticketCode == null || ticketCode.isBlank()) {
             throw new BadRequestException("Invalid ticket code");
@@ -78,10 +84,13 @@ public class TicketServiceImpl implements TicketService{
             throw new BadRequestException("Event has ended");
         }
 
-        // mark ticket as used
-        ticket.setStatus(TicketStatusEnum.USED);
-        ticket.setCheckedInAt(LocalDateTime.now());
-        ticketRepository.save(ticket);
+        // mark ticket as used, unless a concurrent request got there first
+        if (ticketRepository.checkIn(ticketCode, LocalDateTime.now()) == 0) {
+            throw new BadRequestException("Ticket already used, expired, or invalid");
+        }
+        if (event != null) {
+            eventSalesSummaryService.recordCheckIn(event);
+        }
 
         return (event == null || event.getZoomMeetingLink() == null)
                 ? ""
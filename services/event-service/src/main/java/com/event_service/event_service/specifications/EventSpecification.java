@@ -2,15 +2,19 @@ package com.event_service.event_service.specifications;
 
 import com.event_service.event_service.models.Event;
 import com.event_service.event_service.models.EventOptions;
+import jakarta.persistence.criteria.Expression;
 import jakarta.persistence.criteria.Join;
 import jakarta.persistence.criteria.JoinType;
 import jakarta.persistence.criteria.Predicate;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
 import org.springframework.data.jpa.domain.Specification;
 
 import java.math.BigDecimal;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.List;
 
 public class EventSpecification {
 
@@ -26,6 +30,64 @@ public class EventSpecification {
     }
 
 
+    /**
+     * Matches events whose title, location or description contain every word of {@code term}, the last one
+     * as a prefix so results follow as the user types. Best matches come first, titles weighing most. Needs
+     * the PostgreSQL functions from {@code EventSearchFunctionContributor} and the {@code search_vector}
+     * column and indexes from {@code local-deploy/migrations/event-db-search-index.sql}.
+     */
+    public static Specification<Event> matchesSearch(String term) {
+        return (root, query, cb) -> {
+            if (term == null || term.isBlank()) return cb.conjunction();
+
+            String tsQuery = toPrefixTsQuery(term);
+            if (tsQuery == null) return cb.disjunction();
+
+            // Bound as a parameter; a literal would be inlined into the SQL
+            Expression<String> queryText = ((HibernateCriteriaBuilder) cb).value(tsQuery);
+            // search_vector isn't mapped, the functions read it from the row of the event's id
+            Expression<Long> event = root.get("id");
+            // The count query for the page total can't be ordered
+            if (!Long.class.equals(query.getResultType())) {
+                query.orderBy(
+                        cb.desc(cb.function("event_search_rank", Double.class, event, queryText)),
+                        cb.desc(root.get("id")));
+            }
+            return cb.isTrue(cb.function("event_search_matches", Boolean.class, event, queryText));
+        };
+    }
+
+    /**
+     * Matches events whose title is close to {@code term} despite typos, closest first. Meant for when
+     * {@link #matchesSearch} finds nothing, as it reads every loosely similar title.
+     */
+    public static Specification<Event> resemblesTitle(String term) {
+        return (root, query, cb) -> {
+            if (term == null || term.isBlank()) return cb.conjunction();
+
+            Expression<String> title = cb.lower(root.get("title"));
+            Expression<String> normalized = ((HibernateCriteriaBuilder) cb).value(term.trim().toLowerCase());
+            if (!Long.class.equals(query.getResultType())) {
+                query.orderBy(
+                        cb.desc(cb.function("trigram_similarity", Double.class, title, normalized)),
+                        cb.desc(root.get("id")));
+            }
+            return cb.isTrue(cb.function("trigram_similar", Boolean.class, title, normalized));
+        };
+    }
+
+    /**
+     * Turns free text into a {@code to_tsquery} expression requiring every word, the last as a prefix:
+     * {@code "jazz nig"} becomes {@code "jazz & nig:*"}. Returns null when no words are left.
+     */
+    public static String toPrefixTsQuery(String term) {
+        List<String> words = Arrays.stream(term.toLowerCase().split("[^\\p{L}\\p{N}]+"))
+                .filter(word -> !word.isEmpty())
+                .toList();
+        if (words.isEmpty()) return null;
+        return String.join(" & ", words) + ":*";
+    }
+
     public static Specification<Event> isOn(LocalDate date) {
         return (root, query, cb) -> {
             if (date == null) return cb.conjunction();
@@ -19,6 +19,7 @@ import java.math.BigDecimal;
 import java.time.Instant;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 @Service
@@ -59,8 +60,6 @@ public class InPersonAndDayEventStrategy implements EventStrategy {
                 .requiresApproval(eventRequest.eventOptionsRequest().requiresApproval())
                 .build();
 
-        String uploadedFlyer = s3Service.uploadImage(image);
-
         ZoneId zoneId = timeZoneUtils.createZoneId(eventRequest.event_time_zone_id());
         ZonedDateTime zonedDateTime = timeZoneUtils.createZonedTimeDate(
                 eventRequest.event_date(),
@@ -73,6 +72,17 @@ public class InPersonAndDayEventStrategy implements EventStrategy {
 
         AppUser authenticatedUser = getCurrentUser();
 
+        // The flyer, section images and gallery go up in one batch, so they upload concurrently
+        List<MultipartFile> galleryImages = eventImages != null ? eventImages : List.of();
+        List<MultipartFile> images = new ArrayList<>(1 + sectionImagesList.size() + galleryImages.size());
+        images.add(image);
+        images.addAll(sectionImagesList);
+        images.addAll(galleryImages);
+        List<String> uploadedImages = s3Service.uploadImages(images);
+        String uploadedFlyer = uploadedImages.getFirst();
+        List<String> sectionImageUrls = uploadedImages.subList(1, 1 + sectionImagesList.size());
+        List<String> galleryImageUrls = uploadedImages.subList(1 + sectionImagesList.size(), uploadedImages.size());
+
         Event event = Event.builder()
                 .title(eventRequest.title())
                 .description(eventRequest.description())
@@ -87,9 +97,9 @@ public class InPersonAndDayEventStrategy implements EventStrategy {
                 .userId(authenticatedUser.id())
                 .build();
 
-        createVenueSections(sections, sectionImagesList, event);
+        createVenueSections(sections, sectionImageUrls, event);
 
-        attachEventImages(eventImages, event);
+        attachEventImages(galleryImageUrls, event);
 
         createFreeTicket(eventRequest, event);
 
@@ -100,13 +110,11 @@ public class InPersonAndDayEventStrategy implements EventStrategy {
     }
 
 
-    private void createVenueSections(List<EventSectionRequest> sections, List<MultipartFile> sectionImagesList, Event event) {
+    private void createVenueSections(List<EventSectionRequest> sections, List<String> sectionImageUrls, Event event) {
         for (int i = 0; i < sections.size(); i++) {
 
             EventSectionRequest req = sections.get(i);
-            MultipartFile img = sectionImagesList.get(i);
-
-            String imageUrl = s3Service.uploadImage(img);
+            String imageUrl = sectionImageUrls.get(i);
 
             EventSection section = EventSection.builder()
                     .name(req.name())
@@ -177,10 +185,9 @@ public class InPersonAndDayEventStrategy implements EventStrategy {
         }
     }
 
-    public void attachEventImages(List<MultipartFile> eventImages, Event event){
-        if(!CollectionUtils.isEmpty(eventImages)) {
-            List<String> uploadedImages = s3Service.uploadImages(eventImages);
-            for(String uploadEventImage : uploadedImages) {
+    public void attachEventImages(List<String> eventImageUrls, Event event){
+        if(!CollectionUtils.isEmpty(eventImageUrls)) {
+            for(String uploadEventImage : eventImageUrls) {
                 EventImages eventImage = EventImages.builder()
                         .image(uploadEventImage)
                         .build();
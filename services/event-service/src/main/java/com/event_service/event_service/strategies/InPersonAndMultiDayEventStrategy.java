@@ -20,6 +20,7 @@ import java.math.BigDecimal;
 import java.time.Instant;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 @Service
@@ -60,7 +61,6 @@ public class InPersonAndMultiDayEventStrategy implements EventStrategy {
                 .capacity(eventRequest.eventOptionsRequest().capacity())
                 .requiresApproval(eventRequest.eventOptionsRequest().requiresApproval())
                 .build();
-        String uploadedFlyer = s3Service.uploadImage(image);
         ZoneId startTimeZoneId = timeZoneUtils.createZoneId(eventRequest.event_start_time_zone_id());
         ZonedDateTime startTimeZonedDateTime = timeZoneUtils.createZonedTimeDate(
                 eventRequest.event_start_time_date(),
@@ -78,6 +78,17 @@ public class InPersonAndMultiDayEventStrategy implements EventStrategy {
         );
         Instant eventEndTimeInstant = endTimeZonedDateTime.toInstant();
         AppUser authenticatedUser = getCurrentUser();
+
+        // The flyer, section images and gallery go up in one batch, so they upload concurrently
+        List<MultipartFile> galleryImages = eventImages != null ? eventImages : List.of();
+        List<MultipartFile> images = new ArrayList<>(1 + sectionImagesList.size() + galleryImages.size());
+        images.add(image);
+        images.addAll(sectionImagesList);
+        images.addAll(galleryImages);
+        List<String> uploadedImages = s3Service.uploadImages(images);
+        String uploadedFlyer = uploadedImages.getFirst();
+        List<String> sectionImageUrls = uploadedImages.subList(1, 1 + sectionImagesList.size());
+        List<String> galleryImageUrls = uploadedImages.subList(1 + sectionImagesList.size(), uploadedImages.size());
         Event event = Event.builder().eventOptions(eventOptions)
                 .eventMeetingType(eventMeetingType).eventType(eventType)
                 .title(eventRequest.title())
@@ -92,9 +103,9 @@ public class InPersonAndMultiDayEventStrategy implements EventStrategy {
                 .location(eventRequest.location())
                 .build();
 
-        createVenueSections(sections, sectionImagesList, event);
+        createVenueSections(sections, sectionImageUrls, event);
 
-        attachEventImages(eventImages, event);
+        attachEventImages(galleryImageUrls, event);
 
         createFreeTicket(eventRequest, event);
 
@@ -106,13 +117,11 @@ public class InPersonAndMultiDayEventStrategy implements EventStrategy {
 
 
 
-    private void createVenueSections(List<EventSectionRequest> sections, List<MultipartFile> sectionImagesList, Event event) {
+    private void createVenueSections(List<EventSectionRequest> sections, List<String> sectionImageUrls, Event event) {
         for (int i = 0; i < sections.size(); i++) {
 
             EventSectionRequest req = sections.get(i);
-            MultipartFile img = sectionImagesList.get(i);
-
-            String imageUrl = s3Service.uploadImage(img);
+            String imageUrl = sectionImageUrls.get(i);
 
             EventSection section = EventSection.builder()
                     .name(req.name())
@@ -177,10 +186,9 @@ public class InPersonAndMultiDayEventStrategy implements EventStrategy {
         }
     }
 
-    public Event attachEventImages(List<MultipartFile> eventImages, Event event){
-        if(!CollectionUtils.isEmpty(eventImages)) {
-            List<String> uploadedImages = s3Service.uploadImages(eventImages);
-            for(String uploadEventImage : uploadedImages) {
+    public Event attachEventImages(List<String> eventImageUrls, Event event){
+        if(!CollectionUtils.isEmpty(eventImageUrls)) {
+            for(String uploadEventImage : eventImageUrls) {
                 EventImages eventImage = EventImages.builder()
                         .image(uploadEventImage)
                         .build();
@@ -0,0 +1,133 @@
+package com.event_service.event_service.utils;
+
+import com.example.common_libraries.exception.ServiceCommunicationException;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Runs the independent parts of a composite response, such as the admin dashboard, at the same time so
+ * it takes as long as its slowest part rather than all of them added up. Database parts run on virtual
+ * threads, at most {@code concurrency-limit} at a time across requests, since each one holds a connection
+ * while it runs. Starting a part never blocks the caller: a part waits for its slot on its own thread.
+ * <p>
+ * A part the response can't do without fails the request if it fails or takes longer than
+ * {@code timeout-ms}, and is interrupted so it gives its slot and connection back. A call to another
+ * service runs on the WebClient's event loop without a slot and is left out of the response instead
+ * after {@code optional-timeout-ms}, which cancels the call.
+ */
+@Slf4j
+@Component
+public class ConcurrentParts {
+
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("composite-part-", 0).factory());
+    private final Semaphore slots;
+    private final MeterRegistry meterRegistry;
+    private final Duration timeout;
+    private final Duration optionalTimeout;
+
+    public ConcurrentParts(MeterRegistry meterRegistry,
+                           @Value("${composite.parts.timeout-ms:5000}") long timeoutMs,
+                           @Value("${composite.parts.optional-timeout-ms:1000}") long optionalTimeoutMs,
+                           @Value("${composite.parts.concurrency-limit:64}") int concurrencyLimit) {
+        this.meterRegistry = meterRegistry;
+        this.timeout = Duration.ofMillis(timeoutMs);
+        this.optionalTimeout = Duration.ofMillis(optionalTimeoutMs);
+        this.slots = new Semaphore(concurrencyLimit);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Starts a part the response needs. Its result is read with {@link #join(String, CompletableFuture)}.
+     *
+     * @param query The part, run on its own thread; it can't rely on the caller's persistence context.
+     * @return The part's result, failing with a {@link TimeoutException} after the configured timeout,
+     *         counted from when the part was started. Cancelling it, or the timeout, interrupts the part.
+     */
+    public <T> CompletableFuture<T> start(Supplier<T> query) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Future<?> task = executor.submit(() -> {
+            try {
+                slots.acquire();
+            } catch (InterruptedException e) {
+                result.completeExceptionally(new CancellationException("Part cancelled before it started"));
+                return;
+            }
+            try {
+                result.complete(query.get());
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            } finally {
+                slots.release();
+            }
+        });
+        result.orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS)
+                .whenComplete((value, e) -> {
+                    if (e instanceof TimeoutException || e instanceof CancellationException) {
+                        task.cancel(true);
+                    }
+                });
+        return result;
+    }
+
+    /**
+     * Starts a call to another service the response can be sent without.
+     *
+     * @param part The name of the part, for the logs and the {@code composite.parts.fallback} counter.
+     * @param call The call, subscribed to right away; it is cancelled after the optional timeout.
+     * @param fallback Used when the call fails, is empty or is slower than the optional timeout.
+     */
+    public <T> CompletableFuture<T> optional(String part, Mono<T> call, T fallback) {
+        return call
+                .timeout(optionalTimeout)
+                .onErrorResume(e -> {
+                    log.warn("Leaving {} out of the response: {}", part,
+                            e instanceof TimeoutException ? "timed out after " + optionalTimeout.toMillis() + "ms" : e.toString());
+                    meterRegistry.counter("composite.parts.fallback", "part", part,
+                            "reason", e instanceof TimeoutException ? "timeout" : "error").increment();
+                    return Mono.just(fallback);
+                })
+                .defaultIfEmpty(fallback)
+                .toFuture();
+    }
+
+    /**
+     * Waits for a part, rethrowing what it failed with.
+     *
+     * @param part The name of the part, for the error message if it timed out.
+     * @throws ServiceCommunicationException if the part timed out.
+     */
+    public <T> T join(String part, CompletableFuture<T> result) {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof TimeoutException) {
+                throw new ServiceCommunicationException("Timed out loading " + part);
+            }
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
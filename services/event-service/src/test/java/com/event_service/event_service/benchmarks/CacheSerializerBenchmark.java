@@ -0,0 +1,102 @@
+package com.event_service.event_service.benchmarks;
+
+import com.event_service.event_service.config.CacheConfig;
+import com.event_service.event_service.dto.ExploreEventResponse;
+import com.event_service.event_service.dto.PagedExploreEventResponse;
+import com.example.common_libraries.cache.BinaryRedisSerializer;
+import com.example.common_libraries.config.RedisConfig;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the JSON serializer used by the Redis cache with the {@link BinaryRedisSerializer}, with and
+ * without compression, for an explore page and an OTP. {@link #main} prints the bytes per entry before
+ * running the benchmarks.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CacheSerializerBenchmark {
+
+    @Param({"json", "binary", "binary_lz4"})
+    public String format;
+
+    @Param({"explorePage", "otp"})
+    public String value;
+
+    private RedisSerializer<Object> serializer;
+    private Object entry;
+    private byte[] serialized;
+
+    @Setup
+    public void setup() {
+        serializer = serializer(format);
+        entry = value.equals("otp") ? "482913" : explorePage(20);
+        serialized = serializer.serialize(entry);
+    }
+
+    private static RedisSerializer<Object> serializer(String format) {
+        return switch (format) {
+            case "json" -> new GenericJackson2JsonRedisSerializer(RedisConfig.createSecureObjectMapper());
+            case "binary" -> new BinaryRedisSerializer(new CacheConfig().cacheTypeRegistry(), Integer.MAX_VALUE);
+            case "binary_lz4" -> new BinaryRedisSerializer(new CacheConfig().cacheTypeRegistry(), 1024);
+            default -> throw new IllegalArgumentException(format);
+        };
+    }
+
+    private static PagedExploreEventResponse explorePage(int size) {
+        List<ExploreEventResponse> events = new ArrayList<>();
+        Instant start = Instant.parse("2026-11-01T18:00:00Z");
+        for (int i = 0; i < size; i++) {
+            events.add(new ExploreEventResponse(
+                    1000L + i,
+                    "Accra Tech Meetup #" + i,
+                    "An evening of lightning talks, demos and networking for developers, designers and founders "
+                            + "building products in the region. Doors open an hour before the first talk.",
+                    start.plus(i, ChronoUnit.DAYS),
+                    i % 3 == 0 ? "Virtual" : "Accra International Conference Centre, Accra",
+                    "https://event-images.s3.eu-west-1.amazonaws.com/flyers/" + (1000 + i) + "/flyer.png",
+                    i % 2 == 0 ? BigDecimal.ZERO : new BigDecimal("150.00"),
+                    (long) (i * 37)));
+        }
+        return new PagedExploreEventResponse(0, size, 12, events);
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return serializer.serialize(entry);
+    }
+
+    @Benchmark
+    public Object deserialize() {
+        return serializer.deserialize(serialized);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        for (String format : List.of("json", "binary", "binary_lz4")) {
+            RedisSerializer<Object> serializer = serializer(format);
+            System.out.printf("%-10s explorePage: %5d bytes, otp: %3d bytes%n",
+                    format, serializer.serialize(explorePage(20)).length, serializer.serialize("482913").length);
+        }
+
+        new Runner(new OptionsBuilder()
+                .include(CacheSerializerBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,188 @@
+package com.event_service.event_service.benchmarks;
+
+import com.event_service.event_service.specifications.EventSpecification;
+import com.event_service.event_service.utils.MigrationScript;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of one explore search page, the page query plus the count query Spring Data issues for the total,
+ * over one million generated events in an embedded PostgreSQL. {@code like} is the previous
+ * {@code lower(title) LIKE '%term%'} filter on a table without the search indexes, {@code likeIndexed} the
+ * same filter with the trigram index behind it (as {@code byLocation} now gets), and {@code search} the
+ * ranked full-text query of {@code EventSpecification.matchesSearch} with prefix matching, followed by the
+ * trigram similarity query of {@code resemblesTitle} when it finds nothing. Terms: a common word, a
+ * search-as-you-type prefix, a misspelled title and a word no event has.
+ * <p>
+ * Generating the data and running the search index migration takes several minutes; the database is kept under
+ * {@code target/event-search-benchmark} (or {@code -Devent-search.benchmark.dir}) and reused by later runs.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class EventSearchBenchmark {
+    private static final int EVENTS = 1_000_000;
+    private static final int PAGE_SIZE = 20;
+
+    private static final Map<String, String> TERMS = Map.of(
+            "common", "jazz",
+            "prefix", "afrobeats to",
+            "typo", "chess concrt 4217",
+            "missing", "quidditch");
+
+    @Param({"like", "likeIndexed", "search"})
+    public String query;
+
+    @Param({"common", "prefix", "typo", "missing"})
+    public String term;
+
+    private EmbeddedPostgres postgres;
+    private JdbcTemplate jdbcTemplate;
+    private String pageSql;
+    private String countSql;
+    private Object[] pageArgs;
+    private Object[] countArgs;
+    private String fuzzyPageSql;
+    private String fuzzyCountSql;
+    private Object[] fuzzyPageArgs;
+    private Object[] fuzzyCountArgs;
+
+    @Setup(Level.Trial)
+    public void startPostgres() throws Exception {
+        postgres = EmbeddedPostgres.builder()
+                .setDataDirectory(Path.of(System.getProperty("event-search.benchmark.dir", "target/event-search-benchmark")))
+                .setCleanDataDirectory(false)
+                .setServerConfig("shared_buffers", "512MB")
+                .setServerConfig("work_mem", "32MB")
+                .setServerConfig("maintenance_work_mem", "512MB")
+                .start();
+        DataSource dataSource = postgres.getPostgresDatabase();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        generateEvents();
+
+        String text = TERMS.get(term);
+        String normalized = text.toLowerCase();
+        switch (query) {
+            case "like", "likeIndexed" -> {
+                String table = query.equals("like") ? "events_unindexed" : "events";
+                String where = " WHERE lower(title) LIKE ?";
+                pageSql = "SELECT id, title, location, start_time FROM " + table + where
+                        + " ORDER BY start_time DESC LIMIT " + PAGE_SIZE;
+                countSql = "SELECT count(*) FROM " + table + where;
+                pageArgs = new Object[]{"%" + normalized + "%"};
+                countArgs = pageArgs;
+            }
+            case "search" -> {
+                String tsQuery = EventSpecification.toPrefixTsQuery(text);
+                String where = " WHERE search_vector @@ to_tsquery('simple', ?)";
+                pageSql = "SELECT id, title, location, start_time FROM events" + where
+                        + " ORDER BY ts_rank(search_vector, to_tsquery('simple', ?)) DESC, id DESC LIMIT " + PAGE_SIZE;
+                countSql = "SELECT count(*) FROM events" + where;
+                pageArgs = new Object[]{tsQuery, tsQuery};
+                countArgs = new Object[]{tsQuery};
+
+                String fuzzyWhere = " WHERE lower(title) % ?";
+                fuzzyPageSql = "SELECT id, title, location, start_time FROM events" + fuzzyWhere
+                        + " ORDER BY similarity(lower(title), ?) DESC, id DESC LIMIT " + PAGE_SIZE;
+                fuzzyCountSql = "SELECT count(*) FROM events" + fuzzyWhere;
+                fuzzyPageArgs = new Object[]{normalized, normalized};
+                fuzzyCountArgs = new Object[]{normalized};
+            }
+            default -> throw new IllegalArgumentException(query);
+        }
+
+        long matches = jdbcTemplate.queryForObject(countSql, Long.class, countArgs);
+        System.out.printf("%n%s '%s': %d matches, %s%n", query, text, matches, scans(pageSql, pageArgs));
+        if (matches == 0 && fuzzyPageSql != null) {
+            System.out.printf("similar titles: %d matches, %s%n",
+                    jdbcTemplate.queryForObject(fuzzyCountSql, Long.class, fuzzyCountArgs), scans(fuzzyPageSql, fuzzyPageArgs));
+        }
+    }
+
+    private List<String> scans(String sql, Object[] args) {
+        return jdbcTemplate.queryForList("EXPLAIN " + sql, String.class, args).stream()
+                .filter(line -> line.contains("Scan"))
+                .map(String::trim)
+                .toList();
+    }
+
+    private void generateEvents() throws IOException {
+        Boolean generated = jdbcTemplate.queryForObject("SELECT to_regclass('events_unindexed') IS NOT NULL", Boolean.class);
+        if (Boolean.TRUE.equals(generated)
+                && jdbcTemplate.queryForObject("SELECT count(*) FROM events_unindexed", Long.class) == EVENTS) {
+            return;
+        }
+        jdbcTemplate.execute("DROP TABLE IF EXISTS events, events_unindexed");
+        jdbcTemplate.execute("""
+                CREATE TABLE events (
+                    id bigint PRIMARY KEY,
+                    title varchar(255) NOT NULL,
+                    description text NOT NULL,
+                    location varchar(255),
+                    start_time timestamptz
+                )""");
+        // Titles and descriptions are drawn from word lists, so common words match thousands of events
+        jdbcTemplate.update("""
+                WITH words AS (
+                    SELECT ARRAY['jazz','highlife','afrobeats','gospel','comedy','tech','startup','food','wine','art',
+                                 'fashion','film','poetry','dance','yoga','marathon','football','chess','book','design',
+                                 'music','summit','workshop','festival','carnival','concert','night','party','brunch',
+                                 'meetup','conference','expo','fair','gala','retreat','hackathon','webinar','tour',
+                                 'market','exhibition'] AS topic,
+                           ARRAY['Accra','Kumasi','Tamale','Takoradi','Cape Coast','Ho','Koforidua','Sunyani','Tema',
+                                 'Lagos','Abuja','Nairobi','Kigali','Dakar','Lome'] AS city
+                )
+                INSERT INTO events (id, title, description, location, start_time)
+                SELECT i,
+                       initcap(topic[1 + i % 40] || ' ' || topic[1 + (i / 40) % 40]) || ' ' || (i % 10000),
+                       'Join us for ' || topic[1 + (i / 7) % 40] || ' and ' || topic[1 + (i / 1600) % 40]
+                           || ' with friends in ' || city[1 + (i / 3) % 15] || '. Doors open early, ' || topic[1 + (i / 11) % 40]
+                           || ' all day long.',
+                       city[1 + i % 15] || ', ' || (i % 500) || ' Independence Avenue',
+                       now() + (i % 365) * interval '1 day'
+                FROM words, generate_series(1, ?) AS i
+                """, EVENTS);
+        jdbcTemplate.execute("CREATE TABLE events_unindexed AS SELECT * FROM events");
+
+        MigrationScript.run(jdbcTemplate, "event-db-search-index.sql");
+        jdbcTemplate.execute("VACUUM ANALYZE events");
+        jdbcTemplate.execute("VACUUM ANALYZE events_unindexed");
+    }
+
+    @TearDown(Level.Trial)
+    public void stopPostgres() throws Exception {
+        postgres.close();
+    }
+
+    @Benchmark
+    public long searchPage() {
+        List<Map<String, Object>> page = jdbcTemplate.queryForList(pageSql, pageArgs);
+        Long total = jdbcTemplate.queryForObject(countSql, Long.class, countArgs);
+        // Like EventServiceImpl, fall back to similar titles when the full-text search finds nothing
+        if (total == 0 && fuzzyPageSql != null) {
+            page = jdbcTemplate.queryForList(fuzzyPageSql, fuzzyPageArgs);
+            total = jdbcTemplate.queryForObject(fuzzyCountSql, Long.class, fuzzyCountArgs);
+        }
+        return page.size() + total;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(EventSearchBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
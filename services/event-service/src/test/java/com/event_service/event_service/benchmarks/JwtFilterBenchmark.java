@@ -0,0 +1,106 @@
+package com.event_service.event_service.benchmarks;
+
+import com.example.common_libraries.dto.AppUser;
+import com.example.common_libraries.filter.JWTFilter;
+import com.example.common_libraries.utils.JWTUtil;
+import com.example.common_libraries.utils.VerifiedTokenCache;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import jakarta.servlet.http.Cookie;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.SecretKey;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of authenticating one request from its access token cookie. {@code legacyFilter} repeats what
+ * {@link JWTFilter} used to do: rebuild the key and verify the token four times. {@code singleParseFilter}
+ * and {@code cachedFilter} run the current filter without and with the {@link VerifiedTokenCache}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtFilterBenchmark {
+    private static final String SECRET = "c2VjcmV0c2VjcmV0c2VjcmV0c2VjcmV0c2VjcmV0c2VjcmV0c2VjcmV0";
+
+    private MockHttpServletRequest request;
+    private JWTFilter singleParseFilter;
+    private JWTFilter cachedFilter;
+
+    @Setup
+    public void setup() {
+        JWTUtil jwtUtil = new JWTUtil();
+        ReflectionTestUtils.setField(jwtUtil, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "jwtAccessExpirationMs", TimeUnit.HOURS.toMillis(1));
+        ReflectionTestUtils.invokeMethod(jwtUtil, "init");
+
+        request = new MockHttpServletRequest();
+        request.setCookies(new Cookie("accessToken", jwtUtil.generateAccessToken("ama@example.com", "ORGANISER", 7L, "Ama Mensah")));
+
+        singleParseFilter = new JWTFilter(new VerifiedTokenCache(jwtUtil, 0), null);
+        cachedFilter = new JWTFilter(new VerifiedTokenCache(jwtUtil, 10_000), null);
+    }
+
+    private Object run(JWTFilter filter) throws Exception {
+        SecurityContextHolder.clearContext();
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    @Benchmark
+    public Object legacyFilter() {
+        SecurityContextHolder.clearContext();
+        String token = request.getCookies()[0].getValue();
+
+        parse(token).getSubject();
+        parse(token);
+        Claims claims = parse(token);
+        Long userId = parse(token).get("userId", Long.class);
+        String role = parse(token).get("role", String.class);
+
+        AppUser user = new AppUser(userId, role, claims.getSubject(), claims.get("fullName", String.class));
+        UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
+        auth.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+        SecurityContextHolder.getContext().setAuthentication(auth);
+        return auth;
+    }
+
+    // The key and parser used to be built for every call
+    private static Claims parse(String token) {
+        SecretKey key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+        return Jwts.parser().verifyWith(key).build().parseSignedClaims(token).getPayload();
+    }
+
+    @Benchmark
+    public Object singleParseFilter() throws Exception {
+        return run(singleParseFilter);
+    }
+
+    @Benchmark
+    public Object cachedFilter() throws Exception {
+        return run(cachedFilter);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtFilterBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,155 @@
+package com.event_service.event_service.benchmarks;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of one page of an event's registrations, as {@code getEventRegistrations} and
+ * {@code scrollEventRegistrations} fetch it, deep into a large event: 200,000 registrations for one event
+ * among a million in an embedded PostgreSQL, ten to a page. {@code offset} is the page query with
+ * {@code OFFSET} plus the count query Spring Data issues for the total; {@code keyset} continues after the
+ * last id of the previous page and reads one row more to tell whether another page follows. Both have the
+ * {@code (event_id, id)} index behind them, though for an event holding a fifth of all registrations
+ * PostgreSQL prefers walking the primary key backwards.
+ * <p>
+ * The database is kept under {@code target/keyset-pagination-benchmark} (or
+ * {@code -Dkeyset-pagination.benchmark.dir}) and reused by later runs.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class KeysetPaginationBenchmark {
+    private static final int REGISTRATIONS = 1_000_000;
+    private static final int EVENT_REGISTRATIONS = 200_000;
+    private static final long EVENT_ID = 1L;
+    private static final int PAGE_SIZE = 10;
+
+    private static final String COLUMNS = "SELECT id, full_name, email, ticket_quantity, ticket_type_id FROM event_registration";
+
+    @Param({"offset", "keyset"})
+    public String pagination;
+
+    @Param({"1", "100", "10000"})
+    public int page;
+
+    private EmbeddedPostgres postgres;
+    private JdbcTemplate jdbcTemplate;
+    private long lastIdOfPreviousPage;
+
+    @Setup(Level.Trial)
+    public void startPostgres() throws Exception {
+        postgres = EmbeddedPostgres.builder()
+                .setDataDirectory(Path.of(System.getProperty("keyset-pagination.benchmark.dir", "target/keyset-pagination-benchmark")))
+                .setCleanDataDirectory(false)
+                .setServerConfig("shared_buffers", "256MB")
+                .start();
+        // one connection for the whole run, as a pool would hand out, rather than a new one per query
+        jdbcTemplate = new JdbcTemplate(new SingleConnectionDataSource(postgres.getPostgresDatabase().getConnection(), true));
+        generateRegistrations();
+
+        // the cursor a client holds when asking for this page
+        lastIdOfPreviousPage = page == 1
+                ? Long.MAX_VALUE
+                : jdbcTemplate.queryForObject("SELECT id FROM event_registration WHERE event_id = ? ORDER BY id DESC LIMIT 1 OFFSET ?",
+                        Long.class, EVENT_ID, (page - 1) * PAGE_SIZE - 1);
+
+        List<Map<String, Object>> offsetPage = offsetPage();
+        List<Map<String, Object>> keysetPage = keysetPage();
+        if (!offsetPage.equals(keysetPage.subList(0, PAGE_SIZE))) {
+            throw new IllegalStateException("Offset and keyset pages differ at page " + page);
+        }
+        System.out.printf("%npage %d: %s%n", page, plan());
+    }
+
+    private void generateRegistrations() {
+        Boolean generated = jdbcTemplate.queryForObject("SELECT to_regclass('event_registration') IS NOT NULL", Boolean.class);
+        if (Boolean.TRUE.equals(generated)
+                && jdbcTemplate.queryForObject("SELECT count(*) FROM event_registration", Long.class) == REGISTRATIONS) {
+            return;
+        }
+        jdbcTemplate.execute("DROP TABLE IF EXISTS event_registration");
+        jdbcTemplate.execute("""
+                CREATE TABLE event_registration (
+                    id bigint PRIMARY KEY,
+                    event_id bigint NOT NULL,
+                    ticket_type_id bigint NOT NULL,
+                    full_name varchar(255),
+                    email varchar(255),
+                    ticket_quantity bigint NOT NULL
+                )""");
+        // Every fifth registration is for the large event, the rest are spread over a thousand others
+        jdbcTemplate.update("""
+                INSERT INTO event_registration (id, event_id, ticket_type_id, full_name, email, ticket_quantity)
+                SELECT i,
+                       CASE WHEN i % 5 = 0 THEN 1 ELSE 2 + i % 1000 END,
+                       1 + i % 3,
+                       'Attendee ' || i,
+                       'attendee' || i || '@example.com',
+                       1 + i % 4
+                FROM generate_series(1, ?) AS i
+                """, REGISTRATIONS);
+        jdbcTemplate.execute("CREATE INDEX idx_event_registration_event_id_id ON event_registration (event_id, id)");
+        jdbcTemplate.execute("VACUUM ANALYZE event_registration");
+        if (jdbcTemplate.queryForObject("SELECT count(*) FROM event_registration WHERE event_id = ?", Long.class, EVENT_ID)
+                != EVENT_REGISTRATIONS) {
+            throw new IllegalStateException("Unexpected number of registrations for the large event");
+        }
+    }
+
+    private List<Map<String, Object>> offsetPage() {
+        return jdbcTemplate.queryForList(COLUMNS + " WHERE event_id = ? ORDER BY id DESC LIMIT ? OFFSET ?",
+                EVENT_ID, PAGE_SIZE, (page - 1) * PAGE_SIZE);
+    }
+
+    private List<Map<String, Object>> keysetPage() {
+        return jdbcTemplate.queryForList(COLUMNS + " WHERE event_id = ? AND id < ? ORDER BY id DESC LIMIT ?",
+                EVENT_ID, lastIdOfPreviousPage, PAGE_SIZE + 1);
+    }
+
+    private List<String> plan() {
+        String sql = pagination.equals("offset")
+                ? "EXPLAIN ANALYZE " + COLUMNS + " WHERE event_id = " + EVENT_ID + " ORDER BY id DESC LIMIT " + PAGE_SIZE
+                        + " OFFSET " + (page - 1) * PAGE_SIZE
+                : "EXPLAIN ANALYZE " + COLUMNS + " WHERE event_id = " + EVENT_ID + " AND id < " + lastIdOfPreviousPage
+                        + " ORDER BY id DESC LIMIT " + (PAGE_SIZE + 1);
+        return jdbcTemplate.queryForList(sql, String.class).stream()
+                .filter(line -> line.contains("Scan") || line.contains("Execution Time"))
+                .map(String::trim)
+                .toList();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopPostgres() throws Exception {
+        ((SingleConnectionDataSource) jdbcTemplate.getDataSource()).destroy();
+        postgres.close();
+    }
+
+    @Benchmark
+    public long registrationsPage() {
+        if (pagination.equals("offset")) {
+            List<Map<String, Object>> registrations = offsetPage();
+            Long total = jdbcTemplate.queryForObject("SELECT count(*) FROM event_registration WHERE event_id = ?", Long.class, EVENT_ID);
+            return registrations.size() + total;
+        }
+        return keysetPage().size();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(KeysetPaginationBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
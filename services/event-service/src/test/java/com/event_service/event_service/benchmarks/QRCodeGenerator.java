@@ -1,4 +1,4 @@
-package com.event_service.event_service.utils;
+package com.event_service.event_service.benchmarks;
 
 import com.google.zxing.BarcodeFormat;
 import com.google.zxing.WriterException;
@@ -10,7 +10,12 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.util.Base64;
 
-public class QRCodeGenerator {
+/**
+ * Original {@code java.awt} based QR code renderer. Tickets are now rendered by
+ * {@link com.example.common_libraries.utils.QRCodePngEncoder} in the notification service;
+ * this is kept only as the baseline for {@link QRCodeGeneratorBenchmark}.
+ */
+public final class QRCodeGenerator {
     private QRCodeGenerator() {
         throw new IllegalStateException("Utility class");
     }
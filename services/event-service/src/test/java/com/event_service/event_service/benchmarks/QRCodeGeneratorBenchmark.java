@@ -0,0 +1,60 @@
+package com.event_service.event_service.benchmarks;
+
+import com.example.common_libraries.utils.QRCodePngEncoder;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the AWT based {@link QRCodeGenerator} against the reusable {@link QRCodePngEncoder}
+ * for a single ticket QR code. Run {@link #main} from the IDE or with the test classpath;
+ * {@code gc.alloc.rate.norm} in the output is the bytes allocated per ticket.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QRCodeGeneratorBenchmark {
+    private static final int TICKET_URLS = 1024;
+
+    private final QRCodePngEncoder encoder = new QRCodePngEncoder();
+    private String[] ticketUrls;
+    private int next;
+
+    @Setup
+    public void setup() {
+        ticketUrls = new String[TICKET_URLS];
+        for (int i = 0; i < TICKET_URLS; i++) {
+            ticketUrls[i] = "https://alb.example.com/api/v1/tickets/verify/" + UUID.randomUUID();
+        }
+    }
+
+    private String nextTicketUrl() {
+        next = (next + 1) & (TICKET_URLS - 1);
+        return ticketUrls[next];
+    }
+
+    @Benchmark
+    public String awtGenerator() throws Exception {
+        return QRCodeGenerator.generateQRCodeBase64(nextTicketUrl(), 100, 100);
+    }
+
+    @Benchmark
+    public String pooledPngEncoder() throws Exception {
+        return QRCodePngEncoder.toDataUri(encoder.encode(nextTicketUrl(), 100, 100));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(QRCodeGeneratorBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
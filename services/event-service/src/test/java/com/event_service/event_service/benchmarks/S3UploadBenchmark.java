@@ -0,0 +1,234 @@
+package com.event_service.event_service.benchmarks;
+
+import com.example.common_libraries.service.S3ServiceImpl;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.multipart.MultipartFile;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to upload the images of a large event, a 10 MB flyer, 5 gallery images and 4 section images, to a
+ * local S3 stand-in that answers every request after a simulated 20 ms round trip. {@code sequentialBuffered}
+ * is the previous upload, one blocking {@code PutObject} after another with each file read into a byte array;
+ * {@code concurrentStreamed} is {@link S3ServiceImpl}, which streams the files on the async client and sends
+ * the flyer as a multipart upload. It makes the one {@code uploadImages} call the in-person event strategies
+ * make when creating an event, with the flyer, section images and gallery in that order.
+ * {@code gc.alloc.rate.norm} in the output is the bytes allocated per event, including the stand-in reading
+ * each object, which is the same for both.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class S3UploadBenchmark {
+    private static final String BUCKET = "benchmark-bucket";
+    private static final Duration ROUND_TRIP = Duration.ofMillis(20);
+
+    private LocalS3 localS3;
+    private S3Client s3Client;
+    private S3AsyncClient s3AsyncClient;
+    private S3ServiceImpl s3Service;
+    private List<MultipartFile> images;
+
+    @Setup
+    public void setup() throws IOException {
+        localS3 = new LocalS3(ROUND_TRIP);
+        URI endpoint = URI.create("http://localhost:" + localS3.port());
+        StaticCredentialsProvider credentials = StaticCredentialsProvider.create(AwsBasicCredentials.create("benchmark", "benchmark"));
+
+        s3Client = S3Client.builder()
+                .region(Region.EU_WEST_1)
+                .credentialsProvider(credentials)
+                .endpointOverride(endpoint)
+                .forcePathStyle(true)
+                .build();
+        // as AWSConfig builds it
+        s3AsyncClient = S3AsyncClient.builder()
+                .region(Region.EU_WEST_1)
+                .credentialsProvider(credentials)
+                .endpointOverride(endpoint)
+                .forcePathStyle(true)
+                .multipartEnabled(true)
+                .multipartConfiguration(multipart -> multipart
+                        .thresholdInBytes(8L * 1024 * 1024)
+                        .minimumPartSizeInBytes(5L * 1024 * 1024))
+                .build();
+        s3Service = new S3ServiceImpl(s3AsyncClient, 16);
+        ReflectionTestUtils.setField(s3Service, "bucketName", BUCKET);
+        ReflectionTestUtils.setField(s3Service, "region", "eu-west-1");
+        ReflectionTestUtils.setField(s3Service, "uploadConcurrency", 4);
+
+        images = new ArrayList<>();
+        images.add(image("flyer.png", 10 * 1024 * 1024));
+        for (int i = 0; i < 4; i++) {
+            images.add(image("section-" + i + ".png", 512 * 1024));
+        }
+        for (int i = 0; i < 5; i++) {
+            images.add(image("gallery-" + i + ".png", 1024 * 1024));
+        }
+    }
+
+    private static MultipartFile image(String name, int size) {
+        byte[] content = new byte[size];
+        new Random(size).nextBytes(content);
+        return new MockMultipartFile("images", name, "image/png", content);
+    }
+
+    @TearDown
+    public void tearDown() {
+        s3Service.shutdown();
+        s3AsyncClient.close();
+        s3Client.close();
+        localS3.stop();
+    }
+
+    @Benchmark
+    public List<String> sequentialBuffered() throws IOException {
+        List<String> urls = new ArrayList<>();
+        for (MultipartFile image : images) {
+            String key = "images/" + System.currentTimeMillis() + "-" + image.getOriginalFilename();
+            s3Client.putObject(PutObjectRequest.builder()
+                            .bucket(BUCKET)
+                            .key(key)
+                            .contentType(image.getContentType())
+                            .build(),
+                    RequestBody.fromBytes(image.getBytes()));
+            urls.add(key);
+        }
+        return urls;
+    }
+
+    @Benchmark
+    public List<String> concurrentStreamed() {
+        return s3Service.uploadImages(images);
+    }
+
+    /**
+     * Answers {@code PutObject} and the multipart upload calls with the ETag S3 would send, after the round
+     * trip. Objects are read and dropped.
+     */
+    static class LocalS3 {
+        private final HttpServer server;
+        private final Duration roundTrip;
+
+        LocalS3(Duration roundTrip) throws IOException {
+            this.roundTrip = roundTrip;
+            this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            this.server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+            this.server.createContext("/", this::handle);
+            this.server.start();
+        }
+
+        int port() {
+            return server.getAddress().getPort();
+        }
+
+        void stop() {
+            server.stop(0);
+        }
+
+        private void handle(HttpExchange exchange) throws IOException {
+            try (exchange) {
+                byte[] content = read(exchange);
+                Thread.sleep(roundTrip);
+
+                String query = exchange.getRequestURI().getRawQuery();
+                String method = exchange.getRequestMethod();
+                if (method.equals("POST") && "uploads".equals(query)) {
+                    respond(exchange, "<InitiateMultipartUploadResult><UploadId>" + UUID.randomUUID() + "</UploadId></InitiateMultipartUploadResult>");
+                } else if (method.equals("POST")) {
+                    respond(exchange, "<CompleteMultipartUploadResult><ETag>\"" + md5(content) + "-2\"</ETag></CompleteMultipartUploadResult>");
+                } else {
+                    exchange.getResponseHeaders().add("ETag", "\"" + md5(content) + "\"");
+                    exchange.sendResponseHeaders(200, -1);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private static void respond(HttpExchange exchange, String xml) throws IOException {
+            byte[] body = xml.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/xml");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+        }
+
+        // Plain bodies as they are; streamed bodies without their aws-chunked framing
+        private static byte[] read(HttpExchange exchange) throws IOException {
+            InputStream in = exchange.getRequestBody();
+            String sha256 = exchange.getRequestHeaders().getFirst("x-amz-content-sha256");
+            if (sha256 == null || !sha256.startsWith("STREAMING-")) {
+                return in.readAllBytes();
+            }
+            ByteArrayOutputStream content = new ByteArrayOutputStream();
+            while (true) {
+                String header = line(in);
+                int size = Integer.parseInt(header.split(";", 2)[0].trim(), 16);
+                if (size == 0) {
+                    in.readAllBytes();
+                    return content.toByteArray();
+                }
+                content.write(in.readNBytes(size));
+                line(in);
+            }
+        }
+
+        private static String line(InputStream in) throws IOException {
+            StringBuilder line = new StringBuilder();
+            int c;
+            while ((c = in.read()) != -1 && c != '\n') {
+                if (c != '\r') {
+                    line.append((char) c);
+                }
+            }
+            return line.toString();
+        }
+
+        private static String md5(byte[] content) {
+            try {
+                return HexFormat.of().formatHex(MessageDigest.getInstance("MD5").digest(content));
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(S3UploadBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,206 @@
+package com.event_service.event_service.benchmarks;
+
+import io.awspring.cloud.sqs.listener.ListenerMode;
+import io.awspring.cloud.sqs.listener.MessageListener;
+import io.awspring.cloud.sqs.listener.SqsMessageListenerContainer;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.messaging.Message;
+import software.amazon.awssdk.services.sqs.SqsAsyncClient;
+import software.amazon.awssdk.services.sqs.model.DeleteMessageBatchRequest;
+import software.amazon.awssdk.services.sqs.model.DeleteMessageBatchResponse;
+import software.amazon.awssdk.services.sqs.model.DeleteMessageBatchResultEntry;
+import software.amazon.awssdk.services.sqs.model.GetQueueAttributesRequest;
+import software.amazon.awssdk.services.sqs.model.GetQueueAttributesResponse;
+import software.amazon.awssdk.services.sqs.model.GetQueueUrlRequest;
+import software.amazon.awssdk.services.sqs.model.GetQueueUrlResponse;
+import software.amazon.awssdk.services.sqs.model.ReceiveMessageRequest;
+import software.amazon.awssdk.services.sqs.model.ReceiveMessageResponse;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Messages per second one listener container consumes from an in-memory SQS stand-in that answers every
+ * call after a simulated 5 ms round trip. Handling a message blocks for 1 ms, like a small database write.
+ * {@code single} uses the previous container defaults: one message per listener call and at most 10 in flight.
+ * {@code batch} uses the settings of {@code SqsListenerConfig}, with a listener that either handles the messages
+ * of a batch one by one ({@code perMessage}) or with one write for the whole batch ({@code perBatch}, like the
+ * grouped event stats update).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SqsListenerThroughputBenchmark {
+    private static final int MESSAGES = 2_000;
+    private static final String QUEUE_URL = "http://localhost:4566/000000000000/benchmark-queue";
+    private static final Duration ROUND_TRIP = Duration.ofMillis(5);
+    private static final Duration HANDLER_WORK = Duration.ofMillis(1);
+
+    @Param({"single", "batch"})
+    public String mode;
+
+    @Param({"perMessage", "perBatch"})
+    public String workload;
+
+    private InMemorySqsClient sqs;
+    private SqsMessageListenerContainer<Object> container;
+    private volatile CountDownLatch remaining;
+
+    @Setup(Level.Trial)
+    public void startContainer() {
+        sqs = new InMemorySqsClient();
+        boolean batch = mode.equals("batch");
+        container = SqsMessageListenerContainer.builder()
+                .sqsAsyncClient(sqs)
+                .queueNames(QUEUE_URL)
+                .configure(options -> {
+                    options.pollTimeout(Duration.ofSeconds(1));
+                    if (batch) {
+                        options.listenerMode(ListenerMode.BATCH)
+                                .maxConcurrentMessages(50)
+                                .maxMessagesPerPoll(10)
+                                .acknowledgementInterval(Duration.ofMillis(500))
+                                .acknowledgementThreshold(10);
+                    }
+                })
+                .messageListener(new MessageListener<>() {
+                    @Override
+                    public void onMessage(Message<Object> message) {
+                        LockSupport.parkNanos(HANDLER_WORK.toNanos());
+                        remaining.countDown();
+                    }
+
+                    @Override
+                    public void onMessage(Collection<Message<Object>> messages) {
+                        if (workload.equals("perBatch")) {
+                            LockSupport.parkNanos(HANDLER_WORK.toNanos());
+                        } else {
+                            messages.forEach(message -> LockSupport.parkNanos(HANDLER_WORK.toNanos()));
+                        }
+                        messages.forEach(message -> remaining.countDown());
+                    }
+                })
+                .build();
+        container.start();
+    }
+
+    @Setup(Level.Invocation)
+    public void enqueue() {
+        remaining = new CountDownLatch(MESSAGES);
+        for (int i = 0; i < MESSAGES; i++) {
+            sqs.send(String.valueOf(i % 100));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MESSAGES)
+    public void consume() throws InterruptedException {
+        if (!remaining.await(60, TimeUnit.SECONDS)) {
+            throw new IllegalStateException(remaining.getCount() + " messages were not consumed");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stopContainer() {
+        container.stop();
+        sqs.close();
+    }
+
+    /**
+     * Just enough of SQS for a listener container: receives long poll the queue and deletes always succeed.
+     */
+    static class InMemorySqsClient implements SqsAsyncClient {
+        private final LinkedBlockingQueue<software.amazon.awssdk.services.sqs.model.Message> queue = new LinkedBlockingQueue<>();
+        private final ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "sqs-stand-in");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        void send(String body) {
+            String id = UUID.randomUUID().toString();
+            queue.add(software.amazon.awssdk.services.sqs.model.Message.builder()
+                    .messageId(id)
+                    .receiptHandle(id)
+                    .body(body)
+                    .build());
+        }
+
+        private <T> CompletableFuture<T> afterRoundTrip(java.util.function.Supplier<T> response) {
+            return CompletableFuture.supplyAsync(() -> {
+                LockSupport.parkNanos(ROUND_TRIP.toNanos());
+                return response.get();
+            }, executor);
+        }
+
+        @Override
+        public CompletableFuture<ReceiveMessageResponse> receiveMessage(ReceiveMessageRequest request) {
+            return afterRoundTrip(() -> {
+                List<software.amazon.awssdk.services.sqs.model.Message> messages = new ArrayList<>();
+                try {
+                    software.amazon.awssdk.services.sqs.model.Message first = queue.poll(request.waitTimeSeconds(), TimeUnit.SECONDS);
+                    if (first != null) {
+                        messages.add(first);
+                        queue.drainTo(messages, request.maxNumberOfMessages() - 1);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return ReceiveMessageResponse.builder().messages(messages).build();
+            });
+        }
+
+        @Override
+        public CompletableFuture<DeleteMessageBatchResponse> deleteMessageBatch(DeleteMessageBatchRequest request) {
+            return afterRoundTrip(() -> DeleteMessageBatchResponse.builder()
+                    .successful(request.entries().stream()
+                            .map(entry -> DeleteMessageBatchResultEntry.builder().id(entry.id()).build())
+                            .toList())
+                    .build());
+        }
+
+        @Override
+        public CompletableFuture<GetQueueUrlResponse> getQueueUrl(GetQueueUrlRequest request) {
+            return CompletableFuture.completedFuture(GetQueueUrlResponse.builder().queueUrl(QUEUE_URL).build());
+        }
+
+        @Override
+        public CompletableFuture<GetQueueAttributesResponse> getQueueAttributes(GetQueueAttributesRequest request) {
+            return CompletableFuture.completedFuture(GetQueueAttributesResponse.builder().build());
+        }
+
+        @Override
+        public String serviceName() {
+            return SERVICE_NAME;
+        }
+
+        @Override
+        public void close() {
+            executor.shutdownNow();
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SqsListenerThroughputBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,135 @@
+package com.event_service.event_service.benchmarks;
+
+import com.event_service.event_service.models.Event;
+import com.event_service.event_service.models.TicketType;
+import com.event_service.event_service.repositories.EventRepository;
+import com.event_service.event_service.repositories.TicketTypeRepository;
+import com.event_service.event_service.services.TicketInventoryService;
+import com.event_service.event_service.services.TicketInventoryServiceImpl;
+import com.example.common_libraries.exception.ResourceNotFoundException;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.autoconfigure.transaction.TransactionAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time for 1,000 buyers on 200 threads to race for the last 500 tickets of a ticket type through
+ * {@link TicketInventoryServiceImpl#reserve}, the conditional update that takes stock without overselling,
+ * against an in-memory H2 database. Every attempt contends for the same ticket type row; half of them are
+ * turned away once it sells out. H2 stands in for PostgreSQL, so the time is that of the reservations' own
+ * work, not what production reaches.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class TicketInventoryBenchmark {
+    private static final long STOCK = 500;
+    private static final int THREADS = 200;
+    private static final int ATTEMPTS = 1_000;
+
+    // Not a @Configuration, so the component scan of EventServiceApplication doesn't pick it up
+    @EnableJpaAuditing
+    @EntityScan(basePackageClasses = TicketType.class)
+    @EnableJpaRepositories(basePackageClasses = TicketTypeRepository.class)
+    @ImportAutoConfiguration({DataSourceAutoConfiguration.class, HibernateJpaAutoConfiguration.class, TransactionAutoConfiguration.class})
+    @Import(TicketInventoryServiceImpl.class)
+    static class Inventory {
+    }
+
+    private ConfigurableApplicationContext context;
+    private TicketInventoryService ticketInventoryService;
+    private TicketTypeRepository ticketTypeRepository;
+    private Event event;
+    private ExecutorService buyers;
+    private Long ticketTypeId;
+
+    @Setup(Level.Trial)
+    public void startInventory() {
+        // As arguments, so they take precedence over application.properties
+        context = new SpringApplicationBuilder(Inventory.class)
+                .web(WebApplicationType.NONE)
+                .run("--ACTIVE_PROFILE=test",
+                        "--spring.datasource.url=jdbc:h2:mem:ticket-inventory;DB_CLOSE_DELAY=-1;MODE=PostgreSQL",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN");
+        ticketInventoryService = context.getBean(TicketInventoryService.class);
+        ticketTypeRepository = context.getBean(TicketTypeRepository.class);
+        event = context.getBean(EventRepository.class).save(Event.builder()
+                .title("Launch Party")
+                .description("On-sale spike")
+                .flyerUrl("https://example.com/flyer.png")
+                .createdBy("Organizer")
+                .userId(1L)
+                .startTime(Instant.now().plus(7, ChronoUnit.DAYS))
+                .build());
+        buyers = Executors.newFixedThreadPool(THREADS);
+    }
+
+    @TearDown(Level.Trial)
+    public void stopInventory() {
+        buyers.shutdown();
+        context.close();
+    }
+
+    // A fresh ticket type every run, as the previous one has sold out
+    @Setup(Level.Iteration)
+    public void createTicketType() {
+        ticketTypeId = ticketTypeRepository.save(TicketType.builder()
+                .event(event)
+                .type("General")
+                .price(0.0)
+                .quantity(STOCK)
+                .soldCount(0L)
+                .isActive(true)
+                .isPaid(false)
+                .quantityPerAttendee(1)
+                .build()).getId();
+    }
+
+    @Benchmark
+    public void reserve() throws Exception {
+        List<Future<?>> attempts = new ArrayList<>(ATTEMPTS);
+        for (int i = 0; i < ATTEMPTS; i++) {
+            attempts.add(buyers.submit(() -> {
+                try {
+                    ticketInventoryService.reserve(ticketTypeId, 1L);
+                } catch (ResourceNotFoundException e) {
+                    // sold out, the buyer is turned away
+                }
+            }));
+        }
+        for (Future<?> attempt : attempts) {
+            attempt.get(60, TimeUnit.SECONDS);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TicketInventoryBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,313 @@
+package com.event_service.event_service.client;
+
+import com.example.common_libraries.cache.TwoLevelCacheManager;
+import com.example.common_libraries.dto.HostsResponse;
+import com.example.common_libraries.dto.PlatformNotificationSettingDto;
+import com.example.common_libraries.dto.UserCreationResponse;
+import com.example.common_libraries.dto.UserLookupRequest;
+import com.example.common_libraries.exception.ForbiddenException;
+import com.example.common_libraries.exception.ServiceCommunicationException;
+import com.example.common_libraries.exception.UnauthorizedException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.HttpMessageWriter;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.mock.http.client.reactive.MockClientHttpRequest;
+import org.springframework.web.reactive.function.BodyInserter;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeStrategies;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class UserServiceClientTest {
+
+    private static final String SETTINGS = "/api/v1/auth/platform-settings/notifications";
+    private static final String ADMINS = "/api/v1/users/active-admins";
+    private static final String LOOKUP = "/api/v1/users/lookup";
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final List<URI> requests = Collections.synchronizedList(new ArrayList<>());
+    // path -> status and body to answer with
+    private final Map<String, Map.Entry<HttpStatus, String>> responses = new ConcurrentHashMap<>();
+    // users the lookup endpoint knows, and the bulk lookups it received with their token
+    private final Map<Long, UserCreationResponse> users = new ConcurrentHashMap<>();
+    private final List<Map.Entry<String, UserLookupRequest>> lookups = Collections.synchronizedList(new ArrayList<>());
+    private volatile HttpStatus lookupStatus = HttpStatus.OK;
+
+    private SimpleMeterRegistry meterRegistry;
+    private TwoLevelCacheManager cacheManager;
+    private UserServiceClient client;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cacheManager = new TwoLevelCacheManager(mock(RedisCacheManager.class), mock(StringRedisTemplate.class), meterRegistry, 100, Duration.ofMinutes(1));
+        client = client(100, 60);
+
+        respond(SETTINGS, HttpStatus.OK, "{\"data\":{\"eventCreation\":true}}");
+        respond(ADMINS, HttpStatus.OK, "[{\"id\":1,\"email\":\"admin@example.com\"}]");
+        LongStream.rangeClosed(1, 300).forEach(id -> users.put(id,
+                new UserCreationResponse(id, "User " + id, "ORGANISER", "user" + id + "@example.com", null)));
+    }
+
+    private UserServiceClient client(int batchMaxSize, long cacheTtlSeconds) {
+        WebClient.Builder builder = WebClient.builder().exchangeFunction(request -> {
+            requests.add(request.url());
+            Mono<Map.Entry<HttpStatus, String>> response = request.url().getPath().equals(LOOKUP)
+                    ? Mono.fromCallable(() -> lookup(request)).subscribeOn(Schedulers.boundedElastic())
+                    : Mono.just(responses.get(request.url().getPath()));
+            // slow enough for concurrent callers to overlap
+            return Mono.delay(Duration.ofMillis(100)).then(response).map(status -> ClientResponse.create(status.getKey())
+                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                    .body(status.getValue())
+                    .build());
+        });
+        StaticListableBeanFactory beans = new StaticListableBeanFactory();
+        beans.addBean("cacheManager", cacheManager);
+        return new UserServiceClient(builder, meterRegistry, "http://user-service", 5000, cacheTtlSeconds, 100, 200, batchMaxSize,
+                beans.getBeanProvider(TwoLevelCacheManager.class));
+    }
+
+    private Map.Entry<HttpStatus, String> lookup(ClientRequest request) {
+        try {
+            MockClientHttpRequest body = new MockClientHttpRequest(request.method(), request.url());
+            request.body().insert(body, new BodyInserter.Context() {
+                @Override
+                public List<HttpMessageWriter<?>> messageWriters() {
+                    return ExchangeStrategies.withDefaults().messageWriters();
+                }
+
+                @Override
+                public Optional<ServerHttpRequest> serverRequest() {
+                    return Optional.empty();
+                }
+
+                @Override
+                public Map<String, Object> hints() {
+                    return Map.of();
+                }
+            }).block();
+            UserLookupRequest lookup = OBJECT_MAPPER.readValue(body.getBodyAsString().block(), UserLookupRequest.class);
+            lookups.add(Map.entry(String.valueOf(request.cookies().getFirst("accessToken")), lookup));
+            List<UserCreationResponse> found = users.values().stream()
+                    .filter(user -> lookup.ids().contains(user.id()) || lookup.emails().contains(user.email().toLowerCase()))
+                    .toList();
+            return Map.entry(lookupStatus, OBJECT_MAPPER.writeValueAsString(found));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void respond(String path, HttpStatus status, String body) {
+        responses.put(path, Map.entry(status, body));
+    }
+
+    private long requestsTo(String path) {
+        return requests.stream().filter(uri -> uri.getPath().equals(path)).count();
+    }
+
+    @Test
+    @DisplayName("Should send one request for concurrent calls and serve later ones from the cache")
+    void concurrentCalls_ShareOneRequest() {
+        List<PlatformNotificationSettingDto> settings = Flux.range(0, 20)
+                .flatMap(i -> client.fetchNotificationSetting("token" + i))
+                .collectList()
+                .block();
+
+        assertEquals(20, settings.size());
+        assertTrue(settings.stream().allMatch(PlatformNotificationSettingDto::eventCreation));
+        assertTrue(client.getNotificationSetting("token").eventCreation());
+        assertEquals(1, requestsTo(SETTINGS));
+    }
+
+    @Test
+    @DisplayName("Should ask user-service again after the cache is invalidated")
+    void invalidate_FetchesAgain() {
+        client.getNotificationSetting("token");
+        respond(SETTINGS, HttpStatus.OK, "{\"data\":{\"eventCreation\":false}}");
+
+        client.invalidateNotificationSetting();
+
+        assertFalse(client.getNotificationSetting("token").eventCreation());
+        assertEquals(2, requestsTo(SETTINGS));
+    }
+
+    @Test
+    @DisplayName("Should ask user-service again for the settings once it publishes a change to them")
+    void settingsChangePublished_FetchesAgain() {
+        client.getNotificationSetting("token");
+        respond(SETTINGS, HttpStatus.OK, "{\"data\":{\"eventCreation\":false}}");
+
+        String message = "auth-service-instance|" + PlatformNotificationSettingDto.CACHE_NAME;
+        cacheManager.onMessage(new DefaultMessage(new byte[0], message.getBytes(StandardCharsets.UTF_8)), null);
+
+        assertFalse(client.getNotificationSetting("token").eventCreation());
+        assertEquals(2, requestsTo(SETTINGS));
+    }
+
+    @Test
+    @DisplayName("Should ask user-service again once the cached value expired")
+    void expired_FetchesAgain() throws InterruptedException {
+        client = client(100, 1);
+        client.getNotificationSetting("token");
+        respond(SETTINGS, HttpStatus.OK, "{\"data\":{\"eventCreation\":false}}");
+
+        assertTrue(client.getNotificationSetting("token").eventCreation());
+        Thread.sleep(1100);
+
+        assertFalse(client.getNotificationSetting("token").eventCreation());
+        assertEquals(2, requestsTo(SETTINGS));
+    }
+
+    @Test
+    @DisplayName("Should not cache failures")
+    void failure_NotCached() {
+        respond(ADMINS, HttpStatus.UNAUTHORIZED, "{}");
+        assertThrows(UnauthorizedException.class, () -> client.getActiveAdmins("expired"));
+
+        respond(ADMINS, HttpStatus.OK, "[]");
+        assertEquals(List.of(), client.getActiveAdmins("token"));
+        assertEquals(2, requestsTo(ADMINS));
+
+        respond(SETTINGS, HttpStatus.INTERNAL_SERVER_ERROR, "{}");
+        assertThrows(ServiceCommunicationException.class, () -> client.getNotificationSetting("token"));
+    }
+
+    @Test
+    @DisplayName("Should only look up the hosts not cached and keep the requested order")
+    void eventHosts_LooksUpMissingOnly() {
+        client.getEventHosts(List.of(2L, 3L), "token");
+
+        List<HostsResponse> hosts = client.getEventHosts(List.of(4L, 3L, 2L, 999L), "token");
+
+        assertEquals(List.of(4L, 3L, 2L), hosts.stream().map(HostsResponse::id).toList());
+        assertEquals("user4@example.com", hosts.getFirst().email());
+        assertEquals(2, lookups.size());
+        assertEquals(List.of(4L, 999L), lookups.getLast().getValue().ids());
+        assertEquals(List.of(), client.getEventHosts(List.of(), "token"));
+    }
+
+    @Test
+    @DisplayName("Should resolve the hosts of several events shown together in one request")
+    void eventHostsOfManyEvents_OneRequest() {
+        List<List<HostsResponse>> hostsPerEvent = Flux.range(0, 10)
+                .flatMap(event -> client.fetchEventHosts(List.of(event * 2L + 1, event * 2L + 2, 100L), "token"))
+                .collectList()
+                .block();
+
+        assertEquals(10, hostsPerEvent.size());
+        assertTrue(hostsPerEvent.stream().allMatch(hosts -> hosts.size() == 3));
+        assertEquals(1, requestsTo(LOOKUP));
+        // host 100 is on every event but asked for once
+        assertEquals(21, lookups.getFirst().getValue().size());
+    }
+
+    @Test
+    @DisplayName("Should batch lookups made close together, per access token")
+    void lookups_BatchedPerToken() {
+        List<Mono<UserCreationResponse>> calls = Stream.concat(
+                        LongStream.rangeClosed(1, 30).mapToObj(id -> client.fetchUserByEmail("user" + id + "@example.com", "organiser")),
+                        Stream.of(client.fetchUserByEmail("nobody@example.com", "organiser"),
+                                client.fetchUserByEmail("user1@example.com", "organiser"),
+                                client.fetchUserById(2L, "admin")))
+                .toList();
+
+        List<UserCreationResponse> found = Flux.merge(calls).collectList().block();
+
+        assertEquals(32, found.size());
+        assertEquals(2, requestsTo(LOOKUP));
+        UserLookupRequest organiserLookup = lookups.stream()
+                .filter(lookup -> lookup.getKey().equals("organiser"))
+                .findFirst().orElseThrow().getValue();
+        assertEquals(31, organiserLookup.emails().size());
+        assertEquals(2, meterRegistry.get("user.service.client.latency")
+                .tag("endpoint", "users-lookup").tag("result", "success").timer().count());
+    }
+
+    @Test
+    @DisplayName("Should split a page of lookups into batches of the maximum size")
+    void findUsersByEmail_SplitsIntoBatches() {
+        List<String> emails = LongStream.rangeClosed(1, 250).mapToObj(id -> "user" + id + "@example.com").toList();
+
+        Map<String, UserCreationResponse> found = client.findUsersByEmail(
+                Stream.concat(emails.stream(), Stream.of("nobody@example.com")).toList(), "token");
+
+        assertEquals(250, found.size());
+        assertEquals(42L, found.get("user42@example.com").id());
+        assertEquals(3, requestsTo(LOOKUP));
+        assertEquals(List.of(100, 100, 51), lookups.stream().map(lookup -> lookup.getValue().size()).sorted(Collections.reverseOrder()).toList());
+    }
+
+    @Test
+    @DisplayName("Should find users whatever the case of the email asked for, keyed by the normalized email")
+    void findUsersByEmail_IgnoresCase() {
+        users.put(301L, new UserCreationResponse(301L, "Ama Mensah", "ORGANISER", "Ama.Mensah@Example.com", null));
+
+        Map<String, UserCreationResponse> found = client.findUsersByEmail(
+                List.of("USER7@example.com", " user7@example.com", "ama.mensah@example.com"), "token");
+
+        assertEquals(7L, found.get("user7@example.com").id());
+        assertEquals(301L, found.get("ama.mensah@example.com").id());
+        assertEquals(List.of("user7@example.com", "ama.mensah@example.com"), lookups.getFirst().getValue().emails());
+    }
+
+    @Test
+    @DisplayName("Should fail every lookup in a batch when the request fails")
+    void failedLookup_FailsWholeBatch() {
+        lookupStatus = HttpStatus.FORBIDDEN;
+
+        List<Throwable> errors = Flux.range(1, 5)
+                .flatMap(id -> client.fetchUserById((long) id, "token")
+                        .map(Throwable.class::cast)
+                        .onErrorResume(Mono::just))
+                .collectList()
+                .block();
+
+        assertEquals(5, errors.size());
+        assertTrue(errors.stream().allMatch(ForbiddenException.class::isInstance));
+        assertEquals(1, requestsTo(LOOKUP));
+    }
+
+    @Test
+    @DisplayName("Should time requests per endpoint and result")
+    void requests_Timed() {
+        client.getActiveAdmins("token");
+        respond(SETTINGS, HttpStatus.BAD_GATEWAY, "{}");
+        assertThrows(ServiceCommunicationException.class, () -> client.getNotificationSetting("token"));
+
+        assertEquals(1, meterRegistry.get("user.service.client.latency")
+                .tag("endpoint", "active-admins").tag("result", "success").timer().count());
+        assertEquals(1, meterRegistry.get("user.service.client.latency")
+                .tag("endpoint", "platform-notification-settings").tag("result", "server_error").timer().count());
+        assertEquals(1, meterRegistry.get("cache.gets")
+                .tag("cache", "user-service.active-admins").tag("result", "miss").functionCounter().count());
+    }
+}
@@ -87,8 +87,9 @@ class EventCreationIntegrationTest {
                 .thenReturn("https://mock-s3.amazonaws.com/test.jpg");
 
         Mockito.when(s3Service.uploadImages(Mockito.anyList()))
-                .thenReturn(List.of("https://mock-s3.amazonaws.com/test1.jpg",
-                        "https://mock-s3.amazonaws.com/test2.jpg"));
+                .thenAnswer(invocation -> IntStream.range(0, invocation.<List<?>>getArgument(0).size())
+                        .mapToObj(i -> "https://mock-s3.amazonaws.com/test" + i + ".jpg")
+                        .toList());
     }
 
     private String formatJsonString(String value) {
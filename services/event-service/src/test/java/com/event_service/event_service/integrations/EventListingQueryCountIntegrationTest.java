@@ -0,0 +1,258 @@
+package com.event_service.event_service.integrations;
+
+import com.event_service.event_service.client.UserServiceClient;
+import com.event_service.event_service.dto.EventManagementResponse;
+import com.event_service.event_service.dto.ExploreEventResponse;
+import com.event_service.event_service.dto.MyEventsListResponse;
+import com.event_service.event_service.dto.PagedExploreEventResponse;
+import com.event_service.event_service.models.Event;
+import com.event_service.event_service.models.EventRegistration;
+import com.event_service.event_service.models.TicketType;
+import com.event_service.event_service.models.enums.EventRegistrationStatusEnum;
+import com.event_service.event_service.repositories.EventRegistrationRepository;
+import com.event_service.event_service.repositories.EventRepository;
+import com.event_service.event_service.repositories.TicketReservationRepository;
+import com.event_service.event_service.repositories.TicketTypeRepository;
+import com.event_service.event_service.services.EventOverviewService;
+import com.event_service.event_service.services.EventService;
+import com.event_service.event_service.services.MyEventService;
+import com.event_service.event_service.utils.SecurityUtils;
+import com.example.common_libraries.cache.TwoLevelCacheManager;
+import com.example.common_libraries.dto.AppUser;
+import com.example.common_libraries.dto.CursorPage;
+import com.example.common_libraries.service.S3Service;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.support.NoOpCache;
+import org.springframework.data.domain.Page;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+class EventListingQueryCountIntegrationTest {
+
+    private static final long ORGANIZER_ID = 7L;
+    private static final int EVENTS = 25;
+    private static final int REGISTRATIONS_PER_EVENT = 6;
+
+    // page query, count query and one summary query for all events on the page
+    private static final long STATEMENTS_PER_PAGE = 3;
+
+    // cursor mode has no count query
+    private static final long STATEMENTS_PER_SCROLL = 2;
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private MyEventService myEventService;
+
+    @Autowired
+    private EventOverviewService eventOverviewService;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private TicketTypeRepository ticketTypeRepository;
+
+    @Autowired
+    private EventRegistrationRepository eventRegistrationRepository;
+
+    @Autowired
+    private TicketReservationRepository ticketReservationRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockitoBean
+    private SecurityUtils securityUtils;
+
+    @MockitoBean
+    private UserServiceClient userServiceClient;
+
+    @MockitoBean
+    private S3Service s3Service;
+
+    // listEvents is cached; every call must reach the database to be counted
+    @MockitoBean
+    private TwoLevelCacheManager cacheManager;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setup() {
+        ticketReservationRepository.deleteAll();
+        eventRepository.deleteAll();
+
+        for (int i = 0; i < EVENTS; i++) {
+            Event event = eventRepository.save(Event.builder()
+                    .title("Event " + i)
+                    .description("Listing")
+                    .flyerUrl("https://example.com/flyer.png")
+                    .createdBy("Organizer")
+                    .userId(ORGANIZER_ID)
+                    .startTime(Instant.now().plus(i + 1, ChronoUnit.DAYS))
+                    .build());
+            TicketType free = ticketType(event, "General", false);
+            TicketType paid = ticketType(event, "VIP", i % 2 == 0);
+
+            List<EventRegistration> registrations = new ArrayList<>();
+            for (int r = 0; r < REGISTRATIONS_PER_EVENT; r++) {
+                registrations.add(EventRegistration.builder()
+                        .event(event)
+                        .ticketType(r % 2 == 0 ? free : paid)
+                        .fullName("Attendee " + r)
+                        .email("attendee" + r + "@example.com")
+                        .ticketQuantity(1L)
+                        .status(EventRegistrationStatusEnum.CONFIRMED)
+                        .build());
+            }
+            eventRegistrationRepository.saveAll(registrations);
+        }
+
+        when(securityUtils.getCurrentUser()).thenReturn(AppUser.builder()
+                .id(ORGANIZER_ID)
+                .role("ORGANISER")
+                .email("organizer@example.com")
+                .fullName("Organizer")
+                .build());
+
+        when(cacheManager.getCache(anyString())).thenAnswer(invocation -> new NoOpCache(invocation.getArgument(0)));
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private TicketType ticketType(Event event, String type, boolean paid) {
+        return ticketTypeRepository.save(TicketType.builder()
+                .event(event)
+                .type(type)
+                .price(paid ? 50.0 : 0.0)
+                .quantity(100L)
+                .soldCount(0L)
+                .isActive(true)
+                .isPaid(paid)
+                .quantityPerAttendee(1)
+                .build());
+    }
+
+    private <T> long statementsFor(Supplier<T> call) {
+        statistics.clear();
+        call.get();
+        return statistics.getPrepareStatementCount();
+    }
+
+    @Test
+    void exploreIssuesSameStatementsRegardlessOfPageSize() {
+        long smallPage = statementsFor(() -> eventService.listEvents(0, 5, null, new String[]{"startTime"}, null, null, null, null));
+        long largePage = statementsFor(() -> eventService.listEvents(0, 20, null, new String[]{"startTime"}, null, null, null, null));
+
+        assertEquals(STATEMENTS_PER_PAGE, smallPage);
+        assertEquals(smallPage, largePage);
+
+        PagedExploreEventResponse response = eventService.listEvents(0, 20, null, new String[]{"startTime"}, null, null, null, null);
+        assertTrue(response.events().stream().allMatch(event -> event.attendeeCount() == REGISTRATIONS_PER_EVENT));
+    }
+
+    @Test
+    void myEventsDoesNotLoadRegistrationsOrTicketTypes() {
+        assertEquals(STATEMENTS_PER_PAGE, statementsFor(() -> myEventService.getMyEvents(0)));
+        assertEquals(0, statistics.getCollectionFetchCount());
+
+        Page<MyEventsListResponse> page = myEventService.getMyEvents(0);
+        assertEquals(3, page.getContent().size());
+        assertTrue(page.getContent().stream().allMatch(event -> event.attendeesCount() == REGISTRATIONS_PER_EVENT));
+        assertTrue(page.getContent().stream()
+                .allMatch(event -> event.isPaid() == (Integer.parseInt(event.title().substring("Event ".length())) % 2 == 0)));
+    }
+
+    @Test
+    void managementEventsDoesNotLoadRegistrations() {
+        assertEquals(STATEMENTS_PER_PAGE, statementsFor(() -> eventOverviewService.getManagementEvents(null, 0, null)));
+        assertEquals(0, statistics.getCollectionFetchCount());
+
+        Page<EventManagementResponse> page = eventOverviewService.getManagementEvents(null, 1, null);
+        assertEquals(10, page.getContent().size());
+        assertTrue(page.getContent().stream().allMatch(event -> event.attendeeCount() == REGISTRATIONS_PER_EVENT));
+    }
+
+    @Test
+    void dashboardOverviewDoesNotLoadRegistrations() {
+        when(userServiceClient.fetchTopOrganizers("token")).thenReturn(Mono.just(List.of()));
+
+        // stats, upcoming events, their summaries, management page and its count
+        assertEquals(5, statementsFor(() -> eventOverviewService.getEventOverview("token")));
+        assertEquals(0, statistics.getCollectionFetchCount());
+    }
+
+    @Test
+    void exploreScrollVisitsEveryEventOnceWithoutCounting() {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            String after = cursor;
+            assertEquals(STATEMENTS_PER_SCROLL, statementsFor(() -> eventService.scrollEvents(after, 10, null, null, null, null, null)));
+
+            CursorPage<ExploreEventResponse> page = eventService.scrollEvents(cursor, 10, null, null, null, null, null);
+            assertTrue(page.content().stream().allMatch(event -> event.attendeeCount() == REGISTRATIONS_PER_EVENT));
+            page.content().forEach(event -> ids.add(event.id()));
+            cursor = page.nextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(3, pages);
+        assertEquals(EVENTS, ids.size());
+        assertEquals(EVENTS, new HashSet<>(ids).size());
+        assertEquals(ids.stream().sorted((a, b) -> Long.compare(b, a)).toList(), ids);
+    }
+
+    @Test
+    void exploreScrollKeepsFilters() {
+        CursorPage<ExploreEventResponse> page = eventService.scrollEvents(null, 10, "Event 1", null, null, null, null);
+
+        // Event 1 and Event 10 to Event 19
+        assertEquals(10, page.content().size());
+        assertTrue(page.content().stream().allMatch(event -> event.title().startsWith("Event 1")));
+
+        CursorPage<ExploreEventResponse> next = eventService.scrollEvents(page.nextCursor(), 10, "Event 1", null, null, null, null);
+        assertEquals(1, next.content().size());
+        assertNull(next.nextCursor());
+    }
+
+    @Test
+    void managementScrollVisitsEveryEventOnce() {
+        Set<Long> ids = new HashSet<>();
+        CursorPage<EventManagementResponse> page = eventOverviewService.scrollManagementEvents(null, null, null);
+        page.content().forEach(event -> ids.add(event.id()));
+
+        while (page.nextCursor() != null) {
+            String after = page.nextCursor();
+            assertEquals(STATEMENTS_PER_SCROLL, statementsFor(() -> eventOverviewService.scrollManagementEvents(null, after, null)));
+            assertEquals(0, statistics.getCollectionFetchCount());
+            page = eventOverviewService.scrollManagementEvents(null, after, null);
+            page.content().forEach(event -> ids.add(event.id()));
+        }
+
+        assertEquals(EVENTS, ids.size());
+    }
+}
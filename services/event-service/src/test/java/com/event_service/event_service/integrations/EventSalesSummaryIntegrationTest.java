@@ -0,0 +1,283 @@
+package com.event_service.event_service.integrations;
+
+import com.event_service.event_service.dto.projection.SalesTotalsProjection;
+import com.event_service.event_service.models.Event;
+import com.event_service.event_service.models.EventRegistration;
+import com.event_service.event_service.models.EventSalesSummary;
+import com.event_service.event_service.models.Ticket;
+import com.event_service.event_service.models.TicketType;
+import com.event_service.event_service.models.enums.EventRegistrationStatusEnum;
+import com.event_service.event_service.models.enums.TicketStatusEnum;
+import com.event_service.event_service.repositories.EventRegistrationRepository;
+import com.event_service.event_service.repositories.EventRepository;
+import com.event_service.event_service.repositories.EventSalesSummaryRepository;
+import com.event_service.event_service.repositories.TicketRepository;
+import com.event_service.event_service.repositories.TicketReservationRepository;
+import com.event_service.event_service.repositories.TicketTypeRepository;
+import com.event_service.event_service.services.EventSalesSummaryService;
+import com.event_service.event_service.services.TicketService;
+import com.example.common_libraries.exception.ResourceNotFoundException;
+import com.example.common_libraries.service.S3Service;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class EventSalesSummaryIntegrationTest {
+
+    private static final long ORGANIZER_ID = 11L;
+    private static final double PRICE = 25.0;
+
+    @Autowired
+    private EventSalesSummaryService eventSalesSummaryService;
+
+    @Autowired
+    private EventSalesSummaryRepository eventSalesSummaryRepository;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private TicketTypeRepository ticketTypeRepository;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private EventRegistrationRepository eventRegistrationRepository;
+
+    @Autowired
+    private TicketReservationRepository ticketReservationRepository;
+
+    @Autowired
+    private TicketService ticketService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @MockitoBean
+    private S3Service s3Service;
+
+    @BeforeEach
+    void setup() {
+        eventSalesSummaryRepository.deleteAll();
+        ticketReservationRepository.deleteAll();
+        eventRepository.deleteAll();
+    }
+
+    private Event event(String title) {
+        return eventRepository.save(Event.builder()
+                .title(title)
+                .description("Sales")
+                .flyerUrl("https://example.com/flyer.png")
+                .createdBy("Organizer")
+                .userId(ORGANIZER_ID)
+                .startTime(Instant.now().plus(7, ChronoUnit.DAYS))
+                .build());
+    }
+
+    @Test
+    void concurrentSalesAndCheckInsAreAllCounted() throws Exception {
+        Event event = event("Launch Party");
+        eventSalesSummaryService.createSummary(event);
+
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            futures.add(executor.submit(() -> eventSalesSummaryService.recordSale(event, 2, 2 * PRICE)));
+            futures.add(executor.submit(() -> eventSalesSummaryService.recordCheckIn(event)));
+        }
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        EventSalesSummary summary = eventSalesSummaryRepository.findById(event.getId()).orElseThrow();
+        assertEquals(400, summary.getTicketsSold());
+        assertEquals(400 * PRICE, summary.getGrossRevenue());
+        assertEquals(200, summary.getAttendees());
+        assertEquals(200, summary.getCheckIns());
+    }
+
+    @Test
+    void organizerTotalsAddUpTheirEvents() {
+        Event first = event("First");
+        Event second = event("Second");
+        eventSalesSummaryService.createSummary(first);
+        eventSalesSummaryService.createSummary(second);
+
+        eventSalesSummaryService.recordSale(first, 3, 3 * PRICE);
+        eventSalesSummaryService.recordSale(second, 1, PRICE);
+        eventSalesSummaryService.recordCheckIn(second);
+
+        SalesTotalsProjection totals = eventSalesSummaryRepository.getTotalsForOrganizer(ORGANIZER_ID);
+        assertEquals(4, totals.getTicketsSold());
+        assertEquals(4 * PRICE, totals.getGrossRevenue());
+        assertEquals(2, totals.getAttendees());
+        assertEquals(1, totals.getCheckIns());
+
+        SalesTotalsProjection none = eventSalesSummaryRepository.getTotalsForOrganizer(ORGANIZER_ID + 1);
+        assertEquals(0, none.getTicketsSold());
+        assertEquals(0.0, none.getGrossRevenue());
+    }
+
+    @Test
+    void missingSummaryIsRebuiltFromExistingTickets() {
+        Event event = event("Created before summaries");
+        TicketType ticketType = ticketTypeRepository.save(TicketType.builder()
+                .event(event)
+                .type("General")
+                .price(PRICE)
+                .quantity(100L)
+                .soldCount(2L)
+                .isActive(true)
+                .isPaid(true)
+                .quantityPerAttendee(2)
+                .build());
+        eventRegistrationRepository.save(EventRegistration.builder()
+                .event(event)
+                .ticketType(ticketType)
+                .fullName("Attendee")
+                .email("attendee@example.com")
+                .ticketQuantity(2L)
+                .status(EventRegistrationStatusEnum.CONFIRMED)
+                .build());
+        for (TicketStatusEnum status : List.of(TicketStatusEnum.ACTIVE, TicketStatusEnum.USED)) {
+            ticketRepository.save(Ticket.builder()
+                    .event(event)
+                    .ticketType(ticketType)
+                    .quantity(1)
+                    .ticketCode(UUID.randomUUID().toString())
+                    .status(status)
+                    .build());
+        }
+
+        eventSalesSummaryService.recordCheckIn(event);
+
+        EventSalesSummary summary = eventSalesSummaryRepository.findById(event.getId()).orElseThrow();
+        assertEquals(ORGANIZER_ID, summary.getOrganizerId());
+        assertEquals(2, summary.getTicketsSold());
+        assertEquals(2 * PRICE, summary.getGrossRevenue());
+        assertEquals(1, summary.getAttendees());
+        assertEquals(1, summary.getCheckIns());
+    }
+
+    @Test
+    void concurrentFirstSalesOfAnEventWithoutSummaryAreAllCounted() throws Exception {
+        Event event = event("Created before summaries");
+        TicketType ticketType = ticketTypeRepository.save(TicketType.builder()
+                .event(event)
+                .type("General")
+                .price(PRICE)
+                .quantity(100L)
+                .soldCount(0L)
+                .isActive(true)
+                .isPaid(true)
+                .quantityPerAttendee(1)
+                .build());
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            String email = "attendee-" + i + "@example.com";
+            futures.add(executor.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+                eventRegistrationRepository.save(EventRegistration.builder()
+                        .event(event)
+                        .ticketType(ticketType)
+                        .fullName("Attendee")
+                        .email(email)
+                        .ticketQuantity(1L)
+                        .status(EventRegistrationStatusEnum.CONFIRMED)
+                        .build());
+                ticketRepository.save(Ticket.builder()
+                        .event(event)
+                        .ticketType(ticketType)
+                        .quantity(1)
+                        .ticketCode(UUID.randomUUID().toString())
+                        .status(TicketStatusEnum.ACTIVE)
+                        .build());
+                eventSalesSummaryService.recordSale(event, 1, PRICE);
+            })));
+        }
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        EventSalesSummary summary = eventSalesSummaryRepository.findById(event.getId()).orElseThrow();
+        assertEquals(40, summary.getTicketsSold());
+        assertEquals(40 * PRICE, summary.getGrossRevenue());
+        assertEquals(40, summary.getAttendees());
+    }
+
+    @Test
+    void concurrentScansOfATicketCheckItInOnce() throws Exception {
+        Event event = event("Launch Party");
+        eventSalesSummaryService.createSummary(event);
+        TicketType ticketType = ticketTypeRepository.save(TicketType.builder()
+                .event(event)
+                .type("General")
+                .price(PRICE)
+                .quantity(100L)
+                .soldCount(1L)
+                .isActive(true)
+                .isPaid(true)
+                .quantityPerAttendee(1)
+                .build());
+        String ticketCode = ticketRepository.save(Ticket.builder()
+                .event(event)
+                .ticketType(ticketType)
+                .quantity(1)
+                .ticketCode(UUID.randomUUID().toString())
+                .status(TicketStatusEnum.ACTIVE)
+                .build()).getTicketCode();
+
+        int scans = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(scans);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger admitted = new AtomicInteger();
+        AtomicInteger turnedAway = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < scans; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                try {
+                    ticketService.verifyTicket(ticketCode);
+                    admitted.incrementAndGet();
+                } catch (ResourceNotFoundException e) {
+                    turnedAway.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertEquals(1, admitted.get());
+        assertEquals(scans - 1, turnedAway.get());
+        assertEquals(TicketStatusEnum.USED, ticketRepository.findByTicketCode(ticketCode).getStatus());
+        assertEquals(1, eventSalesSummaryRepository.findById(event.getId()).orElseThrow().getCheckIns());
+    }
+}
@@ -0,0 +1,218 @@
+package com.event_service.event_service.integrations;
+
+import com.event_service.event_service.client.UserServiceClient;
+import com.event_service.event_service.config.EventSearchIndex;
+import com.event_service.event_service.dto.ExploreEventResponse;
+import com.event_service.event_service.dto.PagedExploreEventResponse;
+import com.event_service.event_service.models.Event;
+import com.event_service.event_service.repositories.EventRepository;
+import com.event_service.event_service.repositories.TicketReservationRepository;
+import com.event_service.event_service.services.EventService;
+import com.event_service.event_service.utils.MigrationScript;
+import com.event_service.event_service.utils.SecurityUtils;
+import com.example.common_libraries.cache.TwoLevelCacheManager;
+import com.example.common_libraries.service.S3Service;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.support.NoOpCache;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.io.IOException;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs explore search against an embedded PostgreSQL, set up by the search index migration. The tests are
+ * skipped where it can't be started.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class EventSearchIntegrationTest {
+
+    private static final String MIGRATION = "event-db-search-index.sql";
+
+    private static EmbeddedPostgres postgres;
+    private static boolean migrated;
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private EventSearchIndex eventSearchIndex;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private TicketReservationRepository ticketReservationRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockitoBean
+    private SecurityUtils securityUtils;
+
+    @MockitoBean
+    private UserServiceClient userServiceClient;
+
+    @MockitoBean
+    private S3Service s3Service;
+
+    // listEvents is cached; every search must reach the database
+    @MockitoBean
+    private TwoLevelCacheManager cacheManager;
+
+    @BeforeAll
+    static void startPostgres() {
+        try {
+            postgres = EmbeddedPostgres.start();
+        } catch (Exception e) {
+            assumeTrue(false, "Embedded PostgreSQL could not start: " + e.getMessage());
+        }
+    }
+
+    @AfterAll
+    static void stopPostgres() throws Exception {
+        if (postgres != null) {
+            postgres.close();
+        }
+    }
+
+    @DynamicPropertySource
+    static void postgresProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.jpa.database-platform", () -> "org.hibernate.dialect.PostgreSQLDialect");
+    }
+
+    @BeforeEach
+    void setup() throws IOException {
+        if (!migrated) {
+            assertFalse(eventSearchIndex.isAvailable());
+            MigrationScript.run(jdbcTemplate, MIGRATION);
+            // a second run changes nothing
+            MigrationScript.run(jdbcTemplate, MIGRATION);
+            migrated = true;
+        }
+        eventSearchIndex.refresh();
+
+        ticketReservationRepository.deleteAll();
+        eventRepository.deleteAll();
+
+        save("Accra Jazz Night", "Live jazz by the sea", "Labadi Beach, Accra");
+        save("Kumasi Food Festival", "Street food from across Ghana, with a jazz band", "Kejetia, Kumasi");
+        save("Tech Meetup", "Talks on distributed systems", "Osu, Accra");
+        save("Highlife Evening", "Dance to classic highlife", "Cape Coast Castle");
+
+        when(cacheManager.getCache(anyString())).thenAnswer(invocation -> new NoOpCache(invocation.getArgument(0)));
+    }
+
+    private Event save(String title, String description, String location) {
+        return eventRepository.save(Event.builder()
+                .title(title)
+                .description(description)
+                .location(location)
+                .flyerUrl("https://example.com/flyer.png")
+                .createdBy("Organizer")
+                .userId(7L)
+                .startTime(Instant.now().plus(1, ChronoUnit.DAYS))
+                .build());
+    }
+
+    private List<String> search(String term) {
+        PagedExploreEventResponse response = eventService.listEvents(0, 10, term, new String[]{"startTime"}, null, null, null, null);
+        return response.events().stream().map(ExploreEventResponse::title).toList();
+    }
+
+    @Test
+    void migrationAddsGeneratedSearchVectorAndIndexes() {
+        assertTrue(eventSearchIndex.isAvailable());
+        assertEquals("tsvector", jdbcTemplate.queryForObject("""
+                SELECT format_type(atttypid, atttypmod) FROM pg_attribute
+                WHERE attrelid = 'events'::regclass AND attname = 'search_vector'
+                """, String.class));
+        assertEquals(List.of("idx_events_created_at", "idx_events_location_trgm", "idx_events_search_vector", "idx_events_title_trgm"),
+                jdbcTemplate.queryForList("""
+                        SELECT indexname FROM pg_indexes
+                        WHERE tablename = 'events' AND indexname LIKE 'idx_events_%'
+                        ORDER BY indexname
+                        """, String.class));
+    }
+
+    @Test
+    void ranksTitleMatchesAboveDescriptionMatches() {
+        assertEquals(List.of("Accra Jazz Night", "Kumasi Food Festival"), search("jazz"));
+    }
+
+    @Test
+    void matchesLastWordAsPrefix() {
+        assertEquals(List.of("Accra Jazz Night"), search("accra ja"));
+        assertEquals(List.of("Tech Meetup"), search("distrib"));
+    }
+
+    @Test
+    void matchesTitleDespiteTypos() {
+        assertEquals(List.of("Highlife Evening"), search("Higlife Evenin"));
+    }
+
+    @Test
+    void searchesLocation() {
+        assertEquals(List.of("Accra Jazz Night", "Tech Meetup"), search("accra").stream().sorted().toList());
+    }
+
+    @Test
+    void followsTitleChanges() {
+        Event event = eventRepository.findAll().stream()
+                .filter(e -> e.getTitle().equals("Tech Meetup"))
+                .findFirst()
+                .orElseThrow();
+        event.setTitle("Developer Conference");
+        eventRepository.save(event);
+
+        assertEquals(List.of("Developer Conference"), search("developer"));
+        assertTrue(search("meetup").isEmpty());
+    }
+
+    @Test
+    void searchCanUseIndexes() {
+        String plan = jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                // the table is far too small for the planner to prefer an index on its own
+                statement.execute("SET enable_seqscan = off");
+                StringBuilder lines = new StringBuilder();
+                try (ResultSet rs = statement.executeQuery("""
+                        EXPLAIN SELECT id FROM events
+                        WHERE search_vector @@ to_tsquery('simple', 'jazz:*') OR lower(title) % 'jazz'
+                        """)) {
+                    while (rs.next()) {
+                        lines.append(rs.getString(1)).append('\n');
+                    }
+                }
+                statement.execute("RESET enable_seqscan");
+                return lines.toString();
+            }
+        });
+
+        assertTrue(plan.contains("idx_events_search_vector"), plan);
+        assertTrue(plan.contains("idx_events_title_trgm"), plan);
+    }
+}
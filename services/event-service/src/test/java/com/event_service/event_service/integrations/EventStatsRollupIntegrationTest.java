@@ -0,0 +1,244 @@
+package com.event_service.event_service.integrations;
+
+import com.event_service.event_service.dto.EventStatsResponse;
+import com.event_service.event_service.dto.GraphResponse;
+import com.event_service.event_service.dto.projection.EventMonthlyStatsProjection;
+import com.event_service.event_service.models.Event;
+import com.event_service.event_service.models.EventDailyStats;
+import com.event_service.event_service.models.EventMonthlyStats;
+import com.event_service.event_service.models.EventRegistration;
+import com.event_service.event_service.models.Ticket;
+import com.event_service.event_service.models.TicketType;
+import com.event_service.event_service.models.enums.EventRegistrationStatusEnum;
+import com.event_service.event_service.models.enums.StatsGranularity;
+import com.event_service.event_service.repositories.EventDailyStatsRepository;
+import com.event_service.event_service.repositories.EventMonthlyStatsRepository;
+import com.event_service.event_service.repositories.EventRegistrationRepository;
+import com.event_service.event_service.repositories.EventRepository;
+import com.event_service.event_service.repositories.StatsRollupWatermarkRepository;
+import com.event_service.event_service.repositories.TicketRepository;
+import com.event_service.event_service.repositories.TicketReservationRepository;
+import com.event_service.event_service.repositories.TicketTypeRepository;
+import com.event_service.event_service.services.EventGraphService;
+import com.event_service.event_service.services.EventStatsRollupService;
+import com.example.common_libraries.exception.BadRequestException;
+import com.example.common_libraries.service.S3Service;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class EventStatsRollupIntegrationTest {
+
+    private static final double PRICE = 25.0;
+
+    @Autowired
+    private EventStatsRollupService eventStatsRollupService;
+
+    @Autowired
+    private EventGraphService eventGraphService;
+
+    @Autowired
+    private EventDailyStatsRepository eventDailyStatsRepository;
+
+    @Autowired
+    private EventMonthlyStatsRepository eventMonthlyStatsRepository;
+
+    @Autowired
+    private StatsRollupWatermarkRepository statsRollupWatermarkRepository;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private TicketTypeRepository ticketTypeRepository;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private EventRegistrationRepository eventRegistrationRepository;
+
+    @Autowired
+    private TicketReservationRepository ticketReservationRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockitoBean
+    private S3Service s3Service;
+
+    private final LocalDate today = LocalDate.now();
+
+    @BeforeEach
+    void setup() {
+        eventDailyStatsRepository.deleteAll();
+        eventMonthlyStatsRepository.deleteAll();
+        statsRollupWatermarkRepository.deleteAll();
+        ticketReservationRepository.deleteAll();
+        eventRepository.deleteAll();
+    }
+
+    private static Timestamp noonOf(LocalDate day) {
+        return Timestamp.from(day.atTime(12, 0).atZone(ZoneId.systemDefault()).toInstant());
+    }
+
+    // An event created on the given day with one registration of the given number of tickets
+    private void sale(LocalDate day, int tickets) {
+        Event event = eventRepository.save(Event.builder()
+                .title("Event on " + day)
+                .description("Stats")
+                .flyerUrl("https://example.com/flyer.png")
+                .createdBy("Organizer")
+                .userId(11L)
+                .startTime(Instant.now().plus(7, ChronoUnit.DAYS))
+                .build());
+        TicketType ticketType = ticketTypeRepository.save(TicketType.builder()
+                .event(event)
+                .type("General")
+                .price(PRICE)
+                .quantity(100L)
+                .soldCount((long) tickets)
+                .isActive(true)
+                .isPaid(true)
+                .quantityPerAttendee(tickets)
+                .build());
+        EventRegistration registration = eventRegistrationRepository.save(EventRegistration.builder()
+                .event(event)
+                .ticketType(ticketType)
+                .fullName("Attendee")
+                .email("attendee@example.com")
+                .ticketQuantity((long) tickets)
+                .status(EventRegistrationStatusEnum.CONFIRMED)
+                .build());
+        for (int i = 0; i < tickets; i++) {
+            Ticket ticket = ticketRepository.save(Ticket.builder()
+                    .event(event)
+                    .ticketType(ticketType)
+                    .quantity(1)
+                    .ticketCode(UUID.randomUUID().toString())
+                    .build());
+            jdbcTemplate.update("UPDATE ticket SET created_at = ? WHERE id = ?", noonOf(day), ticket.getId());
+        }
+        jdbcTemplate.update("UPDATE events SET created_at = ? WHERE id = ?", noonOf(day), event.getId());
+        jdbcTemplate.update("UPDATE event_registration SET created_at = ? WHERE id = ?", noonOf(day), registration.getId());
+    }
+
+    private EventDailyStats day(LocalDate day) {
+        return eventDailyStatsRepository.findById(day).orElseThrow();
+    }
+
+    @Test
+    void firstRunCountsEveryDayAndMonth() {
+        LocalDate lastMonth = today.minusMonths(1).withDayOfMonth(3);
+        sale(lastMonth, 2);
+        sale(lastMonth, 1);
+        sale(today, 4);
+
+        eventStatsRollupService.rollUp();
+
+        EventDailyStats earlier = day(lastMonth);
+        assertEquals(2, earlier.getEventsCreated());
+        assertEquals(2, earlier.getRegistrations());
+        assertEquals(3, earlier.getTicketsSold());
+        assertEquals(3 * PRICE, earlier.getRevenue());
+        assertEquals(4, day(today).getTicketsSold());
+
+        EventMonthlyStats month = eventMonthlyStatsRepository.findById(lastMonth.withDayOfMonth(1)).orElseThrow();
+        assertEquals(2, month.getEventsCreated());
+        assertEquals(3, month.getTicketsSold());
+    }
+
+    @Test
+    void laterRunsOnlyCountRecentDays() {
+        sale(today, 1);
+        eventStatsRollupService.rollUp();
+
+        sale(today, 2);
+        // created long before the watermark, e.g. imported, so not looked at again
+        sale(today.minusDays(40), 5);
+        eventStatsRollupService.rollUp();
+        eventStatsRollupService.rollUp();
+
+        assertEquals(2, day(today).getEventsCreated());
+        assertEquals(3, day(today).getTicketsSold());
+        assertTrue(eventDailyStatsRepository.findById(today.minusDays(40)).isEmpty());
+        assertEquals(3, eventMonthlyStatsRepository.findById(today.withDayOfMonth(1)).orElseThrow().getTicketsSold());
+    }
+
+    @Test
+    void graphReadsMonthlyRollups() {
+        LocalDate lastYear = today.minusYears(1).withDayOfMonth(1);
+        sale(lastYear, 1);
+        sale(today, 1);
+        sale(today, 1);
+        // too old for the graph
+        sale(today.minusYears(2), 1);
+        eventStatsRollupService.rollUp();
+
+        GraphResponse graph = eventGraphService.getEventGraphData();
+
+        @SuppressWarnings("unchecked")
+        List<EventMonthlyStatsProjection> months = (List<EventMonthlyStatsProjection>) graph.monthlyData().getFirst();
+        assertEquals(2, months.size());
+        assertEquals(lastYear.getMonthValue(), months.getFirst().getMonth());
+        assertEquals(1, months.getFirst().getTotalEventsCreated());
+        assertEquals(today.getYear(), months.getLast().getYear());
+        assertEquals(2, months.getLast().getTotalEventsCreated());
+        assertEquals(2, graph.metadata().maxValue());
+    }
+
+    @Test
+    void statsAreGroupedIntoWholePeriods() {
+        LocalDate monday = today.minusWeeks(3).with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        sale(monday, 1);
+        sale(monday.plusDays(6), 2);
+        sale(monday.plusWeeks(2).plusDays(1), 3);
+        eventStatsRollupService.rollUp();
+
+        List<EventStatsResponse> weeks = eventGraphService.getStats(monday.plusDays(2), monday.plusWeeks(2).plusDays(1), StatsGranularity.WEEK);
+        assertEquals(List.of(monday, monday.plusWeeks(1), monday.plusWeeks(2)), weeks.stream().map(EventStatsResponse::periodStart).toList());
+        assertEquals(List.of(3L, 0L, 3L), weeks.stream().map(EventStatsResponse::ticketsSold).toList());
+        assertEquals(75.0, weeks.getFirst().revenue());
+
+        List<EventStatsResponse> days = eventGraphService.getStats(monday, monday.plusDays(6), StatsGranularity.DAY);
+        assertEquals(7, days.size());
+        assertEquals(2, days.getLast().ticketsSold());
+
+        List<EventStatsResponse> months = eventGraphService.getStats(monday, today, StatsGranularity.MONTH);
+        assertEquals(monday.withDayOfMonth(1), months.getFirst().periodStart());
+        assertEquals(6, months.stream().mapToLong(EventStatsResponse::ticketsSold).sum());
+    }
+
+    @Test
+    void statsRejectReversedRange() {
+        assertThrows(BadRequestException.class, () -> eventGraphService.getStats(today, today.minusDays(1), StatsGranularity.DAY));
+    }
+
+    @Test
+    void statsRejectRangesWithTooManyPeriods() {
+        LocalDate from = LocalDate.of(2024, 1, 1);
+        assertEquals(366, eventGraphService.getStats(from, from.plusDays(365), StatsGranularity.DAY).size());
+        assertThrows(BadRequestException.class, () -> eventGraphService.getStats(from, from.plusDays(366), StatsGranularity.DAY));
+        assertThrows(BadRequestException.class, () -> eventGraphService.getStats(from, from.plusYears(6), StatsGranularity.WEEK));
+        assertEquals(120, eventGraphService.getStats(from, from.plusMonths(119), StatsGranularity.MONTH).size());
+        assertThrows(BadRequestException.class, () -> eventGraphService.getStats(from, from.plusYears(20), StatsGranularity.MONTH));
+    }
+}
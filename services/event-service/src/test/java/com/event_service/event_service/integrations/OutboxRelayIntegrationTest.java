@@ -0,0 +1,182 @@
+package com.event_service.event_service.integrations;
+
+import com.event_service.event_service.models.OutboxMessage;
+import com.event_service.event_service.models.enums.OutboxMessageStatusEnum;
+import com.event_service.event_service.repositories.OutboxMessageRepository;
+import com.event_service.event_service.services.OutboxService;
+import com.example.common_libraries.service.S3Service;
+import com.example.common_libraries.service.SqsBatchPublisher;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(properties = {"outbox.relay.max-attempts=2", "outbox.relay.send-timeout-ms=200"})
+@ActiveProfiles("test")
+class OutboxRelayIntegrationTest {
+
+    private static final String QUEUE_URL = "http://localhost:4566/000000000000/ticket-purchased-event-queue";
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private OutboxMessageRepository outboxMessageRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @MockitoBean
+    private SqsBatchPublisher sqsBatchPublisher;
+
+    @MockitoBean
+    private S3Service s3Service;
+
+    private final List<String> published = Collections.synchronizedList(new ArrayList<>());
+
+    @BeforeEach
+    void setup() {
+        outboxMessageRepository.deleteAll();
+        published.clear();
+        when(sqsBatchPublisher.publish(anyString(), anyString())).thenAnswer(invocation -> {
+            String body = invocation.getArgument(1);
+            if (body.startsWith("fail")) {
+                return CompletableFuture.failedFuture(new IllegalStateException("SQS unavailable"));
+            }
+            published.add(body);
+            return CompletableFuture.completedFuture("msg-" + body);
+        });
+    }
+
+    @Test
+    void messageIsOnlyStoredWhenTransactionCommits() {
+        transactionTemplate.executeWithoutResult(status -> {
+            outboxService.enqueue(QUEUE_URL, "attendee:a@example.com", "rolled-back");
+            status.setRollbackOnly();
+        });
+        transactionTemplate.executeWithoutResult(status ->
+                outboxService.enqueue(QUEUE_URL, "attendee:a@example.com", "committed"));
+
+        List<OutboxMessage> stored = outboxMessageRepository.findAll();
+        assertEquals(1, stored.size());
+        assertEquals("committed", stored.getFirst().getPayload());
+    }
+
+    @Test
+    void relaySendsAndDeletesPendingMessagesInOrder() {
+        for (int i = 0; i < 25; i++) {
+            outboxService.enqueue(QUEUE_URL, "attendee:a@example.com", "a-" + i);
+            outboxService.enqueue(QUEUE_URL, null, "unordered-" + i);
+        }
+
+        assertEquals(50, outboxService.relay());
+
+        List<String> aggregate = published.stream().filter(body -> body.startsWith("a-")).toList();
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            expected.add("a-" + i);
+        }
+        assertEquals(expected, aggregate);
+        assertEquals(0, outboxMessageRepository.count());
+    }
+
+    @Test
+    void failedMessageHoldsBackLaterMessagesOfItsAggregate() {
+        outboxService.enqueue(QUEUE_URL, "attendee:a@example.com", "fail-a-1");
+        outboxService.enqueue(QUEUE_URL, "attendee:a@example.com", "a-2");
+        outboxService.enqueue(QUEUE_URL, "attendee:b@example.com", "b-1");
+
+        assertEquals(1, outboxService.relay());
+        assertEquals(List.of("b-1"), published);
+
+        List<OutboxMessage> remaining = outboxMessageRepository.findAll().stream()
+                .sorted((left, right) -> left.getId().compareTo(right.getId()))
+                .toList();
+        assertEquals(2, remaining.size());
+        assertEquals(1, remaining.get(0).getAttempts());
+        assertTrue(remaining.get(0).getNextAttemptAt().isAfter(Instant.now()));
+        assertEquals(0, remaining.get(1).getAttempts());
+
+        // still backing off, so neither message of the aggregate is sent
+        assertEquals(0, outboxService.relay());
+        assertEquals(List.of("b-1"), published);
+    }
+
+    @Test
+    void messageIsMarkedFailedAfterMaxAttempts() {
+        outboxService.enqueue(QUEUE_URL, null, "fail-forever");
+
+        outboxService.relay();
+        OutboxMessage message = outboxMessageRepository.findAll().getFirst();
+        message.setNextAttemptAt(Instant.now().minusSeconds(1));
+        outboxMessageRepository.save(message);
+        outboxService.relay();
+
+        OutboxMessage failed = outboxMessageRepository.findAll().getFirst();
+        assertEquals(OutboxMessageStatusEnum.FAILED, failed.getStatus());
+        assertEquals(2, failed.getAttempts());
+    }
+
+    @Test
+    void sendAcceptedAfterTheTimeoutIsNotSentAgain() {
+        CompletableFuture<String> lateAccept = new CompletableFuture<>();
+        when(sqsBatchPublisher.publish(anyString(), eq("slow"))).thenReturn(lateAccept);
+        outboxService.enqueue(QUEUE_URL, null, "slow");
+
+        assertEquals(0, outboxService.relay());
+        OutboxMessage leased = outboxMessageRepository.findAll().getFirst();
+        assertEquals(0, leased.getAttempts());
+        assertTrue(leased.getNextAttemptAt().isAfter(Instant.now()));
+
+        // the lease keeps the message from being claimed while its send is still running
+        assertEquals(0, outboxService.relay());
+
+        lateAccept.complete("msg-slow");
+        assertEquals(0, outboxMessageRepository.count());
+    }
+
+    @Test
+    void backedOffMessagesDontHoldBackNewOnes() {
+        outboxService.enqueue(QUEUE_URL, null, "backed-off");
+        OutboxMessage backedOff = outboxMessageRepository.findAll().getFirst();
+        backedOff.setNextAttemptAt(Instant.now().plusSeconds(60));
+        outboxMessageRepository.save(backedOff);
+        outboxService.enqueue(QUEUE_URL, null, "new");
+
+        List<String> claimed = transactionTemplate.execute(status -> outboxMessageRepository.claimPending(Instant.now(), 1)
+                .stream().map(OutboxMessage::getPayload).toList());
+
+        assertEquals(List.of("new"), claimed);
+    }
+
+    @Test
+    void laterMessagesOfAnAggregateAreOnlyClaimedWithItsOldest() {
+        outboxService.enqueue(QUEUE_URL, "attendee:a@example.com", "a-1");
+        OutboxMessage backedOff = outboxMessageRepository.findAll().getFirst();
+        backedOff.setNextAttemptAt(Instant.now().plusSeconds(60));
+        outboxMessageRepository.save(backedOff);
+        outboxService.enqueue(QUEUE_URL, "attendee:a@example.com", "a-2");
+        outboxService.enqueue(QUEUE_URL, "attendee:b@example.com", "b-1");
+        outboxService.enqueue(QUEUE_URL, "attendee:b@example.com", "b-2");
+
+        // a-2 can't be claimed on its own, or another relay holding a-1 could send it first
+        List<String> claimed = transactionTemplate.execute(status -> outboxMessageRepository.claimPending(Instant.now(), 10)
+                .stream().map(OutboxMessage::getPayload).toList());
+
+        assertEquals(List.of("b-1", "b-2"), claimed);
+    }
+}
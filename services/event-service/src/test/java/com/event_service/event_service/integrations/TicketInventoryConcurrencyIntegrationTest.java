@@ -0,0 +1,314 @@
+package com.event_service.event_service.integrations;
+
+import com.event_service.event_service.client.PaymentServiceClient;
+import com.event_service.event_service.dto.EventRegistrationRequest;
+import com.example.common_libraries.dto.EventRegistrationResponse;
+import com.event_service.event_service.models.Event;
+import com.event_service.event_service.models.EventMeetingType;
+import com.event_service.event_service.models.TicketReservation;
+import com.event_service.event_service.models.TicketType;
+import com.event_service.event_service.models.OutboxMessage;
+import com.event_service.event_service.models.enums.EventMeetingTypeEnum;
+import com.event_service.event_service.models.enums.ReservationConfirmationEnum;
+import com.event_service.event_service.models.enums.TicketReservationStatusEnum;
+import com.event_service.event_service.repositories.EventRegistrationRepository;
+import com.event_service.event_service.repositories.EventRepository;
+import com.event_service.event_service.repositories.EventSalesSummaryRepository;
+import com.event_service.event_service.repositories.OutboxMessageRepository;
+import com.event_service.event_service.repositories.TicketReservationRepository;
+import com.event_service.event_service.repositories.TicketTypeRepository;
+import com.event_service.event_service.services.EventRegistrationService;
+import com.event_service.event_service.services.TicketInventoryService;
+import com.example.common_libraries.dto.PaystackResponse;
+import com.example.common_libraries.dto.queue_events.ProcessPaymentEvent;
+import com.example.common_libraries.exception.ResourceNotFoundException;
+import com.example.common_libraries.exception.ServiceCommunicationException;
+import com.example.common_libraries.service.S3Service;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(properties = {
+        "ticket.reservation.ttl-minutes=0",
+        "ticket.reservation.sweep-interval-ms=3600000"
+})
+@ActiveProfiles("test")
+class TicketInventoryConcurrencyIntegrationTest {
+
+    private static final long STOCK = 500;
+    private static final int THREADS = 200;
+    private static final int ATTEMPTS = 1_000;
+
+    @Autowired
+    private TicketInventoryService ticketInventoryService;
+
+    @Autowired
+    private EventRegistrationService eventRegistrationService;
+
+    @Autowired
+    private TicketTypeRepository ticketTypeRepository;
+
+    @Autowired
+    private TicketReservationRepository ticketReservationRepository;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private EventRegistrationRepository eventRegistrationRepository;
+
+    @Autowired
+    private EventSalesSummaryRepository eventSalesSummaryRepository;
+
+    @Autowired
+    private OutboxMessageRepository outboxMessageRepository;
+
+    @Value("${sqs.ticket-purchased-event-queue-url}")
+    private String ticketPurchasedEventQueueUrl;
+
+    @Value("${sqs.payment-status-queue-url}")
+    private String paymentStatusQueueUrl;
+
+    @Value("${sqs.refund-due-queue-url}")
+    private String refundDueQueueUrl;
+
+    @MockitoBean
+    private S3Service s3Service;
+
+    @MockitoBean
+    private PaymentServiceClient paymentServiceClient;
+
+    private Event event;
+
+    @BeforeEach
+    void setup() {
+        outboxMessageRepository.deleteAll();
+        eventSalesSummaryRepository.deleteAll();
+        ticketReservationRepository.deleteAll();
+        eventRepository.deleteAll();
+
+        event = eventRepository.save(Event.builder()
+                .title("Launch Party")
+                .description("On-sale spike")
+                .flyerUrl("https://example.com/flyer.png")
+                .createdBy("Organizer")
+                .userId(1L)
+                .startTime(Instant.now().plus(7, ChronoUnit.DAYS))
+                .eventMeetingType(EventMeetingType.builder().name(EventMeetingTypeEnum.IN_PERSON).build())
+                .build());
+    }
+
+    private TicketType ticketType(long quantity) {
+        return ticketTypeRepository.save(TicketType.builder()
+                .event(event)
+                .type("General")
+                .price(0.0)
+                .quantity(quantity)
+                .soldCount(0L)
+                .isActive(true)
+                .isPaid(false)
+                .quantityPerAttendee(1)
+                .build());
+    }
+
+    private TicketType paidTicketType(long quantity) {
+        return ticketTypeRepository.save(TicketType.builder()
+                .event(event)
+                .type("VIP")
+                .price(50.0)
+                .quantity(quantity)
+                .soldCount(0L)
+                .isActive(true)
+                .isPaid(true)
+                .quantityPerAttendee(1)
+                .build());
+    }
+
+    private EventRegistrationRequest checkout(Long ticketTypeId, int buyer) {
+        return new EventRegistrationRequest(ticketTypeId, 1L, "Buyer", "buyer" + buyer + "@example.com");
+    }
+
+    private ProcessPaymentEvent paymentCompleted(Long ticketTypeId, Long reservationId) {
+        return ProcessPaymentEvent.builder()
+                .amount(100.0)
+                .ticketTypeId(ticketTypeId)
+                .numberOfTickets(2L)
+                .fullName("Buyer")
+                .email("buyer@example.com")
+                .eventRegistrationResponse(EventRegistrationResponse.builder().id(event.getId()).build())
+                .reservationId(reservationId)
+                .transactionReference("ref-" + reservationId)
+                .build();
+    }
+
+    private List<OutboxMessage> outboxMessages(String queueUrl) {
+        return outboxMessageRepository.findAll().stream()
+                .filter(message -> message.getQueueUrl().equals(queueUrl))
+                .toList();
+    }
+
+    @Test
+    void concurrentBuyersNeverOversellTicketType() throws Exception {
+        Long ticketTypeId = ticketType(STOCK).getId();
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger sold = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int i = 0; i < ATTEMPTS; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                try {
+                    ticketInventoryService.reserve(ticketTypeId, 1L);
+                    sold.incrementAndGet();
+                } catch (ResourceNotFoundException e) {
+                    rejected.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        TicketType result = ticketTypeRepository.findById(ticketTypeId).orElseThrow();
+        assertEquals(STOCK, sold.get());
+        assertEquals(ATTEMPTS - STOCK, rejected.get());
+        assertEquals(STOCK, result.getSoldCount());
+        assertFalse(result.getIsActive());
+    }
+
+    @Test
+    void expiredHoldIsReleasedBackToStock() throws Exception {
+        Long ticketTypeId = ticketType(2).getId();
+
+        Long reservationId = ticketInventoryService.hold(ticketTypeId, 2L, "attendee@example.com");
+        assertThrows(ResourceNotFoundException.class, () -> ticketInventoryService.reserve(ticketTypeId, 1L));
+
+        Thread.sleep(5);
+        assertEquals(1, ticketInventoryService.releaseExpiredHolds());
+
+        TicketType released = ticketTypeRepository.findById(ticketTypeId).orElseThrow();
+        assertEquals(0L, released.getSoldCount());
+        assertTrue(released.getIsActive());
+
+        // payment completing after expiry takes the tickets from the remaining stock again
+        assertEquals(ReservationConfirmationEnum.CONFIRMED, ticketInventoryService.confirm(reservationId, ticketTypeId, 2L));
+        assertEquals(2L, ticketTypeRepository.findById(ticketTypeId).orElseThrow().getSoldCount());
+        assertEquals(ReservationConfirmationEnum.ALREADY_CONFIRMED, ticketInventoryService.confirm(reservationId, ticketTypeId, 2L));
+        assertEquals(2L, ticketTypeRepository.findById(ticketTypeId).orElseThrow().getSoldCount());
+    }
+
+    @Test
+    void redeliveredPaymentIsOnlyProcessedOnce() {
+        Long ticketTypeId = paidTicketType(STOCK).getId();
+        Long reservationId = ticketInventoryService.hold(ticketTypeId, 2L, "buyer@example.com");
+        ProcessPaymentEvent message = paymentCompleted(ticketTypeId, reservationId);
+
+        eventRegistrationService.completePayment(message);
+        eventRegistrationService.completePayment(message);
+
+        // stock is still there, so the redelivery would have been sold tickets again
+        assertEquals(2L, ticketTypeRepository.findById(ticketTypeId).orElseThrow().getSoldCount());
+        assertEquals(1, eventRegistrationRepository.countByEventId(event.getId()));
+        assertEquals(2, eventSalesSummaryRepository.findById(event.getId()).orElseThrow().getTicketsSold());
+        assertEquals(1, outboxMessages(ticketPurchasedEventQueueUrl).size());
+    }
+
+    @Test
+    void paymentForReleasedHoldOfSoldOutTicketTypeIsRefundedOnce() throws Exception {
+        Long ticketTypeId = paidTicketType(2).getId();
+        Long reservationId = ticketInventoryService.hold(ticketTypeId, 2L, "buyer@example.com");
+        Thread.sleep(5);
+        assertEquals(1, ticketInventoryService.releaseExpiredHolds());
+        ticketInventoryService.reserve(ticketTypeId, 2L);
+        ProcessPaymentEvent message = paymentCompleted(ticketTypeId, reservationId);
+
+        eventRegistrationService.completePayment(message);
+        eventRegistrationService.completePayment(message);
+
+        assertEquals(2L, ticketTypeRepository.findById(ticketTypeId).orElseThrow().getSoldCount());
+        assertEquals(0, eventRegistrationRepository.countByEventId(event.getId()));
+        assertTrue(outboxMessages(ticketPurchasedEventQueueUrl).isEmpty());
+        List<OutboxMessage> refunds = outboxMessages(refundDueQueueUrl);
+        assertEquals(1, refunds.size());
+        assertTrue(refunds.getFirst().getPayload().contains("\"transactionReference\":\"ref-" + reservationId + "\""));
+        List<OutboxMessage> notices = outboxMessages(paymentStatusQueueUrl);
+        assertEquals(1, notices.size());
+        assertTrue(notices.getFirst().getPayload().contains("\"status\":\"REFUND_DUE\""));
+        assertTrue(notices.getFirst().getPayload().contains("\"transactionId\":\"ref-" + reservationId + "\""));
+    }
+
+    @Test
+    void paidCheckoutsDontWaitForEachOthersPaymentInitialization() throws Exception {
+        Long ticketTypeId = paidTicketType(STOCK).getId();
+        int buyers = 8;
+
+        // every checkout has to be inside the payment call at once for any of them to get through, which
+        // only happens if the hold on the ticket type was committed before the call
+        CountDownLatch allInitializing = new CountDownLatch(buyers);
+        when(paymentServiceClient.initializeTransaction(any(ProcessPaymentEvent.class))).thenAnswer(invocation -> {
+            allInitializing.countDown();
+            if (!allInitializing.await(10, TimeUnit.SECONDS)) {
+                throw new ServiceCommunicationException("Checkouts were serialized behind the ticket type row");
+            }
+            return new PaystackResponse("https://checkout.paystack.com/" + UUID.randomUUID(), "ref");
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(buyers);
+        List<Future<EventRegistrationResponse>> futures = new ArrayList<>();
+        for (int i = 0; i < buyers; i++) {
+            int buyer = i;
+            futures.add(executor.submit(() -> eventRegistrationService.registerEvent(event.getId(), checkout(ticketTypeId, buyer))));
+        }
+        for (Future<EventRegistrationResponse> future : futures) {
+            assertNotNull(future.get(60, TimeUnit.SECONDS).authorizationUrl());
+        }
+        executor.shutdown();
+
+        assertEquals(buyers, ticketTypeRepository.findById(ticketTypeId).orElseThrow().getSoldCount());
+        assertEquals((long) buyers, ticketReservationRepository.findHeldTicketsByTicketTypeId(List.of(ticketTypeId)).get(ticketTypeId));
+    }
+
+    @Test
+    void failedPaymentInitializationReleasesHold() {
+        Long ticketTypeId = paidTicketType(1).getId();
+        when(paymentServiceClient.initializeTransaction(any(ProcessPaymentEvent.class)))
+                .thenThrow(new ServiceCommunicationException("Unexpected error calling Payment Service"));
+
+        assertThrows(ServiceCommunicationException.class,
+                () -> eventRegistrationService.registerEvent(event.getId(), checkout(ticketTypeId, 1)));
+
+        TicketType ticketType = ticketTypeRepository.findById(ticketTypeId).orElseThrow();
+        assertEquals(0L, ticketType.getSoldCount());
+        assertTrue(ticketType.getIsActive());
+        List<TicketReservation> reservations = ticketReservationRepository.findAll();
+        assertEquals(1, reservations.size());
+        assertEquals(TicketReservationStatusEnum.RELEASED, reservations.getFirst().getStatus());
+    }
+}
@@ -0,0 +1,97 @@
+package com.event_service.event_service.mappers;
+
+import com.event_service.event_service.benchmarks.QRCodeGenerator;
+import com.event_service.event_service.models.Ticket;
+import com.event_service.event_service.models.TicketType;
+import com.event_service.event_service.models.enums.TicketStatusEnum;
+import com.example.common_libraries.dto.TicketEventDetailResponse;
+import com.example.common_libraries.dto.TicketResponse;
+import com.example.common_libraries.dto.queue_events.TicketPurchasedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TicketPurchasedEventMapperTest {
+
+    private static final int TICKETS = 10;
+    private static final String VERIFY_URL = "https://alb.example.com/api/v1/tickets/verify/";
+
+    private final TicketPurchasedEventMapper mapper = new TicketPurchasedEventMapper();
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    private List<Ticket> tickets;
+    private TicketEventDetailResponse eventDetails;
+
+    @BeforeEach
+    void setup() {
+        TicketType ticketType = TicketType.builder().type("General").build();
+
+        tickets = new ArrayList<>();
+        for (long i = 1; i <= TICKETS; i++) {
+            tickets.add(Ticket.builder()
+                    .id(i)
+                    .ticketType(ticketType)
+                    .quantity(1)
+                    .ticketCode(UUID.randomUUID().toString())
+                    .status(TicketStatusEnum.ACTIVE)
+                    .build());
+        }
+
+        eventDetails = TicketEventDetailResponse.builder()
+                .id(1L)
+                .title("Launch Party")
+                .organizerName("Organizer")
+                .description("On-sale spike")
+                .startTime(Instant.now().plus(7, ChronoUnit.DAYS))
+                .endTime(Instant.now().plus(8, ChronoUnit.DAYS))
+                .eventMeetingType("IN_PERSON")
+                .zoneId("UTC")
+                .build();
+    }
+
+    @Test
+    void ticketResponseCarriesCodeWithoutQrImage() throws Exception {
+        TicketResponse response = mapper.toTicketResponse(tickets.getFirst());
+
+        assertEquals(tickets.getFirst().getTicketCode(), response.ticketCode());
+        assertFalse(objectMapper.writeValueAsString(response).contains("qrCodeUrl"));
+    }
+
+    @SuppressWarnings("deprecation")
+    @Test
+    void ticketPurchasedMessageIsMuchSmallerWithoutQrImages() throws Exception {
+        List<TicketResponse> legacyTickets = new ArrayList<>();
+        for (Ticket ticket : tickets) {
+            TicketResponse response = mapper.toTicketResponse(ticket);
+            legacyTickets.add(TicketResponse.builder()
+                    .id(response.id())
+                    .ticketType(response.ticketType())
+                    .ticketCode(response.ticketCode())
+                    .qrCodeUrl(QRCodeGenerator.generateQRCodeBase64(VERIFY_URL + ticket.getTicketCode(), 100, 100))
+                    .status(response.status())
+                    .build());
+        }
+        List<TicketResponse> codeOnlyTickets = tickets.stream().map(mapper::toTicketResponse).toList();
+
+        int legacySize = messageSize(legacyTickets);
+        int codeOnlySize = messageSize(codeOnlyTickets);
+
+        assertTrue(legacySize > codeOnlySize * 3,
+                "Expected QR-free message to be at least 3x smaller: legacy=" + legacySize + " bytes, code only=" + codeOnlySize + " bytes");
+    }
+
+    private int messageSize(List<TicketResponse> ticketResponses) throws Exception {
+        TicketPurchasedEvent event = mapper.toTicketPurchasedEvent("Attendee", "attendee@example.com", ticketResponses, eventDetails);
+        return objectMapper.writeValueAsString(event).getBytes(StandardCharsets.UTF_8).length;
+    }
+}
@@ -40,6 +40,7 @@ class EventServiceImplTest {
     @Mock private EventValidator eventValidator;
     @Mock private EventMapper eventMapper;
     @Mock private EventRepository eventRepository;
+    @Mock private EventSalesSummaryService eventSalesSummaryService;
 
     @InjectMocks
     private EventServiceImpl eventService;
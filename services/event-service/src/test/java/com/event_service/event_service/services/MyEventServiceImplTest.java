@@ -2,23 +2,31 @@ package com.event_service.event_service.services;
 
 import com.event_service.event_service.client.UserServiceClient;
 import com.event_service.event_service.dto.*;
+import com.event_service.event_service.dto.projection.EventSummaryProjection;
+import com.event_service.event_service.dto.projection.SalesTotalsProjection;
 import com.event_service.event_service.models.*;
 import com.event_service.event_service.repositories.*;
+import com.event_service.event_service.utils.ConcurrentParts;
 import com.event_service.event_service.utils.SecurityUtils;
 import com.example.common_libraries.dto.AppUser;
 import com.example.common_libraries.dto.HostsResponse;
 import com.example.common_libraries.exception.BadRequestException;
 import com.example.common_libraries.exception.ResourceNotFoundException;
+import com.example.common_libraries.exception.ServiceCommunicationException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.*;
+import reactor.core.publisher.Mono;
 
 import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
@@ -34,10 +42,7 @@ class MyEventServiceImplTest {
     private EventRepository eventRepository;
 
     @Mock
-    private EventRegistrationRepository eventRegistrationRepository;
-
-    @Mock
-    private TicketRepository ticketRepository;
+    private EventSalesSummaryRepository eventSalesSummaryRepository;
 
     @Mock
     private EventInvitationRepository eventInvitationRepository;
@@ -45,9 +50,17 @@ class MyEventServiceImplTest {
     @Mock
     private EventOrganizerRepository eventOrganizerRepository;
 
+    @Mock
+    private TicketReservationRepository ticketReservationRepository;
+
     @Mock
     private UserServiceClient userServiceClient;
 
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private ConcurrentParts concurrentParts = new ConcurrentParts(meterRegistry, 5000, 200, 8);
+
     @InjectMocks
     private MyEventServiceImpl myEventService;
 
@@ -59,6 +72,7 @@ class MyEventServiceImplTest {
     void setUp() {
         currentUser = mock(AppUser.class);
         lenient().when(currentUser.id()).thenReturn(1L);
+        lenient().when(currentUser.role()).thenReturn("ORGANIZER");
         lenient().when(securityUtils.getCurrentUser()).thenReturn(currentUser);
     }
 
@@ -88,6 +102,10 @@ class MyEventServiceImplTest {
         Page<Event> eventsPage = new PageImpl<>(List.of(event1));
 
         when(eventRepository.findAllByUserId(eq(1L), any(Pageable.class))).thenReturn(eventsPage);
+        EventSummaryProjection summary = mock(EventSummaryProjection.class);
+        when(summary.getAttendeeCount()).thenReturn(2L);
+        when(summary.getIsPaid()).thenReturn(true);
+        when(eventRepository.findEventSummariesById(List.of(10L))).thenReturn(Map.of(10L, summary));
 
         Page<MyEventsListResponse> result = myEventService.getMyEvents(1);
 
@@ -119,8 +137,10 @@ class MyEventServiceImplTest {
     @Test
     void getMyEventsOverview_shouldReturnExpectedAggregates() {
         when(eventRepository.countByUserId(1L)).thenReturn(5L);
-        when(eventRegistrationRepository.countByEventUserId(1L)).thenReturn(100L);
-        when(ticketRepository.findTotalTicketSalesForUser(1L)).thenReturn(2500.50);
+        SalesTotalsProjection totals = mock(SalesTotalsProjection.class);
+        when(totals.getAttendees()).thenReturn(100L);
+        when(totals.getGrossRevenue()).thenReturn(2500.50);
+        when(eventSalesSummaryRepository.getTotalsForOrganizer(1L)).thenReturn(totals);
 
         MyEventsOverviewResponse response = myEventService.getMyEventsOverview();
 
@@ -152,26 +172,25 @@ class MyEventServiceImplTest {
         ticketType.setQuantity(100L);
         ticketType.setSoldCount(30L);
         event.setTicketTypes(List.of(ticketType));
-
-        // Mock total ticket sales
-        when(ticketRepository.findTotalTicketSalesForEvent(event)).thenReturn(1500.75);
-        EventInvitee invitee1 = EventInvitee.builder().inviteeName("guest1").build();
-        EventInvitee invitee2 = EventInvitee.builder().inviteeName("guest2").build();
-        EventInvitee invitee3 = EventInvitee.builder().inviteeName("guest3").build();
-
+        // 5 of the 30 taken from stock are held for checkouts still in progress
+        when(ticketReservationRepository.findHeldTicketsByTicketTypeId(List.of(1L))).thenReturn(Map.of(1L, 5L));
+
+        // Mock sales summary
+        when(eventSalesSummaryRepository.findById(100L)).thenReturn(Optional.of(EventSalesSummary.builder()
+                .eventId(100L)
+                .attendees(2L)
+                .grossRevenue(1500.75)
+                .build()));
         // Mock invitations
-        when(eventInvitationRepository.findAllByEvent(event)).thenReturn(List.of(
-                new EventInvitation() {{ setInvitees(List.of(invitee1, invitee2)); }},
-                new EventInvitation() {{ setInvitees(List.of(invitee3)); }}
-        ));
+        when(eventInvitationRepository.countInviteesByEventId(100L)).thenReturn(3L);
 
         // Mock event organizers / hosts
         when(eventOrganizerRepository.findUserIdsByEventId(100L)).thenReturn(List.of(2L, 3L));
-        when(userServiceClient.getEventHosts(List.of(2L, 3L), accessToken))
-                .thenReturn(List.of(
+        when(userServiceClient.fetchEventHosts(List.of(2L, 3L), accessToken))
+                .thenReturn(Mono.just(List.of(
                         HostsResponse.builder().id(2L).fullName("Alice").build(),
                         HostsResponse.builder().id(3L).fullName("Bob").build()
-                ));
+                )));
 
         when(eventRepository.findByIdAndUserId(100L, 1L)).thenReturn(Optional.of(event));
 
@@ -184,6 +203,9 @@ class MyEventServiceImplTest {
         assertThat(response.eventStats().totalAttendees()).isEqualTo(2L);
         assertThat(response.eventStats().totalTicketSales()).isEqualTo(1500.75);
         assertThat(response.eventSummary().organizer()).isEqualTo("John Organizer");
+        assertThat(response.ticketTypes().getFirst().soldTickets()).isEqualTo(25L);
+        assertThat(response.ticketTypes().getFirst().heldTickets()).isEqualTo(5L);
+        assertThat(response.ticketTypes().getFirst().remainingTickets()).isEqualTo(70L);
     }
 
     @Test
@@ -203,7 +225,7 @@ class MyEventServiceImplTest {
     }
 
     @Test
-    void getMyEventDetailsById_shouldHandleNullTicketSalesGracefully() {
+    void getMyEventDetailsById_shouldHandleMissingSalesSummaryGracefully() {
         Event event = new Event();
         event.setId(200L);
         event.setEventRegistrations(List.of());
@@ -212,16 +234,54 @@ class MyEventServiceImplTest {
         event.setStartTime(Instant.parse("2025-12-01T15:00:00Z"));
 
         when(eventRepository.findByIdAndUserId(200L, 1L)).thenReturn(Optional.of(event));
-        when(ticketRepository.findTotalTicketSalesForEvent(event)).thenReturn(null);
-        when(eventInvitationRepository.findAllByEvent(event)).thenReturn(List.of());
+        when(eventSalesSummaryRepository.findById(200L)).thenReturn(Optional.empty());
+        when(eventInvitationRepository.countInviteesByEventId(200L)).thenReturn(0L);
         when(eventOrganizerRepository.findUserIdsByEventId(200L)).thenReturn(List.of());
-        when(userServiceClient.getEventHosts(List.of(), accessToken)).thenReturn(List.of());
+        when(userServiceClient.fetchEventHosts(List.of(), accessToken)).thenReturn(Mono.just(List.of()));
 
         MyEventDetailResponse response = myEventService.getMyEventDetailsById(200L, accessToken);
 
         assertThat(response.eventStats().totalAttendees()).isZero();
-        assertThat(response.eventStats().totalTicketSales()).isNull();
+        assertThat(response.eventStats().totalTicketSales()).isZero();
         assertThat(response.totalInvitedGuests()).isZero();
         assertThat(response.eventHosts()).isEmpty();
     }
+
+    @Test
+    void getMyEventDetailsById_shouldLeaveOutHosts_whenUserServiceIsSlow() {
+        Event event = new Event();
+        event.setId(300L);
+
+        when(eventRepository.findByIdAndUserId(300L, 1L)).thenReturn(Optional.of(event));
+        when(eventSalesSummaryRepository.findById(300L)).thenReturn(Optional.empty());
+        when(eventInvitationRepository.countInviteesByEventId(300L)).thenReturn(4L);
+        when(eventOrganizerRepository.findUserIdsByEventId(300L)).thenReturn(List.of(2L));
+        // never answers, so only the optional timeout can complete the hosts part
+        AtomicBoolean cancelled = new AtomicBoolean();
+        when(userServiceClient.fetchEventHosts(List.of(2L), accessToken))
+                .thenReturn(Mono.<List<HostsResponse>>never().doOnCancel(() -> cancelled.set(true)));
+
+        MyEventDetailResponse response = myEventService.getMyEventDetailsById(300L, accessToken);
+
+        assertThat(meterRegistry.counter("composite.parts.fallback", "part", "event hosts", "reason", "timeout").count()).isEqualTo(1);
+        assertThat(cancelled).isTrue();
+        assertThat(response.eventHosts()).isEmpty();
+        assertThat(response.totalInvitedGuests()).isEqualTo(4L);
+    }
+
+    @Test
+    void getMyEventDetailsById_shouldFail_whenSalesCannotBeLoaded() {
+        Event event = new Event();
+        event.setId(400L);
+
+        when(eventRepository.findByIdAndUserId(400L, 1L)).thenReturn(Optional.of(event));
+        when(eventSalesSummaryRepository.findById(400L)).thenThrow(new ServiceCommunicationException("Database unavailable"));
+        lenient().when(eventInvitationRepository.countInviteesByEventId(400L)).thenReturn(0L);
+        lenient().when(eventOrganizerRepository.findUserIdsByEventId(400L)).thenReturn(List.of());
+        lenient().when(userServiceClient.fetchEventHosts(List.of(), accessToken)).thenReturn(Mono.just(List.of()));
+
+        assertThatThrownBy(() -> myEventService.getMyEventDetailsById(400L, accessToken))
+                .isInstanceOf(ServiceCommunicationException.class)
+                .hasMessage("Database unavailable");
+    }
 }
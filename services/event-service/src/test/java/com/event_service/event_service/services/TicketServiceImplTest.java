@@ -26,6 +26,9 @@ class TicketServiceImplTest {
     @Mock
     private TicketRepository ticketRepository;
 
+    @Mock
+    private EventSalesSummaryService eventSalesSummaryService;
+
     @InjectMocks
     private TicketServiceImpl ticketService;
 
@@ -59,6 +62,7 @@ class TicketServiceImplTest {
         @DisplayName("should verify active ticket successfully and set status to USED")
         void shouldVerifyActiveTicketSuccessfully() {
             when(ticketRepository.findByTicketCode("ABC123")).thenReturn(activeTicket);
+            when(ticketRepository.checkIn(eq("ABC123"), any(LocalDateTime.class))).thenReturn(1);
 
             LocalDateTime before = LocalDateTime.now();
             TicketVerificationResponse response = ticketService.verifyTicket("ABC123");
@@ -70,13 +74,26 @@ class TicketServiceImplTest {
             assertEquals(200.0, response.price());
             assertEquals("Ticket verified successfully ✅", response.message());
 
-            ArgumentCaptor<Ticket> captor = ArgumentCaptor.forClass(Ticket.class);
-            verify(ticketRepository).save(captor.capture());
-            Ticket saved = captor.getValue();
+            ArgumentCaptor<LocalDateTime> checkedInAt = ArgumentCaptor.forClass(LocalDateTime.class);
+            verify(ticketRepository).checkIn(eq("ABC123"), checkedInAt.capture());
+            verify(eventSalesSummaryService).recordCheckIn(activeTicket.getEvent());
+            assertTrue(checkedInAt.getValue().isAfter(before.minusSeconds(1)));
+            assertTrue(checkedInAt.getValue().isBefore(after.plusSeconds(1)));
+        }
+
+        @Test
+        @DisplayName("should throw when a concurrent scan checked the ticket in first")
+        void shouldThrowWhenCheckedInConcurrently() {
+            when(ticketRepository.findByTicketCode("ABC123")).thenReturn(activeTicket);
+            when(ticketRepository.checkIn(eq("ABC123"), any(LocalDateTime.class))).thenReturn(0);
 
-            assertEquals(TicketStatusEnum.USED, saved.getStatus());
-            assertTrue(saved.getCheckedInAt().isAfter(before.minusSeconds(1)));
-            assertTrue(saved.getCheckedInAt().isBefore(after.plusSeconds(1)));
+            ResourceNotFoundException ex =
+                    assertThrows(ResourceNotFoundException.class, () ->
+                            ticketService.verifyTicket("ABC123")
+                    );
+
+            assertEquals("Ticket has already been checked in", ex.getMessage());
+            verify(eventSalesSummaryService, never()).recordCheckIn(any());
         }
 
         @Test
@@ -90,7 +107,7 @@ class TicketServiceImplTest {
                     );
 
             assertEquals("Ticket not found", ex.getMessage());
-            verify(ticketRepository, never()).save(any());
+            verify(ticketRepository, never()).checkIn(any(), any());
         }
 
         @Test
@@ -105,7 +122,7 @@ class TicketServiceImplTest {
                     );
 
             assertTrue(ex.getMessage().contains("Ticket is not active"));
-            verify(ticketRepository, never()).save(any());
+            verify(ticketRepository, never()).checkIn(any(), any());
         }
 
         @Test
@@ -113,6 +130,7 @@ class TicketServiceImplTest {
         void shouldThrowIfTicketTypeMissing() {
             activeTicket.setTicketType(null);
             when(ticketRepository.findByTicketCode("ABC123")).thenReturn(activeTicket);
+            when(ticketRepository.checkIn(eq("ABC123"), any(LocalDateTime.class))).thenReturn(1);
 
             assertThrows(NullPointerException.class, () ->
                     ticketService.verifyTicket("ABC123")
@@ -132,14 +150,26 @@ class TicketServiceImplTest {
         @DisplayName("should return meeting URL and set ticket to USED for valid ticket")
         void shouldReturnMeetingUrlForValidTicket() {
             when(ticketRepository.findByTicketCode("ABC123")).thenReturn(activeTicket);
+            when(ticketRepository.checkIn(eq("ABC123"), any(LocalDateTime.class))).thenReturn(1);
 
             String url = ticketService.validateAndGetMeetingUrl("ABC123");
 
             assertEquals("https://zoom.us/meeting/test123", url);
+            verify(ticketRepository).checkIn(eq("ABC123"), any(LocalDateTime.class));
+            verify(eventSalesSummaryService).recordCheckIn(activeTicket.getEvent());
+        }
 
-            ArgumentCaptor<Ticket> captor = ArgumentCaptor.forClass(Ticket.class);
-            verify(ticketRepository).save(captor.capture());
-            assertEquals(TicketStatusEnum.USED, captor.getValue().getStatus());
+        @Test
+        @DisplayName("should throw when a concurrent request used the ticket first")
+        void shouldThrowWhenUsedConcurrently() {
+            when(ticketRepository.findByTicketCode("ABC123")).thenReturn(activeTicket);
+            when(ticketRepository.checkIn(eq("ABC123"), any(LocalDateTime.class))).thenReturn(0);
+
+            assertThrows(BadRequestException.class, () ->
+                    ticketService.validateAndGetMeetingUrl("ABC123")
+            );
+
+            verify(eventSalesSummaryService, never()).recordCheckIn(any());
         }
 
         @Test
@@ -171,7 +201,7 @@ class TicketServiceImplTest {
             );
 
             assertTrue(ex.getMessage().contains("invalid"));
-            verify(ticketRepository, never()).save(any());
+            verify(ticketRepository, never()).checkIn(any(), any());
         }
 
         @Test
@@ -189,6 +219,7 @@ class TicketServiceImplTest {
             ArgumentCaptor<Ticket> captor = ArgumentCaptor.forClass(Ticket.class);
             verify(ticketRepository).save(captor.capture());
             assertEquals(TicketStatusEnum.EXPIRED, captor.getValue().getStatus());
+            verify(eventSalesSummaryService, never()).recordCheckIn(any());
         }
 
         @Test
@@ -197,6 +228,7 @@ class TicketServiceImplTest {
             activeTicket.getEvent().setZoomMeetingLink(null);
 
             when(ticketRepository.findByTicketCode("ABC123")).thenReturn(activeTicket);
+            when(ticketRepository.checkIn(eq("ABC123"), any(LocalDateTime.class))).thenReturn(1);
 
             String result = ticketService.validateAndGetMeetingUrl("ABC123");
 
@@ -208,10 +240,12 @@ class TicketServiceImplTest {
         void shouldReturnEmptyIfEventMissing() {
             activeTicket.setEvent(null);
             when(ticketRepository.findByTicketCode("ABC123")).thenReturn(activeTicket);
+            when(ticketRepository.checkIn(eq("ABC123"), any(LocalDateTime.class))).thenReturn(1);
 
             String result = ticketService.validateAndGetMeetingUrl("ABC123");
 
             assertEquals("", result);
+            verify(eventSalesSummaryService, never()).recordCheckIn(any());
         }
     }
 }
@@ -0,0 +1,91 @@
+package com.event_service.event_service.utils;
+
+import com.example.common_libraries.exception.ServiceCommunicationException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+class ConcurrentPartsTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    // one slot, so a part that kept running after its timeout would hold up the next one
+    private final ConcurrentParts concurrentParts = new ConcurrentParts(meterRegistry, 100, 100, 1);
+
+    @AfterEach
+    void tearDown() {
+        concurrentParts.shutdown();
+    }
+
+    @Test
+    void timedOutPartIsInterruptedAndGivesBackItsSlot() throws Exception {
+        CountDownLatch interrupted = new CountDownLatch(1);
+        CompletableFuture<String> slow = concurrentParts.start(() -> {
+            try {
+                Thread.sleep(Duration.ofSeconds(30));
+                return "too late";
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                throw new IllegalStateException(e);
+            }
+        });
+
+        assertThatThrownBy(() -> concurrentParts.join("slow part", slow))
+                .isInstanceOf(ServiceCommunicationException.class)
+                .hasMessage("Timed out loading slow part");
+        assertThat(interrupted.await(1, TimeUnit.SECONDS)).isTrue();
+        assertThat(concurrentParts.join("next part", concurrentParts.start(() -> "next"))).isEqualTo("next");
+    }
+
+    @Test
+    void startingAPartDoesNotWaitForASlot() throws Exception {
+        ConcurrentParts waitingParts = new ConcurrentParts(meterRegistry, 5000, 100, 1);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> first = waitingParts.start(() -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "first";
+        });
+        assertThat(started.await(1, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture<String> second = assertTimeoutPreemptively(Duration.ofSeconds(1),
+                () -> waitingParts.start(() -> "second"));
+        assertThat(second).isNotDone();
+
+        release.countDown();
+        assertThat(waitingParts.join("first part", first)).isEqualTo("first");
+        assertThat(waitingParts.join("second part", second)).isEqualTo("second");
+        waitingParts.shutdown();
+    }
+
+    @Test
+    void slowOptionalCallIsCancelledAndLeftOut() {
+        AtomicBoolean cancelled = new AtomicBoolean();
+        Mono<List<String>> call = Mono.delay(Duration.ofSeconds(30))
+                .thenReturn(List.of("host"))
+                .doOnCancel(() -> cancelled.set(true));
+
+        List<String> hosts = concurrentParts.join("hosts", concurrentParts.optional("hosts", call, List.of()));
+
+        assertThat(hosts).isEmpty();
+        assertThat(cancelled).isTrue();
+        assertThat(meterRegistry.counter("composite.parts.fallback", "part", "hosts", "reason", "timeout").count()).isEqualTo(1);
+    }
+}
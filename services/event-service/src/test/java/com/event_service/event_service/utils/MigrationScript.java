@@ -0,0 +1,41 @@
+package com.event_service.event_service.utils;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs a script from {@code local-deploy/migrations} the way psql does, one statement at a time in autocommit,
+ * as statements like {@code CREATE INDEX CONCURRENTLY} can't run in a transaction.
+ */
+public final class MigrationScript {
+    public static final Path MIGRATIONS = Path.of("../../local-deploy/migrations");
+
+    private MigrationScript() {
+    }
+
+    public static void run(JdbcTemplate jdbcTemplate, String name) throws IOException {
+        statements(MIGRATIONS.resolve(name)).forEach(jdbcTemplate::execute);
+    }
+
+    static List<String> statements(Path script) throws IOException {
+        List<String> statements = new ArrayList<>();
+        StringBuilder statement = new StringBuilder();
+        for (String line : Files.readAllLines(script)) {
+            if (line.isBlank() || line.startsWith("--")) {
+                continue;
+            }
+            statement.append(line).append('\n');
+            // a statement ends at a semicolon outside of a $$ body
+            if (line.endsWith(";") && statement.toString().split("\\$\\$", -1).length % 2 == 1) {
+                statements.add(statement.toString());
+                statement.setLength(0);
+            }
+        }
+        return statements;
+    }
+}
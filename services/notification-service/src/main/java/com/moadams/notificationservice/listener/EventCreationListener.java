@@ -6,13 +6,15 @@ import io.awspring.cloud.sqs.annotation.SqsListener;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
+import java.util.concurrent.CompletableFuture;
+
 @RequiredArgsConstructor
 @Component
 public class EventCreationListener {
     private final EmailService emailService;
 
     @SqsListener("${sqs.event-creation-queue-name}")
-    public void listenEventCreation(EventCreationNotificationMessage event){
-        emailService.sendEventCreationNotificationMail(event);
+    public CompletableFuture<Void> listenEventCreation(EventCreationNotificationMessage event){
+        return emailService.sendEventCreationNotificationMail(event);
     }
 }
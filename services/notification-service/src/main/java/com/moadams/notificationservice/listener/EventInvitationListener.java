@@ -1,19 +1,27 @@
 package com.moadams.notificationservice.listener;
 
 import com.example.common_libraries.dto.queue_events.EventInvitationEvent;
+import com.example.common_libraries.utils.SqsBatches;
 import com.moadams.notificationservice.service.impl.EmailService;
 import io.awspring.cloud.sqs.annotation.SqsListener;
+import io.awspring.cloud.sqs.listener.acknowledgement.BatchAcknowledgement;
 import lombok.RequiredArgsConstructor;
+import org.springframework.messaging.Message;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 @RequiredArgsConstructor
 @Component
 public class EventInvitationListener {
 
     private final EmailService emailService;
 
-    @SqsListener("${sqs.event-invitation-queue-name}")
-    public void listenEventInvitation(EventInvitationEvent event){
-        emailService.sendEventInvitationMail(event);
+    @SqsListener(value = "${sqs.event-invitation-queue-name}",
+            maxConcurrentMessages = "${sqs.listener.event-invitation.max-concurrent-messages:50}",
+            acknowledgementMode = "MANUAL")
+    public CompletableFuture<Void> listenEventInvitation(List<Message<EventInvitationEvent>> messages, BatchAcknowledgement<EventInvitationEvent> acknowledgement){
+        return SqsBatches.handleEachAsync(messages, acknowledgement, emailService::sendEventInvitationMail);
     }
 }
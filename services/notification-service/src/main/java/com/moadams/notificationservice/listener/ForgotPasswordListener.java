@@ -7,6 +7,8 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
+import java.util.concurrent.CompletableFuture;
+
 @Slf4j
 @RequiredArgsConstructor
 @Component
@@ -15,9 +17,9 @@ public class ForgotPasswordListener{
     private final EmailService emailService;
 
     @SqsListener("${sqs.password-reset-queue}")
-    public void listenPasswordReset(ForgotPasswordEvent event){
+    public CompletableFuture<Void> listenPasswordReset(ForgotPasswordEvent event){
         log.info("Received ForgotPasswordEvent for email: {}", event.email());
-        emailService.sendForgotPasswordEmail(event.email(), event.fullName(), event.otp());
+        return emailService.sendForgotPasswordEmail(event.email(), event.fullName(), event.otp());
     }
 
 }
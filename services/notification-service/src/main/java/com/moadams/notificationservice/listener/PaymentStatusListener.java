@@ -1,21 +1,31 @@
 package com.moadams.notificationservice.listener;
 
 import com.example.common_libraries.dto.queue_events.PaymentStatusEvent;
+import com.example.common_libraries.utils.SqsBatches;
 import com.moadams.notificationservice.service.impl.EmailService;
 import io.awspring.cloud.sqs.annotation.SqsListener;
+import io.awspring.cloud.sqs.listener.acknowledgement.BatchAcknowledgement;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.Message;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class PaymentStatusListener {
     private final EmailService emailService;
 
-    @SqsListener("${sqs.payment-status-queue}")
-    public void listenPaymentStatus(PaymentStatusEvent statusEvent){
-        log.info("Payment Status Event Received: {}", statusEvent);
-        emailService.sendPaymentStatusNotificationMail(statusEvent);
+    @SqsListener(value = "${sqs.payment-status-queue}",
+            maxConcurrentMessages = "${sqs.listener.payment-status.max-concurrent-messages:50}",
+            acknowledgementMode = "MANUAL")
+    public CompletableFuture<Void> listenPaymentStatus(List<Message<PaymentStatusEvent>> messages, BatchAcknowledgement<PaymentStatusEvent> acknowledgement){
+        return SqsBatches.handleEachAsync(messages, acknowledgement, statusEvent -> {
+            log.info("Payment Status Event Received: {}", statusEvent);
+            return emailService.sendPaymentStatusNotificationMail(statusEvent);
+        });
     }
 }
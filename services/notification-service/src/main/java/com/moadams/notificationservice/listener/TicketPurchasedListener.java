@@ -1,21 +1,29 @@
 package com.moadams.notificationservice.listener;
 
 import com.example.common_libraries.dto.queue_events.TicketPurchasedEvent;
+import com.example.common_libraries.utils.SqsBatches;
 import com.moadams.notificationservice.service.impl.EmailService;
 import io.awspring.cloud.sqs.annotation.SqsListener;
+import io.awspring.cloud.sqs.listener.acknowledgement.BatchAcknowledgement;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.Message;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 @Slf4j
 @RequiredArgsConstructor
 @Component
 public class TicketPurchasedListener {
     private final EmailService emailService;
 
-    @SqsListener("${sqs.ticket-purchased-event-queue-url}")
-    public void listenTicketPurchased(TicketPurchasedEvent event){
-        log.info("Ticket Purchased Event Received:");
-        emailService.sendTicketPurchasedEmail(event);
+    @SqsListener(value = "${sqs.ticket-purchased-event-queue-url}",
+            maxConcurrentMessages = "${sqs.listener.ticket-purchased.max-concurrent-messages:50}",
+            acknowledgementMode = "MANUAL")
+    public CompletableFuture<Void> listenTicketPurchased(List<Message<TicketPurchasedEvent>> messages, BatchAcknowledgement<TicketPurchasedEvent> acknowledgement){
+        log.info("{} Ticket Purchased Events Received", messages.size());
+        return SqsBatches.handleEachAsync(messages, acknowledgement, emailService::sendTicketPurchasedEmail);
     }
 }
@@ -9,6 +9,8 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
+import java.util.concurrent.CompletableFuture;
+
 @Slf4j
 @RequiredArgsConstructor
 @Component
@@ -17,8 +19,8 @@ public class UserLoginListener {
     private final EmailService emailService;
 
     @SqsListener("${sqs.user-login-queue}")
-    public void listenUserLogin(UserLoginEvent event){
+    public CompletableFuture<Void> listenUserLogin(UserLoginEvent event){
         log.info("Received UserLoginEvent for email: {}", event.email());
-        emailService.sendOtpEmail(event.email(), event.otp());
+        return emailService.sendOtpEmail(event.email(), event.otp());
     }
 }
@@ -8,6 +8,8 @@ import io.awspring.cloud.sqs.annotation.SqsListener;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
+import java.util.concurrent.CompletableFuture;
+
 
 @RequiredArgsConstructor
 @Component
@@ -16,13 +18,13 @@ public class UserRegisteredListener {
     private final EmailService emailService;
 
     @SqsListener("${sqs.user-registration-queue}")
-    public void listenUserRegistered(UserRegisteredEvent event){
-        emailService.sendWelcomeEmail(event.email(), event.fullName());
+    public CompletableFuture<Void> listenUserRegistered(UserRegisteredEvent event){
+        return emailService.sendWelcomeEmail(event.email(), event.fullName());
     }
 
     @SqsListener("${sqs.user-invitation-queue}")
-    public void listenUserInvited(UserInvitedEvent event){
-        emailService.sendUserInvitationEmail(event);
+    public CompletableFuture<Void> listenUserInvited(UserInvitedEvent event){
+        return emailService.sendUserInvitationEmail(event);
     }
 
 }
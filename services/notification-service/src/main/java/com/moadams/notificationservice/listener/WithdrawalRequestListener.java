@@ -7,6 +7,8 @@ import io.awspring.cloud.sqs.annotation.SqsListener;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
+import java.util.concurrent.CompletableFuture;
+
 @RequiredArgsConstructor
 @Component
 public class WithdrawalRequestListener {
@@ -14,7 +16,7 @@ public class WithdrawalRequestListener {
     private final EmailService emailService;
 
     @SqsListener("${sqs.withdrawal-notification-queue}")
-    public void listenWithdrawalRequest(WithdrawalNotificationEvent event){
-        emailService.sendWithdrawalNotification(event);
+    public CompletableFuture<Void> listenWithdrawalRequest(WithdrawalNotificationEvent event){
+        return emailService.sendWithdrawalNotification(event);
     }
 }
@@ -0,0 +1,311 @@
+package com.moadams.notificationservice.mail;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Session;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends emails in the background over a small pool of long-lived SMTP connections, so listener threads
+ * only render and queue their messages. Each worker keeps one connection open and sends up to
+ * {@code batchSize} messages over it before reconnecting, and closes it once the queue has been idle
+ * for {@code idleTimeout}. The number of workers caps the concurrent connections to the provider and
+ * all workers share one messages per second limit.
+ *
+ * <p>The queue is bounded: when it is full {@link #submit} blocks for up to {@code enqueueTimeout} and
+ * then fails, so the SQS message is redelivered later instead of piling up in memory. {@link #submit}
+ * returns a future that completes once the message has been handed to the provider, or fails if it
+ * couldn't be, so callers acknowledge their SQS message only after the email is actually out.
+ *
+ * <p>Only a lost connection is retried, once, on a new connection. A message the provider refuses, e.g.
+ * for an invalid address, is dead-lettered: it is logged with its recipients, counted as
+ * {@code mail.dispatch.dead.letters} and its future completes, so the SQS message is acknowledged instead
+ * of being sent again to the recipients that did get it.
+ */
+@Slf4j
+@Component
+public class MailDispatcher implements SmartLifecycle {
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(500);
+    private static final Duration SHUTDOWN_TIMEOUT = Duration.ofSeconds(30);
+
+    private final JavaMailSenderImpl mailSender;
+    private final BlockingQueue<QueuedMessage> queue;
+    private final SendRateLimiter rateLimiter;
+    private final int maxConnections;
+    private final int batchSize;
+    private final Duration enqueueTimeout;
+    private final Duration idleTimeout;
+    private final List<Thread> workers = new ArrayList<>();
+
+    private final Timer queueWait;
+    private final Timer sent;
+    private final Timer failed;
+    private final Counter connections;
+    private final Counter rejected;
+    private final Counter deadLetters;
+
+    private volatile boolean running;
+    private volatile boolean accepting = true;
+
+    private record QueuedMessage(MimeMessage message, long queuedAt, CompletableFuture<Void> result) {}
+
+    public MailDispatcher(JavaMailSenderImpl mailSender,
+                          MeterRegistry meterRegistry,
+                          @Value("${mail.dispatch.max-connections:4}") int maxConnections,
+                          @Value("${mail.dispatch.rate-per-second:10}") double ratePerSecond,
+                          @Value("${mail.dispatch.batch-size:50}") int batchSize,
+                          @Value("${mail.dispatch.queue-capacity:1000}") int queueCapacity,
+                          @Value("${mail.dispatch.enqueue-timeout-ms:5000}") long enqueueTimeoutMs,
+                          @Value("${mail.dispatch.idle-timeout-seconds:30}") long idleTimeoutSeconds) {
+        this.mailSender = mailSender;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.rateLimiter = ratePerSecond > 0 ? new SendRateLimiter(ratePerSecond) : null;
+        this.maxConnections = maxConnections;
+        this.batchSize = batchSize;
+        this.enqueueTimeout = Duration.ofMillis(enqueueTimeoutMs);
+        this.idleTimeout = Duration.ofSeconds(idleTimeoutSeconds);
+
+        Gauge.builder("mail.dispatch.queue.depth", queue, BlockingQueue::size)
+                .description("Emails waiting for an SMTP connection")
+                .register(meterRegistry);
+        this.queueWait = Timer.builder("mail.dispatch.queue.wait")
+                .description("Time from queueing an email until it is sent")
+                .register(meterRegistry);
+        this.sent = Timer.builder("mail.dispatch.send.latency").tag("result", "sent").register(meterRegistry);
+        this.failed = Timer.builder("mail.dispatch.send.latency").tag("result", "failed").register(meterRegistry);
+        this.connections = Counter.builder("mail.dispatch.connections")
+                .description("SMTP connections opened")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("mail.dispatch.rejected")
+                .description("Emails refused because the queue stayed full")
+                .register(meterRegistry);
+        this.deadLetters = Counter.builder("mail.dispatch.dead.letters")
+                .description("Emails dropped because the provider refused them")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queues a message for sending, waiting for room in the queue if it is full.
+     *
+     * @return completes once the message has been sent or dead-lettered, or fails with a
+     *         {@link MailSendException} if it couldn't be sent or the dispatcher stopped before sending it
+     * @throws MessagingException if the message can't be finalised for sending
+     * @throws MailSendException if the queue stays full or the dispatcher has been stopped
+     */
+    public CompletableFuture<Void> submit(MimeMessage message) throws MessagingException {
+        if (!accepting) {
+            throw new MailSendException("Mail dispatcher is stopped");
+        }
+        if (message.getSentDate() == null) {
+            message.setSentDate(new Date());
+        }
+        message.saveChanges();
+
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        try {
+            if (!queue.offer(new QueuedMessage(message, System.nanoTime(), result), enqueueTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                rejected.increment();
+                throw new MailSendException("Mail queue is full (" + queue.size() + " messages waiting)");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MailSendException("Interrupted while queueing mail", e);
+        }
+        return result;
+    }
+
+    public int queueDepth() {
+        return queue.size();
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        for (int i = 0; i < maxConnections; i++) {
+            Thread thread = new Thread(new Worker(), "mail-dispatch-" + i);
+            thread.setDaemon(true);
+            thread.start();
+            workers.add(thread);
+        }
+    }
+
+    /**
+     * Stops accepting messages and lets the workers send what is already queued. Messages still queued
+     * after the shutdown timeout are failed, so their SQS messages are redelivered to another instance.
+     */
+    @Override
+    public void stop() {
+        accepting = false;
+        running = false;
+        long deadline = System.nanoTime() + SHUTDOWN_TIMEOUT.toNanos();
+        for (Thread worker : workers) {
+            try {
+                worker.join(Math.max(1, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        workers.forEach(Thread::interrupt);
+        workers.clear();
+        List<QueuedMessage> unsent = new ArrayList<>();
+        queue.drainTo(unsent);
+        if (!unsent.isEmpty()) {
+            log.warn("Mail dispatcher stopped with {} unsent messages", unsent.size());
+            MailSendException stopped = new MailSendException("Mail dispatcher stopped before sending the message");
+            unsent.forEach(queued -> queued.result().completeExceptionally(stopped));
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Start before and stop after the SQS listeners that submit messages
+    @Override
+    public int getPhase() {
+        return DEFAULT_PHASE - 1024;
+    }
+
+    // A lost connection shows as an I/O error; anything the provider answered is not retried
+    private static boolean isConnectionFailure(MessagingException e) {
+        if (e instanceof SendFailedException) {
+            return false;
+        }
+        for (Throwable cause = e.getCause(); cause != null; cause = cause.getCause()) {
+            if (cause instanceof IOException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private class Worker implements Runnable {
+        private Transport transport;
+        private int sentOnConnection;
+        private long lastSend;
+
+        @Override
+        public void run() {
+            try {
+                while (running || !queue.isEmpty()) {
+                    QueuedMessage next = queue.poll(POLL_INTERVAL.toMillis(), TimeUnit.MILLISECONDS);
+                    if (next == null) {
+                        if (transport != null && System.nanoTime() - lastSend > idleTimeout.toNanos()) {
+                            disconnect();
+                        }
+                        continue;
+                    }
+                    if (rateLimiter != null) {
+                        try {
+                            rateLimiter.acquire();
+                        } catch (InterruptedException e) {
+                            next.result().completeExceptionally(new MailSendException("Mail dispatcher stopped before sending the message"));
+                            throw e;
+                        }
+                    }
+                    deliver(next);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                disconnect();
+            }
+        }
+
+        private void deliver(QueuedMessage queued) {
+            queueWait.record(System.nanoTime() - queued.queuedAt(), TimeUnit.NANOSECONDS);
+            long start = System.nanoTime();
+            try {
+                try {
+                    send(queued.message());
+                } catch (MessagingException first) {
+                    if (!isConnectionFailure(first)) {
+                        throw first;
+                    }
+                    // The provider may have dropped an idle connection, so retry once on a new one
+                    disconnect();
+                    send(queued.message());
+                }
+            } catch (SendFailedException e) {
+                // Refused by the provider; sending it again would fail again or reach the valid recipients twice
+                disconnect();
+                failed.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                deadLetters.increment();
+                log.error("Dead-lettering email the provider refused, sent to {}, not sent to {}: {}",
+                        Arrays.toString(e.getValidSentAddresses()), Arrays.toString(e.getInvalidAddresses()), e.getMessage());
+                queued.result().complete(null);
+                return;
+            } catch (MessagingException | RuntimeException e) {
+                // Unchecked failures too, or the worker would die and leave the caller's future pending
+                disconnect();
+                failed.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                log.error("Failed to send email: {}", e.getMessage());
+                queued.result().completeExceptionally(new MailSendException("Failed to send email", e));
+                return;
+            }
+            sent.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            queued.result().complete(null);
+            lastSend = System.nanoTime();
+            if (++sentOnConnection >= batchSize) {
+                disconnect();
+            }
+        }
+
+        private void send(MimeMessage message) throws MessagingException {
+            if (transport == null || !transport.isConnected()) {
+                connect();
+            }
+            transport.sendMessage(message, message.getAllRecipients());
+        }
+
+        private void connect() throws MessagingException {
+            Session session = mailSender.getSession();
+            String protocol = mailSender.getProtocol() != null ? mailSender.getProtocol()
+                    : session.getProperty("mail.transport.protocol");
+            transport = session.getTransport(protocol != null ? protocol : JavaMailSenderImpl.DEFAULT_PROTOCOL);
+            String username = mailSender.getUsername();
+            String password = mailSender.getPassword();
+            transport.connect(mailSender.getHost(), mailSender.getPort(),
+                    username == null || username.isEmpty() ? null : username,
+                    password == null || password.isEmpty() ? null : password);
+            connections.increment();
+            sentOnConnection = 0;
+        }
+
+        private void disconnect() {
+            if (transport == null) {
+                return;
+            }
+            try {
+                transport.close();
+            } catch (MessagingException e) {
+                log.debug("Failed to close SMTP connection: {}", e.getMessage());
+            }
+            transport = null;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.moadams.notificationservice.mail;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hands out at most {@code permitsPerSecond} permits per second, shared by all dispatch workers.
+ * After an idle period up to a second's worth of permits can be taken at once, which matches how
+ * SMTP providers count their per-second limits.
+ */
+class SendRateLimiter {
+    private final long intervalNanos;
+    private final long burstNanos;
+    private long nextFree = System.nanoTime();
+
+    SendRateLimiter(double permitsPerSecond) {
+        this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond);
+        this.burstNanos = intervalNanos * (Math.max(1, (long) permitsPerSecond) - 1);
+    }
+
+    void acquire() throws InterruptedException {
+        long wait = reserve();
+        if (wait > 0) {
+            TimeUnit.NANOSECONDS.sleep(wait);
+        }
+    }
+
+    // Returns how long the caller has to wait for its permit
+    private synchronized long reserve() {
+        long now = System.nanoTime();
+        nextFree = Math.max(nextFree, now - burstNanos);
+        long wait = nextFree - now;
+        nextFree += intervalNanos;
+        return wait;
+    }
+}
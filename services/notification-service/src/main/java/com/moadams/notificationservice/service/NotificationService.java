@@ -3,13 +3,15 @@ package com.moadams.notificationservice.service;
 
 import com.example.common_libraries.dto.queue_events.*;
 
+import java.util.concurrent.CompletableFuture;
+
 public interface NotificationService {
-    void sendWelcomeEmail(String recipientEmail, String recipientName);
-    void sendOtpEmail(String recipientEmail, String otpCode);
-    void sendForgotPasswordEmail(String recipientEmail, String recipientName, String otpCode);
-    void sendTicketPurchasedEmail(TicketPurchasedEvent ticketPurchasedEvent);
-    void sendEventInvitationMail(EventInvitationEvent event);
-    void sendUserInvitationEmail(UserInvitedEvent event);
-    void sendEventCreationNotificationMail(EventCreationNotificationMessage event);
-    void sendPaymentStatusNotificationMail(PaymentStatusEvent statusEvent);
+    CompletableFuture<Void> sendWelcomeEmail(String recipientEmail, String recipientName);
+    CompletableFuture<Void> sendOtpEmail(String recipientEmail, String otpCode);
+    CompletableFuture<Void> sendForgotPasswordEmail(String recipientEmail, String recipientName, String otpCode);
+    CompletableFuture<Void> sendTicketPurchasedEmail(TicketPurchasedEvent ticketPurchasedEvent);
+    CompletableFuture<Void> sendEventInvitationMail(EventInvitationEvent event);
+    CompletableFuture<Void> sendUserInvitationEmail(UserInvitedEvent event);
+    CompletableFuture<Void> sendEventCreationNotificationMail(EventCreationNotificationMessage event);
+    CompletableFuture<Void> sendPaymentStatusNotificationMail(PaymentStatusEvent statusEvent);
 }
@@ -2,8 +2,11 @@ package com.moadams.notificationservice.service.impl;
 
 import com.example.common_libraries.dto.queue_events.*;
 import com.example.common_libraries.dto.TicketResponse;
+import com.google.zxing.WriterException;
+import com.moadams.notificationservice.mail.MailDispatcher;
 import com.moadams.notificationservice.service.NotificationService;
 import com.moadams.notificationservice.utils.ICSGenerator;
+import com.moadams.notificationservice.utils.TicketQRCodeGenerator;
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
 import jakarta.mail.util.ByteArrayDataSource;
@@ -11,6 +14,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.ByteArrayResource;
+import org.springframework.mail.MailException;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
@@ -26,6 +30,7 @@ import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.Base64;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @Slf4j
 @Service
@@ -39,42 +44,46 @@ public class EmailService implements NotificationService {
     private String virtualTicketVerificationUrl;
 
     private final JavaMailSender mailSender;
+    private final MailDispatcher mailDispatcher;
     private final TemplateEngine templateEngine;
     private final ICSGenerator icsGenerator;
+    private final TicketQRCodeGenerator ticketQRCodeGenerator;
 
     @Value("${app.frontend.base-url}")
     private String frontendBaseUrl;
 
     @Override
-    public void sendWelcomeEmail(String recipientEmail, String recipientName) {
+    public CompletableFuture<Void> sendWelcomeEmail(String recipientEmail, String recipientName) {
         try{
             Context context = new Context();
             context.setVariable("recipientName", recipientName);
 
             String htmlContent = templateEngine.process("welcome-email", context);
-            sendEmail(htmlContent, recipientEmail, "Welcome to Our Eventhub");
+            return sendEmail(htmlContent, recipientEmail, "Welcome to Our Eventhub");
         }catch (MessagingException | UnsupportedEncodingException e){
             log.error("Failed to send welcome email");
+            return CompletableFuture.completedFuture(null);
         }
     }
 
     @Override
-    public void sendForgotPasswordEmail(String recipientEmail, String recipientName, String otpCode) {
+    public CompletableFuture<Void> sendForgotPasswordEmail(String recipientEmail, String recipientName, String otpCode) {
         try{
             Context context = new Context();
             context.setVariable("recipientName", recipientName);
             context.setVariable("otpCode", otpCode);
 
             String htmlContent = templateEngine.process("forgot-password", context);
-            sendEmail(htmlContent, recipientEmail, "Password Reset Request");
+            return sendEmail(htmlContent, recipientEmail, "Password Reset Request");
 
         }catch (MessagingException | UnsupportedEncodingException e){
             log.error("Failed to send forgot password email");
+            return CompletableFuture.completedFuture(null);
         }
     }
 
     @Override
-    public void sendEventInvitationMail(EventInvitationEvent event) {
+    public CompletableFuture<Void> sendEventInvitationMail(EventInvitationEvent event) {
         try{
             Context context = new Context();
             context.setVariable("inviteeName", event.inviteeName());
@@ -84,15 +93,16 @@ public class EmailService implements NotificationService {
 
             String template_name = determineTemplateForRole(event.role());
             String htmlContent = templateEngine.process(template_name, context);
-            sendEmail(htmlContent, event.inviteeEmail(), event.eventTitle());
+            return sendEmail(htmlContent, event.inviteeEmail(), event.eventTitle());
 
         }catch (MessagingException | UnsupportedEncodingException e){
             log.error("Failed to send event invitation email");
+            return CompletableFuture.completedFuture(null);
         }
     }
 
     @Override
-    public void sendEventCreationNotificationMail(EventCreationNotificationMessage event) {
+    public CompletableFuture<Void> sendEventCreationNotificationMail(EventCreationNotificationMessage event) {
         try{
             Context context = new Context();
             context.setVariable("eventName", event.eventTitle());
@@ -100,15 +110,16 @@ public class EmailService implements NotificationService {
 
 
             String htmlContent = templateEngine.process("event-created", context);
-            sendEmail(htmlContent, event.adminEmail(), "New Event Created");
+            return sendEmail(htmlContent, event.adminEmail(), "New Event Created");
 
         }catch (MessagingException | UnsupportedEncodingException e){
             log.error("Failed to send event creation email");
+            return CompletableFuture.completedFuture(null);
         }
     }
 
     @Override
-    public void sendPaymentStatusNotificationMail(PaymentStatusEvent statusEvent) {
+    public CompletableFuture<Void> sendPaymentStatusNotificationMail(PaymentStatusEvent statusEvent) {
         try{
             log.info("Sending payment status email to {}", statusEvent.email());
 
@@ -120,6 +131,7 @@ public class EmailService implements NotificationService {
                 case "SUCCESS" -> m + formattedAmount + " has been successful.";
                 case "FAILED"  -> m + formattedAmount + " has failed.";
                 case "PENDING" -> m + formattedAmount + " is initiated.";
+                case "REFUND_DUE" -> m + formattedAmount + " went through, but the tickets sold out before it completed.";
                 default        -> m + formattedAmount + " has been cancelled.";
             };
 
@@ -134,14 +146,15 @@ public class EmailService implements NotificationService {
             context.setVariable("message", message);
 
             String htmlContent = templateEngine.process("payment-status", context);
-            sendEmail(htmlContent, statusEvent.email(), "Payment Status");
+            return sendEmail(htmlContent, statusEvent.email(), "Payment Status");
         }catch (MessagingException | UnsupportedEncodingException e){
             log.error("Failed to send payment status email: {}", e.getMessage());
+            return CompletableFuture.completedFuture(null);
         }
     }
 
     @Override
-    public void sendUserInvitationEmail(UserInvitedEvent event) {
+    public CompletableFuture<Void> sendUserInvitationEmail(UserInvitedEvent event) {
         try{
             log.info("Sending user invitation email to {}", event.email());
             String invitationUrl = frontendBaseUrl + "/auth/invitation/accept?token=" + event.invitationToken();
@@ -152,9 +165,10 @@ public class EmailService implements NotificationService {
             context.setVariable("invitationUrl", invitationUrl);
 
             String htmlContent = templateEngine.process("user-invitation", context);
-            sendEmail(htmlContent, event.email(), "You have been invited");
+            return sendEmail(htmlContent, event.email(), "You have been invited");
         }catch (MessagingException | UnsupportedEncodingException e){
             log.error("Failed to send invitation email");
+            return CompletableFuture.completedFuture(null);
         }
     }
 
@@ -166,23 +180,24 @@ public class EmailService implements NotificationService {
     }
 
     @Override
-    public void sendOtpEmail(String recipientEmail, String otpCode) {
+    public CompletableFuture<Void> sendOtpEmail(String recipientEmail, String otpCode) {
         try{
             Context context = new Context();
             context.setVariable("otpCode", otpCode);
 
             String htmlContent = templateEngine.process("verify-otp", context);
 
-            sendEmail(htmlContent, recipientEmail, "Verify OTP");
-            log.info("OTP Email Sent to {}", recipientEmail);
+            return sendEmail(htmlContent, recipientEmail, "Verify OTP")
+                    .thenRun(() -> log.info("OTP Email Sent to {}", recipientEmail));
         }catch (MessagingException | UnsupportedEncodingException e){
             log.error("Failed to send otp email");
+            return CompletableFuture.completedFuture(null);
         }
     }
 
 
     @Override
-    public void sendTicketPurchasedEmail(TicketPurchasedEvent ticketPurchasedEvent) {
+    public CompletableFuture<Void> sendTicketPurchasedEmail(TicketPurchasedEvent ticketPurchasedEvent) {
         try{
             Instant startTime = ticketPurchasedEvent.eventDetails().startTime();
             Instant endTime = ticketPurchasedEvent.eventDetails().endTime();
@@ -196,6 +211,7 @@ public class EmailService implements NotificationService {
             context.setVariable("organizer", ticketPurchasedEvent.eventDetails().organizerName());
             context.setVariable("duration", durationInHours+" Hours");
 
+            CompletableFuture<Void> sent;
             if(ticketPurchasedEvent.eventDetails().eventMeetingType().equals("VIRTUAL")){
                 String verificationLink = String.format(
                         "%s?ticketCode=%s",
@@ -206,24 +222,29 @@ public class EmailService implements NotificationService {
                 context.setVariable("verificationLink", verificationLink);
                 // send email for virtual event with ICS
                 String htmlContent = templateEngine.process("virtual-tickets-purchased", context);
-                sendICSEmailForVirtualEvent(htmlContent, ticketPurchasedEvent);
+                sent = sendICSEmailForVirtualEvent(htmlContent, ticketPurchasedEvent);
             }else{
 
                 // Send email with embedded QR codes
                 String htmlContent = templateEngine.process("tickets-purchased", context);
-                sendEmailWithQRCodes(htmlContent, ticketPurchasedEvent.attendeeEmail(),
+                sent = sendEmailWithQRCodes(htmlContent, ticketPurchasedEvent.attendeeEmail(),
                         "Your Event Tickets", ticketPurchasedEvent.tickets());
             }
 
-            log.info("Ticket Purchased Email Sent to {}", ticketPurchasedEvent.attendeeEmail());
+            return sent.thenRun(() -> log.info("Ticket Purchased Email Sent to {}", ticketPurchasedEvent.attendeeEmail()));
         }catch (MessagingException | UnsupportedEncodingException e){
             log.error("Failed to send ticket purchase email {}", e.getMessage());
+            return CompletableFuture.completedFuture(null);
+        } catch (MailException e) {
+            // the mail queue is full or stopping, so leave the message for redelivery
+            throw e;
         } catch (Exception e) {
             log.error("An Error occurred while sending ticket purchased email {}", e.getMessage());
+            return CompletableFuture.completedFuture(null);
         }
     }
 
-    public void sendWithdrawalNotification(WithdrawalNotificationEvent event) {
+    public CompletableFuture<Void> sendWithdrawalNotification(WithdrawalNotificationEvent event) {
         try{
             Context context = new Context();
             context.setVariable("fullName", event.fullName());
@@ -234,10 +255,11 @@ public class EmailService implements NotificationService {
             context.setVariable("accountNumber", event.accountNumber());
 
             String htmlContent = templateEngine.process("withdrawal-notification", context);
-            sendEmail(htmlContent, event.email(), "Withdrawal Completed");
+            return sendEmail(htmlContent, event.email(), "Withdrawal Completed");
 
         }catch (MessagingException | UnsupportedEncodingException e){
             log.error("Failed to send event creation email");
+            return CompletableFuture.completedFuture(null);
         }
     }
 
@@ -247,9 +269,9 @@ public class EmailService implements NotificationService {
         return dateTime.format(formatter);
     }
 
-    private void sendEmailWithQRCodes(String htmlContent, String recipientEmail,
+    private CompletableFuture<Void> sendEmailWithQRCodes(String htmlContent, String recipientEmail,
                                       String subject, List<TicketResponse> tickets)
-            throws MessagingException, UnsupportedEncodingException {
+            throws MessagingException, UnsupportedEncodingException, WriterException {
 
         MimeMessage message = mailSender.createMimeMessage();
         MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
@@ -261,11 +283,8 @@ public class EmailService implements NotificationService {
 
         // Embed QR codes as inline images
         for (TicketResponse ticket : tickets) {
-            if (ticket.qrCodeUrl() != null && ticket.qrCodeUrl().startsWith("data:image/png;base64,")) {
-                // Extract base64 data
-                String base64Data = ticket.qrCodeUrl().substring("data:image/png;base64,".length());
-                byte[] qrCodeBytes = Base64.getDecoder().decode(base64Data);
-
+            byte[] qrCodeBytes = qrCodeBytes(ticket);
+            if (qrCodeBytes != null) {
                 // Create data source
                 ByteArrayDataSource dataSource = new ByteArrayDataSource(qrCodeBytes, "image/png");
 
@@ -275,11 +294,29 @@ public class EmailService implements NotificationService {
             }
         }
 
-        mailSender.send(message);
+        return mailDispatcher.submit(message);
+    }
+
+
+    /**
+     * Returns the PNG QR code of a ticket. Messages queued before tickets stopped carrying
+     * their image still hold it as a data URI; otherwise it is rendered from the ticket code.
+     */
+    @SuppressWarnings("deprecation")
+    private byte[] qrCodeBytes(TicketResponse ticket) throws WriterException {
+        if (ticket.qrCodeUrl() != null && ticket.qrCodeUrl().startsWith("data:image/png;base64,")) {
+            // Extract base64 data
+            String base64Data = ticket.qrCodeUrl().substring("data:image/png;base64,".length());
+            return Base64.getDecoder().decode(base64Data);
+        }
+        if (ticket.ticketCode() == null) {
+            return null;
+        }
+        return ticketQRCodeGenerator.generate(ticket.ticketCode());
     }
 
 
-    public void sendICSEmailForVirtualEvent(String htmlContent,TicketPurchasedEvent ticketPurchasedEvent) throws MessagingException, UnsupportedEncodingException{
+    public CompletableFuture<Void> sendICSEmailForVirtualEvent(String htmlContent,TicketPurchasedEvent ticketPurchasedEvent) throws MessagingException, UnsupportedEncodingException{
         MimeMessage message = mailSender.createMimeMessage();
         MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
 
@@ -294,11 +331,11 @@ public class EmailService implements NotificationService {
             helper.addAttachment(icsFile.getFilename(), icsFile, "text/calendar; charset=UTF-8; method=REQUEST");
         }
 
-        mailSender.send(message);
+        return mailDispatcher.submit(message);
     }
 
 
-    private void sendEmail( String htmlContent, String recipientEmail, String subject) throws MessagingException, UnsupportedEncodingException {
+    private CompletableFuture<Void> sendEmail( String htmlContent, String recipientEmail, String subject) throws MessagingException, UnsupportedEncodingException {
 
         MimeMessage message = mailSender.createMimeMessage();
         MimeMessageHelper helper = new MimeMessageHelper(message, "utf-8");
@@ -306,6 +343,6 @@ public class EmailService implements NotificationService {
         helper.setSubject(subject);
         helper.setFrom(adminEmail, "EventHub");
         helper.setText(htmlContent, true);
-        mailSender.send(message);
+        return mailDispatcher.submit(message);
     }
 }
\ No newline at end of file
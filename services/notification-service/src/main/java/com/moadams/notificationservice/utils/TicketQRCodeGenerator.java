@@ -0,0 +1,25 @@
+package com.moadams.notificationservice.utils;
+
+import com.example.common_libraries.utils.QRCodePngEncoder;
+import com.google.zxing.WriterException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Renders the QR code of a ticket from its ticket code. The image only depends on the code,
+ * so it is rendered when the ticket email is sent instead of being stored with the ticket.
+ */
+@Component
+public class TicketQRCodeGenerator {
+    private static final int QR_CODE_SIZE = 100;
+
+    // Each listener thread keeps its own encoder so buffers are reused between tickets
+    private static final ThreadLocal<QRCodePngEncoder> ENCODERS = ThreadLocal.withInitial(QRCodePngEncoder::new);
+
+    @Value("${events.ticket.verification.url}")
+    private String ticketVerificationUrl;
+
+    public byte[] generate(String ticketCode) throws WriterException {
+        return ENCODERS.get().encode(ticketVerificationUrl + "/" + ticketCode, QR_CODE_SIZE, QR_CODE_SIZE);
+    }
+}
@@ -0,0 +1,87 @@
+package com.moadams.notificationservice.benchmarks;
+
+import com.moadams.notificationservice.mail.FakeSmtpServer;
+import com.moadams.notificationservice.mail.MailDispatcher;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to send a burst of 200 ticket emails to an SMTP server 2 ms away. {@code oneSessionEach} is the
+ * previous sending, {@code JavaMailSender.send} per email with a new connection every time;
+ * {@code dispatcher} is {@link MailDispatcher} with 4 connections, each reused for up to 50 emails, and no
+ * rate limit.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class MailDispatcherBenchmark {
+    private static final int BURST = 200;
+
+    private FakeSmtpServer server;
+    private JavaMailSenderImpl mailSender;
+    private MailDispatcher dispatcher;
+
+    @Setup
+    public void setup() throws IOException {
+        server = new FakeSmtpServer(2);
+        mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(server.port());
+        dispatcher = new MailDispatcher(mailSender, new SimpleMeterRegistry(), 4, 0, 50, 1000, 5000, 30);
+        dispatcher.start();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        dispatcher.stop();
+        server.close();
+    }
+
+    private MimeMessage message(int i) throws MessagingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, "utf-8");
+        helper.setFrom("noreply@eventhub.com");
+        helper.setTo("attendee" + i + "@example.com");
+        helper.setSubject("Your Event Tickets");
+        helper.setText("<p>Ticket " + i + "</p>", true);
+        return message;
+    }
+
+    @Benchmark
+    public void oneSessionEach() throws MessagingException {
+        for (int i = 0; i < BURST; i++) {
+            mailSender.send(message(i));
+        }
+    }
+
+    @Benchmark
+    public void dispatcher() throws MessagingException {
+        List<CompletableFuture<Void>> sent = new ArrayList<>(BURST);
+        for (int i = 0; i < BURST; i++) {
+            sent.add(dispatcher.submit(message(i)));
+        }
+        CompletableFuture.allOf(sent.toArray(CompletableFuture[]::new)).join();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(MailDispatcherBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
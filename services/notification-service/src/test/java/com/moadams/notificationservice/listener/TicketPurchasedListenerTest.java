@@ -0,0 +1,63 @@
+package com.moadams.notificationservice.listener;
+
+import com.example.common_libraries.dto.queue_events.TicketPurchasedEvent;
+import com.moadams.notificationservice.service.impl.EmailService;
+import io.awspring.cloud.sqs.listener.acknowledgement.BatchAcknowledgement;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mail.MailSendException;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TicketPurchasedListenerTest {
+
+    @Mock
+    private EmailService emailService;
+
+    @Mock
+    private BatchAcknowledgement<TicketPurchasedEvent> acknowledgement;
+
+    @InjectMocks
+    private TicketPurchasedListener listener;
+
+    private static Message<TicketPurchasedEvent> message(String email) {
+        return MessageBuilder.withPayload(new TicketPurchasedEvent("Attendee", email, List.of(), null)).build();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void listenTicketPurchased_AcknowledgesOnlySentEmails() {
+        Message<TicketPurchasedEvent> sent = message("sent@example.com");
+        Message<TicketPurchasedEvent> failed = message("failed@example.com");
+        CompletableFuture<Void> delivery = new CompletableFuture<>();
+        when(emailService.sendTicketPurchasedEmail(sent.getPayload())).thenReturn(delivery);
+        when(emailService.sendTicketPurchasedEmail(failed.getPayload()))
+                .thenReturn(CompletableFuture.failedFuture(new MailSendException("Failed to send email")));
+
+        CompletableFuture<Void> result = listener.listenTicketPurchased(List.of(sent, failed), acknowledgement);
+
+        // nothing is acknowledged while the email is still queued
+        assertFalse(result.isDone());
+        verify(acknowledgement, never()).acknowledgeAsync(any());
+
+        delivery.complete(null);
+        result.join();
+
+        ArgumentCaptor<Collection<Message<TicketPurchasedEvent>>> acknowledged = ArgumentCaptor.forClass(Collection.class);
+        verify(acknowledgement).acknowledgeAsync(acknowledged.capture());
+        assertEquals(List.of(sent), List.copyOf(acknowledged.getValue()));
+    }
+}
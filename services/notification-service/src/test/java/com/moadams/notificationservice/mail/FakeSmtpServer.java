@@ -0,0 +1,106 @@
+package com.moadams.notificationservice.mail;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Minimal SMTP server that accepts every message, or rejects every one while {@link #rejectMessages} is
+ * set. Each reply is delayed by {@code roundTripMillis} to stand in for the network latency to a real
+ * provider.
+ */
+public class FakeSmtpServer implements AutoCloseable {
+    private final ServerSocket serverSocket;
+    private final long roundTripMillis;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    final AtomicInteger connections = new AtomicInteger();
+    final AtomicInteger messages = new AtomicInteger();
+    final AtomicInteger rejectedMessages = new AtomicInteger();
+    final AtomicInteger maxConcurrentConnections = new AtomicInteger();
+    volatile boolean rejectMessages;
+    private final AtomicInteger openConnections = new AtomicInteger();
+
+    public FakeSmtpServer(long roundTripMillis) throws IOException {
+        this.serverSocket = new ServerSocket(0);
+        this.roundTripMillis = roundTripMillis;
+        executor.execute(this::accept);
+    }
+
+    public int port() {
+        return serverSocket.getLocalPort();
+    }
+
+    private void accept() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                executor.execute(() -> handle(socket));
+            } catch (IOException e) {
+                return;
+            }
+        }
+    }
+
+    private void handle(Socket socket) {
+        connections.incrementAndGet();
+        maxConcurrentConnections.accumulateAndGet(openConnections.incrementAndGet(), Math::max);
+        try (socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+             Writer out = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.US_ASCII)) {
+            reply(out, "220 localhost ESMTP");
+            String line;
+            while ((line = in.readLine()) != null) {
+                String command = line.length() < 4 ? line.toUpperCase() : line.substring(0, 4).toUpperCase();
+                switch (command) {
+                    case "EHLO", "HELO" -> reply(out, "250 localhost");
+                    case "MAIL", "RCPT", "RSET", "NOOP" -> reply(out, "250 OK");
+                    case "DATA" -> {
+                        reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                        while ((line = in.readLine()) != null && !line.equals(".")) {
+                            // discard the message body
+                        }
+                        if (rejectMessages) {
+                            rejectedMessages.incrementAndGet();
+                            reply(out, "554 Transaction failed");
+                        } else {
+                            messages.incrementAndGet();
+                            reply(out, "250 OK queued");
+                        }
+                    }
+                    case "QUIT" -> {
+                        reply(out, "221 Bye");
+                        return;
+                    }
+                    default -> reply(out, "502 Command not implemented");
+                }
+            }
+        } catch (IOException | InterruptedException e) {
+            // client went away
+        } finally {
+            openConnections.decrementAndGet();
+        }
+    }
+
+    private void reply(Writer out, String response) throws IOException, InterruptedException {
+        if (roundTripMillis > 0) {
+            Thread.sleep(roundTripMillis);
+        }
+        out.write(response + "\r\n");
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,201 @@
+package com.moadams.notificationservice.mail;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.Address;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MailDispatcherTest {
+
+    private FakeSmtpServer server;
+    private JavaMailSenderImpl mailSender;
+    private MeterRegistry meterRegistry;
+    private MailDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = new FakeSmtpServer(2);
+        mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(server.port());
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (dispatcher != null) {
+            dispatcher.stop();
+        }
+        server.close();
+    }
+
+    private MailDispatcher dispatcher(int maxConnections, double ratePerSecond, int queueCapacity) {
+        dispatcher = new MailDispatcher(mailSender, meterRegistry, maxConnections, ratePerSecond, 50, queueCapacity, 50, 30);
+        return dispatcher;
+    }
+
+    private MimeMessage message(int i) throws MessagingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, "utf-8");
+        helper.setFrom("noreply@eventhub.com");
+        helper.setTo("attendee" + i + "@example.com");
+        helper.setSubject("Your Event Tickets");
+        helper.setText("<p>Ticket " + i + "</p>", true);
+        return message;
+    }
+
+    private void awaitDelivered(int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(20);
+        while (server.messages.get() < count && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(count, server.messages.get());
+    }
+
+    @Test
+    @DisplayName("Should deliver a burst over a few reused connections")
+    void burst_ReusesConnections() throws Exception {
+        int count = 200;
+        MailDispatcher dispatcher = dispatcher(4, 0, 1000);
+        dispatcher.start();
+
+        List<CompletableFuture<Void>> sent = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            sent.add(dispatcher.submit(message(i)));
+        }
+        // the futures complete after the send is recorded, the server may see the message before that
+        CompletableFuture.allOf(sent.toArray(CompletableFuture[]::new)).get(20, TimeUnit.SECONDS);
+
+        assertEquals(count, server.messages.get());
+        assertTrue(server.maxConcurrentConnections.get() <= 4);
+        assertTrue(server.connections.get() <= count / 50 + 4);
+        assertEquals(count, meterRegistry.get("mail.dispatch.send.latency").tag("result", "sent").timer().count());
+        assertEquals(0, dispatcher.queueDepth());
+    }
+
+    @Test
+    @DisplayName("Should not send more messages per second than the provider allows")
+    void rateLimit_SpacesOutSends() throws Exception {
+        MailDispatcher dispatcher = dispatcher(4, 20, 1000);
+        dispatcher.start();
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 40; i++) {
+            dispatcher.submit(message(i));
+        }
+        awaitDelivered(40);
+
+        // 20 are allowed at once, the other 20 at 50 ms intervals
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 900);
+    }
+
+    @Test
+    @DisplayName("Should refuse messages once the queue stays full")
+    void fullQueue_RejectsMessage() throws Exception {
+        MailDispatcher dispatcher = dispatcher(1, 0, 2);
+        dispatcher.submit(message(1));
+        dispatcher.submit(message(2));
+
+        assertThrows(MailSendException.class, () -> dispatcher.submit(message(3)));
+        assertEquals(1, meterRegistry.get("mail.dispatch.rejected").counter().count());
+        assertEquals(2, meterRegistry.get("mail.dispatch.queue.depth").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Should send queued messages before stopping")
+    void stop_DrainsQueue() throws Exception {
+        MailDispatcher dispatcher = dispatcher(2, 0, 100);
+        for (int i = 0; i < 10; i++) {
+            dispatcher.submit(message(i));
+        }
+        dispatcher.start();
+        dispatcher.stop();
+
+        assertEquals(10, server.messages.get());
+        assertThrows(MailSendException.class, () -> dispatcher.submit(message(11)));
+    }
+
+    @Test
+    @DisplayName("Should complete the returned future once the message has been sent")
+    void submit_CompletesOnceSent() throws Exception {
+        MailDispatcher dispatcher = dispatcher(1, 0, 10);
+        CompletableFuture<Void> result = dispatcher.submit(message(1));
+        assertFalse(result.isDone());
+
+        dispatcher.start();
+        result.get(10, TimeUnit.SECONDS);
+
+        assertEquals(1, server.messages.get());
+    }
+
+    @Test
+    @DisplayName("Should dead-letter a message the provider refuses without sending it again")
+    void refusedSend_DeadLettersWithoutRetry() throws Exception {
+        server.rejectMessages = true;
+        MailDispatcher dispatcher = dispatcher(1, 0, 10);
+        dispatcher.start();
+
+        CompletableFuture<Void> result = dispatcher.submit(message(1));
+
+        result.get(10, TimeUnit.SECONDS);
+        assertEquals(1, server.rejectedMessages.get());
+        assertEquals(0, server.messages.get());
+        assertEquals(1, meterRegistry.get("mail.dispatch.dead.letters").counter().count());
+        assertEquals(1, meterRegistry.get("mail.dispatch.send.latency").tag("result", "failed").timer().count());
+    }
+
+    @Test
+    @DisplayName("Should fail the returned future and keep sending when the transport throws an unchecked exception")
+    void uncheckedSendFailure_FailsFutureAndKeepsWorker() throws Exception {
+        MimeMessage broken = new MimeMessage(mailSender.getSession()) {
+            @Override
+            public Address[] getAllRecipients() {
+                throw new IllegalStateException("Malformed recipients");
+            }
+        };
+        broken.setFrom("noreply@eventhub.com");
+        broken.setText("Ticket");
+        MailDispatcher dispatcher = dispatcher(1, 0, 10);
+        dispatcher.start();
+
+        CompletableFuture<Void> failedResult = dispatcher.submit(broken);
+        CompletableFuture<Void> result = dispatcher.submit(message(1));
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> failedResult.get(10, TimeUnit.SECONDS));
+        assertInstanceOf(MailSendException.class, e.getCause());
+        assertInstanceOf(IllegalStateException.class, e.getCause().getCause());
+        // the only worker is still running and sends the next message
+        result.get(10, TimeUnit.SECONDS);
+        assertEquals(1, server.messages.get());
+        assertEquals(1, meterRegistry.get("mail.dispatch.send.latency").tag("result", "failed").timer().count());
+    }
+
+    @Test
+    @DisplayName("Should fail the messages it could not send before stopping")
+    void stop_FailsUnsentMessages() throws Exception {
+        MailDispatcher dispatcher = dispatcher(1, 0, 10);
+        CompletableFuture<Void> result = dispatcher.submit(message(1));
+
+        dispatcher.stop();
+
+        assertTrue(result.isCompletedExceptionally());
+        assertEquals(0, dispatcher.queueDepth());
+        assertEquals(0, server.messages.get());
+    }
+}
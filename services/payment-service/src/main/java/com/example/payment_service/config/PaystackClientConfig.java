@@ -0,0 +1,52 @@
+package com.example.payment_service.config;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+/**
+ * HTTP client for the Paystack API, with a connection pool of its own so slow Paystack calls can't take
+ * connections from other clients. Requests wait at most {@code pending-acquire-timeout-ms} for a pooled
+ * connection, {@code connect-timeout-ms} to connect and {@code response-timeout-ms} for the response.
+ */
+@Configuration
+public class PaystackClientConfig {
+    @Value("${paystack.client.max-connections:50}")
+    private int maxConnections;
+
+    @Value("${paystack.client.pending-acquire-timeout-ms:1000}")
+    private long pendingAcquireTimeoutMs;
+
+    @Value("${paystack.client.max-idle-seconds:30}")
+    private long maxIdleSeconds;
+
+    @Value("${paystack.client.connect-timeout-ms:1000}")
+    private int connectTimeoutMs;
+
+    @Value("${paystack.client.response-timeout-ms:5000}")
+    private long responseTimeoutMs;
+
+    @Bean
+    public WebClient paystackWebClient() {
+        ConnectionProvider connectionProvider = ConnectionProvider.builder("paystack")
+                .maxConnections(maxConnections)
+                .pendingAcquireTimeout(Duration.ofMillis(pendingAcquireTimeoutMs))
+                .maxIdleTime(Duration.ofSeconds(maxIdleSeconds))
+                .build();
+
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMs)
+                .responseTimeout(Duration.ofMillis(responseTimeoutMs));
+
+        return WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+    }
+}
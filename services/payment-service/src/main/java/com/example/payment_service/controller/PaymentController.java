@@ -1,11 +1,11 @@
 package com.example.payment_service.controller;
 
+import com.example.common_libraries.dto.CursorPage;
 import com.example.common_libraries.dto.CustomApiResponse;
 import com.example.common_libraries.dto.EventRegistrationResponse;
 import com.example.common_libraries.dto.PaystackResponse;
 import com.example.common_libraries.dto.queue_events.ProcessPaymentEvent;
 import com.example.payment_service.dto.TransactionResponse;
-import com.example.payment_service.models.Transaction;
 import com.example.payment_service.models.TransactionStatus;
 import com.example.payment_service.services.PaymentService;
 import com.example.payment_service.services.TransactionService;
@@ -15,6 +15,8 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.CompletableFuture;
+
 @RestController
 @RequestMapping("/api/v1/payment")
 @RequiredArgsConstructor
@@ -27,11 +29,12 @@ public class PaymentController {
         return ResponseEntity.ok(paymentService.getRegistrationResponse(reference));
     }
 
+    // Completed asynchronously, so the request thread is free while Paystack responds
     @PostMapping
-    public ResponseEntity<PaystackResponse> payment(@RequestBody ProcessPaymentEvent paymentRequest) {
-        Transaction transaction = transactionService.createTransaction(paymentRequest);
-        PaystackResponse paystackResponse = new PaystackResponse(transaction.getAuthorizationUrl(), transaction.getReference());
-        return ResponseEntity.ok(paystackResponse);
+    public CompletableFuture<ResponseEntity<PaystackResponse>> payment(@RequestBody ProcessPaymentEvent paymentRequest) {
+        return transactionService.createTransaction(paymentRequest)
+                .thenApply(transaction -> ResponseEntity.ok(
+                        new PaystackResponse(transaction.getAuthorizationUrl(), transaction.getReference())));
     }
 
     @GetMapping
@@ -43,4 +46,14 @@ public class PaymentController {
     ){
         return ResponseEntity.ok(CustomApiResponse.success(paymentService.getAllTransactions(page, keyword, status)));
     }
+
+    @GetMapping("/scroll")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<CustomApiResponse<CursorPage<TransactionResponse>>> scrollTransactions(
+            @RequestParam(required = false) String keyword,
+            @RequestParam(required = false) TransactionStatus status,
+            @RequestParam(required = false) String cursor
+    ){
+        return ResponseEntity.ok(CustomApiResponse.success(paymentService.scrollTransactions(cursor, keyword, status)));
+    }
 }
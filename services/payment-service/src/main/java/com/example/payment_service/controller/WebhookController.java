@@ -1,15 +1,13 @@
 package com.example.payment_service.controller;
 
 import com.example.payment_service.publisher.MessagePublisher;
+import com.example.payment_service.security.PaystackSignatureVerifier;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import javax.crypto.Mac;
-import javax.crypto.spec.SecretKeySpec;
 import java.nio.charset.StandardCharsets;
 
 
@@ -19,27 +17,25 @@ import java.nio.charset.StandardCharsets;
 @RequiredArgsConstructor
 public class WebhookController {
     private final MessagePublisher messagePublisher;
-
-    @Value("${paystack.secret}")
-    private String paystackSecret;
+    private final PaystackSignatureVerifier signatureVerifier;
 
     @PostMapping
     public ResponseEntity<String> handleWebhook(
-            @RequestBody String rawBody,
+            @RequestBody byte[] rawBody,
             @RequestHeader("X-Paystack-Signature") String signature) {
 
         try {
             log.info("Received webhook from Paystack.");
 
-            String computedHash = hmacSha512(rawBody, paystackSecret);
-            if (!computedHash.equals(signature)) {
+            // Verified against the bytes Paystack signed, before anything decodes them
+            if (!signatureVerifier.verify(rawBody, signature)) {
                 log.warn("Invalid Paystack signature");
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Invalid signature");
             }
             log.info("Webhook signature verified");
 
             // Publish webhook event to queue
-            messagePublisher.publishWebhookEventToQueue(rawBody);
+            messagePublisher.publishWebhookEventToQueue(new String(rawBody, StandardCharsets.UTF_8));
 
             return ResponseEntity.ok("Processed");
         } catch (Exception e) {
@@ -47,21 +43,4 @@ public class WebhookController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Error");
         }
     }
-
-
-
-    private String hmacSha512(String data, String secret) throws Exception {
-        Mac sha512_HMAC = Mac.getInstance("HmacSHA512");
-        SecretKeySpec secretKey = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA512");
-        sha512_HMAC.init(secretKey);
-        byte[] hashBytes = sha512_HMAC.doFinal(data.getBytes(StandardCharsets.UTF_8));
-
-        StringBuilder sb = new StringBuilder();
-        for (byte b : hashBytes) {
-            sb.append(String.format("%02x", b));
-        }
-        return sb.toString();
-    }
 }
-
-
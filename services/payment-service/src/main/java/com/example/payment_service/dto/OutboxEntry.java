@@ -0,0 +1,7 @@
+package com.example.payment_service.dto;
+
+public record OutboxEntry(
+        String queueUrl,
+        String aggregateKey,
+        String messageBody
+) {}
@@ -0,0 +1,7 @@
+package com.example.payment_service.dto;
+
+// Refunds the whole amount of the transaction with this reference
+public record PaystackRefundRequest(
+        String transaction
+) {
+}
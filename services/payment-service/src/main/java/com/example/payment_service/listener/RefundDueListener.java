@@ -0,0 +1,22 @@
+package com.example.payment_service.listener;
+
+import com.example.common_libraries.dto.queue_events.RefundDueEvent;
+import com.example.payment_service.services.RefundService;
+import io.awspring.cloud.sqs.annotation.SqsListener;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RefundDueListener {
+    private final RefundService refundService;
+
+    // A refund Paystack didn't accept leaves the message on the queue, so it is tried again once visible
+    @SqsListener(value = "${sqs.refund-due-queue}")
+    public void processRefundDue(RefundDueEvent refundDueEvent){
+        log.info("Received refund due for transaction {}", refundDueEvent.transactionReference());
+        refundService.refund(refundDueEvent);
+    }
+}
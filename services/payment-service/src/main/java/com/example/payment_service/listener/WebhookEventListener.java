@@ -6,15 +6,20 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class WebhookEventListener {
     private final WebhookService webhookService;
 
-    @SqsListener("${sqs.webhook-event-queue}")
-    public void processWebhookEvent(String rawBody){
-        log.info("Received webhook event: {}", rawBody);
-        webhookService.handleWebhook(rawBody);
+    // A batch is applied in one transaction and redelivered as a whole if it fails, which is safe
+    // because applying a webhook twice has no further effect
+    @SqsListener(value = "${sqs.webhook-event-queue}",
+            maxConcurrentMessages = "${sqs.listener.webhook-event.max-concurrent-messages:30}")
+    public void processWebhookEvents(List<String> rawBodies){
+        log.info("Received {} webhook events", rawBodies.size());
+        webhookService.handleWebhooks(rawBodies);
     }
 }
@@ -0,0 +1,55 @@
+package com.example.payment_service.models;
+
+import com.example.common_libraries.interfaces.OutboxRecord;
+import jakarta.persistence.*;
+import lombok.*;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.Instant;
+
+/**
+ * A queue message written in the same transaction as the change it announces.
+ * The outbox relay sends pending messages to SQS and deletes them once SQS accepted them;
+ * messages that keep failing are left as {@code FAILED} for inspection.
+ */
+@Entity
+@Table(name = "outbox_message", indexes = {
+        @Index(name = "idx_outbox_message_status_id", columnList = "status, id"),
+        @Index(name = "idx_outbox_message_aggregate_key_id", columnList = "aggregate_key, id")
+})
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@EntityListeners(AuditingEntityListener.class)
+public class OutboxMessage implements OutboxRecord {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "queue_url", nullable = false)
+    private String queueUrl;
+
+    // Messages with the same key are sent in the order they were written
+    @Column(name = "aggregate_key")
+    private String aggregateKey;
+
+    @Column(columnDefinition = "TEXT", nullable = false)
+    private String payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private OutboxMessageStatus status;
+
+    @Column(nullable = false)
+    private Integer attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private Instant nextAttemptAt;
+
+    @CreatedDate
+    @Column(name = "created_at", nullable =false, updatable = false)
+    private Instant createdAt;
+}
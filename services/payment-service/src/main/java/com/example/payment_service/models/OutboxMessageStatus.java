@@ -0,0 +1,6 @@
+package com.example.payment_service.models;
+
+public enum OutboxMessageStatus {
+    PENDING,
+    FAILED
+}
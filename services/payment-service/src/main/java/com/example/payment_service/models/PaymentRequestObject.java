@@ -32,6 +32,9 @@ public class PaymentRequestObject {
 
     private Long numberOfTickets;
 
+    // Ticket hold created by event-service for this checkout
+    private Long reservationId;
+
     // Event details
     private Long eventId;
 
@@ -11,7 +11,11 @@ import java.math.BigDecimal;
 import java.time.Instant;
 
 @Entity
-@Table(name = "transactions")
+@Table(name = "transactions", indexes = {
+        @Index(name = "idx_transactions_created_at_id", columnList = "created_at, id"),
+        // Created by local-deploy/migrations/payment-db-unique-transaction-reference.sql, which merges duplicates first
+        @Index(name = "uk_transactions_reference", columnList = "reference", unique = true)
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -32,6 +36,7 @@ public class Transaction {
 
     private String paymentMethod;
 
+    // Webhooks find their transaction by the Paystack reference
     @Column(nullable = false)
     private String reference;
 
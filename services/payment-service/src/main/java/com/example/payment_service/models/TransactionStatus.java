@@ -3,5 +3,7 @@ package com.example.payment_service.models;
 public enum TransactionStatus {
     PENDING,
     SUCCESS,
-    FAILED
+    FAILED,
+    REFUND_PENDING,
+    REFUNDED
 }
@@ -3,8 +3,11 @@ package com.example.payment_service.publisher;
 import com.example.common_libraries.dto.queue_events.PaymentStatusEvent;
 import com.example.common_libraries.dto.queue_events.ProcessPaymentEvent;
 
+import java.util.List;
+
 public interface MessagePublisher {
     void publishPaymentStatusToQueue(PaymentStatusEvent statusEvent);
     void publishPaymentSuccessfulEventToQueue(ProcessPaymentEvent event);
     void publishWebhookEventToQueue(String payload);
+    void publishPaymentEvents(List<PaymentStatusEvent> statusEvents, List<ProcessPaymentEvent> successfulPayments);
 }
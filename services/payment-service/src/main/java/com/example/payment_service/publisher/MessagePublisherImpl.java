@@ -2,19 +2,24 @@ package com.example.payment_service.publisher;
 
 import com.example.common_libraries.dto.queue_events.PaymentStatusEvent;
 import com.example.common_libraries.dto.queue_events.ProcessPaymentEvent;
+import com.example.payment_service.dto.OutboxEntry;
+import com.example.payment_service.services.OutboxService;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
-import software.amazon.awssdk.services.sqs.SqsClient;
+
+import java.util.ArrayList;
+import java.util.List;
 
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class MessagePublisherImpl implements MessagePublisher{
     private final ObjectMapper objectMapper;
-    private final SqsClient sqsClient;
+    private final OutboxService outboxService;
 
     @Value("${sqs.payment-completed-event-queue-url}")
     private String paymentCompletedEventQueueUrl;
@@ -30,8 +35,8 @@ public class MessagePublisherImpl implements MessagePublisher{
         try{
             log.info("Sending payment successful email to SQS");
             String messageBody = objectMapper.writeValueAsString(statusEvent);
-            sqsClient.sendMessage(builder -> builder.queueUrl(paymentStatusQueue).messageBody(messageBody));
-        }catch (Exception e){
+            outboxService.enqueue(paymentStatusQueue, "transaction:" + statusEvent.transactionId(), messageBody);
+        }catch (JsonProcessingException e){
             log.error("Error sending payment successful email to SQS: {}", e.getMessage());
         }
     }
@@ -41,19 +46,33 @@ public class MessagePublisherImpl implements MessagePublisher{
         try{
             log.info("Sending payment successful event to SQS");
             String messageBody = objectMapper.writeValueAsString(event);
-            sqsClient.sendMessage(builder -> builder.queueUrl(paymentCompletedEventQueueUrl).messageBody(messageBody));
-        } catch (Exception e) {
+            outboxService.enqueue(paymentCompletedEventQueueUrl, "attendee:" + event.email(), messageBody);
+        } catch (JsonProcessingException e) {
             log.error("Error sending payment successful event to SQS: {}", e.getMessage());
         }
     }
 
     @Override
     public void publishWebhookEventToQueue(String payload) {
+        // Failures reach the webhook controller, so Paystack retries the webhook instead of it being lost
+        log.info("Sending webhook event to SQS");
+        outboxService.enqueue(webhookEventQueue, null, payload);
+    }
+
+    @Override
+    public void publishPaymentEvents(List<PaymentStatusEvent> statusEvents, List<ProcessPaymentEvent> successfulPayments) {
         try{
-            log.info("Sending webhook event to SQS");
-            sqsClient.sendMessage(builder -> builder.queueUrl(webhookEventQueue).messageBody(payload));
-        }catch (Exception e){
-            log.error("Error sending webhook event to SQS: {}", e.getMessage());
+            List<OutboxEntry> entries = new ArrayList<>(statusEvents.size() + successfulPayments.size());
+            for (PaymentStatusEvent statusEvent : statusEvents) {
+                entries.add(new OutboxEntry(paymentStatusQueue, "transaction:" + statusEvent.transactionId(), objectMapper.writeValueAsString(statusEvent)));
+            }
+            for (ProcessPaymentEvent event : successfulPayments) {
+                entries.add(new OutboxEntry(paymentCompletedEventQueueUrl, "attendee:" + event.email(), objectMapper.writeValueAsString(event)));
+            }
+            log.info("Sending {} payment status and {} payment successful events to SQS", statusEvents.size(), successfulPayments.size());
+            outboxService.enqueueAll(entries);
+        } catch (JsonProcessingException e) {
+            log.error("Error sending payment events to SQS: {}", e.getMessage());
         }
     }
 }
@@ -1,13 +1,60 @@
 package com.example.payment_service.repos;
 
 import com.example.payment_service.models.Transaction;
+import com.example.payment_service.models.TransactionStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction, Long>, JpaSpecificationExecutor<Transaction> {
     Optional<Transaction> findByReference(String reference);
-}
\ No newline at end of file
+
+    @Query("""
+        SELECT t
+        FROM Transaction t
+        LEFT JOIN FETCH t.paymentRequestObject
+        WHERE t.reference IN :references
+    """)
+    List<Transaction> findAllWithPaymentRequestByReferenceIn(@Param("references") Collection<String> references);
+
+    /**
+     * Moves a pending transaction to its final status. Returns 0 if another webhook already did,
+     * so only one of several concurrent deliveries of the same event acts on it.
+     */
+    @Modifying
+    @Query("""
+        UPDATE Transaction t
+        SET t.status = :status, t.paymentMethod = :paymentMethod, t.updatedAt = :updatedAt
+        WHERE t.reference = :reference
+        AND t.status = com.example.payment_service.models.TransactionStatus.PENDING
+    """)
+    int completeIfPending(@Param("reference") String reference,
+                          @Param("status") TransactionStatus status,
+                          @Param("paymentMethod") String paymentMethod,
+                          @Param("updatedAt") Instant updatedAt);
+
+    /**
+     * Moves a transaction from one status to another. Returns 0 if it wasn't in {@code from}, so only one
+     * of several concurrent deliveries of the same refund acts on it.
+     */
+    @Modifying
+    @Query("""
+        UPDATE Transaction t
+        SET t.status = :to, t.updatedAt = :updatedAt
+        WHERE t.reference = :reference
+        AND t.status = :from
+    """)
+    int transition(@Param("reference") String reference,
+                   @Param("from") TransactionStatus from,
+                   @Param("to") TransactionStatus to,
+                   @Param("updatedAt") Instant updatedAt);
+}
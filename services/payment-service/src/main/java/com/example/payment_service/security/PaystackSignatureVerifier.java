@@ -0,0 +1,77 @@
+package com.example.payment_service.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.ShortBufferException;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+
+/**
+ * Checks the {@code X-Paystack-Signature} header, the hex encoded HMAC-SHA512 of the request body keyed
+ * with the Paystack secret. Each thread keeps an initialized {@link Mac} and its buffers, so a check does
+ * not allocate. The header is decoded and compared with the computed HMAC in constant time.
+ */
+@Component
+public class PaystackSignatureVerifier {
+    private static final String ALGORITHM = "HmacSHA512";
+    private static final int SIGNATURE_LENGTH = 64;
+
+    private final ThreadLocal<State> state;
+
+    public PaystackSignatureVerifier(@Value("${paystack.secret}") String secret) {
+        SecretKeySpec key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+        this.state = ThreadLocal.withInitial(() -> new State(key));
+    }
+
+    /**
+     * Returns whether {@code signature} is the HMAC of {@code body}. A missing or malformed signature is
+     * treated as a mismatch.
+     */
+    public boolean verify(byte[] body, String signature) {
+        State current = state.get();
+        if (signature == null || !decodeHex(signature, current.expected)) {
+            return false;
+        }
+        try {
+            current.mac.update(body);
+            current.mac.doFinal(current.computed, 0);
+        } catch (ShortBufferException e) {
+            throw new IllegalStateException(e);
+        }
+        return MessageDigest.isEqual(current.computed, current.expected);
+    }
+
+    private static boolean decodeHex(String hex, byte[] target) {
+        if (hex.length() != target.length * 2) {
+            return false;
+        }
+        for (int i = 0; i < target.length; i++) {
+            int high = Character.digit(hex.charAt(2 * i), 16);
+            int low = Character.digit(hex.charAt(2 * i + 1), 16);
+            if (high < 0 || low < 0) {
+                return false;
+            }
+            target[i] = (byte) (high << 4 | low);
+        }
+        return true;
+    }
+
+    private static final class State {
+        private final Mac mac;
+        private final byte[] computed = new byte[SIGNATURE_LENGTH];
+        private final byte[] expected = new byte[SIGNATURE_LENGTH];
+
+        private State(SecretKeySpec key) {
+            try {
+                mac = Mac.getInstance(ALGORITHM);
+                mac.init(key);
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("HmacSHA512 is not available", e);
+            }
+        }
+    }
+}
@@ -1,9 +1,23 @@
 package com.example.payment_service.services;
 
+import com.example.payment_service.dto.PaystackRefund;
 import com.example.payment_service.dto.PaystackRequest;
 import com.example.payment_service.dto.PaystackTransaction;
 
+import java.util.concurrent.CompletableFuture;
+
 public interface ExternalAPIService {
-    PaystackTransaction createPaystackTransaction(PaystackRequest paystackRequest);
-}
+    /**
+     * Initializes a Paystack transaction without blocking the caller. The future completes off the HTTP
+     * client's event loop, so blocking work such as saving the transaction can follow directly. It fails
+     * with a {@code ServiceCommunicationException} when Paystack can't be reached or answers with an error,
+     * and straight away while calls to Paystack are being turned away.
+     */
+    CompletableFuture<PaystackTransaction> createPaystackTransaction(PaystackRequest paystackRequest);
 
+    /**
+     * Refunds the whole amount of a Paystack transaction without blocking the caller. Fails the same way as
+     * {@link #createPaystackTransaction}.
+     */
+    CompletableFuture<PaystackRefund> refundPaystackTransaction(String reference);
+}
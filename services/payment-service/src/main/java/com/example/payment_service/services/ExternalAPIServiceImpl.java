@@ -1,38 +1,159 @@
 package com.example.payment_service.services;
 
+import com.example.common_libraries.exception.ServiceCommunicationException;
+import com.example.payment_service.dto.PaystackRefund;
+import com.example.payment_service.dto.PaystackRefundRequest;
 import com.example.payment_service.dto.PaystackRequest;
 import com.example.payment_service.dto.PaystackTransaction;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.retry.Retry;
 
+import java.net.ConnectException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Calls Paystack through the pooled {@code paystackWebClient}. At most {@code max-concurrent-calls} calls
+ * are in flight; beyond that, and while the circuit breaker is open, calls fail straight away instead of
+ * queueing behind a slow Paystack. Neither initializing a transaction nor refunding one is idempotent, so a
+ * call is only retried when the connection could not be opened and the request never left.
+ */
+@Slf4j
 @Service
 public class ExternalAPIServiceImpl implements ExternalAPIService {
+    private final WebClient paystackWebClient;
+    private final String paystackSecret;
+    private final String paystackUrl;
+    private final String paystackRefundUrl;
+    private final int maxRetries;
+    private final Semaphore bulkhead;
+    private final PaystackCircuitBreaker circuitBreaker;
 
-    @Value("${paystack.secret}")
-    private String paystackSecret;
+    private final Timer succeeded;
+    private final Timer failed;
+    private final Timer refundSucceeded;
+    private final Timer refundFailed;
+    private final Counter rejected;
 
-    @Value("${paystack.url}")
-    private String paystackUrl;
+    public ExternalAPIServiceImpl(@Qualifier("paystackWebClient") WebClient paystackWebClient,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${paystack.secret}") String paystackSecret,
+                                  @Value("${paystack.url}") String paystackUrl,
+                                  @Value("${paystack.refund-url}") String paystackRefundUrl,
+                                  @Value("${paystack.client.max-concurrent-calls:50}") int maxConcurrentCalls,
+                                  @Value("${paystack.client.max-retries:2}") int maxRetries,
+                                  @Value("${paystack.client.circuit-breaker.window-size:20}") int windowSize,
+                                  @Value("${paystack.client.circuit-breaker.minimum-calls:10}") int minimumCalls,
+                                  @Value("${paystack.client.circuit-breaker.failure-rate-threshold:50}") int failureRateThreshold,
+                                  @Value("${paystack.client.circuit-breaker.open-duration-ms:30000}") long openDurationMs) {
+        this.paystackWebClient = paystackWebClient;
+        this.paystackSecret = paystackSecret;
+        this.paystackUrl = paystackUrl;
+        this.paystackRefundUrl = paystackRefundUrl;
+        this.maxRetries = maxRetries;
+        this.bulkhead = new Semaphore(maxConcurrentCalls);
+        this.circuitBreaker = new PaystackCircuitBreaker(windowSize, minimumCalls, failureRateThreshold, Duration.ofMillis(openDurationMs));
 
-    private final RestTemplate restTemplate;
+        this.succeeded = Timer.builder("paystack.initialize.latency").tag("result", "success").register(meterRegistry);
+        this.failed = Timer.builder("paystack.initialize.latency").tag("result", "failed").register(meterRegistry);
+        this.refundSucceeded = Timer.builder("paystack.refund.latency").tag("result", "success").register(meterRegistry);
+        this.refundFailed = Timer.builder("paystack.refund.latency").tag("result", "failed").register(meterRegistry);
+        this.rejected = Counter.builder("paystack.initialize.rejected")
+                .description("Paystack calls refused because too many were in flight or the circuit breaker was open")
+                .register(meterRegistry);
+        Gauge.builder("paystack.circuit-breaker.open", circuitBreaker, breaker -> breaker.isOpen() ? 1 : 0)
+                .register(meterRegistry);
+    }
 
-    public ExternalAPIServiceImpl(RestTemplate restTemplate) {
-        this.restTemplate = restTemplate;
+    @Override
+    public CompletableFuture<PaystackTransaction> createPaystackTransaction(PaystackRequest paystackRequest) {
+        return call("transaction initialization", paystackUrl, paystackRequest, PaystackTransaction.class, succeeded, failed);
     }
 
     @Override
-    public PaystackTransaction createPaystackTransaction(PaystackRequest paystackRequest) {
-        HttpEntity<Object> httpEntity = paystackRequestObject(paystackRequest);
-        return restTemplate.postForObject(paystackUrl, httpEntity, PaystackTransaction.class);
+    public CompletableFuture<PaystackRefund> refundPaystackTransaction(String reference) {
+        return call("refund", paystackRefundUrl, new PaystackRefundRequest(reference), PaystackRefund.class, refundSucceeded, refundFailed);
+    }
+
+    private <T> CompletableFuture<T> call(String action, String url, Object body, Class<T> responseType,
+                                          Timer succeeded, Timer failed) {
+        if (!bulkhead.tryAcquire()) {
+            rejected.increment();
+            return CompletableFuture.failedFuture(new ServiceCommunicationException("Too many Paystack calls in progress"));
+        }
+        if (!circuitBreaker.tryAcquire()) {
+            bulkhead.release();
+            rejected.increment();
+            return CompletableFuture.failedFuture(new ServiceCommunicationException("Paystack calls are paused after repeated failures"));
+        }
+
+        Timer.Sample sample = Timer.start();
+        return paystackWebClient.post()
+                .uri(url)
+                .headers(headers -> headers.setBearerAuth(paystackSecret))
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(body)
+                .retrieve()
+                .bodyToMono(responseType)
+                .switchIfEmpty(Mono.error(() -> new ServiceCommunicationException("Empty response from Paystack")))
+                .retryWhen(Retry.backoff(maxRetries, Duration.ofMillis(100))
+                        .filter(ExternalAPIServiceImpl::notSent)
+                        .onRetryExhaustedThrow((spec, signal) -> signal.failure()))
+                .doOnSuccess(response -> {
+                    sample.stop(succeeded);
+                    circuitBreaker.onSuccess();
+                })
+                .doOnError(e -> {
+                    sample.stop(failed);
+                    log.warn("Paystack {} failed: {}", action, e.getMessage());
+                    if (isPaystackFailure(e)) {
+                        circuitBreaker.onFailure();
+                    } else {
+                        circuitBreaker.onSuccess();
+                    }
+                })
+                // Released before the result reaches the caller, who may call again straight away
+                .doOnTerminate(bulkhead::release)
+                .doOnCancel(bulkhead::release)
+                .onErrorMap(e -> !(e instanceof ServiceCommunicationException), ExternalAPIServiceImpl::toServiceCommunicationException)
+                // Callers go on to block on the database, which must not happen on the client's event loop
+                .publishOn(Schedulers.boundedElastic())
+                .toFuture();
+    }
+
+    private static boolean notSent(Throwable e) {
+        return e instanceof WebClientRequestException && e.getCause() instanceof ConnectException;
+    }
+
+    // A rejected request says nothing about Paystack's health, unless it was rate limited
+    private static boolean isPaystackFailure(Throwable e) {
+        if (e instanceof WebClientResponseException responseException) {
+            return responseException.getStatusCode().is5xxServerError()
+                    || responseException.getStatusCode().isSameCodeAs(HttpStatus.TOO_MANY_REQUESTS);
+        }
+        return true;
     }
 
-    private HttpEntity<Object> paystackRequestObject(PaystackRequest paystackRequest) {
-        HttpHeaders headers = new HttpHeaders();
-        headers.set("Authorization", "Bearer " + paystackSecret);
-        headers.set("Content-Type", "application/json");
-        return new HttpEntity<>(paystackRequest, headers);
+    private static ServiceCommunicationException toServiceCommunicationException(Throwable e) {
+        if (e instanceof WebClientResponseException responseException) {
+            return new ServiceCommunicationException("Paystack responded with status " + responseException.getStatusCode()
+                    + ": " + responseException.getResponseBodyAsString());
+        }
+        return new ServiceCommunicationException("Could not reach Paystack: " + e.getMessage());
     }
 }
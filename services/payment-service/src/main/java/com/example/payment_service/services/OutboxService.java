@@ -0,0 +1,11 @@
+package com.example.payment_service.services;
+
+import com.example.payment_service.dto.OutboxEntry;
+
+import java.util.List;
+
+public interface OutboxService {
+    void enqueue(String queueUrl, String aggregateKey, String messageBody);
+    void enqueueAll(List<OutboxEntry> entries);
+    int relay();
+}
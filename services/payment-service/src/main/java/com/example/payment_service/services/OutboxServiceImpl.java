@@ -0,0 +1,91 @@
+package com.example.payment_service.services;
+
+import com.example.common_libraries.service.AbstractOutboxService;
+import com.example.common_libraries.service.SqsBatchPublisher;
+import com.example.payment_service.dto.OutboxEntry;
+import com.example.payment_service.models.OutboxMessage;
+import com.example.payment_service.models.OutboxMessageStatus;
+import com.example.payment_service.repos.OutboxMessageRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+
+@Service
+public class OutboxServiceImpl extends AbstractOutboxService<OutboxMessage> implements OutboxService {
+    private final OutboxMessageRepository outboxMessageRepository;
+
+    public OutboxServiceImpl(OutboxMessageRepository outboxMessageRepository, SqsBatchPublisher sqsBatchPublisher,
+                             TransactionTemplate transactionTemplate) {
+        super(sqsBatchPublisher, transactionTemplate);
+        this.outboxMessageRepository = outboxMessageRepository;
+    }
+
+
+    /**
+     * Stores a message for the relay in the caller's transaction, so it is only sent if the
+     * change it announces commits and is not lost if SQS is unavailable.
+     *
+     * @param queueUrl The URL of the queue to send the message to.
+     * @param aggregateKey Messages with the same key are sent in order, may be null.
+     * @param messageBody The serialized message.
+     */
+    @Override
+    @Transactional
+    public void enqueue(String queueUrl, String aggregateKey, String messageBody) {
+        outboxMessageRepository.save(OutboxMessage
+                .builder()
+                .queueUrl(queueUrl)
+                .aggregateKey(aggregateKey)
+                .payload(messageBody)
+                .status(OutboxMessageStatus.PENDING)
+                .attempts(0)
+                .nextAttemptAt(Instant.now())
+                .build());
+    }
+
+    /**
+     * Stores several messages for the relay in the caller's transaction with one flush.
+     */
+    @Override
+    @Transactional
+    public void enqueueAll(List<OutboxEntry> entries) {
+        if(entries.isEmpty()){
+            return;
+        }
+        Instant now = Instant.now();
+        outboxMessageRepository.saveAll(entries.stream()
+                .map(entry -> OutboxMessage
+                        .builder()
+                        .queueUrl(entry.queueUrl())
+                        .aggregateKey(entry.aggregateKey())
+                        .payload(entry.messageBody())
+                        .status(OutboxMessageStatus.PENDING)
+                        .attempts(0)
+                        .nextAttemptAt(now)
+                        .build())
+                .toList());
+    }
+
+    @Override
+    protected List<OutboxMessage> claimPending(Instant now, int limit) {
+        return outboxMessageRepository.claimPending(now, limit);
+    }
+
+    @Override
+    protected void deleteSent(List<Long> ids) {
+        outboxMessageRepository.deleteAllByIdIn(ids);
+    }
+
+    @Override
+    protected void saveAll(List<OutboxMessage> messages) {
+        outboxMessageRepository.saveAll(messages);
+    }
+
+    @Override
+    protected void markFailed(OutboxMessage message) {
+        message.setStatus(OutboxMessageStatus.FAILED);
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.payment_service.services;
 
+import com.example.common_libraries.dto.CursorPage;
 import com.example.common_libraries.dto.EventRegistrationResponse;
 import com.example.payment_service.dto.TransactionResponse;
 import com.example.payment_service.models.TransactionStatus;
@@ -7,5 +8,6 @@ import org.springframework.data.domain.Page;
 
 public interface PaymentService {
     Page<TransactionResponse> getAllTransactions(int page, String keyword, TransactionStatus status);
+    CursorPage<TransactionResponse> scrollTransactions(String cursor, String keyword, TransactionStatus status);
     EventRegistrationResponse getRegistrationResponse(String reference);
 }
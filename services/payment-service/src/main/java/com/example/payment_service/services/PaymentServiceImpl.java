@@ -1,7 +1,9 @@
 package com.example.payment_service.services;
 
+import com.example.common_libraries.dto.CursorPage;
 import com.example.common_libraries.dto.EventRegistrationResponse;
 import com.example.common_libraries.exception.ResourceNotFoundException;
+import com.example.common_libraries.utils.ScrollCursors;
 import com.example.payment_service.dto.TransactionResponse;
 import com.example.payment_service.models.PaymentRequestObject;
 import com.example.payment_service.models.Transaction;
@@ -13,7 +15,9 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
@@ -32,7 +36,25 @@ public class PaymentServiceImpl implements PaymentService{
         page = Math.max(page, 0);
         Sort sort = Sort.by(Sort.Direction.DESC, "createdAt");
         Pageable pageable = PageRequest.of(page, 10, sort);
-        Specification<Transaction> spec = (root, query, cb) -> cb.conjunction();;
+
+        Page<Transaction> transactions = transactionRepository.findAll(transactionFilter(keyword, status), pageable);
+        return transactions.map(PaymentServiceImpl::toTransactionResponse);
+    }
+
+    @Override
+    public CursorPage<TransactionResponse> scrollTransactions(String cursor, String keyword, TransactionStatus status) {
+        log.info("Scrolling transactions with keyword {} and status {}", keyword, status);
+        // id breaks ties between transactions created in the same instant
+        Sort sort = Sort.by(Sort.Direction.DESC, "createdAt", "id");
+        ScrollPosition position = ScrollCursors.decode(cursor, sort);
+
+        Window<Transaction> transactions = transactionRepository.findBy(transactionFilter(keyword, status),
+                query -> query.sortBy(sort).limit(10).scroll(position));
+        return ScrollCursors.toCursorPage(transactions, PaymentServiceImpl::toTransactionResponse);
+    }
+
+    private static Specification<Transaction> transactionFilter(String keyword, TransactionStatus status) {
+        Specification<Transaction> spec = (root, query, cb) -> cb.conjunction();
 
         if(keyword != null && !keyword.trim().isEmpty()) {
             log.info("Filtering transactions by keyword {}", keyword);
@@ -42,21 +64,21 @@ public class PaymentServiceImpl implements PaymentService{
             log.info("Filtering transactions by status {}", status);
             spec = spec.and(TransactionSpecification.hasStatus(status));
         }
+        return spec;
+    }
 
-        Page<Transaction> transactions = transactionRepository.findAll(spec, pageable);
-        return transactions.map(transaction -> {
-            PaymentRequestObject pro = transaction.getPaymentRequestObject();
-            return TransactionResponse.builder()
-                    .transactionId(transaction.getReference())
-                    .eventName(pro != null && pro.getEventTitle() != null ? pro.getEventTitle() : "N/A")
-                    .eventOrganizer(pro != null && pro.getOrganizer() != null ? pro.getOrganizer() : "N/A")
-                    .attendeeEmail(pro != null && pro.getEmail() != null ? pro.getEmail() : "N/A")
-                    .amount(transaction.getAmount())
-                    .paymentMethod(transaction.getPaymentMethod())
-                    .status(transaction.getStatus())
-                    .transactionTime(transaction.getCreatedAt())
-                    .build();
-        });
+    private static TransactionResponse toTransactionResponse(Transaction transaction) {
+        PaymentRequestObject pro = transaction.getPaymentRequestObject();
+        return TransactionResponse.builder()
+                .transactionId(transaction.getReference())
+                .eventName(pro != null && pro.getEventTitle() != null ? pro.getEventTitle() : "N/A")
+                .eventOrganizer(pro != null && pro.getOrganizer() != null ? pro.getOrganizer() : "N/A")
+                .attendeeEmail(pro != null && pro.getEmail() != null ? pro.getEmail() : "N/A")
+                .amount(transaction.getAmount())
+                .paymentMethod(transaction.getPaymentMethod())
+                .status(transaction.getStatus())
+                .transactionTime(transaction.getCreatedAt())
+                .build();
     }
 
     @Override
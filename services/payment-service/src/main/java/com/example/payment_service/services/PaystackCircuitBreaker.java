@@ -0,0 +1,97 @@
+package com.example.payment_service.services;
+
+import java.time.Duration;
+
+/**
+ * Stops calls to Paystack for {@code openDuration} once at least {@code failureRateThreshold} percent of
+ * the last {@code windowSize} calls failed. After that a single call is let through: if it succeeds calls
+ * resume, otherwise the breaker stays open for another period.
+ */
+class PaystackCircuitBreaker {
+    private enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final boolean[] failed;
+    private final int minimumCalls;
+    private final int failureRateThreshold;
+    private final long openDurationNanos;
+
+    private State state = State.CLOSED;
+    private long retryAt;
+    private int next;
+    private int recorded;
+    private int failures;
+
+    PaystackCircuitBreaker(int windowSize, int minimumCalls, int failureRateThreshold, Duration openDuration) {
+        this.failed = new boolean[windowSize];
+        this.minimumCalls = minimumCalls;
+        this.failureRateThreshold = failureRateThreshold;
+        this.openDurationNanos = openDuration.toNanos();
+    }
+
+    /**
+     * Returns whether a call may be made now. While the breaker is open this lets one call through per
+     * open period, so a trial call that never completes can't keep it open for good.
+     */
+    synchronized boolean tryAcquire() {
+        if (state == State.CLOSED) {
+            return true;
+        }
+        long now = System.nanoTime();
+        if (now - retryAt < 0) {
+            return false;
+        }
+        state = State.HALF_OPEN;
+        retryAt = now + openDurationNanos;
+        return true;
+    }
+
+    synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            close();
+        } else if (state == State.CLOSED) {
+            record(false);
+        }
+    }
+
+    synchronized void onFailure() {
+        if (state == State.HALF_OPEN) {
+            open();
+        } else if (state == State.CLOSED) {
+            record(true);
+            if (recorded >= minimumCalls && failures * 100 >= failureRateThreshold * recorded) {
+                open();
+            }
+        }
+    }
+
+    synchronized boolean isOpen() {
+        return state != State.CLOSED;
+    }
+
+    private void record(boolean failure) {
+        if (recorded == failed.length) {
+            if (failed[next]) {
+                failures--;
+            }
+        } else {
+            recorded++;
+        }
+        failed[next] = failure;
+        if (failure) {
+            failures++;
+        }
+        next = (next + 1) % failed.length;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        retryAt = System.nanoTime() + openDurationNanos;
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        next = 0;
+        recorded = 0;
+        failures = 0;
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.payment_service.services;
+
+import com.example.common_libraries.dto.queue_events.RefundDueEvent;
+
+public interface RefundService {
+    void refund(RefundDueEvent refundDueEvent);
+}
@@ -0,0 +1,60 @@
+package com.example.payment_service.services;
+
+import com.example.common_libraries.dto.queue_events.RefundDueEvent;
+import com.example.payment_service.models.Transaction;
+import com.example.payment_service.models.TransactionStatus;
+import com.example.payment_service.repos.TransactionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.concurrent.CompletionException;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RefundServiceImpl implements RefundService {
+    private final TransactionRepository transactionRepository;
+    private final ExternalAPIService externalAPIService;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Refunds a payment whose tickets sold out before it completed. The transaction is marked
+     * {@code REFUND_PENDING} before Paystack is called and {@code REFUNDED} once Paystack accepted the refund,
+     * each in a short transaction of its own. If the call fails the exception reaches the listener, so the
+     * message is redelivered and the refund of the still pending transaction tried again.
+     */
+    @Override
+    public void refund(RefundDueEvent refundDueEvent) {
+        String reference = refundDueEvent.transactionReference();
+        Transaction transaction = transactionRepository.findByReference(reference).orElse(null);
+        if (transaction == null) {
+            log.error("Refund due for unknown transaction {}", reference);
+            return;
+        }
+        if (transaction.getStatus() == TransactionStatus.SUCCESS) {
+            if (!transition(reference, TransactionStatus.SUCCESS, TransactionStatus.REFUND_PENDING)) {
+                log.warn("Refund for transaction {} already started", reference);
+                return;
+            }
+        } else if (transaction.getStatus() != TransactionStatus.REFUND_PENDING) {
+            log.warn("Transaction {} is {}, not refunding it", reference, transaction.getStatus());
+            return;
+        }
+
+        try {
+            externalAPIService.refundPaystackTransaction(reference).join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+        transition(reference, TransactionStatus.REFUND_PENDING, TransactionStatus.REFUNDED);
+        log.info("Refunded transaction {} for {}", reference, refundDueEvent.email());
+    }
+
+    private boolean transition(String reference, TransactionStatus from, TransactionStatus to) {
+        Integer updated = transactionTemplate.execute(status -> transactionRepository.transition(reference, from, to, Instant.now()));
+        return updated != null && updated == 1;
+    }
+}
@@ -4,8 +4,10 @@ import com.example.common_libraries.dto.queue_events.ProcessPaymentEvent;
 import com.example.payment_service.dto.TransactionRequest;
 import com.example.payment_service.models.Transaction;
 
+import java.util.concurrent.CompletableFuture;
+
 public interface TransactionService {
-    Transaction createTransaction(ProcessPaymentEvent paymentEvent);
+    CompletableFuture<Transaction> createTransaction(ProcessPaymentEvent paymentEvent);
     void updateTransaction(Long id, TransactionRequest transactionRequest);
     void deleteTransaction(Long id);
     Transaction findByReference(String reference);
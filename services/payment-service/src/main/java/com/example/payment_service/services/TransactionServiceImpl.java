@@ -12,14 +12,16 @@ import com.example.payment_service.publisher.MessagePublisher;
 import com.example.payment_service.repos.PaymentRequestObjectRepository;
 import com.example.payment_service.repos.TransactionRepository;
 import com.example.common_libraries.exception.ResourceNotFoundException;
+import com.example.common_libraries.exception.ServiceCommunicationException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 @RequiredArgsConstructor
@@ -30,10 +32,14 @@ public class TransactionServiceImpl implements TransactionService {
     private final ExternalAPIService externalAPIService;
     private final PaymentRequestObjectRepository paymentRequestObjectRepository;
     private final MessagePublisher messagePublisher;
+    private final TransactionTemplate transactionTemplate;
 
+    /**
+     * Initializes the Paystack transaction first and only then opens a database transaction to record it,
+     * so no connection is held while waiting for Paystack.
+     */
     @Override
-    @Transactional
-    public Transaction createTransaction(ProcessPaymentEvent paymentRequest) {
+    public CompletableFuture<Transaction> createTransaction(ProcessPaymentEvent paymentRequest) {
 
         BigDecimal totalTicketPrice = BigDecimal.valueOf(paymentRequest.amount()*paymentRequest.numberOfTickets());
         BigDecimal amountInSmallestUnit = totalTicketPrice.multiply(new BigDecimal("100"));
@@ -44,11 +50,17 @@ public class TransactionServiceImpl implements TransactionService {
                 amountToSend
         );
 
-        PaystackTransaction paystackTransaction = createPaystackTransaction(paystackRequest);
+        return createPaystackTransaction(paystackRequest)
+                .thenApply(paystackTransaction -> transactionTemplate.execute(status ->
+                        saveTransaction(paymentRequest, paystackTransaction, totalTicketPrice)));
+    }
 
-        if (paystackTransaction.status()) {
-            log.info("Paystack Transaction: {}", paystackTransaction.data().authorizationUrl());
+    private Transaction saveTransaction(ProcessPaymentEvent paymentRequest, PaystackTransaction paystackTransaction,
+                                        BigDecimal totalTicketPrice) {
+        if (!paystackTransaction.status() || paystackTransaction.data() == null) {
+            throw new ServiceCommunicationException("Paystack did not initialize the transaction: " + paystackTransaction.message());
         }
+        log.info("Paystack Transaction: {}", paystackTransaction.data().authorizationUrl());
 
         Transaction transaction = Transaction.builder()
                 .accessToken(paystackTransaction.data().accessCode())
@@ -68,6 +80,7 @@ public class TransactionServiceImpl implements TransactionService {
                 .amount(paymentRequest.amount())
                 .numberOfTickets(paymentRequest.numberOfTickets())
                 .ticketTypeId(paymentRequest.ticketTypeId())
+                .reservationId(paymentRequest.reservationId())
                 .eventId(paymentRequest.eventRegistrationResponse().id())
                 .eventTitle(paymentRequest.eventRegistrationResponse().eventTitle())
                 .location(paymentRequest.eventRegistrationResponse().location())
@@ -113,7 +126,7 @@ public class TransactionServiceImpl implements TransactionService {
                 .orElseThrow(() -> new ResourceNotFoundException("Transaction not found"));
     }
 
-    private PaystackTransaction createPaystackTransaction(PaystackRequest paystackRequest) {
+    private CompletableFuture<PaystackTransaction> createPaystackTransaction(PaystackRequest paystackRequest) {
         return externalAPIService.createPaystackTransaction(paystackRequest);
     }
 
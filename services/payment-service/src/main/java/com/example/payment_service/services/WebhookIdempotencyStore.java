@@ -0,0 +1,103 @@
+package com.example.payment_service.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Remembers which Paystack webhook events were already applied, so redelivered events are dropped before
+ * touching the database. Keys are kept in memory and in Redis, so a retry handled by another instance is
+ * recognised too. This is only a shortcut: the conditional status update in the database is what guarantees
+ * an event is applied once, so the store treats events as new whenever Redis can't be reached.
+ */
+@Slf4j
+@Component
+public class WebhookIdempotencyStore {
+    private static final String KEY_PREFIX = "webhook:processed:";
+
+    private final StringRedisTemplate redisTemplate;
+    private final Cache<String, Boolean> local;
+    private final Duration ttl;
+
+    public WebhookIdempotencyStore(ObjectProvider<StringRedisTemplate> redisTemplate,
+                                   @Value("${webhook.idempotency.ttl-hours:72}") long ttlHours,
+                                   @Value("${webhook.idempotency.local-maximum-size:100000}") long localMaximumSize) {
+        this.redisTemplate = redisTemplate.getIfAvailable();
+        this.ttl = Duration.ofHours(ttlHours);
+        this.local = Caffeine.newBuilder()
+                .maximumSize(localMaximumSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    /**
+     * Returns the keys of events that were already applied, with one Redis round trip for the keys not
+     * known locally.
+     */
+    public Set<String> processed(Collection<String> eventKeys) {
+        Set<String> processed = new HashSet<>();
+        List<String> unknown = new ArrayList<>();
+        for (String eventKey : eventKeys) {
+            if (local.getIfPresent(eventKey) != null) {
+                processed.add(eventKey);
+            } else {
+                unknown.add(eventKey);
+            }
+        }
+        if (unknown.isEmpty() || redisTemplate == null) {
+            return processed;
+        }
+
+        try {
+            List<String> values = redisTemplate.opsForValue().multiGet(unknown.stream().map(key -> KEY_PREFIX + key).toList());
+            for (int i = 0; values != null && i < unknown.size(); i++) {
+                if (values.get(i) != null) {
+                    processed.add(unknown.get(i));
+                    local.put(unknown.get(i), Boolean.TRUE);
+                }
+            }
+        } catch (DataAccessException e) {
+            log.warn("Could not check processed webhooks in Redis: {}", e.getMessage());
+        }
+        return processed;
+    }
+
+    /**
+     * Records events as applied. Call it once their effects are committed.
+     */
+    public void markProcessed(Collection<String> eventKeys) {
+        if (eventKeys.isEmpty()) {
+            return;
+        }
+        eventKeys.forEach(eventKey -> local.put(eventKey, Boolean.TRUE));
+        if (redisTemplate == null) {
+            return;
+        }
+
+        try {
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection stringConnection = (StringRedisConnection) connection;
+                for (String eventKey : eventKeys) {
+                    stringConnection.setEx(KEY_PREFIX + eventKey, ttl.toSeconds(), "1");
+                }
+                return null;
+            });
+        } catch (DataAccessException e) {
+            log.warn("Could not record processed webhooks in Redis: {}", e.getMessage());
+        }
+    }
+}
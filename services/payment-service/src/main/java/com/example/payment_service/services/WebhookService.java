@@ -1,7 +1,8 @@
 package com.example.payment_service.services;
 
-import com.example.payment_service.dto.PaystackWebhook;
+import java.util.List;
 
 public interface WebhookService {
     void handleWebhook(String rawBody);
+    void handleWebhooks(List<String> rawBodies);
 }
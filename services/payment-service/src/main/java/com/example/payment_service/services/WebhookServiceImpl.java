@@ -8,136 +8,174 @@ import com.example.payment_service.models.PaymentRequestObject;
 import com.example.payment_service.models.Transaction;
 import com.example.payment_service.models.TransactionStatus;
 import com.example.payment_service.publisher.MessagePublisher;
-import com.example.payment_service.repos.PaymentRequestObjectRepository;
 import com.example.payment_service.repos.TransactionRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class WebhookServiceImpl implements WebhookService{
-    private final TransactionService transactionService;
-    private final PaymentRequestObjectRepository paymentRequestObjectRepository;
-    private final MessagePublisher messagePublisher;
     private final TransactionRepository transactionRepository;
+    private final MessagePublisher messagePublisher;
+    private final WebhookIdempotencyStore idempotencyStore;
+    private final ObjectMapper objectMapper;
 
     @Override
     @Transactional
     public void handleWebhook(String rawBody) {
-        try {
-            ObjectMapper objectMapper = new ObjectMapper();
-            PaystackWebhook payload = objectMapper.readValue(rawBody, PaystackWebhook.class);
+        handleWebhooks(List.of(rawBody));
+    }
+
+    /**
+     * Applies a batch of Paystack webhooks in one transaction. Duplicates within the batch and events
+     * already applied are dropped, the transactions are loaded with one query, and each status change
+     * is a conditional update, so an event delivered several times at once still takes effect once.
+     * The resulting queue messages are written to the outbox together.
+     */
+    @Override
+    @Transactional
+    public void handleWebhooks(List<String> rawBodies) {
+        // Sorted by event key, so concurrent batches update their rows in the same order
+        Map<String, PaystackWebhook> webhooks = new TreeMap<>();
+        for (String rawBody : rawBodies) {
+            PaystackWebhook payload = parse(rawBody);
+            if (payload != null) {
+                webhooks.putIfAbsent(eventKey(payload), payload);
+            }
+        }
+        webhooks.keySet().removeAll(idempotencyStore.processed(webhooks.keySet()));
+        if (webhooks.isEmpty()) {
+            return;
+        }
+
+        Map<String, Transaction> transactions = transactionRepository
+                .findAllWithPaymentRequestByReferenceIn(webhooks.values().stream().map(webhook -> webhook.data().reference()).toList())
+                .stream()
+                .collect(Collectors.toMap(Transaction::getReference, Function.identity()));
+
+        List<String> applied = new ArrayList<>(webhooks.size());
+        List<PaymentStatusEvent> statusEvents = new ArrayList<>();
+        List<ProcessPaymentEvent> successfulPayments = new ArrayList<>();
+        Instant now = Instant.now();
 
+        webhooks.forEach((eventKey, payload) -> {
             String reference = payload.data().reference();
-            log.info("Webhook received: {}", payload);
-            Transaction transaction = transactionService.findByReference(reference);
-            if(transaction.getStatus() == TransactionStatus.SUCCESS || transaction.getStatus() == TransactionStatus.FAILED){
-                log.warn("Transaction already processed for reference {}", reference);
+            Transaction transaction = transactions.get(reference);
+            if (transaction == null) {
+                log.error("Error processing webhook: transaction not found for reference {}", reference);
                 return;
             }
 
+            TransactionStatus status = "charge.success".equals(payload.event()) ? TransactionStatus.SUCCESS : TransactionStatus.FAILED;
+            String paymentMethod = payload.data().channel();
+            if (transaction.getStatus() != TransactionStatus.PENDING
+                    || transactionRepository.completeIfPending(reference, status, paymentMethod, now) == 0) {
+                log.warn("Transaction already processed for reference {}", reference);
+                applied.add(eventKey);
+                return;
+            }
 
-            if ("charge.success".equals(payload.event())) {
+            PaymentRequestObject pro = transaction.getPaymentRequestObject();
+            if (status == TransactionStatus.SUCCESS) {
                 log.info("Payment successful for reference {}", reference);
-                // update transaction status and payment method
-                transaction.setStatus(TransactionStatus.SUCCESS);
-                transaction.setPaymentMethod(payload.data().channel());
-
-                // handle payment success
-                handlePaymentSuccess(payload, transaction);
+                if (pro != null) {
+                    statusEvents.add(statusEvent(transaction, status, paymentMethod, pro.getFullName(), now));
+                    successfulPayments.add(processPaymentEvent(transaction, pro));
+                }
             } else {
-                // update transaction status
-                transaction.setStatus(TransactionStatus.FAILED);
-                transaction.setPaymentMethod(payload.data().channel());
+                log.warn("Payment failed for reference {}", reference);
+                statusEvents.add(statusEvent(transaction, status, paymentMethod, pro != null ? pro.getFullName() : null, now));
+            }
+            applied.add(eventKey);
+        });
 
-                // handle payment failure
-                handlePaymentFailure(payload, transaction);
+        messagePublisher.publishPaymentEvents(statusEvents, successfulPayments);
+        markProcessedAfterCommit(applied);
+    }
+
+    private PaystackWebhook parse(String rawBody) {
+        try {
+            PaystackWebhook payload = objectMapper.readValue(rawBody, PaystackWebhook.class);
+            if (payload.data() == null || payload.data().reference() == null) {
+                log.error("Error processing webhook: no transaction reference");
+                return null;
             }
-        }catch (Exception e){
+            return payload;
+        } catch (JsonProcessingException e) {
             log.error("Error processing webhook: {}", e.getMessage());
+            return null;
         }
     }
 
-    private void handlePaymentFailure(PaystackWebhook payload, Transaction transaction) {
-        log.warn("Handling payment failed for reference {}", payload.data().reference());
-        // save transaction
-        transactionRepository.save(transaction);
+    // Paystack retries an event with the same payload, so the event type and reference identify it
+    private static String eventKey(PaystackWebhook payload) {
+        return payload.data().reference() + ":" + payload.event();
+    }
+
+    private void markProcessedAfterCommit(List<String> eventKeys) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            idempotencyStore.markProcessed(eventKeys);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                idempotencyStore.markProcessed(eventKeys);
+            }
+        });
+    }
 
-        // Build payment status event
-        PaymentStatusEvent statusEvent = PaymentStatusEvent
+    private static PaymentStatusEvent statusEvent(Transaction transaction, TransactionStatus status, String paymentMethod,
+                                                  String fullName, Instant timestamp) {
+        return PaymentStatusEvent
                 .builder()
                 .transactionId(transaction.getReference())
                 .email(transaction.getEmail())
-                .fullName(transaction.getPaymentRequestObject().getFullName())
-                .paymentMethod(payload.data().channel())
-                .status(TransactionStatus.FAILED.name())
+                .fullName(fullName)
+                .paymentMethod(paymentMethod)
+                .status(status.name())
                 .amount(transaction.getAmount())
-                .timestamp(Instant.now())
+                .timestamp(timestamp)
                 .build();
-
-        // publish to payment status queue
-        messagePublisher.publishPaymentStatusToQueue(statusEvent);
-        log.warn("Payment failed for reference {}", payload.data().reference());
     }
 
-    protected void handlePaymentSuccess(PaystackWebhook payload, Transaction transaction) {
-        log.info("Handling payment successful for reference {}", payload.data().reference());
-        // fetch payment request object
-        PaymentRequestObject pro = paymentRequestObjectRepository.findByTransaction(transaction).orElse(null);
-        if(pro != null){
-            // Build event response object
-            EventRegistrationResponse eventRegistrationResponse =
-                    EventRegistrationResponse
-                            .builder()
-                            .id(pro.getEventId())
-                            .eventTitle(pro.getEventTitle())
-                            .location(pro.getLocation())
-                            .organizer(pro.getOrganizer())
-                            .startDate(pro.getStartDate())
-                            .authorizationUrl(transaction.getAuthorizationUrl())
-                            .build();
-
-            // Build process payment event
-            ProcessPaymentEvent processPaymentEvent =
-                    ProcessPaymentEvent
-                            .builder()
-                            .amount(pro.getAmount())
-                            .ticketTypeId(pro.getTicketTypeId())
-                            .numberOfTickets(pro.getNumberOfTickets())
-                            .fullName(pro.getFullName())
-                            .email(pro.getEmail())
-                            .eventRegistrationResponse(eventRegistrationResponse)
-                            .build();
-
-            // Build payment success event
-            PaymentStatusEvent statusEvent = PaymentStatusEvent
-                    .builder()
-                    .transactionId(transaction.getReference())
-                    .email(transaction.getEmail())
-                    .fullName(pro.getFullName())
-                    .paymentMethod(transaction.getPaymentMethod())
-                    .status(TransactionStatus.SUCCESS.name())
-                    .amount(transaction.getAmount())
-                    .timestamp(Instant.now())
-                    .build();
-
-            // save transaction
-            transactionRepository.save(transaction);
-
-            // publish to payment status queue
-            messagePublisher.publishPaymentStatusToQueue(statusEvent);
-            // publish to payment successful event queue
-            messagePublisher.publishPaymentSuccessfulEventToQueue(processPaymentEvent);
-            return;
-        }
-
-        // save transaction even if the payment request object is null
-        transactionRepository.save(transaction);
+    private static ProcessPaymentEvent processPaymentEvent(Transaction transaction, PaymentRequestObject pro) {
+        EventRegistrationResponse eventRegistrationResponse =
+                EventRegistrationResponse
+                        .builder()
+                        .id(pro.getEventId())
+                        .eventTitle(pro.getEventTitle())
+                        .location(pro.getLocation())
+                        .organizer(pro.getOrganizer())
+                        .startDate(pro.getStartDate())
+                        .authorizationUrl(transaction.getAuthorizationUrl())
+                        .build();
+
+        return ProcessPaymentEvent
+                .builder()
+                .amount(pro.getAmount())
+                .ticketTypeId(pro.getTicketTypeId())
+                .numberOfTickets(pro.getNumberOfTickets())
+                .fullName(pro.getFullName())
+                .email(pro.getEmail())
+                .eventRegistrationResponse(eventRegistrationResponse)
+                .reservationId(pro.getReservationId())
+                .transactionReference(transaction.getReference())
+                .build();
     }
 }
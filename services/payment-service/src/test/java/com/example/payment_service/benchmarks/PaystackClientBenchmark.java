@@ -0,0 +1,91 @@
+package com.example.payment_service.benchmarks;
+
+import com.example.payment_service.config.PaystackClientConfig;
+import com.example.payment_service.dto.PaystackRequest;
+import com.example.payment_service.dto.PaystackTransaction;
+import com.example.payment_service.integrations.PaystackStubServer;
+import com.example.payment_service.services.ExternalAPIServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of initializing a Paystack transaction from 50 callers at once, against {@link PaystackStubServer}
+ * answering after 100 ms, and after 8 s for 2% of the calls. {@code previous} is the blocking
+ * {@link RestTemplate} call {@code ExternalAPIServiceImpl} used to make, with no timeout; {@code pooled} is
+ * {@link ExternalAPIServiceImpl} on the client from {@link PaystackClientConfig}, with a 2 s response
+ * timeout, which turns the hung calls into errors. The sample mode output gives the percentiles.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Threads(50)
+@Warmup(iterations = 1, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class PaystackClientBenchmark {
+    private static final PaystackRequest REQUEST = new PaystackRequest("ama.mensah@example.com", 15000);
+
+    private PaystackStubServer stub;
+    private RestTemplate restTemplate;
+    private HttpEntity<PaystackRequest> previousRequest;
+    private ExternalAPIServiceImpl client;
+
+    @Setup
+    public void setup() throws IOException {
+        stub = PaystackStubServer.start()
+                .latency(Duration.ofMillis(100))
+                .tailLatency(0.02, Duration.ofSeconds(8));
+
+        restTemplate = new RestTemplate();
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth("sk_test_secret");
+        previousRequest = new HttpEntity<>(REQUEST, headers);
+
+        PaystackClientConfig config = new PaystackClientConfig();
+        ReflectionTestUtils.setField(config, "maxConnections", 200);
+        ReflectionTestUtils.setField(config, "pendingAcquireTimeoutMs", 1000L);
+        ReflectionTestUtils.setField(config, "maxIdleSeconds", 30L);
+        ReflectionTestUtils.setField(config, "connectTimeoutMs", 1000);
+        ReflectionTestUtils.setField(config, "responseTimeoutMs", 2000L);
+        client = new ExternalAPIServiceImpl(config.paystackWebClient(), new SimpleMeterRegistry(), "sk_test_secret",
+                stub.initializeUrl(), stub.refundUrl(), 50, 2, 10, 4, 50, 30_000);
+    }
+
+    @TearDown
+    public void tearDown() {
+        stub.close();
+    }
+
+    @Benchmark
+    public PaystackTransaction previous() {
+        return restTemplate.postForObject(stub.initializeUrl(), previousRequest, PaystackTransaction.class);
+    }
+
+    @Benchmark
+    public PaystackTransaction pooled() {
+        try {
+            return client.createPaystackTransaction(REQUEST).join();
+        } catch (CompletionException e) {
+            // the caller still gets its answer, an error, within the timeout
+            return null;
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PaystackClientBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
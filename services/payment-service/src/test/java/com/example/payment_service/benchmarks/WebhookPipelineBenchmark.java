@@ -0,0 +1,193 @@
+package com.example.payment_service.benchmarks;
+
+import com.example.common_libraries.config.JacksonConfig;
+import com.example.common_libraries.service.SqsBatchPublisher;
+import com.example.payment_service.models.PaymentRequestObject;
+import com.example.payment_service.models.Transaction;
+import com.example.payment_service.models.TransactionStatus;
+import com.example.payment_service.publisher.MessagePublisherImpl;
+import com.example.payment_service.repos.OutboxMessageRepository;
+import com.example.payment_service.repos.PaymentRequestObjectRepository;
+import com.example.payment_service.repos.TransactionRepository;
+import com.example.payment_service.services.OutboxServiceImpl;
+import com.example.payment_service.services.WebhookIdempotencyStore;
+import com.example.payment_service.services.WebhookService;
+import com.example.payment_service.services.WebhookServiceImpl;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.autoconfigure.transaction.TransactionAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Time to run 3,000 {@code charge.success} webhooks, each of 1,000 payments delivered three times in shuffled
+ * batches of 10, through {@link WebhookServiceImpl} on 8 consumers at once, the way the SQS listener does,
+ * against an in-memory H2 database. Duplicates are dropped by the idempotency store before they reach the
+ * database, and a batch failing on a lock conflict is redelivered whole. H2 stands in for PostgreSQL, so the
+ * time is that of the pipeline's own work, not what production reaches.
+ * <p>
+ * Known shortfall: the last measured run took about 6.8 s, about 440 webhooks a second, short of the
+ * thousands a second the pipeline is meant to handle. It has not been measured against PostgreSQL yet.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class WebhookPipelineBenchmark {
+    private static final int TRANSACTIONS = 1_000;
+    private static final int DELIVERIES_PER_EVENT = 3;
+    private static final int BATCH_SIZE = 10;
+    private static final int CONSUMERS = 8;
+
+    // Not a @Configuration, so the component scan of PaymentServiceApplication doesn't pick it up
+    @EnableJpaAuditing
+    @EntityScan(basePackageClasses = Transaction.class)
+    @EnableJpaRepositories(basePackageClasses = TransactionRepository.class)
+    @ImportAutoConfiguration({DataSourceAutoConfiguration.class, HibernateJpaAutoConfiguration.class, TransactionAutoConfiguration.class})
+    @Import({WebhookServiceImpl.class, WebhookIdempotencyStore.class, MessagePublisherImpl.class, OutboxServiceImpl.class, JacksonConfig.class})
+    static class Pipeline {
+        @Bean
+        SqsBatchPublisher sqsBatchPublisher() {
+            return mock(SqsBatchPublisher.class);
+        }
+    }
+
+    private ConfigurableApplicationContext context;
+    private WebhookService webhookService;
+    private TransactionRepository transactionRepository;
+    private PaymentRequestObjectRepository paymentRequestObjectRepository;
+    private OutboxMessageRepository outboxMessageRepository;
+    private ExecutorService consumers;
+    private List<List<String>> batches;
+
+    @Setup(Level.Trial)
+    public void startPipeline() {
+        // As arguments, so they take precedence over application.properties
+        context = new SpringApplicationBuilder(Pipeline.class)
+                .web(WebApplicationType.NONE)
+                .run("--ACTIVE_PROFILE=test",
+                        "--spring.datasource.url=jdbc:h2:mem:webhook-pipeline;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.properties.hibernate.default_schema=PUBLIC",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN",
+                        "--sqs.payment-completed-event-queue-url=payment-completed",
+                        "--sqs.payment-status-queue=payment-status",
+                        "--sqs.webhook-event-queue=webhook-event");
+        webhookService = context.getBean(WebhookService.class);
+        transactionRepository = context.getBean(TransactionRepository.class);
+        paymentRequestObjectRepository = context.getBean(PaymentRequestObjectRepository.class);
+        outboxMessageRepository = context.getBean(OutboxMessageRepository.class);
+        consumers = Executors.newFixedThreadPool(CONSUMERS);
+    }
+
+    @TearDown(Level.Trial)
+    public void stopPipeline() {
+        consumers.shutdown();
+        context.close();
+    }
+
+    // Fresh payments every run, as the idempotency store remembers the references of the previous one
+    @Setup(Level.Iteration)
+    public void createPayments() {
+        outboxMessageRepository.deleteAll();
+        paymentRequestObjectRepository.deleteAll();
+        transactionRepository.deleteAll();
+
+        String referencePrefix = "ref-" + UUID.randomUUID() + "-";
+        List<String> deliveries = new ArrayList<>();
+        for (int i = 0; i < TRANSACTIONS; i++) {
+            String reference = referencePrefix + i;
+            Transaction transaction = transactionRepository.save(Transaction.builder()
+                    .accessToken("access-" + i)
+                    .reference(reference)
+                    .authorizationUrl("https://checkout.paystack.com/" + i)
+                    .email("attendee" + i + "@example.com")
+                    .amount(new BigDecimal("150.00"))
+                    .status(TransactionStatus.PENDING)
+                    .build());
+            paymentRequestObjectRepository.save(PaymentRequestObject.builder()
+                    .transaction(transaction)
+                    .email(transaction.getEmail())
+                    .fullName("Attendee " + i)
+                    .amount(75.0)
+                    .numberOfTickets(2L)
+                    .ticketTypeId(3L)
+                    .reservationId((long) i)
+                    .eventId(7L)
+                    .eventTitle("Accra Tech Meetup")
+                    .startDate(Instant.parse("2026-11-01T18:00:00Z"))
+                    .build());
+            for (int j = 0; j < DELIVERIES_PER_EVENT; j++) {
+                deliveries.add("""
+                        {"event":"charge.success","data":{"id":1,"status":"success","reference":"%s","amount":15000,"channel":"card","currency":"GHS"}}
+                        """.formatted(reference));
+            }
+        }
+        Collections.shuffle(deliveries, new Random(42));
+
+        batches = new ArrayList<>();
+        for (int i = 0; i < deliveries.size(); i += BATCH_SIZE) {
+            batches.add(deliveries.subList(i, Math.min(i + BATCH_SIZE, deliveries.size())));
+        }
+    }
+
+    @Benchmark
+    public void handleWebhooks() throws Exception {
+        List<Future<?>> results = new ArrayList<>();
+        for (List<String> batch : batches) {
+            results.add(consumers.submit(() -> {
+                for (int attempt = 0; ; attempt++) {
+                    try {
+                        webhookService.handleWebhooks(batch);
+                        return;
+                    } catch (DataAccessException e) {
+                        if (attempt == 5) {
+                            throw e;
+                        }
+                    }
+                }
+            }));
+        }
+        for (Future<?> result : results) {
+            result.get(2, TimeUnit.MINUTES);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(WebhookPipelineBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.payment_service.benchmarks;
+
+import com.example.payment_service.security.PaystackSignatureVerifier;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.HexFormat;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Signature checks per second for a typical {@code charge.success} webhook. {@code previous} is the check
+ * {@code WebhookController} used to do: a new {@link Mac} per request, the body converted from a
+ * {@code String}, the HMAC hex encoded with {@code String.format} and compared with {@code equals}.
+ * {@code verifier} is {@link PaystackSignatureVerifier}. Run with the GC profiler, {@code gc.alloc.rate.norm}
+ * gives the bytes allocated per check.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WebhookSignatureBenchmark {
+    private static final String SECRET = "sk_test_4f1c2d9e8b7a6f5e4d3c2b1a0f9e8d7c6b5a4f3e";
+
+    private String body;
+    private byte[] bodyBytes;
+    private String signature;
+    private PaystackSignatureVerifier verifier;
+
+    @Setup
+    public void setup() throws Exception {
+        body = """
+                {"event":"charge.success","data":{"id":4099260516,"domain":"live","status":"success",\
+                "reference":"T2024021913450012345678","amount":15000,"message":null,"gateway_response":"Successful",\
+                "paid_at":"2026-10-18T10:12:45.000Z","created_at":"2026-10-18T10:12:20.000Z","channel":"card",\
+                "currency":"GHS","ip_address":"41.66.200.12","metadata":{"reservationId":"9812","eventId":"77"},\
+                "fees_breakdown":null,"log":null,"fees":294,"fees_split":null,\
+                "authorization":{"authorization_code":"AUTH_8dfhjjdt","bin":"408408","last4":"4081","exp_month":"12",\
+                "exp_year":"2030","channel":"card","card_type":"visa","bank":"TEST BANK","country_code":"GH",\
+                "brand":"visa","reusable":true,"signature":"SIG_yEXu7dLBeqG0kU7g95Ke","account_name":null},\
+                "customer":{"id":181873746,"first_name":"Ama","last_name":"Mensah","email":"ama.mensah@example.com",\
+                "customer_code":"CUS_1rkzaqsv4rrhqo6","phone":"+233200000000","metadata":null,"risk_action":"default",\
+                "international_format_phone":null},"plan":{},"subaccount":{},"split":{},"order_id":null,\
+                "paidAt":"2026-10-18T10:12:45.000Z","requested_amount":15000,"pos_transaction_data":null,\
+                "source":{"type":"api","source":"merchant_api","entry_point":"transaction_initialize","identifier":null}}}""";
+        bodyBytes = body.getBytes(StandardCharsets.UTF_8);
+        Mac mac = Mac.getInstance("HmacSHA512");
+        mac.init(new SecretKeySpec(SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA512"));
+        signature = HexFormat.of().formatHex(mac.doFinal(bodyBytes));
+        verifier = new PaystackSignatureVerifier(SECRET);
+        if (!previous() || !verifier()) {
+            throw new IllegalStateException("Signature does not verify");
+        }
+    }
+
+    @Benchmark
+    public boolean previous() throws Exception {
+        Mac sha512_HMAC = Mac.getInstance("HmacSHA512");
+        SecretKeySpec secretKey = new SecretKeySpec(SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA512");
+        sha512_HMAC.init(secretKey);
+        byte[] hashBytes = sha512_HMAC.doFinal(body.getBytes(StandardCharsets.UTF_8));
+
+        StringBuilder sb = new StringBuilder();
+        for (byte b : hashBytes) {
+            sb.append(String.format("%02x", b));
+        }
+        return sb.toString().equals(signature);
+    }
+
+    @Benchmark
+    public boolean verifier() {
+        return verifier.verify(bodyBytes, signature);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(WebhookSignatureBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.payment_service.integrations;
+
+import com.example.common_libraries.exception.ServiceCommunicationException;
+import com.example.payment_service.config.PaystackClientConfig;
+import com.example.payment_service.dto.PaystackRefund;
+import com.example.payment_service.dto.PaystackRequest;
+import com.example.payment_service.dto.PaystackTransaction;
+import com.example.payment_service.services.ExternalAPIServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs {@link ExternalAPIServiceImpl} with the pooled client from {@link PaystackClientConfig} against
+ * {@link PaystackStubServer}. {@code PaystackClientBenchmark} measures its latency.
+ */
+class PaystackClientIntegrationTest {
+    private static final PaystackRequest REQUEST = new PaystackRequest("ama.mensah@example.com", 15000);
+
+    private PaystackStubServer stub;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        stub = PaystackStubServer.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        stub.close();
+    }
+
+    private static WebClient webClient(long responseTimeoutMs) {
+        PaystackClientConfig config = new PaystackClientConfig();
+        ReflectionTestUtils.setField(config, "maxConnections", 200);
+        ReflectionTestUtils.setField(config, "pendingAcquireTimeoutMs", 1000L);
+        ReflectionTestUtils.setField(config, "maxIdleSeconds", 30L);
+        ReflectionTestUtils.setField(config, "connectTimeoutMs", 1000);
+        ReflectionTestUtils.setField(config, "responseTimeoutMs", responseTimeoutMs);
+        return config.paystackWebClient();
+    }
+
+    private ExternalAPIServiceImpl client(String url, long responseTimeoutMs, int maxConcurrentCalls, long openDurationMs) {
+        return new ExternalAPIServiceImpl(webClient(responseTimeoutMs), new SimpleMeterRegistry(), "sk_test_secret", url,
+                stub.refundUrl(), maxConcurrentCalls, 2, 10, 4, 50, openDurationMs);
+    }
+
+    private ExternalAPIServiceImpl client() {
+        return client(stub.initializeUrl(), 2000, 50, 30_000);
+    }
+
+    private static Throwable failure(CompletableFuture<?> future) {
+        ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(10, TimeUnit.SECONDS));
+        return e.getCause();
+    }
+
+    @Test
+    @DisplayName("Should return the authorization URL, access code and reference")
+    void initialize_ReturnsTransaction() throws Exception {
+        PaystackTransaction transaction = client().createPaystackTransaction(REQUEST).get(5, TimeUnit.SECONDS);
+
+        assertTrue(transaction.status());
+        assertEquals("STUB-1", transaction.data().reference());
+        assertEquals("ACCESS-1", transaction.data().accessCode());
+        assertEquals("https://checkout.paystack.com/STUB-1", transaction.data().authorizationUrl());
+    }
+
+    @Test
+    @DisplayName("Should refund the transaction with the given reference")
+    void refund_SendsTransactionReference() throws Exception {
+        PaystackRefund refund = client().refundPaystackTransaction("STUB-7").get(5, TimeUnit.SECONDS);
+
+        assertTrue(refund.status());
+        assertEquals(List.of("{\"transaction\":\"STUB-7\"}"), stub.refunds());
+    }
+
+    @Test
+    @DisplayName("Should give up once the response timeout passes")
+    void slowPaystack_TimesOut() {
+        stub.latency(Duration.ofSeconds(5));
+
+        Throwable failure = failure(client(stub.initializeUrl(), 300, 50, 30_000).createPaystackTransaction(REQUEST));
+
+        // the stub would have answered with a transaction, so any failure is the timeout's
+        assertInstanceOf(ServiceCommunicationException.class, failure);
+        assertTrue(failure.getMessage().startsWith("Could not reach Paystack"));
+        assertEquals(1, stub.requests());
+    }
+
+    @Test
+    @DisplayName("Should turn calls away at once when the bulkhead is full")
+    void bulkheadFull_RejectsImmediately() throws Exception {
+        stub.latency(Duration.ofMillis(500));
+        ExternalAPIServiceImpl client = client(stub.initializeUrl(), 2000, 2, 30_000);
+
+        List<CompletableFuture<PaystackTransaction>> calls = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            calls.add(client.createPaystackTransaction(REQUEST));
+        }
+
+        assertEquals(3, calls.stream().filter(CompletableFuture::isCompletedExceptionally).count());
+        assertNotNull(calls.get(0).get(5, TimeUnit.SECONDS));
+        assertNotNull(calls.get(1).get(5, TimeUnit.SECONDS));
+        assertNotNull(client.createPaystackTransaction(REQUEST).get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("Should stop calling a failing Paystack and resume once a trial call succeeds")
+    void failingPaystack_OpensAndClosesCircuit() throws Exception {
+        stub.failures(1.0, 503);
+        ExternalAPIServiceImpl client = client(stub.initializeUrl(), 2000, 50, 300);
+
+        for (int i = 0; i < 4; i++) {
+            assertInstanceOf(ServiceCommunicationException.class, failure(client.createPaystackTransaction(REQUEST)));
+        }
+        assertTrue(client.createPaystackTransaction(REQUEST).isCompletedExceptionally());
+        assertEquals(4, stub.requests());
+
+        stub.failures(0, 503);
+        Thread.sleep(400);
+        assertNotNull(client.createPaystackTransaction(REQUEST).get(5, TimeUnit.SECONDS));
+        assertNotNull(client.createPaystackTransaction(REQUEST).get(5, TimeUnit.SECONDS));
+        assertEquals(6, stub.requests());
+    }
+
+    @Test
+    @DisplayName("Should keep calling when Paystack rejects requests rather than failing")
+    void clientErrors_DoNotOpenCircuit() {
+        stub.failures(1.0, 400);
+        ExternalAPIServiceImpl client = client();
+
+        for (int i = 0; i < 10; i++) {
+            assertTrue(failure(client.createPaystackTransaction(REQUEST)).getMessage().contains("400"));
+        }
+        assertEquals(10, stub.requests());
+    }
+
+    @Test
+    @DisplayName("Should fail when Paystack can't be reached")
+    void unreachablePaystack_Fails() {
+        String url = stub.initializeUrl();
+        stub.close();
+
+        Throwable failure = failure(client(url, 2000, 50, 30_000).createPaystackTransaction(REQUEST));
+
+        assertInstanceOf(ServiceCommunicationException.class, failure);
+        assertTrue(failure.getMessage().startsWith("Could not reach Paystack"));
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.payment_service.integrations;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Stand-in for the Paystack transaction initialize and refund endpoints, for tests and local load runs. Every response
+ * can be delayed, a share of them by a longer tail latency, and a share can fail with a chosen status.
+ * Each request is handled on a thread of its own, so slow responses don't hold each other up.
+ * Run {@link #main} to serve it on a fixed port, e.g. with {@code PAYSTACK_URL} pointing at it.
+ */
+public class PaystackStubServer implements AutoCloseable {
+    private static final String INITIALIZE_PATH = "/transaction/initialize";
+    private static final String REFUND_PATH = "/refund";
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final AtomicInteger requests = new AtomicInteger();
+    private final List<String> refunds = new CopyOnWriteArrayList<>();
+
+    private volatile Duration latency = Duration.ZERO;
+    private volatile Duration tailLatency = Duration.ZERO;
+    private volatile double tailRate;
+    private volatile int failureStatus = 500;
+    private volatile double failureRate;
+
+    private PaystackStubServer(int port) throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", port), 1024);
+        server.setExecutor(executor);
+        server.createContext(INITIALIZE_PATH, this::initialize);
+        server.createContext(REFUND_PATH, this::refund);
+        server.start();
+    }
+
+    public static PaystackStubServer start() throws IOException {
+        return new PaystackStubServer(0);
+    }
+
+    public String initializeUrl() {
+        return "http://localhost:" + server.getAddress().getPort() + INITIALIZE_PATH;
+    }
+
+    public String refundUrl() {
+        return "http://localhost:" + server.getAddress().getPort() + REFUND_PATH;
+    }
+
+    public PaystackStubServer latency(Duration latency) {
+        this.latency = latency;
+        return this;
+    }
+
+    /**
+     * Delays {@code rate} of the responses by {@code tailLatency} instead of the usual latency.
+     */
+    public PaystackStubServer tailLatency(double rate, Duration tailLatency) {
+        this.tailRate = rate;
+        this.tailLatency = tailLatency;
+        return this;
+    }
+
+    public PaystackStubServer failures(double rate, int status) {
+        this.failureRate = rate;
+        this.failureStatus = status;
+        return this;
+    }
+
+    public int requests() {
+        return requests.get();
+    }
+
+    /**
+     * The bodies of the refund requests received, in order.
+     */
+    public List<String> refunds() {
+        return refunds;
+    }
+
+    private void initialize(HttpExchange exchange) throws IOException {
+        try (exchange; InputStream body = exchange.getRequestBody()) {
+            body.readAllBytes();
+            int number = requests.incrementAndGet();
+
+            String authorization = exchange.getRequestHeaders().getFirst("Authorization");
+            if (!"POST".equals(exchange.getRequestMethod()) || authorization == null || !authorization.startsWith("Bearer ")) {
+                respond(exchange, 401, "{\"status\":false,\"message\":\"Invalid key\"}");
+                return;
+            }
+
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            Thread.sleep(random.nextDouble() < tailRate ? tailLatency : latency);
+            if (random.nextDouble() < failureRate) {
+                respond(exchange, failureStatus, "{\"status\":false,\"message\":\"Stubbed failure\"}");
+                return;
+            }
+
+            String reference = "STUB-" + number;
+            respond(exchange, 200, """
+                    {"status":true,"message":"Authorization URL created","data":{"authorization_url":"https://checkout.paystack.com/%s","access_code":"%s","reference":"%s"}}
+                    """.formatted(reference, "ACCESS-" + number, reference));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void refund(HttpExchange exchange) throws IOException {
+        try (exchange; InputStream body = exchange.getRequestBody()) {
+            refunds.add(new String(body.readAllBytes(), StandardCharsets.UTF_8));
+            respond(exchange, 200, "{\"status\":true,\"message\":\"Refund has been queued for processing\"}");
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        } catch (IOException e) {
+            // the client gave up waiting
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    /**
+     * Serves the stub until stopped. Arguments: port, latency in ms, and optionally the tail rate and tail
+     * latency in ms.
+     */
+    public static void main(String[] args) throws IOException {
+        PaystackStubServer stub = new PaystackStubServer(args.length > 0 ? Integer.parseInt(args[0]) : 8099)
+                .latency(Duration.ofMillis(args.length > 1 ? Long.parseLong(args[1]) : 200));
+        if (args.length > 3) {
+            stub.tailLatency(Double.parseDouble(args[2]), Duration.ofMillis(Long.parseLong(args[3])));
+        }
+        System.out.println("Paystack stub listening on " + stub.initializeUrl());
+    }
+}
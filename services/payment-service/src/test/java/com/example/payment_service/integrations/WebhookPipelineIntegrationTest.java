@@ -0,0 +1,227 @@
+package com.example.payment_service.integrations;
+
+import com.example.common_libraries.config.JacksonConfig;
+import com.example.common_libraries.service.SqsBatchPublisher;
+import com.example.payment_service.models.OutboxMessage;
+import com.example.payment_service.models.PaymentRequestObject;
+import com.example.payment_service.models.Transaction;
+import com.example.payment_service.models.TransactionStatus;
+import com.example.payment_service.publisher.MessagePublisherImpl;
+import com.example.payment_service.repos.OutboxMessageRepository;
+import com.example.payment_service.repos.PaymentRequestObjectRepository;
+import com.example.payment_service.repos.TransactionRepository;
+import com.example.payment_service.services.OutboxServiceImpl;
+import com.example.payment_service.services.WebhookIdempotencyStore;
+import com.example.payment_service.services.WebhookService;
+import com.example.payment_service.services.WebhookServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs webhook batches through the pipeline against an in-memory database the way the SQS listener does:
+ * several consumers at once, every event delivered more than once, and a failed batch redelivered whole.
+ * {@code WebhookPipelineBenchmark} times the same run.
+ */
+@DataJpaTest(properties = {
+        "ACTIVE_PROFILE=test",
+        "sqs.payment-completed-event-queue-url=payment-completed",
+        "sqs.payment-status-queue=payment-status",
+        "sqs.webhook-event-queue=webhook-event"
+})
+@ContextConfiguration(classes = WebhookPipelineIntegrationTest.Config.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class WebhookPipelineIntegrationTest {
+    private static final int TRANSACTIONS = 1_000;
+    private static final int DELIVERIES_PER_EVENT = 3;
+    private static final int BATCH_SIZE = 10;
+    private static final int CONSUMERS = 8;
+
+    // Not a @Configuration, so the component scan of PaymentServiceApplication doesn't pick it up
+    @EnableJpaAuditing
+    @EntityScan(basePackageClasses = Transaction.class)
+    @EnableJpaRepositories(basePackageClasses = TransactionRepository.class)
+    @Import({WebhookServiceImpl.class, WebhookIdempotencyStore.class, MessagePublisherImpl.class, OutboxServiceImpl.class, JacksonConfig.class})
+    static class Config {
+    }
+
+    @MockitoBean
+    private SqsBatchPublisher sqsBatchPublisher;
+
+    @Autowired
+    private WebhookService webhookService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private PaymentRequestObjectRepository paymentRequestObjectRepository;
+
+    @Autowired
+    private OutboxMessageRepository outboxMessageRepository;
+
+    @Autowired
+    private MessagePublisherImpl messagePublisher;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final List<String> references = new ArrayList<>();
+
+    // The idempotency store outlives each test, so every test uses references of its own
+    private final String referencePrefix = "ref-" + UUID.randomUUID() + "-";
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < TRANSACTIONS; i++) {
+            String reference = referencePrefix + i;
+            Transaction transaction = transactionRepository.save(Transaction.builder()
+                    .accessToken("access-" + i)
+                    .reference(reference)
+                    .authorizationUrl("https://checkout.paystack.com/" + i)
+                    .email("attendee" + i + "@example.com")
+                    .amount(new BigDecimal("150.00"))
+                    .status(TransactionStatus.PENDING)
+                    .build());
+            paymentRequestObjectRepository.save(PaymentRequestObject.builder()
+                    .transaction(transaction)
+                    .email(transaction.getEmail())
+                    .fullName("Attendee " + i)
+                    .amount(75.0)
+                    .numberOfTickets(2L)
+                    .ticketTypeId(3L)
+                    .reservationId((long) i)
+                    .eventId(7L)
+                    .eventTitle("Accra Tech Meetup")
+                    .startDate(Instant.parse("2026-11-01T18:00:00Z"))
+                    .build());
+            references.add(reference);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        outboxMessageRepository.deleteAll();
+        paymentRequestObjectRepository.deleteAll();
+        transactionRepository.deleteAll();
+    }
+
+    private String webhook(String event, String reference) {
+        return """
+                {"event":"%s","data":{"id":1,"status":"success","reference":"%s","amount":15000,"channel":"card","currency":"GHS"}}
+                """.formatted(event, reference);
+    }
+
+    private Map<String, Long> outboxMessagesPerQueue() {
+        return outboxMessageRepository.findAll().stream()
+                .collect(Collectors.groupingBy(OutboxMessage::getQueueUrl, Collectors.counting()));
+    }
+
+    @Test
+    @DisplayName("Should apply each event once when every event is delivered three times to concurrent consumers")
+    void duplicateDeliveries_AppliedExactlyOnce() throws Exception {
+        List<String> deliveries = new ArrayList<>();
+        for (String reference : references) {
+            for (int i = 0; i < DELIVERIES_PER_EVENT; i++) {
+                deliveries.add(webhook("charge.success", reference));
+            }
+        }
+        Collections.shuffle(deliveries, new Random(42));
+
+        List<List<String>> batches = new ArrayList<>();
+        for (int i = 0; i < deliveries.size(); i += BATCH_SIZE) {
+            batches.add(deliveries.subList(i, Math.min(i + BATCH_SIZE, deliveries.size())));
+        }
+
+        ExecutorService consumers = Executors.newFixedThreadPool(CONSUMERS);
+        List<Future<?>> results = new ArrayList<>();
+        for (List<String> batch : batches) {
+            results.add(consumers.submit(() -> {
+                // SQS redelivers a batch whose listener failed, e.g. on a lock timeout
+                for (int attempt = 0; ; attempt++) {
+                    try {
+                        webhookService.handleWebhooks(batch);
+                        return;
+                    } catch (DataAccessException e) {
+                        if (attempt == 5) {
+                            throw e;
+                        }
+                    }
+                }
+            }));
+        }
+        for (Future<?> result : results) {
+            result.get(2, TimeUnit.MINUTES);
+        }
+        consumers.shutdown();
+
+        assertTrue(transactionRepository.findAll().stream().allMatch(t -> t.getStatus() == TransactionStatus.SUCCESS));
+        assertEquals(Map.of("payment-status", (long) TRANSACTIONS, "payment-completed", (long) TRANSACTIONS), outboxMessagesPerQueue());
+        assertEquals(TRANSACTIONS, outboxMessageRepository.findAll().stream()
+                .filter(m -> m.getQueueUrl().equals("payment-status"))
+                .map(OutboxMessage::getAggregateKey)
+                .distinct()
+                .count());
+    }
+
+    @Test
+    @DisplayName("Should not apply an event again when the idempotency store has forgotten it")
+    void redeliveryAfterStoreLoss_NoSecondEffect() {
+        List<String> batch = List.of(webhook("charge.success", referencePrefix + 1), webhook("charge.failed", referencePrefix + 2));
+        webhookService.handleWebhooks(batch);
+
+        // A second instance, which has never seen these events, only has the database to go by
+        WebhookServiceImpl otherInstance = new WebhookServiceImpl(transactionRepository, messagePublisher,
+                new WebhookIdempotencyStore(new StaticListableBeanFactory().getBeanProvider(StringRedisTemplate.class), 1, 100), objectMapper);
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> otherInstance.handleWebhooks(batch));
+
+        assertEquals(TransactionStatus.SUCCESS, transactionRepository.findByReference(referencePrefix + 1).orElseThrow().getStatus());
+        assertEquals(TransactionStatus.FAILED, transactionRepository.findByReference(referencePrefix + 2).orElseThrow().getStatus());
+        assertEquals(Map.of("payment-status", 2L, "payment-completed", 1L), outboxMessagesPerQueue());
+    }
+
+    @Test
+    @DisplayName("Should skip malformed webhooks and unknown references without failing the batch")
+    void malformedAndUnknownWebhooks_Skipped() {
+        webhookService.handleWebhooks(List.of("not json", webhook("charge.success", "missing"), webhook("charge.success", referencePrefix + 3)));
+
+        assertEquals(TransactionStatus.SUCCESS, transactionRepository.findByReference(referencePrefix + 3).orElseThrow().getStatus());
+        assertEquals(Map.of("payment-status", 1L, "payment-completed", 1L), outboxMessagesPerQueue());
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.payment_service.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.HexFormat;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PaystackSignatureVerifierTest {
+    private static final String SECRET = "sk_test_secret";
+
+    private PaystackSignatureVerifier verifier;
+
+    @BeforeEach
+    void setUp() {
+        verifier = new PaystackSignatureVerifier(SECRET);
+    }
+
+    private static String sign(byte[] body) throws Exception {
+        Mac mac = Mac.getInstance("HmacSHA512");
+        mac.init(new SecretKeySpec(SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA512"));
+        return HexFormat.of().formatHex(mac.doFinal(body));
+    }
+
+    private static byte[] body(String reference) {
+        return ("{\"event\":\"charge.success\",\"data\":{\"reference\":\"" + reference + "\"}}").getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    @DisplayName("Should accept the signature Paystack computes, in either hex case")
+    void validSignature_Accepted() throws Exception {
+        byte[] body = body("ref-1");
+        String signature = sign(body);
+
+        assertTrue(verifier.verify(body, signature));
+        assertTrue(verifier.verify(body, signature.toUpperCase()));
+    }
+
+    @Test
+    @DisplayName("Should reject a signature for another body or made with another secret")
+    void wrongSignature_Rejected() throws Exception {
+        assertFalse(verifier.verify(body("ref-1"), sign(body("ref-2"))));
+        assertFalse(new PaystackSignatureVerifier("another_secret").verify(body("ref-1"), sign(body("ref-1"))));
+    }
+
+    @Test
+    @DisplayName("Should reject missing, truncated and non-hex signatures")
+    void malformedSignature_Rejected() throws Exception {
+        byte[] body = body("ref-1");
+        String signature = sign(body);
+
+        assertFalse(verifier.verify(body, null));
+        assertFalse(verifier.verify(body, ""));
+        assertFalse(verifier.verify(body, signature.substring(2)));
+        assertFalse(verifier.verify(body, signature + "00"));
+        assertFalse(verifier.verify(body, "zz" + signature.substring(2)));
+    }
+
+    @Test
+    @DisplayName("Should give the same answers when threads verify at the same time")
+    void concurrentVerification_Consistent() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            byte[] body = body("ref-" + i);
+            String signature = i % 2 == 0 ? sign(body) : sign(body("other-" + i));
+            results.add(executor.submit(() -> verifier.verify(body, signature)));
+        }
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals(i % 2 == 0, results.get(i).get());
+        }
+        executor.shutdown();
+    }
+}
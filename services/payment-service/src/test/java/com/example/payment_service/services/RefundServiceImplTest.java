@@ -0,0 +1,118 @@
+package com.example.payment_service.services;
+
+import com.example.common_libraries.dto.queue_events.RefundDueEvent;
+import com.example.common_libraries.exception.ServiceCommunicationException;
+import com.example.payment_service.dto.PaystackRefund;
+import com.example.payment_service.models.Transaction;
+import com.example.payment_service.models.TransactionStatus;
+import com.example.payment_service.repos.TransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class RefundServiceImplTest {
+    private static final String REFERENCE = "ref-42";
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private ExternalAPIService externalAPIService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @InjectMocks
+    private RefundServiceImpl refundService;
+
+    private final RefundDueEvent refundDueEvent = RefundDueEvent.builder()
+            .transactionReference(REFERENCE)
+            .email("buyer@example.com")
+            .amount(new BigDecimal("150.00"))
+            .timestamp(Instant.now())
+            .build();
+
+    @BeforeEach
+    void setup() {
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(transactionRepository.transition(eq(REFERENCE), any(), any(), any())).thenReturn(1);
+    }
+
+    private void transactionIn(TransactionStatus status) {
+        when(transactionRepository.findByReference(REFERENCE)).thenReturn(Optional.of(Transaction.builder()
+                .reference(REFERENCE)
+                .status(status)
+                .build()));
+    }
+
+    @Test
+    @DisplayName("Should refund a successful payment and mark it refunded")
+    void successfulPayment_IsRefunded() {
+        transactionIn(TransactionStatus.SUCCESS);
+        when(externalAPIService.refundPaystackTransaction(REFERENCE))
+                .thenReturn(CompletableFuture.completedFuture(new PaystackRefund(true, "Refund has been queued for processing")));
+
+        refundService.refund(refundDueEvent);
+
+        verify(transactionRepository).transition(eq(REFERENCE), eq(TransactionStatus.SUCCESS), eq(TransactionStatus.REFUND_PENDING), any());
+        verify(externalAPIService).refundPaystackTransaction(REFERENCE);
+        verify(transactionRepository).transition(eq(REFERENCE), eq(TransactionStatus.REFUND_PENDING), eq(TransactionStatus.REFUNDED), any());
+    }
+
+    @Test
+    @DisplayName("Should leave the transaction pending and fail when Paystack doesn't accept the refund")
+    void failedRefund_StaysPending() {
+        transactionIn(TransactionStatus.SUCCESS);
+        when(externalAPIService.refundPaystackTransaction(REFERENCE))
+                .thenReturn(CompletableFuture.failedFuture(new ServiceCommunicationException("Paystack responded with status 503")));
+
+        assertThrows(ServiceCommunicationException.class, () -> refundService.refund(refundDueEvent));
+
+        verify(transactionRepository, never()).transition(anyString(), eq(TransactionStatus.REFUND_PENDING), eq(TransactionStatus.REFUNDED), any());
+    }
+
+    @Test
+    @DisplayName("Should retry the refund of a transaction still pending refund")
+    void pendingRefund_IsRetried() {
+        transactionIn(TransactionStatus.REFUND_PENDING);
+        when(externalAPIService.refundPaystackTransaction(REFERENCE))
+                .thenReturn(CompletableFuture.completedFuture(new PaystackRefund(true, "Refund has been queued for processing")));
+
+        refundService.refund(refundDueEvent);
+
+        verify(externalAPIService).refundPaystackTransaction(REFERENCE);
+        verify(transactionRepository).transition(eq(REFERENCE), eq(TransactionStatus.REFUND_PENDING), eq(TransactionStatus.REFUNDED), any());
+    }
+
+    @Test
+    @DisplayName("Should not refund a transaction twice")
+    void refundedTransaction_IsNotRefundedAgain() {
+        transactionIn(TransactionStatus.REFUNDED);
+
+        refundService.refund(refundDueEvent);
+
+        verifyNoInteractions(externalAPIService);
+    }
+}